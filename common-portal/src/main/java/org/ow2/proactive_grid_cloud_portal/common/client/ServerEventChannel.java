@@ -0,0 +1,111 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.common.client;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+
+/**
+ * Thin wrapper around the browser's native EventSource,
+ * used to receive the events pushed by the ServerEventServlet.
+ * <p>
+ * The events only tell that something changed on the server,
+ * the controllers still fetch the new data through the RPC services.
+ */
+public class ServerEventChannel {
+
+    public interface Listener {
+
+        /** the connection is (re)established */
+        void onOpen();
+
+        /** an event named {@code name} was received */
+        void onEvent(String name, String data);
+
+        /** the connection was lost, the browser may reconnect on its own */
+        void onError();
+    }
+
+    private JavaScriptObject source;
+
+    /**
+     * @return true if the browser supports Server-Sent Events
+     */
+    public static native boolean isSupported() /*-{
+                                               return typeof $wnd.EventSource !== "undefined";
+                                               }-*/;
+
+    /**
+     * Open the channel, closing the previous one if any
+     * 
+     * @param url the events url
+     * @param events names of the events to listen to
+     * @param listener notified of the connection state and of the received events
+     */
+    public void open(String url, String[] events, Listener listener) {
+        close();
+        source = create(url, listener);
+        for (String event : events) {
+            addListener(source, event, listener);
+        }
+    }
+
+    /**
+     * Close the channel, the browser will not try to reconnect
+     */
+    public void close() {
+        if (source != null) {
+            close(source);
+            source = null;
+        }
+    }
+
+    public boolean isOpen() {
+        return source != null;
+    }
+
+    private static native JavaScriptObject create(String url, Listener listener) /*-{
+                                                                                 var source = new $wnd.EventSource(url);
+                                                                                 source.onopen = $entry(function() {
+                                                                                 listener.@org.ow2.proactive_grid_cloud_portal.common.client.ServerEventChannel.Listener::onOpen()();
+                                                                                 });
+                                                                                 source.onerror = $entry(function() {
+                                                                                 listener.@org.ow2.proactive_grid_cloud_portal.common.client.ServerEventChannel.Listener::onError()();
+                                                                                 });
+                                                                                 return source;
+                                                                                 }-*/;
+
+    private static native void addListener(JavaScriptObject source, String event, Listener listener) /*-{
+                                                                                                     source.addEventListener(event, $entry(function(e) {
+                                                                                                     listener.@org.ow2.proactive_grid_cloud_portal.common.client.ServerEventChannel.Listener::onEvent(Ljava/lang/String;Ljava/lang/String;)(event, e.data);
+                                                                                                     }));
+                                                                                                     }-*/;
+
+    private static native void close(JavaScriptObject source) /*-{
+                                                              source.close();
+                                                              }-*/;
+
+}
@@ -27,6 +27,13 @@ package org.ow2.proactive_grid_cloud_portal.common.server;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
@@ -34,10 +41,16 @@ import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.core.Response;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.StatusLine;
+import org.apache.http.client.HttpResponseException;
 import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.HttpGet;
-import org.apache.http.impl.client.BasicResponseHandler;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.EntityUtils;
 import org.ow2.proactive.http.HttpClientBuilder;
 import org.ow2.proactive_grid_cloud_portal.common.shared.Config;
 import org.slf4j.Logger;
@@ -47,6 +60,12 @@ import org.slf4j.LoggerFactory;
 /**
  * Return the content of the motd.txt file,
  * of the reponse of the *.motd.url if defined
+ * <p>
+ * The MOTD is kept as the bytes to send during the refresh time of the configuration.
+ * Once expired, the current MOTD is still served while a background task fetches it
+ * again, so that the login page never waits for the MOTD host. The first requests wait
+ * a bounded time for the first MOTD, an empty MOTD being sent if it is not loaded yet.
+ * A MOTD that could not be fetched again is served until the next refresh.
  *
  * @author mschnoor
  */
@@ -57,55 +76,211 @@ public class MotdServlet extends HttpServlet {
 
     private static final String MOTD_FILE_NAME = "motd.txt";
 
-    private static long lastModified = 0L;
+    private static final byte[] SERVER_ERROR = "Server error".getBytes(StandardCharsets.UTF_8);
 
-    private static String fileContent = "";
+    private static final Motd NO_MOTD = new Motd(Response.Status.OK.getStatusCode(), new byte[0], 0);
+
+    /**
+     * Time in milliseconds after which connecting to the MOTD URL or waiting for its data fails
+     */
+    private static final int FETCH_TIMEOUT = 10000;
+
+    /**
+     * Maximum time in milliseconds a request waits for the first MOTD
+     */
+    private static final long FIRST_LOAD_WAIT = 2000;
+
+    private final RequestConfig requestConfig;
+
+    private final long firstLoadWait;
+
+    /**
+     * Runs the refresh of the MOTD, one at a time
+     */
+    private ExecutorService refresher;
+
+    /**
+     * The last refresh of the MOTD, guarded by this servlet
+     */
+    private Future<?> refresh;
+
+    /**
+     * Client fetching the MOTD URL, created once the configuration is loaded
+     */
+    private CloseableHttpClient httpClient;
+
+    private volatile Motd motd;
+
+    public MotdServlet() {
+        this(FETCH_TIMEOUT, FIRST_LOAD_WAIT);
+    }
+
+    MotdServlet(int fetchTimeout, long firstLoadWait) {
+        this.requestConfig = RequestConfig.custom()
+                                          .setConnectionRequestTimeout(fetchTimeout)
+                                          .setConnectTimeout(fetchTimeout)
+                                          .setSocketTimeout(fetchTimeout)
+                                          .build();
+        this.firstLoadWait = firstLoadWait;
+    }
+
+    @Override
+    public void init() {
+        refresher = Executors.newSingleThreadExecutor();
+    }
+
+    @Override
+    public void destroy() {
+        refresher.shutdownNow();
+        IOUtils.closeQuietly(httpClient);
+    }
 
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response) {
 
-        response.setContentType("text/html");
+        response.setContentType("text/html; charset=UTF-8");
+
+        try {
+            Motd current = getMotd();
+            response.setStatus(current.status);
+            response.setContentLength(current.body.length);
+            response.getOutputStream().write(current.body);
+        } catch (IOException e) {
+            LOGGER.debug("Failed to provide MOTD file", e);
+        }
+    }
+
+    /**
+     * @return the current MOTD, a refresh being started in the background if it has expired,
+     *         or an empty MOTD if the first one is not loaded after a bounded wait
+     */
+    Motd getMotd() {
+        Motd current = motd;
+        if (current == null) {
+            try {
+                refresh(null).get(firstLoadWait, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException | ExecutionException e) {
+                LOGGER.debug("MOTD not loaded yet", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            current = motd;
+            return current == null ? NO_MOTD : current;
+        }
+
+        if (System.currentTimeMillis() - current.time >= Config.get().getMotdRefreshTime()) {
+            refresh(current);
+        }
+        return current;
+    }
+
+    /**
+     * Starts loading the MOTD unless it is already being loaded
+     *
+     * @return the running load
+     */
+    private synchronized Future<?> refresh(Motd current) {
+        if (refresh == null || refresh.isDone()) {
+            refresh = refresher.submit(() -> {
+                motd = load(current);
+            });
+        }
+        return refresh;
+    }
+
+    private Motd load(Motd previous) {
+        String url = Config.get().getMotdUrl();
+
+        // no MOTD URL : use local file
+        if (url == null || url.trim().length() == 0) {
+            return read(new File(getServletContext().getRealPath(MOTD_FILE_NAME)), previous);
+        } else {
+            return fetch(url, previous);
+        }
+    }
+
+    private Motd read(File file, Motd previous) {
+        long lastModified = file.lastModified();
+        if (previous != null && previous.lastModified == lastModified) {
+            return new Motd(previous.status, previous.body, lastModified);
+        }
+        try {
+            return new Motd(Response.Status.OK.getStatusCode(), FileUtils.readFileToByteArray(file), lastModified);
+        } catch (IOException e) {
+            LOGGER.debug("Failed to read MOTD file", e);
+            return new Motd(Response.Status.OK.getStatusCode(), new byte[0], lastModified);
+        }
+    }
 
+    private Motd fetch(String url, Motd previous) {
         try {
-            String url = Config.get().getMotdUrl();
-
-            // no MOTD URL : use local file
-            if (url == null || url.trim().length() == 0) {
-
-                File f = new File(this.getServletContext().getRealPath(MOTD_FILE_NAME));
-                long ft = f.lastModified();
-                if (ft != lastModified) {
-                    lastModified = ft;
-                    try {
-                        fileContent = FileUtils.readFileToString(f);
-                    } catch (IOException e) {
-                        LOGGER.debug("Failed to read MOTD file", e);
-                        response.getWriter().write("");
-                        return;
+            HttpGet get = new HttpGet(url);
+            get.setConfig(requestConfig);
+            byte[] body = getHttpClient().execute(get, new ResponseHandler<byte[]>() {
+                @Override
+                public byte[] handleResponse(HttpResponse response) throws IOException {
+                    StatusLine status = response.getStatusLine();
+                    HttpEntity entity = response.getEntity();
+                    if (status.getStatusCode() >= 300) {
+                        EntityUtils.consume(entity);
+                        throw new HttpResponseException(status.getStatusCode(), status.getReasonPhrase());
                     }
+                    return entity == null ? new byte[0] : EntityUtils.toByteArray(entity);
                 }
-                response.getWriter().write(fileContent);
-
-            } else {
-                try (CloseableHttpClient httpclient = new HttpClientBuilder().allowAnyCertificate(Config.get()
-                                                                                                        .isHttpsAllowAnyCertificate())
-                                                                             .allowAnyHostname(Config.get()
-                                                                                                     .isHttpsAllowAnyHostname())
-                                                                             .build()) {
-                    HttpGet httpget = new HttpGet(url);
-
-                    ResponseHandler<String> responseHandler = new BasicResponseHandler();
-                    String responseBody = httpclient.execute(httpget, responseHandler);
-                    response.setStatus(Response.Status.OK.getStatusCode());
-                    response.getWriter().write(responseBody);
-                } catch (Exception e) {
-                    response.setStatus(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode());
-                    response.getWriter().write("Server error");
-                }
+            });
+            return new Motd(Response.Status.OK.getStatusCode(), body, 0);
+        } catch (Exception e) {
+            LOGGER.debug("Failed to fetch MOTD from " + url, e);
+            if (previous != null && previous.status == Response.Status.OK.getStatusCode()) {
+                return new Motd(previous.status, previous.body, 0);
             }
+            return new Motd(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode(), SERVER_ERROR, 0);
+        }
+    }
 
-        } catch (IOException e) {
-            LOGGER.debug("Failed to provide MOTD file", e);
+    private synchronized CloseableHttpClient getHttpClient() {
+        if (httpClient == null) {
+            httpClient = new HttpClientBuilder().allowAnyCertificate(Config.get().isHttpsAllowAnyCertificate())
+                                                .allowAnyHostname(Config.get().isHttpsAllowAnyHostname())
+                                                .useSystemProperties()
+                                                .build();
         }
+        return httpClient;
     }
+
+    /**
+     * Response sent for the MOTD, as encoded bytes
+     */
+    static final class Motd {
+
+        private final int status;
+
+        private final byte[] body;
+
+        /**
+         * Modification time of the MOTD file, 0 for a MOTD URL
+         */
+        private final long lastModified;
+
+        /**
+         * Time when the MOTD was loaded
+         */
+        private final long time = System.currentTimeMillis();
+
+        private Motd(int status, byte[] body, long lastModified) {
+            this.status = status;
+            this.body = body;
+            this.lastModified = lastModified;
+        }
+
+        int getStatus() {
+            return status;
+        }
+
+        String getBody() {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+
+    }
+
 }
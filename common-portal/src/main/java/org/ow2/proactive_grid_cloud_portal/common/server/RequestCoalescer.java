@@ -0,0 +1,188 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.common.server;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
+
+
+/**
+ * Shares a call to the REST server between the identical requests
+ * received while it is in flight.
+ * <p>
+ * The first caller for a key performs the call, the callers asking for
+ * the same key before it returns wait for its result or its failure
+ * instead of issuing their own request. Nothing is kept once the call
+ * is over: the next caller reaches the REST server again, see
+ * {@link SnapshotCache} to reuse a value during a period of time.
+ * <p>
+ * A failure may only concern the caller which performed the call, such as
+ * its session being rejected: the callers sharing the call can then be
+ * told to perform their own call instead of failing too.
+ *
+ * @param <K> type of the keys identifying the requests, including the caller rights
+ * @param <V> type of the results
+ */
+public class RequestCoalescer<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong calls = new AtomicLong();
+
+    private final AtomicLong sharedCalls = new AtomicLong();
+
+    private final AtomicLong retriedCalls = new AtomicLong();
+
+    /**
+     * Performs the given call, or waits for the result of the one already
+     * in flight for the same key.
+     *
+     * @param key the request identifier
+     * @param call reaches the REST server
+     * @return the result of the call
+     * @throws RestServerException the call failed with a REST server error
+     * @throws ServiceException the call failed for any other reason
+     */
+    public V execute(K key, Callable<? extends V> call) throws RestServerException, ServiceException {
+        return execute(key, call, failure -> false);
+    }
+
+    /**
+     * Performs the given call, or waits for the result of the one already
+     * in flight for the same key.
+     *
+     * @param key the request identifier
+     * @param call reaches the REST server
+     * @param ownFailure tells whether a failure of the call in flight only concerns
+     *            the caller which performed it, the given call being then performed
+     * @return the result of the call
+     * @throws RestServerException the call failed with a REST server error
+     * @throws ServiceException the call failed for any other reason
+     */
+    public V execute(K key, Callable<? extends V> call, Predicate<? super Exception> ownFailure)
+            throws RestServerException, ServiceException {
+        calls.incrementAndGet();
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            sharedCalls.incrementAndGet();
+            try {
+                return await(running);
+            } catch (RestServerException | ServiceException e) {
+                if (!ownFailure.test(e)) {
+                    throw e;
+                }
+                retriedCalls.incrementAndGet();
+                return call(call);
+            }
+        }
+
+        V value;
+        try {
+            value = call.call();
+        } catch (Throwable t) {
+            inFlight.remove(key, future);
+            future.completeExceptionally(t);
+            throw rethrow(t);
+        }
+        inFlight.remove(key, future);
+        future.complete(value);
+        return value;
+    }
+
+    private V call(Callable<? extends V> call) throws RestServerException, ServiceException {
+        try {
+            return call.call();
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    private V await(CompletableFuture<V> running) throws RestServerException, ServiceException {
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("Interrupted while waiting for a concurrent request", e);
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    private static ServiceException rethrow(Throwable cause) throws RestServerException, ServiceException {
+        if (cause instanceof RestServerException) {
+            throw (RestServerException) cause;
+        } else if (cause instanceof ServiceException) {
+            throw (ServiceException) cause;
+        } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new ServiceException(cause.getMessage(), cause);
+    }
+
+    /**
+     * @return number of requests received since the creation of the coalescer
+     */
+    public long calls() {
+        return calls.get();
+    }
+
+    /**
+     * @return number of requests served by a call already in flight
+     */
+    public long sharedCalls() {
+        return sharedCalls.get();
+    }
+
+    /**
+     * @return number of requests which performed their own call after the failure of the shared one
+     */
+    public long retriedCalls() {
+        return retriedCalls.get();
+    }
+
+    @Override
+    public String toString() {
+        long total = calls.get();
+        long shared = sharedCalls.get();
+        return String.format("requests: %d, shared: %d (%.1f%%), retried: %d",
+                             total,
+                             shared,
+                             total == 0 ? 0.0 : 100.0 * shared / total,
+                             retriedCalls.get());
+    }
+
+}
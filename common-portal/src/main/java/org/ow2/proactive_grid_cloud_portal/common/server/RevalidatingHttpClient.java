@@ -0,0 +1,300 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.common.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpStatus;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import com.google.common.io.ByteStreams;
+
+
+/**
+ * HTTP client keeping the bodies of the GET responses which carry an
+ * <code>ETag</code> or a <code>Last-Modified</code> header.
+ * <p>
+ * When the same resource is requested again, the stored validators are sent
+ * with <code>If-None-Match</code> and <code>If-Modified-Since</code>. If the
+ * server answers <code>304 Not Modified</code>, the stored body is returned
+ * to the caller as a <code>200 OK</code> response, so the REST client proxies
+ * do not have to know about the revalidation.
+ * <p>
+ * Responses are stored per URL and per value of the headers identifying
+ * the caller, such as the session. Bodies are read up to the maximum body
+ * size whatever their announced length, so that chunked responses are stored
+ * too. Other methods, byte range requests and responses larger than the
+ * maximum body size go through untouched.
+ */
+public class RevalidatingHttpClient extends CloseableHttpClient {
+
+    private final CloseableHttpClient delegate;
+
+    private final String[] keyHeaders;
+
+    private final long maximumBodySize;
+
+    private final Cache<String, StoredResponse> responses;
+
+    private final AtomicLong revalidations = new AtomicLong();
+
+    private final AtomicLong notModified = new AtomicLong();
+
+    /**
+     * @param delegate the client sending the requests
+     * @param maximumSize maximum number of bytes of the stored bodies
+     * @param maximumBodySize maximum number of bytes of a stored body
+     * @param keyHeaders request headers whose values are part of the key of a stored response
+     */
+    public RevalidatingHttpClient(CloseableHttpClient delegate, long maximumSize, long maximumBodySize,
+            String... keyHeaders) {
+        this.delegate = delegate;
+        this.keyHeaders = keyHeaders;
+        this.maximumBodySize = maximumBodySize;
+        Weigher<String, StoredResponse> weigher = RevalidatingHttpClient::weigh;
+        this.responses = CacheBuilder.newBuilder().maximumWeight(maximumSize).weigher(weigher).build();
+    }
+
+    @Override
+    protected CloseableHttpResponse doExecute(HttpHost target, HttpRequest request, HttpContext context)
+            throws IOException, ClientProtocolException {
+        if (!isRevalidable(request)) {
+            return delegate.execute(target, request, context);
+        }
+
+        String key = key(target, request);
+        StoredResponse stored = responses.getIfPresent(key);
+        if (stored != null) {
+            revalidations.incrementAndGet();
+            if (stored.etag != null) {
+                request.setHeader(HttpHeaders.IF_NONE_MATCH, stored.etag);
+            }
+            if (stored.lastModified != null) {
+                request.setHeader(HttpHeaders.IF_MODIFIED_SINCE, stored.lastModified);
+            }
+        }
+
+        CloseableHttpResponse response = delegate.execute(target, request, context);
+        int status = response.getStatusLine().getStatusCode();
+
+        if (status == HttpStatus.SC_NOT_MODIFIED && stored != null) {
+            notModified.incrementAndGet();
+            try {
+                EntityUtils.consume(response.getEntity());
+            } finally {
+                response.close();
+            }
+            return stored.toResponse();
+        }
+
+        if (status == HttpStatus.SC_OK && hasValidators(response)) {
+            byte[] body;
+            try {
+                body = readBody(response);
+            } catch (IOException | RuntimeException e) {
+                response.close();
+                throw e;
+            }
+            if (body != null) {
+                StoredResponse fresh;
+                try {
+                    fresh = new StoredResponse(response, body);
+                } finally {
+                    response.close();
+                }
+                responses.put(key, fresh);
+                return fresh.toResponse();
+            }
+        }
+
+        if (stored != null) {
+            responses.invalidate(key);
+        }
+        return response;
+    }
+
+    private static int weigh(String key, StoredResponse response) {
+        return key.length() + response.body.length;
+    }
+
+    private boolean isRevalidable(HttpRequest request) {
+        return "GET".equals(request.getRequestLine().getMethod()) && !request.containsHeader(HttpHeaders.RANGE) &&
+               !request.containsHeader(HttpHeaders.IF_NONE_MATCH) &&
+               !request.containsHeader(HttpHeaders.IF_MODIFIED_SINCE);
+    }
+
+    private boolean hasValidators(CloseableHttpResponse response) {
+        return (response.containsHeader(HttpHeaders.ETAG) || response.containsHeader(HttpHeaders.LAST_MODIFIED)) &&
+               response.getEntity() != null;
+    }
+
+    /**
+     * Reads the body of the response if it is not larger than the maximum body size.
+     * A larger body is left in the response, readable from its first byte.
+     *
+     * @return the body, or null if it is larger than the maximum body size
+     */
+    private byte[] readBody(CloseableHttpResponse response) throws IOException {
+        HttpEntity entity = response.getEntity();
+        if (entity.getContentLength() > maximumBodySize) {
+            return null;
+        }
+        InputStream content = entity.getContent();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        if (ByteStreams.copy(ByteStreams.limit(content, maximumBodySize + 1), buffer) <= maximumBodySize) {
+            return buffer.toByteArray();
+        }
+        InputStream replayed = new SequenceInputStream(new ByteArrayInputStream(buffer.toByteArray()), content);
+        InputStreamEntity largeEntity = new InputStreamEntity(replayed, entity.getContentLength());
+        largeEntity.setContentType(entity.getContentType());
+        largeEntity.setContentEncoding(entity.getContentEncoding());
+        largeEntity.setChunked(entity.isChunked());
+        response.setEntity(largeEntity);
+        return null;
+    }
+
+    private String key(HttpHost target, HttpRequest request) {
+        StringBuilder key = new StringBuilder(target.toURI()).append(request.getRequestLine().getUri());
+        for (String name : keyHeaders) {
+            Header header = request.getFirstHeader(name);
+            key.append('\n').append(header == null ? "" : header.getValue());
+        }
+        return key.toString();
+    }
+
+    /**
+     * @return number of responses stored
+     */
+    public long size() {
+        return responses.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("stored responses: %d, revalidations: %d, not modified: %d",
+                             responses.size(),
+                             revalidations.get(),
+                             notModified.get());
+    }
+
+    @Override
+    public void close() throws IOException {
+        responses.invalidateAll();
+        delegate.close();
+    }
+
+    @Override
+    @Deprecated
+    public HttpParams getParams() {
+        return delegate.getParams();
+    }
+
+    @Override
+    @Deprecated
+    public ClientConnectionManager getConnectionManager() {
+        return delegate.getConnectionManager();
+    }
+
+    private static final class StoredResponse {
+
+        private final ProtocolVersion protocolVersion;
+
+        private final Header[] headers;
+
+        private final byte[] body;
+
+        private final String etag;
+
+        private final String lastModified;
+
+        private StoredResponse(CloseableHttpResponse response, byte[] body) {
+            this.protocolVersion = response.getStatusLine().getProtocolVersion();
+            // the stored body is sent with a known length
+            this.headers = Arrays.stream(response.getAllHeaders())
+                                 .filter(header -> !HttpHeaders.TRANSFER_ENCODING.equalsIgnoreCase(header.getName()))
+                                 .toArray(Header[]::new);
+            this.body = body;
+            this.etag = headerValue(response, HttpHeaders.ETAG);
+            this.lastModified = headerValue(response, HttpHeaders.LAST_MODIFIED);
+        }
+
+        private static String headerValue(CloseableHttpResponse response, String name) {
+            Header header = response.getFirstHeader(name);
+            return header == null ? null : header.getValue();
+        }
+
+        private CloseableHttpResponse toResponse() {
+            StoredHttpResponse response = new StoredHttpResponse(protocolVersion);
+            response.setHeaders(headers);
+            ByteArrayEntity entity = new ByteArrayEntity(body);
+            Header contentType = response.getFirstHeader(HttpHeaders.CONTENT_TYPE);
+            if (contentType != null) {
+                entity.setContentType(contentType);
+            }
+            response.setEntity(entity);
+            return response;
+        }
+
+    }
+
+    private static final class StoredHttpResponse extends BasicHttpResponse implements CloseableHttpResponse {
+
+        private StoredHttpResponse(ProtocolVersion protocolVersion) {
+            super(protocolVersion, HttpStatus.SC_OK, "OK");
+        }
+
+        @Override
+        public void close() {
+            // the body is held in memory
+        }
+
+    }
+
+}
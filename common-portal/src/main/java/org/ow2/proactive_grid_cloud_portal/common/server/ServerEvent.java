@@ -0,0 +1,75 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.common.server;
+
+/**
+ * A change notified to the browsers connected to the {@link ServerEventServlet}.
+ * <p>
+ * Events only tell that something changed, such as the new revision
+ * of the scheduler state: browsers then fetch what they display
+ * through the usual RPC calls made with their own session.
+ */
+public class ServerEvent {
+
+    private final String name;
+
+    private final String data;
+
+    /**
+     * @param name type of the event, the browsers register a listener per type
+     * @param data content of the event
+     */
+    public ServerEvent(String name, String data) {
+        this.name = name;
+        this.data = data;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getData() {
+        return data;
+    }
+
+    /**
+     * @return the event formatted as a message of a <code>text/event-stream</code> response
+     */
+    public String format() {
+        StringBuilder message = new StringBuilder();
+        message.append("event: ").append(name).append('\n');
+        for (String line : data.split("\r\n|\r|\n", -1)) {
+            message.append("data: ").append(line).append('\n');
+        }
+        return message.append('\n').toString();
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + data;
+    }
+
+}
@@ -0,0 +1,225 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.common.server;
+
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.core.Response.Status;
+
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Periodically polls a {@link ServerEventSource} and sends the events
+ * it returns to all the connected clients.
+ * <p>
+ * The source is polled with the session of the most recently connected client.
+ * The session of each client is checked by the source before a message is sent
+ * to it, clients whose session is rejected by the REST server are disconnected.
+ * A comment is sent when no event happened for a while so that
+ * disconnected clients are detected and proxies keep the connections open.
+ */
+public class ServerEventBroadcaster {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ServerEventBroadcaster.class);
+
+    static final String KEEP_ALIVE = ": keep-alive\n\n";
+
+    /**
+     * Maximum period in milliseconds without any message sent to the clients
+     */
+    private static final long KEEP_ALIVE_PERIOD = 15000;
+
+    /**
+     * A connected browser
+     */
+    public interface Client {
+
+        String getSessionId();
+
+        /**
+         * @param message text to append to the event stream
+         * @return false if the message could not be sent, the client is then disconnected
+         */
+        boolean send(String message);
+
+        /**
+         * Ends the event stream.
+         */
+        void close();
+
+    }
+
+    private final ServerEventSource source;
+
+    private final Deque<Client> clients = new ConcurrentLinkedDeque<>();
+
+    private ScheduledExecutorService executor;
+
+    private long lastMessageTime = System.currentTimeMillis();
+
+    public ServerEventBroadcaster(ServerEventSource source) {
+        this.source = source;
+    }
+
+    /**
+     * @param period period in milliseconds between two polls of the source
+     */
+    public void start(long period) {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "server-events");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::poll, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops polling and disconnects all the clients.
+     */
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        for (Client client : clients) {
+            disconnect(client);
+        }
+    }
+
+    public ServerEventSource getSource() {
+        return source;
+    }
+
+    public void register(Client client) {
+        clients.addFirst(client);
+    }
+
+    public void unregister(Client client) {
+        clients.remove(client);
+    }
+
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    /**
+     * Polls the source once and sends the events to the clients.
+     */
+    void poll() {
+        try {
+            List<ServerEvent> events = pollSource();
+            if (events == null) {
+                return;
+            }
+
+            StringBuilder message = new StringBuilder();
+            for (ServerEvent event : events) {
+                message.append(event.format());
+            }
+            if (message.length() == 0 && System.currentTimeMillis() - lastMessageTime >= KEEP_ALIVE_PERIOD) {
+                message.append(KEEP_ALIVE);
+            }
+            if (message.length() > 0) {
+                broadcast(message.toString());
+            }
+        } catch (RuntimeException e) {
+            // keep polling, an exception would cancel the next executions
+            LOGGER.warn("Failed to broadcast server events", e);
+        }
+    }
+
+    /**
+     * @return the events, or null if the source could not be polled
+     */
+    private List<ServerEvent> pollSource() {
+        for (Client client : clients) {
+            try {
+                return source.poll(client.getSessionId());
+            } catch (RestServerException e) {
+                if (e.getStatus() != Status.UNAUTHORIZED.getStatusCode() &&
+                    e.getStatus() != Status.FORBIDDEN.getStatusCode()) {
+                    LOGGER.warn("Failed to poll server events: " + e.getMessage());
+                    return null;
+                }
+                LOGGER.debug("Session rejected while polling server events, disconnecting its client", e);
+                disconnect(client);
+            } catch (ServiceException e) {
+                LOGGER.warn("Failed to poll server events: " + e.getMessage());
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private void broadcast(String message) {
+        lastMessageTime = System.currentTimeMillis();
+        for (Client client : clients) {
+            if (isSessionValid(client) && !client.send(message)) {
+                disconnect(client);
+            }
+        }
+    }
+
+    /**
+     * @return true if the session of the client is valid, the client being disconnected
+     *         if its session is rejected
+     */
+    private boolean isSessionValid(Client client) {
+        try {
+            source.checkSession(client.getSessionId());
+            return true;
+        } catch (RestServerException e) {
+            if (e.getStatus() == Status.UNAUTHORIZED.getStatusCode() ||
+                e.getStatus() == Status.FORBIDDEN.getStatusCode()) {
+                LOGGER.debug("Session rejected while sending server events, disconnecting its client", e);
+                disconnect(client);
+            } else {
+                LOGGER.debug("Failed to check the session of a client, skipping it", e);
+            }
+        } catch (ServiceException e) {
+            LOGGER.debug("Failed to check the session of a client, skipping it", e);
+        }
+        return false;
+    }
+
+    private void disconnect(Client client) {
+        unregister(client);
+        try {
+            client.close();
+        } catch (RuntimeException e) {
+            LOGGER.debug("Failed to close event stream", e);
+        }
+    }
+
+}
@@ -0,0 +1,177 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.common.server;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.ow2.proactive_grid_cloud_portal.common.shared.Config;
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Pushes the changes detected by the {@link ServerEventSource} of the webapp
+ * to the connected browsers as Server-Sent Events.
+ * <p>
+ * The source is registered in the servlet context under {@link #EVENT_SOURCE_ATTRIBUTE}
+ * by the RPC service of the webapp. When it is not available, or when
+ * {@link Config#SERVER_EVENTS_PERIOD} is not positive, requests are answered
+ * with 503 and browsers keep polling.
+ * <p>
+ * Expects the session id of the browser as the <code>sessionId</code> request parameter.
+ */
+@SuppressWarnings("serial")
+public class ServerEventServlet extends HttpServlet {
+
+    public static final String EVENT_SOURCE_ATTRIBUTE = ServerEventSource.class.getName();
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ServerEventServlet.class);
+
+    private ServerEventBroadcaster broadcaster;
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        final ServerEventBroadcaster events = getBroadcaster();
+        if (events == null) {
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Server events are disabled");
+            return;
+        }
+
+        String sessionId = request.getParameter("sessionId");
+        try {
+            events.getSource().checkSession(sessionId);
+        } catch (RestServerException e) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, e.getMessage());
+            return;
+        } catch (ServiceException e) {
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, e.getMessage());
+            return;
+        }
+
+        response.setContentType("text/event-stream");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Cache-Control", "no-cache");
+
+        AsyncContext context = request.startAsync();
+        context.setTimeout(0);
+
+        final AsyncClient client = new AsyncClient(sessionId, context);
+        context.addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                events.unregister(client);
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                events.unregister(client);
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                events.unregister(client);
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+
+        // browsers wait for the same period before reconnecting after a failure
+        if (client.send("retry: " + Config.get().getServerEventsPeriod() + "\n\n")) {
+            events.register(client);
+        } else {
+            client.close();
+        }
+    }
+
+    private synchronized ServerEventBroadcaster getBroadcaster() {
+        if (broadcaster == null) {
+            ServerEventSource source = (ServerEventSource) getServletContext().getAttribute(EVENT_SOURCE_ATTRIBUTE);
+            if (source == null || Config.get().getServerEventsPeriod() <= 0) {
+                return null;
+            }
+            broadcaster = new ServerEventBroadcaster(source);
+            broadcaster.start(Config.get().getServerEventsPeriod());
+        }
+        return broadcaster;
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (broadcaster != null) {
+            broadcaster.stop();
+        }
+        super.destroy();
+    }
+
+    private static class AsyncClient implements ServerEventBroadcaster.Client {
+
+        private final String sessionId;
+
+        private final AsyncContext context;
+
+        AsyncClient(String sessionId, AsyncContext context) {
+            this.sessionId = sessionId;
+            this.context = context;
+        }
+
+        @Override
+        public String getSessionId() {
+            return sessionId;
+        }
+
+        @Override
+        public boolean send(String message) {
+            try {
+                PrintWriter writer = context.getResponse().getWriter();
+                writer.write(message);
+                writer.flush();
+                return !writer.checkError();
+            } catch (IOException | IllegalStateException e) {
+                LOGGER.debug("Failed to send server event", e);
+                return false;
+            }
+        }
+
+        @Override
+        public void close() {
+            context.complete();
+        }
+
+    }
+
+}
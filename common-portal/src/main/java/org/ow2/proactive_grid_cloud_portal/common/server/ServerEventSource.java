@@ -0,0 +1,61 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.common.server;
+
+import java.util.List;
+
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
+
+
+/**
+ * Detects the changes which are pushed to the browsers by the {@link ServerEventServlet}.
+ * <p>
+ * The REST server is only reached with the session of a connected browser,
+ * the implementations are polled periodically by a single thread
+ * whatever the number of connected browsers.
+ */
+public interface ServerEventSource {
+
+    /**
+     * Checks that a browser may receive events. Called before each message sent
+     * to each browser, a session found valid should be remembered for a while.
+     *
+     * @param sessionId session of the browser
+     * @throws RestServerException the session is not valid
+     * @throws ServiceException the session could not be checked
+     */
+    void checkSession(String sessionId) throws RestServerException, ServiceException;
+
+    /**
+     * @param sessionId session of a connected browser, used to reach the REST server
+     * @return the events which happened since the previous call, empty if nothing changed
+     * @throws RestServerException the session is not valid anymore
+     * @throws ServiceException the REST server could not be reached
+     */
+    List<ServerEvent> poll(String sessionId) throws RestServerException, ServiceException;
+
+}
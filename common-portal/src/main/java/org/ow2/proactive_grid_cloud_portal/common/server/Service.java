@@ -26,6 +26,11 @@
 package org.ow2.proactive_grid_cloud_portal.common.server;
 
 import java.io.File;
+import java.io.IOException;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 import org.ow2.proactive_grid_cloud_portal.common.shared.Config;
 import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
@@ -50,6 +55,12 @@ public abstract class Service extends RemoteServiceServlet {
 
     private static Service instance = null;
 
+    /**
+     * Slow calls of the service processed out of the servlet container threads,
+     * null to process all the calls in the container threads
+     */
+    protected SlowRpcCalls slowCalls;
+
     /**
      * @return current static Service instance, if it has been created
      * @throws IllegalStateException Service was not created
@@ -101,6 +112,16 @@ public abstract class Service extends RemoteServiceServlet {
     public abstract String createCredentials(String login, String pass, String ssh)
             throws RestServerException, ServiceException;
 
+    @Override
+    protected void service(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        if (slowCalls == null) {
+            super.service(request, response);
+        } else {
+            slowCalls.service(request, response, (req, resp) -> super.service(req, resp));
+        }
+    }
+
     @Override
     public void checkPermutationStrongName() {
         /*
@@ -0,0 +1,417 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.common.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.apache.commons.io.IOUtils;
+import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gwt.user.server.rpc.RPC;
+import com.google.gwt.user.server.rpc.RPCServletUtils;
+
+
+/**
+ * Processes the slow calls of a GWT-RPC servlet out of the servlet container threads.
+ * <p>
+ * The payload of each POST is read in the container thread to find the called method.
+ * When it is one of the slow methods, the request is put in asynchronous mode and the
+ * call is processed by a bounded pool, so that a few dozens of calls waiting for the
+ * REST server do not exhaust the threads of the container serving all the other calls.
+ * The other calls are processed right away in the container thread.
+ * <p>
+ * Slow calls beyond the queue of the pool are answered with 503. Slow calls not
+ * answered within the timeout fail with a {@link ServiceException}, whatever the
+ * call writes afterwards being discarded.
+ */
+public class SlowRpcCalls {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SlowRpcCalls.class);
+
+    /**
+     * Index of the method name in the fields of a GWT-RPC request: version, flags, size
+     * of the string table, then the strings of the table starting with the module base URL,
+     * the serialization policy strong name, the service interface and the method name.
+     */
+    private static final int METHOD_NAME_FIELD = 6;
+
+    /**
+     * Processing of a call by the servlet, once its payload has been read
+     */
+    public interface Call {
+
+        void process(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException;
+
+    }
+
+    private final Set<String> methods;
+
+    private final long timeout;
+
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicLong calls = new AtomicLong();
+
+    private final AtomicLong rejectedCalls = new AtomicLong();
+
+    private final AtomicLong timedOutCalls = new AtomicLong();
+
+    /**
+     * @param methods names of the slow methods of the service
+     * @param concurrency maximum number of slow calls processed at the same time
+     * @param queueSize maximum number of slow calls waiting to be processed
+     * @param timeout time in milliseconds after which a slow call fails
+     */
+    public SlowRpcCalls(Set<String> methods, int concurrency, int queueSize, long timeout) {
+        this.methods = methods;
+        this.timeout = timeout;
+        this.executor = new ThreadPoolExecutor(concurrency,
+                                               concurrency,
+                                               0,
+                                               TimeUnit.MILLISECONDS,
+                                               new ArrayBlockingQueue<Runnable>(queueSize));
+    }
+
+    /**
+     * Processes the call, in the current thread or in the pool if it is a slow call
+     */
+    public void service(HttpServletRequest request, HttpServletResponse response, Call call)
+            throws ServletException, IOException {
+        if (!"POST".equals(request.getMethod())) {
+            call.process(request, response);
+            return;
+        }
+
+        byte[] payload = IOUtils.toByteArray(request.getInputStream());
+        final HttpServletRequest replayedRequest = new ReplayedRequest(request, payload);
+        final String method = getMethodName(new String(payload, StandardCharsets.UTF_8));
+        if (method == null || !methods.contains(method)) {
+            call.process(replayedRequest, response);
+            return;
+        }
+
+        final AsyncContext context = request.startAsync(replayedRequest, response);
+        final TimedResponse timedResponse = new TimedResponse(response, context);
+        context.setTimeout(timeout);
+        context.addListener(new AsyncListener() {
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                if (timedResponse.timeOut(method)) {
+                    timedOutCalls.incrementAndGet();
+                }
+            }
+
+            @Override
+            public void onComplete(AsyncEvent event) {
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+        calls.incrementAndGet();
+        try {
+            executor.execute(() -> {
+                try {
+                    call.process(replayedRequest, timedResponse);
+                } catch (ServletException | IOException | RuntimeException e) {
+                    LOGGER.warn("Failed to process call of " + method, e);
+                } finally {
+                    timedResponse.complete();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCalls.incrementAndGet();
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Too many slow calls in progress");
+            timedResponse.complete();
+        }
+    }
+
+    /**
+     * @return the name of the method called by a GWT-RPC request, or null if it is not a GWT-RPC request
+     */
+    static String getMethodName(String payload) {
+        String[] fields = payload.split("\\|", METHOD_NAME_FIELD + 2);
+        return fields.length > METHOD_NAME_FIELD ? fields[METHOD_NAME_FIELD] : null;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String toString() {
+        return calls + " slow calls, " + rejectedCalls + " rejected, " + timedOutCalls + " timed out, " +
+               executor.getActiveCount() + " in progress, " + executor.getQueue().size() + " queued";
+    }
+
+    /**
+     * Request giving the payload already read from the original request
+     */
+    private static final class ReplayedRequest extends HttpServletRequestWrapper {
+
+        private final byte[] payload;
+
+        ReplayedRequest(HttpServletRequest request, byte[] payload) {
+            super(request);
+            this.payload = payload;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            final ByteArrayInputStream in = new ByteArrayInputStream(payload);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    // the whole payload is already available
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+            };
+        }
+
+    }
+
+    /**
+     * Response of a slow call, ignoring what the call writes once it has timed out.
+     * The response is completed either by the call or by its timeout, the first one
+     * holding the lock of the response.
+     */
+    private static final class TimedResponse extends HttpServletResponseWrapper {
+
+        private final AsyncContext context;
+
+        private boolean done;
+
+        TimedResponse(HttpServletResponse response, AsyncContext context) {
+            super(response);
+            this.context = context;
+        }
+
+        synchronized void complete() {
+            if (!done) {
+                done = true;
+                context.complete();
+            }
+        }
+
+        /**
+         * Answers the call with a failure unless it has already been answered
+         *
+         * @return whether the call has timed out
+         */
+        synchronized boolean timeOut(String method) {
+            if (done) {
+                return false;
+            }
+            done = true;
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            try {
+                if (!response.isCommitted()) {
+                    response.reset();
+                    String failure = RPC.encodeResponseForFailure(null,
+                                                                  new ServiceException("The call of " + method +
+                                                                                       " has timed out"));
+                    RPCServletUtils.writeResponse(context.getRequest().getServletContext(), response, failure, false);
+                }
+            } catch (Exception e) {
+                LOGGER.warn("Failed to answer the timed out call of " + method, e);
+            } finally {
+                context.complete();
+            }
+            return true;
+        }
+
+        private synchronized void checkNotDone() throws IOException {
+            if (done) {
+                throw new IOException("The call has already been answered");
+            }
+        }
+
+        @Override
+        public synchronized void setStatus(int sc) {
+            if (!done) {
+                super.setStatus(sc);
+            }
+        }
+
+        @Override
+        public synchronized void setHeader(String name, String value) {
+            if (!done) {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public synchronized void addHeader(String name, String value) {
+            if (!done) {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public synchronized void setContentType(String type) {
+            if (!done) {
+                super.setContentType(type);
+            }
+        }
+
+        @Override
+        public synchronized void setContentLength(int len) {
+            if (!done) {
+                super.setContentLength(len);
+            }
+        }
+
+        @Override
+        public synchronized void setCharacterEncoding(String charset) {
+            if (!done) {
+                super.setCharacterEncoding(charset);
+            }
+        }
+
+        @Override
+        public synchronized void reset() {
+            if (!done) {
+                super.reset();
+            }
+        }
+
+        @Override
+        public synchronized void sendError(int sc, String msg) throws IOException {
+            checkNotDone();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public synchronized void sendError(int sc) throws IOException {
+            checkNotDone();
+            super.sendError(sc);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            final ServletOutputStream out = super.getOutputStream();
+            return new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    synchronized (TimedResponse.this) {
+                        checkNotDone();
+                        out.write(b);
+                    }
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    synchronized (TimedResponse.this) {
+                        checkNotDone();
+                        out.write(b, off, len);
+                    }
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    synchronized (TimedResponse.this) {
+                        checkNotDone();
+                        out.flush();
+                    }
+                }
+
+                @Override
+                public boolean isReady() {
+                    return out.isReady();
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                    out.setWriteListener(writeListener);
+                }
+            };
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            return new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+        }
+
+    }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.common.server;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+
+/**
+ * Keeps the last value fetched from the REST server for a given key
+ * during a fixed period of time.
+ * <p>
+ * All the portal sessions asking for the same key during that period
+ * share the same snapshot: only the first caller after expiration
+ * reaches the REST server, concurrent callers wait for its result
+ * instead of issuing their own request.
+ *
+ * @param <K> type of the keys identifying the cached resources
+ * @param <V> type of the cached values
+ */
+public class SnapshotCache<K, V> {
+
+    private final Cache<K, V> cache;
+
+    /**
+     * @param timeToLive period in milliseconds during which a fetched value is reused
+     * @param maximumSize maximum number of keys kept in the cache
+     */
+    public SnapshotCache(long timeToLive, long maximumSize) {
+        this.cache = CacheBuilder.newBuilder()
+                                 .expireAfterWrite(timeToLive, TimeUnit.MILLISECONDS)
+                                 .maximumSize(maximumSize)
+                                 .recordStats()
+                                 .build();
+    }
+
+    /**
+     * Creates a cache with a custom eviction policy.
+     *
+     * @param builder configured builder of the underlying cache,
+     *                statistics are only available if it records them
+     */
+    public SnapshotCache(CacheBuilder<? super K, ? super V> builder) {
+        this.cache = builder.build();
+    }
+
+    /**
+     * Returns the current snapshot for the given key, or fetches it with the given loader
+     * if there is none or if it has expired.
+     *
+     * @param key the resource identifier
+     * @param loader fetches the resource from the REST server
+     * @return the shared snapshot
+     * @throws RestServerException the loader failed with a REST server error
+     * @throws ServiceException the loader failed for any other reason
+     */
+    public V get(K key, Callable<? extends V> loader) throws RestServerException, ServiceException {
+        try {
+            return cache.get(key, loader);
+        } catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RestServerException) {
+                throw (RestServerException) cause;
+            } else if (cause instanceof ServiceException) {
+                throw (ServiceException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ServiceException(cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * @param key the resource identifier
+     * @return the current snapshot for the given key, or null if there is none
+     */
+    public V getIfPresent(K key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Stores a value fetched outside of {@link #get(Object, Callable)}.
+     *
+     * @param key the resource identifier
+     * @param value the fetched value
+     */
+    public void put(K key, V value) {
+        cache.put(key, value);
+    }
+
+    /**
+     * Forces the next call to {@link #get(Object, Callable)} to reach the REST server.
+     *
+     * @param key the resource identifier
+     */
+    public void invalidate(K key) {
+        cache.invalidate(key);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * @return hit and miss counters since the creation of the cache
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+}
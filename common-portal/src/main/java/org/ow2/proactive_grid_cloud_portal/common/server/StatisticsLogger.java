@@ -0,0 +1,94 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.common.server;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Periodically logs the statistics of the caches and pools of a service,
+ * so that their efficiency can be followed while the portal runs.
+ * <p>
+ * The statistics are logged at debug level every period, then once at info
+ * level when the logger stops.
+ */
+public class StatisticsLogger {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StatisticsLogger.class);
+
+    private final Map<String, Supplier<?>> sources = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    private ScheduledExecutorService executor;
+
+    /**
+     * @param name label of the statistics in the log
+     * @param statistics returns the current statistics, logged with their {@link Object#toString()}
+     * @return this logger
+     */
+    public StatisticsLogger add(String name, Supplier<?> statistics) {
+        sources.put(name, statistics);
+        return this;
+    }
+
+    /**
+     * @param period period in milliseconds between two logs, 0 to only log when stopping
+     */
+    public void start(long period) {
+        if (period <= 0) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "statistics-logger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(() -> {
+            if (LOGGER.isDebugEnabled()) {
+                sources.forEach((name, statistics) -> LOGGER.debug(name + ": " + statistics.get()));
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the periodic log and logs the statistics a last time.
+     */
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        sources.forEach((name, statistics) -> LOGGER.info(name + ": " + statistics.get()));
+    }
+
+}
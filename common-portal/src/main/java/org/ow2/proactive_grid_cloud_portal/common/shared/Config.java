@@ -55,6 +55,31 @@ public abstract class Config {
 
     public static final String HTTPS_ALLOW_ANY_HOSTNAME = "web.https.allow_any_hostname";
 
+    /** period in millis between two checks of the changes pushed to the browsers, 0 to disable the push */
+    public static final String SERVER_EVENTS_PERIOD = "web.events.period";
+
+    private static final String DEFAULT_SERVER_EVENTS_PERIOD = "1000";
+
+    /** period in millis during which the MOTD is served without being fetched or read again */
+    public static final String MOTD_REFRESH_TIME = "web.motd.refresh.time";
+
+    private static final String DEFAULT_MOTD_REFRESH_TIME = "60000";
+
+    /** maximum number of slow RPC calls processed at the same time out of the servlet container threads */
+    public static final String SLOW_CALLS_CONCURRENCY = "web.slow.calls.concurrency";
+
+    private static final String DEFAULT_SLOW_CALLS_CONCURRENCY = "32";
+
+    /** time in millis after which a slow RPC call fails */
+    public static final String SLOW_CALLS_TIMEOUT = "web.slow.calls.timeout";
+
+    private static final String DEFAULT_SLOW_CALLS_TIMEOUT = "300000";
+
+    /** period in millis between two logs of the server statistics, 0 to only log them at shutdown */
+    public static final String STATISTICS_LOG_PERIOD = "web.statistics.log.period";
+
+    private static final String DEFAULT_STATISTICS_LOG_PERIOD = "600000";
+
     protected Config() {
         this.properties = new HashMap<String, String>();
         this.backup = new HashMap<String, String>();
@@ -115,6 +140,42 @@ public abstract class Config {
         return getBooleanValue(HTTPS_ALLOW_ANY_HOSTNAME, false);
     }
 
+    /**
+     * @return period in millis between two checks of the changes pushed to the browsers,
+     *         0 or less if the browsers must poll the server
+     */
+    public int getServerEventsPeriod() {
+        return Integer.parseInt(properties.get(SERVER_EVENTS_PERIOD));
+    }
+
+    /**
+     * @return period in millis during which the MOTD is served without being fetched or read again
+     */
+    public long getMotdRefreshTime() {
+        return Long.parseLong(properties.get(MOTD_REFRESH_TIME));
+    }
+
+    /**
+     * @return maximum number of slow RPC calls processed at the same time out of the servlet container threads
+     */
+    public int getSlowCallsConcurrency() {
+        return Integer.parseInt(properties.get(SLOW_CALLS_CONCURRENCY));
+    }
+
+    /**
+     * @return time in millis after which a slow RPC call fails
+     */
+    public long getSlowCallsTimeout() {
+        return Long.parseLong(properties.get(SLOW_CALLS_TIMEOUT));
+    }
+
+    /**
+     * @return period in millis between two logs of the server statistics, 0 to only log them at shutdown
+     */
+    public long getStatisticsLogPeriod() {
+        return Long.parseLong(properties.get(STATISTICS_LOG_PERIOD));
+    }
+
     private boolean getBooleanValue(String property, boolean defaultValue) {
         String value = this.properties.get(property);
 
@@ -196,6 +257,11 @@ public abstract class Config {
 
     private void setCommonDefaults() {
         properties.put(ABOUT, d_ABOUT);
+        properties.put(SERVER_EVENTS_PERIOD, DEFAULT_SERVER_EVENTS_PERIOD);
+        properties.put(MOTD_REFRESH_TIME, DEFAULT_MOTD_REFRESH_TIME);
+        properties.put(SLOW_CALLS_CONCURRENCY, DEFAULT_SLOW_CALLS_CONCURRENCY);
+        properties.put(SLOW_CALLS_TIMEOUT, DEFAULT_SLOW_CALLS_TIMEOUT);
+        properties.put(STATISTICS_LOG_PERIOD, DEFAULT_STATISTICS_LOG_PERIOD);
     }
 
     private static String getCurrentYear() {
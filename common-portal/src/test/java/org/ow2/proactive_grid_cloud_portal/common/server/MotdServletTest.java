@@ -0,0 +1,230 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.common.server;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ow2.proactive_grid_cloud_portal.common.shared.Config;
+
+import com.sun.net.httpserver.HttpServer;
+
+
+public class MotdServletTest {
+
+    private HttpServer server;
+
+    private MotdServlet servlet;
+
+    private MotdConfig config;
+
+    private volatile String message = "hello";
+
+    private volatile int status = 200;
+
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    private final CountDownLatch hungHost = new CountDownLatch(1);
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/motd", exchange -> {
+            fetches.incrementAndGet();
+            byte[] body = message.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/hung", exchange -> {
+            fetches.incrementAndGet();
+            try {
+                hungHost.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        config = new MotdConfig(url("/motd"));
+        servlet = new MotdServlet();
+        servlet.init();
+    }
+
+    @After
+    public void stopServer() {
+        hungHost.countDown();
+        servlet.destroy();
+        server.stop(0);
+    }
+
+    @Test
+    public void motd_is_fetched_once_per_refresh_time() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals("hello", servlet.getMotd().getBody());
+        }
+
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    public void expired_motd_is_served_while_refreshed() throws Exception {
+        config.set(Config.MOTD_REFRESH_TIME, "1");
+        servlet.getMotd();
+        message = "bye";
+        Thread.sleep(10);
+
+        assertEquals("hello", servlet.getMotd().getBody());
+        waitForFetches(2);
+        Thread.sleep(10);
+        config.set(Config.MOTD_REFRESH_TIME, "60000");
+
+        assertEquals("bye", servlet.getMotd().getBody());
+    }
+
+    @Test
+    public void previous_motd_is_kept_when_refresh_fails() throws Exception {
+        config.set(Config.MOTD_REFRESH_TIME, "1");
+        servlet.getMotd();
+        status = 500;
+        Thread.sleep(10);
+
+        servlet.getMotd();
+        waitForFetches(2);
+        Thread.sleep(10);
+        config.set(Config.MOTD_REFRESH_TIME, "60000");
+
+        assertEquals(200, servlet.getMotd().getStatus());
+        assertEquals("hello", servlet.getMotd().getBody());
+    }
+
+    @Test
+    public void first_failure_is_a_server_error() {
+        status = 500;
+
+        assertEquals(500, servlet.getMotd().getStatus());
+        assertEquals("Server error", servlet.getMotd().getBody());
+    }
+
+    @Test
+    public void first_requests_do_not_wait_for_a_hung_host() {
+        servlet.destroy();
+        servlet = new MotdServlet(60000, 10);
+        servlet.init();
+        config = new MotdConfig(url("/hung"));
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, servlet.getMotd().getStatus());
+            assertEquals("", servlet.getMotd().getBody());
+        }
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    public void hung_host_is_given_up() throws Exception {
+        servlet.destroy();
+        servlet = new MotdServlet(100, 60000);
+        servlet.init();
+        config = new MotdConfig(url("/hung"));
+
+        assertEquals(500, servlet.getMotd().getStatus());
+
+        config = new MotdConfig(url("/motd"));
+        config.set(Config.MOTD_REFRESH_TIME, "0");
+        servlet.getMotd();
+        waitForFetches(2);
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + server.getAddress().getPort() + path;
+    }
+
+    private void waitForFetches(int count) throws InterruptedException {
+        for (int i = 0; i < 500 && fetches.get() < count; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, fetches.get());
+    }
+
+    private static final class MotdConfig extends Config {
+
+        private final String motdUrl;
+
+        private MotdConfig(String motdUrl) {
+            this.motdUrl = motdUrl;
+        }
+
+        @Override
+        public String getRestUrl() {
+            return null;
+        }
+
+        @Override
+        protected String getRestPublicUrlIfDefinedOrOverridden() {
+            return null;
+        }
+
+        @Override
+        public String getRestVersion() {
+            return null;
+        }
+
+        @Override
+        public String getApplicationVersion() {
+            return null;
+        }
+
+        @Override
+        public String getApplicationName() {
+            return null;
+        }
+
+        @Override
+        public String getVersion() {
+            return null;
+        }
+
+        @Override
+        public String getMotdUrl() {
+            return motdUrl;
+        }
+
+    }
+
+}
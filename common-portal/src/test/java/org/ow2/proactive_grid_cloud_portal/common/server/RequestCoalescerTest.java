@@ -0,0 +1,166 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.common.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+
+
+public class RequestCoalescerTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final RequestCoalescer<String, String> coalescer = new RequestCoalescer<>();
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void awaitSharedCalls(long count) throws InterruptedException {
+        while (coalescer.sharedCalls() < count) {
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    public void concurrent_requests_share_the_call() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger fetches = new AtomicInteger();
+
+        Future<String> first = executor.submit(() -> coalescer.execute("job/1", () -> {
+            fetches.incrementAndGet();
+            started.countDown();
+            release.await();
+            return "RUNNING";
+        }));
+        started.await();
+        Future<String> second = executor.submit(() -> coalescer.execute("job/1", () -> "" + fetches.incrementAndGet()));
+        awaitSharedCalls(1);
+        release.countDown();
+
+        assertEquals("RUNNING", first.get(10, TimeUnit.SECONDS));
+        assertEquals("RUNNING", second.get(10, TimeUnit.SECONDS));
+        assertEquals(1, fetches.get());
+        assertEquals(2, coalescer.calls());
+    }
+
+    @Test
+    public void failure_is_rethrown_to_the_waiting_requests() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> first = executor.submit(() -> coalescer.execute("job/1", () -> {
+            started.countDown();
+            release.await();
+            throw new RestServerException(404, "unknown job");
+        }));
+        started.await();
+        Future<String> second = executor.submit(() -> coalescer.execute("job/1", () -> "RUNNING"));
+        awaitSharedCalls(1);
+        release.countDown();
+
+        for (Future<String> request : Arrays.asList(first, second)) {
+            try {
+                request.get(10, TimeUnit.SECONDS);
+                fail("exception expected");
+            } catch (ExecutionException e) {
+                assertEquals(404, ((RestServerException) e.getCause()).getStatus());
+            }
+        }
+    }
+
+    @Test
+    public void request_performs_its_own_call_when_the_failure_only_concerns_the_shared_call() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> first = executor.submit(() -> coalescer.execute("job/1", () -> {
+            started.countDown();
+            release.await();
+            throw new RestServerException(401, "session expired");
+        }));
+        started.await();
+        Future<String> second = executor.submit(() -> coalescer.execute("job/1",
+                                                                         () -> "RUNNING",
+                                                                         e -> e instanceof RestServerException &&
+                                                                              ((RestServerException) e).getStatus() == 401));
+        awaitSharedCalls(1);
+        release.countDown();
+
+        try {
+            first.get(10, TimeUnit.SECONDS);
+            fail("exception expected");
+        } catch (ExecutionException e) {
+            assertEquals(401, ((RestServerException) e.getCause()).getStatus());
+        }
+        assertEquals("RUNNING", second.get(10, TimeUnit.SECONDS));
+        assertEquals(1, coalescer.retriedCalls());
+    }
+
+    @Test
+    public void sequential_requests_are_not_shared() throws Exception {
+        AtomicInteger fetches = new AtomicInteger();
+
+        coalescer.execute("job/1", () -> "" + fetches.incrementAndGet());
+
+        assertEquals("2", coalescer.execute("job/1", () -> "" + fetches.incrementAndGet()));
+        assertEquals(0, coalescer.sharedCalls());
+    }
+
+    @Test
+    public void different_keys_are_not_shared() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> first = executor.submit(() -> coalescer.execute("job/1", () -> {
+            started.countDown();
+            release.await();
+            return "RUNNING";
+        }));
+        started.await();
+
+        assertEquals("PENDING", coalescer.execute("job/2", () -> "PENDING"));
+        release.countDown();
+        assertEquals("RUNNING", first.get(10, TimeUnit.SECONDS));
+        assertEquals(0, coalescer.sharedCalls());
+    }
+
+}
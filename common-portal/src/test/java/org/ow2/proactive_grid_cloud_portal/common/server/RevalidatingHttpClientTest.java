@@ -0,0 +1,205 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.common.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+
+public class RevalidatingHttpClientTest {
+
+    private HttpServer server;
+
+    private RevalidatingHttpClient client;
+
+    private String base;
+
+    private volatile String version = "1";
+
+    private volatile String lastIfNoneMatch;
+
+    private final AtomicInteger notModified = new AtomicInteger();
+
+    private volatile String chunkedBody = "chunked";
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/etag", exchange -> {
+            String etag = "\"" + version + "\"";
+            lastIfNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            exchange.getResponseHeaders().add("ETag", etag);
+            if (etag.equals(lastIfNoneMatch)) {
+                notModified.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+            } else {
+                reply(exchange, "version " + version);
+            }
+        });
+        server.createContext("/plain", exchange -> {
+            lastIfNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            reply(exchange, "version " + version);
+        });
+        server.createContext("/chunked", exchange -> {
+            lastIfNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            exchange.getResponseHeaders().add("ETag", "\"1\"");
+            if ("\"1\"".equals(lastIfNoneMatch)) {
+                notModified.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            // a length of 0 sends the body in chunks
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(chunkedBody.getBytes(StandardCharsets.UTF_8));
+            }
+        });
+        server.start();
+        base = "http://localhost:" + server.getAddress().getPort();
+        client = new RevalidatingHttpClient(HttpClients.createDefault(), 1024 * 1024, 1024, "sessionid");
+    }
+
+    @After
+    public void stopServer() throws IOException {
+        client.close();
+        server.stop(0);
+    }
+
+    private static void reply(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private String get(String path, String sessionId) throws IOException {
+        HttpGet get = new HttpGet(base + path);
+        get.setHeader("sessionid", sessionId);
+        try (CloseableHttpResponse response = client.execute(get)) {
+            assertEquals(200, response.getStatusLine().getStatusCode());
+            return EntityUtils.toString(response.getEntity());
+        }
+    }
+
+    @Test
+    public void unchanged_resource_is_served_from_the_stored_body() throws Exception {
+        assertEquals("version 1", get("/etag", "s1"));
+        assertNull(lastIfNoneMatch);
+
+        assertEquals("version 1", get("/etag", "s1"));
+        assertEquals("\"1\"", lastIfNoneMatch);
+        assertEquals(1, notModified.get());
+    }
+
+    @Test
+    public void changed_resource_is_fetched_again() throws Exception {
+        get("/etag", "s1");
+        version = "2";
+
+        assertEquals("version 2", get("/etag", "s1"));
+        assertEquals(0, notModified.get());
+        assertEquals("version 2", get("/etag", "s1"));
+        assertEquals(1, notModified.get());
+    }
+
+    @Test
+    public void responses_are_stored_per_session() throws Exception {
+        get("/etag", "s1");
+        get("/etag", "s2");
+
+        assertNull(lastIfNoneMatch);
+        assertEquals(2, client.size());
+    }
+
+    @Test
+    public void responses_without_validators_are_not_stored() throws Exception {
+        get("/plain", "s1");
+        get("/plain", "s1");
+
+        assertNull(lastIfNoneMatch);
+        assertEquals(0, client.size());
+    }
+
+    @Test
+    public void chunked_response_is_stored() throws Exception {
+        assertEquals("chunked", get("/chunked", "s1"));
+
+        assertEquals("chunked", get("/chunked", "s1"));
+        assertEquals("\"1\"", lastIfNoneMatch);
+        assertEquals(1, notModified.get());
+    }
+
+    @Test
+    public void chunked_response_larger_than_the_maximum_body_size_goes_through() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            body.append(i % 10);
+        }
+        chunkedBody = body.toString();
+
+        assertEquals(chunkedBody, get("/chunked", "s1"));
+        assertEquals(0, client.size());
+    }
+
+    @Test
+    public void range_and_post_requests_go_through() throws Exception {
+        get("/etag", "s1");
+
+        HttpGet range = new HttpGet(base + "/etag");
+        range.setHeader("sessionid", "s1");
+        range.setHeader("Range", "bytes=0-3");
+        client.execute(range).close();
+        assertNull(lastIfNoneMatch);
+
+        HttpPost post = new HttpPost(base + "/etag");
+        post.setHeader("sessionid", "s1");
+        client.execute(post).close();
+        assertNull(lastIfNoneMatch);
+        assertEquals(0, notModified.get());
+    }
+
+}
@@ -0,0 +1,226 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.common.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+
+
+public class ServerEventBroadcasterTest {
+
+    @Test
+    public void events_are_sent_to_all_clients() {
+        RevisionSource source = new RevisionSource();
+        ServerEventBroadcaster broadcaster = new ServerEventBroadcaster(source);
+        FakeClient first = new FakeClient("s1");
+        FakeClient second = new FakeClient("s2");
+        broadcaster.register(first);
+        broadcaster.register(second);
+
+        broadcaster.poll();
+        source.revision = 2;
+        broadcaster.poll();
+
+        String expected = "event: revision\ndata: 1\n\nevent: revision\ndata: 2\n\n";
+        assertEquals(expected, first.received.toString());
+        assertEquals(expected, second.received.toString());
+    }
+
+    @Test
+    public void nothing_is_sent_without_changes() {
+        RevisionSource source = new RevisionSource();
+        ServerEventBroadcaster broadcaster = new ServerEventBroadcaster(source);
+        FakeClient client = new FakeClient("s1");
+        broadcaster.register(client);
+
+        broadcaster.poll();
+        broadcaster.poll();
+
+        assertEquals("event: revision\ndata: 1\n\n", client.received.toString());
+    }
+
+    @Test
+    public void source_is_polled_with_the_latest_session() {
+        RevisionSource source = new RevisionSource();
+        ServerEventBroadcaster broadcaster = new ServerEventBroadcaster(source);
+        broadcaster.register(new FakeClient("s1"));
+        broadcaster.register(new FakeClient("s2"));
+
+        broadcaster.poll();
+
+        assertEquals(Collections.singletonList("s2"), source.sessions);
+    }
+
+    @Test
+    public void rejected_session_disconnects_its_client() {
+        RevisionSource source = new RevisionSource();
+        source.rejected.add("s2");
+        ServerEventBroadcaster broadcaster = new ServerEventBroadcaster(source);
+        FakeClient valid = new FakeClient("s1");
+        FakeClient rejected = new FakeClient("s2");
+        broadcaster.register(valid);
+        broadcaster.register(rejected);
+
+        broadcaster.poll();
+
+        assertTrue(rejected.closed);
+        assertFalse(valid.closed);
+        assertEquals(1, broadcaster.getClientCount());
+        assertEquals("event: revision\ndata: 1\n\n", valid.received.toString());
+        assertEquals("", rejected.received.toString());
+    }
+
+    @Test
+    public void events_are_not_sent_to_a_client_whose_session_is_rejected() {
+        RevisionSource source = new RevisionSource();
+        source.rejected.add("s1");
+        ServerEventBroadcaster broadcaster = new ServerEventBroadcaster(source);
+        FakeClient rejected = new FakeClient("s1");
+        FakeClient valid = new FakeClient("s2");
+        broadcaster.register(rejected);
+        broadcaster.register(valid);
+
+        broadcaster.poll();
+
+        assertEquals(Collections.singletonList("s2"), source.sessions);
+        assertTrue(rejected.closed);
+        assertEquals("", rejected.received.toString());
+        assertEquals("event: revision\ndata: 1\n\n", valid.received.toString());
+        assertEquals(1, broadcaster.getClientCount());
+    }
+
+    @Test
+    public void other_errors_keep_the_clients() {
+        RevisionSource source = new RevisionSource();
+        source.failure = new RestServerException(500, "unavailable");
+        ServerEventBroadcaster broadcaster = new ServerEventBroadcaster(source);
+        FakeClient client = new FakeClient("s1");
+        broadcaster.register(client);
+
+        broadcaster.poll();
+
+        assertFalse(client.closed);
+        assertEquals(1, broadcaster.getClientCount());
+        assertEquals("", client.received.toString());
+    }
+
+    @Test
+    public void client_is_removed_when_sending_fails() {
+        RevisionSource source = new RevisionSource();
+        ServerEventBroadcaster broadcaster = new ServerEventBroadcaster(source);
+        FakeClient client = new FakeClient("s1");
+        client.connected = false;
+        broadcaster.register(client);
+
+        broadcaster.poll();
+
+        assertTrue(client.closed);
+        assertEquals(0, broadcaster.getClientCount());
+    }
+
+    @Test
+    public void multiline_data_is_split() {
+        assertEquals("event: nodes\ndata: a\ndata: b\n\n", new ServerEvent("nodes", "a\nb").format());
+    }
+
+    private static class RevisionSource implements ServerEventSource {
+
+        private long revision = 1;
+
+        private long sentRevision = 0;
+
+        private RestServerException failure;
+
+        private final Set<String> rejected = new HashSet<>();
+
+        private final List<String> sessions = new ArrayList<>();
+
+        @Override
+        public void checkSession(String sessionId) throws RestServerException {
+            if (rejected.contains(sessionId)) {
+                throw new RestServerException(401, "unauthorized");
+            }
+        }
+
+        @Override
+        public List<ServerEvent> poll(String sessionId) throws RestServerException {
+            checkSession(sessionId);
+            sessions.add(sessionId);
+            if (failure != null) {
+                throw failure;
+            }
+            if (revision == sentRevision) {
+                return Collections.emptyList();
+            }
+            sentRevision = revision;
+            return Collections.singletonList(new ServerEvent("revision", Long.toString(revision)));
+        }
+    }
+
+    private static class FakeClient implements ServerEventBroadcaster.Client {
+
+        private final String sessionId;
+
+        private final StringBuilder received = new StringBuilder();
+
+        private boolean connected = true;
+
+        private boolean closed = false;
+
+        FakeClient(String sessionId) {
+            this.sessionId = sessionId;
+        }
+
+        @Override
+        public String getSessionId() {
+            return sessionId;
+        }
+
+        @Override
+        public boolean send(String message) {
+            if (connected) {
+                received.append(message);
+            }
+            return connected;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+}
@@ -0,0 +1,286 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.common.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+
+public class SlowRpcCallsTest {
+
+    private static final long TIMEOUT = 60000;
+
+    /**
+     * Threads of the simulated servlet container
+     */
+    private ExecutorService container;
+
+    private SlowRpcCalls slowCalls;
+
+    private final AtomicInteger completedSlowCalls = new AtomicInteger();
+
+    /**
+     * Released once the slow calls may be answered
+     */
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Before
+    public void startContainer() {
+        container = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void stopContainer() {
+        release.countDown();
+        container.shutdownNow();
+        if (slowCalls != null) {
+            slowCalls.shutdown();
+        }
+    }
+
+    @Test
+    public void fast_calls_are_served_while_slow_calls_hold_more_than_the_container_threads() throws Exception {
+        slowCalls = new SlowRpcCalls(Collections.singleton("getJobServerLogs"), 64, 100, TIMEOUT);
+        SlowRpcCalls.Call call = (request, response) -> {
+            if (IOUtils.toString(request.getInputStream()).contains("getJobServerLogs")) {
+                awaitRelease();
+                completedSlowCalls.incrementAndGet();
+            }
+        };
+
+        // ten times as many slow calls as container threads, none of them answered during the test
+        List<Future<?>> slowDispatches = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            HttpServletRequest request = request("getJobServerLogs", mock(AsyncContext.class));
+            HttpServletResponse response = mock(HttpServletResponse.class);
+            slowDispatches.add(container.submit(() -> {
+                slowCalls.service(request, response, call);
+                return null;
+            }));
+        }
+
+        // with the slow calls processed in the container threads, the fast calls would never be served
+        List<Future<?>> fastCalls = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            HttpServletRequest request = request("getSchedulerStatus", null);
+            HttpServletResponse response = mock(HttpServletResponse.class);
+            fastCalls.add(container.submit(() -> {
+                slowCalls.service(request, response, call);
+                return null;
+            }));
+        }
+        for (Future<?> future : slowDispatches) {
+            future.get(TIMEOUT, TimeUnit.MILLISECONDS);
+        }
+        for (Future<?> future : fastCalls) {
+            future.get(TIMEOUT, TimeUnit.MILLISECONDS);
+        }
+
+        assertEquals(0, completedSlowCalls.get());
+    }
+
+    @Test
+    public void slow_call_is_processed_with_its_payload_and_completed() throws Exception {
+        slowCalls = new SlowRpcCalls(Collections.singleton("getJobServerLogs"), 1, 1, TIMEOUT);
+        CountDownLatch completed = new CountDownLatch(1);
+        AsyncContext context = mock(AsyncContext.class);
+        doAnswer(invocation -> {
+            completed.countDown();
+            return null;
+        }).when(context).complete();
+        List<String> payloads = new ArrayList<>();
+
+        slowCalls.service(request("getJobServerLogs", context),
+                          mock(HttpServletResponse.class),
+                          (request, response) -> payloads.add(IOUtils.toString(request.getInputStream())));
+
+        assertTrue(completed.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        assertEquals(Collections.singletonList(payload("getJobServerLogs")), payloads);
+        verify(context).setTimeout(TIMEOUT);
+    }
+
+    @Test
+    public void slow_calls_beyond_the_queue_are_rejected() throws Exception {
+        slowCalls = new SlowRpcCalls(Collections.singleton("getJobServerLogs"), 1, 1, TIMEOUT);
+        SlowRpcCalls.Call call = (request, response) -> awaitRelease();
+        AsyncContext context = mock(AsyncContext.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        slowCalls.service(request("getJobServerLogs", mock(AsyncContext.class)), mock(HttpServletResponse.class), call);
+        slowCalls.service(request("getJobServerLogs", mock(AsyncContext.class)), mock(HttpServletResponse.class), call);
+        slowCalls.service(request("getJobServerLogs", context), response, call);
+
+        verify(response).sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Too many slow calls in progress");
+        verify(context).complete();
+    }
+
+    @Test
+    public void timed_out_call_fails_and_its_late_answer_is_discarded() throws Exception {
+        slowCalls = new SlowRpcCalls(Collections.singleton("getJobServerLogs"), 1, 1, TIMEOUT);
+        CountDownLatch answered = new CountDownLatch(1);
+        AtomicInteger lateWrites = new AtomicInteger();
+        SlowRpcCalls.Call call = (request, response) -> {
+            awaitRelease();
+            try {
+                response.getOutputStream().write("//OK".getBytes(StandardCharsets.UTF_8));
+                lateWrites.incrementAndGet();
+            } finally {
+                answered.countDown();
+            }
+        };
+        AsyncContext context = mock(AsyncContext.class);
+        HttpServletRequest request = request("getJobServerLogs", context);
+        when(context.getRequest()).thenReturn(request);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        HttpServletResponse response = response(body);
+
+        slowCalls.service(request, response, call);
+        ArgumentCaptor<AsyncListener> listener = ArgumentCaptor.forClass(AsyncListener.class);
+        verify(context).addListener(listener.capture());
+        listener.getValue().onTimeout(new AsyncEvent(context));
+        release.countDown();
+
+        assertTrue(answered.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        assertEquals(0, lateWrites.get());
+        assertTrue(body.toString("UTF-8").startsWith("//EX"));
+        assertTrue(body.toString("UTF-8").contains("has timed out"));
+        verify(context, times(1)).complete();
+    }
+
+    @Test
+    public void method_name_is_read_from_the_payload() {
+        assertEquals("getJobServerLogs", SlowRpcCalls.getMethodName(payload("getJobServerLogs")));
+        assertNull(SlowRpcCalls.getMethodName("sessionId=123"));
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static HttpServletRequest request(String method, AsyncContext context) throws IOException {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getMethod()).thenReturn("POST");
+        when(request.getInputStream()).thenReturn(inputStream(payload(method)));
+        when(request.getServletContext()).thenReturn(mock(ServletContext.class));
+        when(request.startAsync(any(ServletRequest.class), any(ServletResponse.class))).thenReturn(context);
+        return request;
+    }
+
+    private static HttpServletResponse response(ByteArrayOutputStream body) throws IOException {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+        });
+        return response;
+    }
+
+    private static String payload(String method) {
+        return "7|0|6|http://localhost/scheduler/portal/|0123456789ABCDEF|" +
+               "org.ow2.proactive_grid_cloud_portal.scheduler.client.SchedulerService|" + method +
+               "|java.lang.String|12345|1|2|3|4|1|5|6|";
+    }
+
+    private static ServletInputStream inputStream(String payload) {
+        final ByteArrayInputStream in = new ByteArrayInputStream(payload.getBytes(StandardCharsets.UTF_8));
+        return new ServletInputStream() {
+            @Override
+            public int read() {
+                return in.read();
+            }
+
+            @Override
+            public boolean isFinished() {
+                return in.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener readListener) {
+            }
+        };
+    }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.common.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+
+
+public class SnapshotCacheTest {
+
+    @Test
+    public void value_is_fetched_once_per_period() throws Exception {
+        SnapshotCache<String, String> cache = new SnapshotCache<>(60000, 10);
+        AtomicInteger fetches = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals("RUNNING", cache.get("status", () -> {
+                fetches.incrementAndGet();
+                return "RUNNING";
+            }));
+        }
+
+        assertEquals(1, fetches.get());
+        assertEquals(4, cache.stats().hitCount());
+    }
+
+    @Test
+    public void value_is_fetched_again_once_expired() throws Exception {
+        SnapshotCache<String, String> cache = new SnapshotCache<>(1, 10);
+        AtomicInteger fetches = new AtomicInteger();
+
+        cache.get("status", () -> "" + fetches.incrementAndGet());
+        Thread.sleep(10);
+
+        assertEquals("2", cache.get("status", () -> "" + fetches.incrementAndGet()));
+    }
+
+    @Test
+    public void rest_server_exception_is_rethrown_and_not_cached() throws Exception {
+        SnapshotCache<String, String> cache = new SnapshotCache<>(60000, 10);
+
+        try {
+            cache.get("status", () -> {
+                throw new RestServerException(401, "unauthorized");
+            });
+            fail("exception expected");
+        } catch (RestServerException e) {
+            assertEquals(401, e.getStatus());
+        }
+
+        assertEquals("RUNNING", cache.get("status", () -> "RUNNING"));
+    }
+
+}
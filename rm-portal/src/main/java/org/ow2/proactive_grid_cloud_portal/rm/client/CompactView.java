@@ -27,7 +27,6 @@ package org.ow2.proactive_grid_cloud_portal.rm.client;
 
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -50,8 +49,10 @@ import com.google.gwt.event.dom.client.MouseOverEvent;
 import com.google.gwt.event.dom.client.MouseOverHandler;
 import com.google.gwt.user.client.DOM;
 import com.google.gwt.user.client.Event;
+import com.google.gwt.user.client.ui.ComplexPanel;
 import com.google.gwt.user.client.ui.FlowPanel;
 import com.google.gwt.user.client.ui.Image;
+import com.google.gwt.user.client.ui.Widget;
 import com.smartgwt.client.types.Overflow;
 import com.smartgwt.client.widgets.Canvas;
 import com.smartgwt.client.widgets.Label;
@@ -88,10 +89,20 @@ public class CompactView implements NodesListener, NodeSelectedListener {
     private static Layout globalHover = null;
 
     /*
-     * unique names of the nodesources/hosts/nodes currently held by the FlowLayout
-     * helps figuring out the position of each element since FlowLayout doesnt allow it
+     * tiles of the nodesources/hosts/nodes currently held by the FlowLayout, by unique name
      */
-    private LinkedList<String> curTiles = null;
+    private Map<String, NodeTile> curTiles = null;
+
+    /*
+     * the tiles of each nodesource, then of each host, are grouped in an inline panel:
+     * a tile is added or removed by only touching its group, and
+     * the position of the other tiles does not have to be known
+     */
+    private Map<String, TileGroup> nodeSourceGroups = null;
+
+    private Map<String, TileGroup> deployingGroups = null;
+
+    private Map<String, TileGroup> hostGroups = null;
 
     /* nodes as they were last time #nodesUpdated was called */
     private Map<String, NodeSource> oldNodes = null;
@@ -149,13 +160,11 @@ public class CompactView implements NodesListener, NodeSelectedListener {
     }
 
     private void changeSelection(String name) {
-        int id = this.curTiles.indexOf(name);
+        NodeTile nt = this.curTiles.get(name);
 
-        if (id < 0)
+        if (nt == null)
             return;
 
-        NodeTile nt = (NodeTile) this.flow.getWidget(id);
-
         if (this.curSelTile != null) {
             this.curSelTile.setSelectedTile(false);
         }
@@ -164,11 +173,7 @@ public class CompactView implements NodesListener, NodeSelectedListener {
 
         // attempt to scroll at the right position
         if (!_doNotScroll) {
-            int numPerLine = flow.getElement().getClientWidth() / 20;
-            if (numPerLine > 0) {
-                int height = 20 * (id / numPerLine);
-                this.root.scrollTo(0, height);
-            }
+            this.root.scrollTo(0, nt.getAbsoluteTop() - flow.getAbsoluteTop());
         }
         _doNotScroll = false;
     }
@@ -254,23 +259,22 @@ public class CompactView implements NodesListener, NodeSelectedListener {
             this.flow.setWidth("100%");
             // removes the vertical space between lines
             this.flow.getElement().getStyle().setProperty("lineHeight", "0");
-            this.curTiles = new LinkedList<String>();
+            this.curTiles = new HashMap<String, NodeTile>();
+            this.nodeSourceGroups = new HashMap<String, TileGroup>();
+            this.deployingGroups = new HashMap<String, TileGroup>();
+            this.hostGroups = new HashMap<String, TileGroup>();
 
             // add every tile at once, else it will attempt to render the page
             // each time we add a new tile
             for (NodeSource ns : nodes.values()) {
-                flow.add(new NodeTile(ns));
-                curTiles.add(ns.getSourceName());
+                addNodeSourceTile(ns);
                 for (Node n : ns.getDeploying().values()) {
-                    flow.add(new NodeTile(n));
-                    curTiles.add(n.getNodeUrl());
+                    addDeployingNodeTile(ns, n);
                 }
                 for (Host hh : ns.getHosts().values()) {
-                    flow.add(new NodeTile(hh));
-                    curTiles.add(hh.getId());
+                    addHostTile(ns, hh);
                     for (Node n : hh.getNodes().values()) {
-                        flow.add(new NodeTile(n));
-                        curTiles.add(n.getNodeUrl());
+                        addNodeTile(hh, n);
                     }
                 }
             }
@@ -288,6 +292,45 @@ public class CompactView implements NodesListener, NodeSelectedListener {
                 }
             });
         } else {
+            /*
+             * first remove the difference between the nodes from this method call,
+             * and the ones from the previous call: a deploying node keeps its URL
+             * once deployed on a host
+             */
+            for (Entry<String, NodeSource> oldNs : this.oldNodes.entrySet()) {
+                /* Keep NS */
+                NodeSource newNs = nodes.get(oldNs.getKey());
+                if (newNs != null) {
+                    for (Entry<String, Node> oldDepl : oldNs.getValue().getDeploying().entrySet()) {
+                        /* Deploying Node to be removed */
+                        if (!newNs.getDeploying().containsKey(oldDepl.getKey())) {
+                            removeTile(oldDepl.getKey());
+                        }
+                    }
+
+                    for (Entry<String, Host> oldHost : oldNs.getValue().getHosts().entrySet()) {
+                        /* Keep host */
+                        Host newHost = newNs.getHosts().get(oldHost.getKey());
+                        if (newHost != null && newHost.getNodes().size() > 0) {
+                            for (Entry<String, Node> oldNode : oldHost.getValue().getNodes().entrySet()) {
+                                /* Node to be removed */
+                                if (!newHost.getNodes().containsKey(oldNode.getKey())) {
+                                    removeTile(oldNode.getKey());
+                                }
+                            }
+                        }
+                        /* Host to be removed */
+                        else {
+                            removeHostTiles(oldHost.getValue());
+                        }
+                    }
+                }
+                /* remove NS */
+                else {
+                    removeNodeSourceTiles(oldNs.getValue());
+                }
+            }
+
             /* for each new nodesource */
             for (NodeSource ns : nodes.values()) {
                 String nsName = ns.getSourceName();
@@ -295,12 +338,7 @@ public class CompactView implements NodesListener, NodeSelectedListener {
                 NodeSource oldNs = (oldNodes != null) ? oldNodes.get(nsName) : null;
                 /* new nodesource : adding at the end */
                 if (oldNs == null) {
-                    // WARN at first I was inserting new NS at the head
-                    // but it was added at the end without any warning!
-                    NodeTile nsTile = new NodeTile(ns);
-                    int i = curTiles.size();
-                    flow.insert(nsTile, i);
-                    this.curTiles.add(i, nsName);
+                    addNodeSourceTile(ns);
                 }
 
                 /* deploying nodes : not in a host yet */
@@ -310,15 +348,10 @@ public class CompactView implements NodesListener, NodeSelectedListener {
                     Node oldNode = (oldNs != null) ? oldNs.getDeploying().get(nodeUrl) : null;
                     /* new deploying node */
                     if (oldNode == null) {
-                        NodeTile nodeTile = new NodeTile(n);
-                        int i = curTiles.indexOf(nsName) + 1;
-                        flow.insert(nodeTile, i);
-                        this.curTiles.add(i, nodeUrl);
+                        addDeployingNodeTile(ns, n);
                     } else {
                         if (!oldNode.getNodeState().equals(n.getNodeState()) || oldNode.isLocked() != n.isLocked()) {
-                            int i = this.curTiles.indexOf(nodeUrl);
-                            NodeTile nt = ((NodeTile) this.flow.getWidget(i));
-                            nt.refresh(n);
+                            this.curTiles.get(nodeUrl).refresh(n);
                         }
                     }
                 }
@@ -329,11 +362,9 @@ public class CompactView implements NodesListener, NodeSelectedListener {
 
                     Host oldHost = (oldNs != null) ? oldNs.getHosts().get(hostName) : null;
                     /* new host */
-                    if (oldHost == null) {
-                        NodeTile hostTile = new NodeTile(h);
-                        int i = curTiles.indexOf(nsName) + 1 + ns.getDeploying().size();
-                        flow.insert(hostTile, i);
-                        this.curTiles.add(i, h.getId());
+                    if (oldHost == null || !hostGroups.containsKey(h.getId())) {
+                        oldHost = null;
+                        addHostTile(ns, h);
                     }
                     /* nodes */
                     for (Node n : h.getNodes().values()) {
@@ -342,94 +373,107 @@ public class CompactView implements NodesListener, NodeSelectedListener {
                         Node oldNode = (oldHost != null) ? oldHost.getNodes().get(nodeUrl) : null;
                         /* new node */
                         if (oldNode == null) {
-                            NodeTile nodeTile = new NodeTile(n);
-                            int i = curTiles.indexOf(h.getId()) + 1;
-                            flow.insert(nodeTile, i);
-                            this.curTiles.add(i, nodeUrl);
+                            addNodeTile(h, n);
                         }
                         /* update old node status */
                         else {
                             if (!oldNode.getNodeState().equals(n.getNodeState()) ||
                                 oldNode.isLocked() != n.isLocked()) {
-                                int i = this.curTiles.indexOf(nodeUrl);
-                                NodeTile nt = ((NodeTile) this.flow.getWidget(i));
-                                nt.refresh(n);
+                                this.curTiles.get(nodeUrl).refresh(n);
                             }
                         }
                     }
                 }
             }
+        }
+        this.oldNodes = nodes;
+    }
 
-            /*
-             * now remove the difference between the nodes from this method call,
-             * and the ones from the previous call
-             */
-            for (Entry<String, NodeSource> oldNs : this.oldNodes.entrySet()) {
-                /* Keep NS */
-                NodeSource newNs = nodes.get(oldNs.getKey());
-                if (newNs != null) {
-                    for (Entry<String, Node> oldDepl : oldNs.getValue().getDeploying().entrySet()) {
-                        /* Keep deploying Node */
-                        if (newNs.getDeploying().containsKey(oldDepl.getKey())) {
+    private void addNodeSourceTile(NodeSource ns) {
+        NodeTile nsTile = new NodeTile(ns);
+        TileGroup group = new TileGroup();
+        TileGroup deploying = new TileGroup();
+        group.add(nsTile);
+        group.add(deploying);
+        this.flow.add(group);
+
+        this.curTiles.put(ns.getSourceName(), nsTile);
+        this.nodeSourceGroups.put(ns.getSourceName(), group);
+        this.deployingGroups.put(ns.getSourceName(), deploying);
+    }
 
-                        }
-                        /* Deploying Node to be removed */
-                        else if (curTiles.contains(oldDepl.getKey())) {
-                            removeTile(oldDepl.getKey());
-                        }
-                    }
+    private void addDeployingNodeTile(NodeSource ns, Node n) {
+        NodeTile nodeTile = new NodeTile(n);
+        this.deployingGroups.get(ns.getSourceName()).add(nodeTile);
+        this.curTiles.put(n.getNodeUrl(), nodeTile);
+    }
 
-                    for (Entry<String, Host> oldHost : oldNs.getValue().getHosts().entrySet()) {
-                        /* Keep host */
-                        Host newHost = newNs.getHosts().get(oldHost.getKey());
-                        if (newHost != null && newHost.getNodes().size() > 0) {
-                            for (Entry<String, Node> oldNode : oldHost.getValue().getNodes().entrySet()) {
-                                /* Keep node */
-                                if (newHost.getNodes().containsKey(oldNode.getKey())) {
-                                }
-                                /* Node to be removed */
-                                else if (curTiles.contains(oldNode.getKey())) {
-                                    removeTile(oldNode.getKey());
-                                }
-                            }
+    private void addHostTile(NodeSource ns, Host h) {
+        NodeTile hostTile = new NodeTile(h);
+        TileGroup group = new TileGroup();
+        group.add(hostTile);
+        this.nodeSourceGroups.get(ns.getSourceName()).add(group);
 
-                        }
-                        /* Host to be removed */
-                        else if (curTiles.contains(oldHost.getValue().getId())) {
-                            removeTile(oldHost.getValue().getId());
-                            for (String n : oldHost.getValue().getNodes().keySet()) {
-                                removeTile(n);
-                            }
-                        }
-                    }
+        this.curTiles.put(h.getId(), hostTile);
+        this.hostGroups.put(h.getId(), group);
+    }
 
-                }
-                /* remove NS */
-                else {
-                    removeTile(oldNs.getKey());
-                    for (Node n : oldNs.getValue().getDeploying().values()) {
-                        removeTile(n.getNodeUrl());
-                    }
-                    for (Host h : oldNs.getValue().getHosts().values()) {
-                        removeTile(h.getId());
-                        for (String n : h.getNodes().keySet()) {
-                            removeTile(n);
-                        }
-                    }
-                }
-            }
+    private void addNodeTile(Host h, Node n) {
+        NodeTile nodeTile = new NodeTile(n);
+        this.hostGroups.get(h.getId()).add(nodeTile);
+        this.curTiles.put(n.getNodeUrl(), nodeTile);
+    }
+
+    private void removeNodeSourceTiles(NodeSource ns) {
+        for (Host h : ns.getHosts().values()) {
+            removeHostTiles(h);
+        }
+        for (String n : ns.getDeploying().keySet()) {
+            this.curTiles.remove(n);
+        }
+        this.curTiles.remove(ns.getSourceName());
+        this.deployingGroups.remove(ns.getSourceName());
+        TileGroup group = this.nodeSourceGroups.remove(ns.getSourceName());
+        if (group != null) {
+            group.removeFromParent();
+        }
+    }
+
+    private void removeHostTiles(Host h) {
+        for (String n : h.getNodes().keySet()) {
+            this.curTiles.remove(n);
+        }
+        this.curTiles.remove(h.getId());
+        TileGroup group = this.hostGroups.remove(h.getId());
+        if (group != null) {
+            group.removeFromParent();
         }
-        this.oldNodes = nodes;
     }
 
     private void removeTile(String name) {
-        int index = this.curTiles.indexOf(name);
-        if (index >= 0) {
-            this.curTiles.remove(index);
-            this.flow.remove(index);
+        NodeTile tile = this.curTiles.remove(name);
+        if (tile != null) {
+            tile.removeFromParent();
         }
     }
 
+    /**
+     * Inline panel holding the tiles of a nodesource or of a host,
+     * so that they keep flowing with the other tiles
+     */
+    private static class TileGroup extends ComplexPanel {
+
+        TileGroup() {
+            setElement(DOM.createSpan());
+        }
+
+        @Override
+        public void add(Widget w) {
+            add(w, getElement());
+        }
+
+    }
+
     private class NodeTile extends Image {
 
         private Node node;
@@ -628,31 +672,23 @@ public class CompactView implements NodesListener, NodeSelectedListener {
         }
 
         private void highlightGroup(boolean selected) {
-            // highlight every node following this one in the flow layout,
-            // until we hit one from another host/ns
-            if (host != null || nodesource != null) {
-                int id = CompactView.this.curTiles.indexOf((host == null) ? nodesource.getSourceName() : host.getId());
-
-                while (true) {
-                    id++;
-                    if (flow.getWidgetCount() == id)
-                        break;
-
-                    NodeTile nt = (NodeTile) CompactView.this.flow.getWidget(id);
-                    // reaching the end
-                    if (nt == null) {
-                        break;
-                    }
-                    // reaching next host/ms
-                    if ((this.host != null && nt.host != null) || nt.nodesource != null) {
-                        break;
-                    }
+            // highlight every tile grouped with this host/ns
+            if ((host != null || nodesource != null) && getParent() instanceof TileGroup) {
+                highlightGroup((TileGroup) getParent(), selected);
+            }
+        }
+
+        private void highlightGroup(TileGroup group, boolean selected) {
+            for (Widget w : group) {
+                if (w instanceof TileGroup) {
+                    highlightGroup((TileGroup) w, selected);
+                } else if (w != this) {
                     if (selected) {
-                        nt.getElement().getStyle().setBackgroundColor("#d9e4f6");
-                        nt.getElement().getStyle().setBorderColor("#d9e4f6");
+                        w.getElement().getStyle().setBackgroundColor("#d9e4f6");
+                        w.getElement().getStyle().setBorderColor("#d9e4f6");
                     } else {
-                        nt.getElement().getStyle().setBackgroundColor("white");
-                        nt.getElement().getStyle().setBorderColor("white");
+                        w.getElement().getStyle().setBackgroundColor("white");
+                        w.getElement().getStyle().setBorderColor("white");
                     }
                 }
             }
@@ -261,14 +261,10 @@ public class InfoView implements NodeSelectedListener, NodesListener {
     public void nodeSourceSelected(NodeSource ns) {
         DetailViewerRecord dv = new DetailViewerRecord();
 
-        int numNodes = 0;
-        for (Host h : ns.getHosts().values())
-            numNodes += h.getNodes().size();
-
         dv.setAttribute("sourceName", ns.getSourceName());
         dv.setAttribute("description", ns.getSourceDescription());
         dv.setAttribute("nodeProvider", ns.getNodeSourceAdmin());
-        dv.setAttribute("nodes", numNodes);
+        dv.setAttribute("nodes", ns.getNumNodes());
         dv.setAttribute("hosts", ns.getHosts().size());
 
         this.nsDetails.setData(new DetailViewerRecord[] { dv });
@@ -56,6 +56,9 @@ public class NodeSource {
     /** login of the user that created the NS */
     private String nodeSourceAdmin;
 
+    /** number of nodes deployed on the hosts, as counted by the server */
+    private int numNodes;
+
     NodeSource(String sourceName, String sourceDescription, String nodeSourceAdmin) {
         this.sourceDescription = sourceDescription;
         this.sourceName = sourceName;
@@ -68,6 +71,7 @@ public class NodeSource {
         this.sourceDescription = t.sourceDescription;
         this.sourceName = t.sourceName;
         this.nodeSourceAdmin = t.nodeSourceAdmin;
+        this.numNodes = t.numNodes;
 
         Set<String> hostKeys = t.hosts.keySet();
         this.hosts = new HashMap<String, Host>(hostKeys.size());
@@ -84,6 +88,24 @@ public class NodeSource {
         }
     }
 
+    /**
+     * Creates a nodesource holding the same hosts and nodes as another one:
+     * nodes are shared but hosts and collections are copied, so that
+     * either nodesource can be updated without altering the other one
+     */
+    NodeSource(String sourceName, String sourceDescription, String nodeSourceAdmin, NodeSource previous) {
+        this(sourceName, sourceDescription, nodeSourceAdmin);
+
+        for (Map.Entry<String, Host> entry : previous.hosts.entrySet()) {
+            Host h = entry.getValue();
+            Host copy = new Host(h.hostName, h.sourceName);
+            copy.virtual = h.virtual;
+            copy.nodes.putAll(h.nodes);
+            this.hosts.put(entry.getKey(), copy);
+        }
+        this.deploying.putAll(previous.deploying);
+    }
+
     public Map<String, Host> getHosts() {
         return hosts;
     }
@@ -104,6 +126,14 @@ public class NodeSource {
         return nodeSourceAdmin;
     }
 
+    public int getNumNodes() {
+        return numNodes;
+    }
+
+    void setNumNodes(int numNodes) {
+        this.numNodes = numNodes;
+    }
+
     public static class Host {
 
         /** all nodes deployed on this host for one specific nodesource*/
@@ -26,14 +26,17 @@
 package org.ow2.proactive_grid_cloud_portal.rm.client;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import org.ow2.proactive_grid_cloud_portal.common.client.Controller;
 import org.ow2.proactive_grid_cloud_portal.common.client.Images;
 import org.ow2.proactive_grid_cloud_portal.common.client.LoadingMessage;
 import org.ow2.proactive_grid_cloud_portal.common.client.LoginPage;
+import org.ow2.proactive_grid_cloud_portal.common.client.ServerEventChannel;
 import org.ow2.proactive_grid_cloud_portal.common.client.Model.StatHistory;
 import org.ow2.proactive_grid_cloud_portal.common.client.Model.StatHistory.Range;
 import org.ow2.proactive_grid_cloud_portal.common.client.Settings;
@@ -44,9 +47,12 @@ import org.ow2.proactive_grid_cloud_portal.common.shared.Config;
 import org.ow2.proactive_grid_cloud_portal.rm.client.NodeSource.Host;
 import org.ow2.proactive_grid_cloud_portal.rm.client.NodeSource.Host.Node;
 import org.ow2.proactive_grid_cloud_portal.rm.client.PluginDescriptor.Field;
+import org.ow2.proactive_grid_cloud_portal.rm.shared.NodesActionResult;
 import org.ow2.proactive_grid_cloud_portal.rm.shared.RMConfig;
+import org.ow2.proactive_grid_cloud_portal.rm.shared.ScriptResults;
 
 import com.google.gwt.core.client.Callback;
+import com.google.gwt.core.client.GWT;
 import com.google.gwt.core.client.GWT.UncaughtExceptionHandler;
 import com.google.gwt.http.client.Request;
 import com.google.gwt.json.client.JSONArray;
@@ -125,14 +131,29 @@ public class RMController extends Controller implements UncaughtExceptionHandler
     /** shown when logged in */
     private RMPage rmPage = null;
 
-    /** result of the latest call to {@link RMServiceAsync#getStatHistory(String, String, AsyncCallback)} */
+    /** result of the latest call to {@link RMServiceAsync#getStatHistory(String, String, long, AsyncCallback)} */
     private Request statHistReq = null;
 
+    /** version of the last RM monitoring delta applied to the model, 0 to get all the nodes */
+    private long monitoringVersion = 0;
+
     /** system.currenttimemillis of last StatHistory call */
     private long lastStatHistReq = 0;
 
+    /** range string of the statistic history held by the model */
+    private String statHistRange = null;
+
+    /** server time of the statistic history held by the model, only newer points are fetched */
+    private long statHistTime = 0;
+
     private Timer autoLoginTimer;
 
+    /** receives the node changes pushed by the server */
+    private ServerEventChannel serverEvents = new ServerEventChannel();
+
+    /** true while the server pushes the node changes, the updater does not need to poll them */
+    private boolean serverEventsConnected = false;
+
     /**
      * Default constructor
      * 
@@ -242,9 +263,11 @@ public class RMController extends Controller implements UncaughtExceptionHandler
             this.loginPage = null;
         }
         this.rmPage = new RMPage(this);
+        this.monitoringVersion = 0;
         this.fetchRMMonitoring();
         this.fetchNodesLimit();
         this.startTimer();
+        this.openServerEvents(sessionId);
 
         Settings.get().setSetting(SESSION_SETTING, sessionId);
         if (login != null) {
@@ -305,7 +328,9 @@ public class RMController extends Controller implements UncaughtExceptionHandler
                     teardown("Duplicate session detected!<br>" +
                              "Another tab or window in this browser is accessing this page.");
                 }
-                fetchRMMonitoring();
+                if (!serverEventsConnected) {
+                    fetchRMMonitoring();
+                }
 
             }
         };
@@ -320,6 +345,41 @@ public class RMController extends Controller implements UncaughtExceptionHandler
         this.statsUpdater.scheduleRepeating(RMConfig.get().getStatisticsRefreshTime());
     }
 
+    /**
+     * Listen to the node changes pushed by the server, the updater
+     * keeps polling them if the browser or the server does not support it
+     */
+    private void openServerEvents(String sessionId) {
+        if (Config.get().getServerEventsPeriod() <= 0 || !ServerEventChannel.isSupported()) {
+            return;
+        }
+        this.serverEvents.open(GWT.getModuleBaseURL() + "events?sessionId=" + sessionId,
+                               new String[] { "nodes" },
+                               new ServerEventChannel.Listener() {
+                                   @Override
+                                   public void onOpen() {
+                                       serverEventsConnected = true;
+                                       // catch up with what may have changed while disconnected
+                                       fetchRMMonitoring();
+                                   }
+
+                                   @Override
+                                   public void onEvent(String name, String data) {
+                                       fetchRMMonitoring();
+                                   }
+
+                                   @Override
+                                   public void onError() {
+                                       serverEventsConnected = false;
+                                   }
+                               });
+    }
+
+    private void closeServerEvents() {
+        this.serverEvents.close();
+        this.serverEventsConnected = false;
+    }
+
     private void fetchNodesLimit() {
         this.rm.getState(LoginModel.getInstance().getSessionId(), new AsyncCallback<String>() {
             public void onSuccess(String result) {
@@ -370,34 +430,56 @@ public class RMController extends Controller implements UncaughtExceptionHandler
         if (dt > updateFreq * 1000 || changedRange) {
             this.lastStatHistReq = now;
 
+            final String requestedRange = range;
+            final long since = (!changedRange && range.equals(this.statHistRange)) ? this.statHistTime : 0;
+
             this.statHistReq = rm.getStatHistory(LoginModel.getInstance().getSessionId(),
                                                  range,
+                                                 since,
                                                  new AsyncCallback<String>() {
                                                      @Override
                                                      public void onSuccess(String result) {
 
                                                          JSONValue val = RMController.this.parseJSON(result);
                                                          JSONObject obj = val.isObject();
+                                                         if (obj.get("values") == null) {
+                                                             return;
+                                                         }
+                                                         boolean full = obj.get("full").isBoolean().booleanValue();
+                                                         JSONObject sources = obj.get("values").isObject();
 
                                                          HashMap<String, StatHistory> stats = new HashMap<String, StatHistory>();
-                                                         for (String source : obj.keySet()) {
-                                                             JSONArray arr = obj.get(source).isArray();
+                                                         for (String source : sources.keySet()) {
+                                                             JSONArray arr = sources.get(source).isArray();
 
                                                              ArrayList<Double> values = new ArrayList<Double>();
+                                                             StatHistory previous = model.getStatHistory(source);
+                                                             if (!full && previous != null) {
+                                                                 values.addAll(previous.values);
+                                                             }
                                                              for (int i = 0; i < arr.size(); i++) {
                                                                  JSONValue dval = arr.get(i);
                                                                  if (dval.isNumber() != null) {
                                                                      values.add(dval.isNumber().doubleValue());
-                                                                 } else if (i < arr.size() - 1) {
+                                                                 } else {
                                                                      values.add(Double.NaN);
                                                                  }
-
+                                                             }
+                                                             // the new points push the oldest ones out of the range
+                                                             if (!full && previous != null &&
+                                                                 values.size() > previous.values.size()) {
+                                                                 values.subList(0,
+                                                                                values.size() -
+                                                                                   previous.values.size())
+                                                                       .clear();
                                                              }
                                                              StatHistory st = new StatHistory(source,
                                                                                               values,
                                                                                               model.getRequestedStatHistoryRange(source));
                                                              stats.put(source, st);
                                                          }
+                                                         statHistRange = requestedRange;
+                                                         statHistTime = (long) obj.get("time").isNumber().doubleValue();
                                                          model.setStatHistory(stats);
                                                          LogModel.getInstance()
                                                                  .logMessage("Updated Statistics History in " +
@@ -484,39 +566,51 @@ public class RMController extends Controller implements UncaughtExceptionHandler
     private void fetchRMMonitoring() {
         final long t = System.currentTimeMillis();
 
-        rm.getMonitoring(LoginModel.getInstance().getSessionId(), new AsyncCallback<String>() {
-            public void onSuccess(String result) {
-                if (!LoginModel.getInstance().isLoggedIn())
-                    return;
-
-                HashMap<String, NodeSource> nodes = parseRMMonitoring(result);
-                model.setNodes(nodes);
-                LogModel.getInstance().logMessage("Fetched " + nodes.size() + " node sources in " +
-                                                  (System.currentTimeMillis() - t) + "ms");
-            }
+        rm.getMonitoringDelta(LoginModel.getInstance().getSessionId(),
+                              monitoringVersion,
+                              new AsyncCallback<String>() {
+                                  public void onSuccess(String result) {
+                                      if (!LoginModel.getInstance().isLoggedIn())
+                                          return;
+
+                                      JSONObject delta = parseJSON(result).isObject();
+                                      HashMap<String, NodeSource> nodes = applyRMMonitoringDelta(delta);
+                                      monitoringVersion = Math.round(delta.get("version").isNumber().doubleValue());
+                                      model.setNodes(nodes);
+                                      LogModel.getInstance().logMessage("Fetched " + nodes.size() +
+                                                                        " node sources in " +
+                                                                        (System.currentTimeMillis() - t) + "ms");
+                                  }
 
-            public void onFailure(Throwable caught) {
-                if (JSONUtils.getJsonErrorCode(caught) == 401) {
-                    teardown("You have been disconnected from the server.");
-                } else {
-                    error("Failed to fetch RM State: " + JSONUtils.getJsonErrorMessage(caught));
-                }
-            }
-        });
+                                  public void onFailure(Throwable caught) {
+                                      if (JSONUtils.getJsonErrorCode(caught) == 401) {
+                                          teardown("You have been disconnected from the server.");
+                                      } else {
+                                          error("Failed to fetch RM State: " +
+                                                JSONUtils.getJsonErrorMessage(caught));
+                                      }
+                                  }
+                              });
     }
 
     /**
-     * Parse the node state JSON string
+     * Applies the changes of the nodes returned by
+     * {@link RMServiceAsync#getMonitoringDelta(String, long, AsyncCallback)} to a copy of the nodes
+     * currently held by the model: the nodes which did not change are shared
      * 
-     * @param json the "rm/monitoring" json result
-     * @return a POJO representation
+     * @param delta the monitoring delta json result
+     * @return a POJO representation of all the nodes
      */
-    private HashMap<String, NodeSource> parseRMMonitoring(String json) {
+    private HashMap<String, NodeSource> applyRMMonitoringDelta(JSONObject delta) {
+        boolean full = delta.get("full").isBoolean().booleanValue();
+        Map<String, NodeSource> previous = full ? new HashMap<String, NodeSource>() : model.getNodes();
 
-        JSONObject obj = this.parseJSON(json).isObject();
         HashMap<String, NodeSource> ns = new HashMap<String, NodeSource>();
 
-        JSONArray nodesources = obj.get("nodeSource").isArray();
+        JSONObject summary = delta.get("summary").isObject();
+        JSONObject sourcesSummary = summary.get("nodeSources").isObject();
+
+        JSONArray nodesources = delta.get("nodeSource").isArray();
         for (int i = 0; i < nodesources.size(); i++) {
             JSONObject nsObj = nodesources.get(i).isObject();
 
@@ -527,20 +621,37 @@ public class RMController extends Controller implements UncaughtExceptionHandler
                 sourceDescription = js.stringValue();
             String nodeSourceAdmin = nsObj.get("nodeSourceAdmin").isString().stringValue();
 
-            ns.put(sourceName, new NodeSource(sourceName, sourceDescription, nodeSourceAdmin));
+            NodeSource previousNs = previous.get(sourceName);
+            NodeSource nos;
+            if (previousNs == null) {
+                nos = new NodeSource(sourceName, sourceDescription, nodeSourceAdmin);
+            } else {
+                nos = new NodeSource(sourceName, sourceDescription, nodeSourceAdmin, previousNs);
+            }
+            JSONValue counters = sourcesSummary.get(sourceName);
+            if (counters != null && counters.isObject() != null) {
+                nos.setNumNodes(getJsonIntNullable(counters.isObject(), "nodes"));
+            }
+            ns.put(sourceName, nos);
         }
 
-        int numDeploying = 0;
-        int numLost = 0;
-        int numConfiguring = 0;
-        int numFree = 0;
-        int numBusy = 0;
-        int numDown = 0;
-        int numToBeRemoved = 0;
+        JSONArray removed = delta.get("removedNodes").isArray();
+        JSONArray nodes = delta.get("nodesEvents").isArray();
+
+        Map<String, Node> previousNodes = new HashMap<String, Node>();
+        if (removed.size() > 0 || nodes.size() > 0) {
+            for (NodeSource nos : ns.values()) {
+                previousNodes.putAll(nos.getDeploying());
+                for (Host h : nos.getHosts().values()) {
+                    previousNodes.putAll(h.getNodes());
+                }
+            }
+        }
 
-        int numLocked = 0;
+        for (int i = 0; i < removed.size(); i++) {
+            removeNode(ns, previousNodes.get(removed.get(i).isString().stringValue()));
+        }
 
-        JSONArray nodes = obj.get("nodesEvents").isArray();
         for (int i = 0; i < nodes.size(); i++) {
             try {
                 JSONObject nodeObj = nodes.get(i).isObject();
@@ -565,10 +676,6 @@ public class RMController extends Controller implements UncaughtExceptionHandler
                 long lockTime = getJsonLongNullable(nodeObj, "lockTime", -1);
                 String nodeLocker = getJsonStringNullable(nodeObj, "nodeLocker");
 
-                if (isLocked) {
-                    numLocked++;
-                }
-
                 Node n = new Node(nodeUrl,
                                   nodeState,
                                   nodeInfo,
@@ -586,6 +693,8 @@ public class RMController extends Controller implements UncaughtExceptionHandler
                                   lockTime,
                                   nodeLocker);
 
+                removeNode(ns, previousNodes.get(nodeUrl));
+
                 // deploying node
                 if (hostName == null || hostName.length() == 0) {
                     ns.get(nss).getDeploying().put(nodeUrl, n);
@@ -603,30 +712,6 @@ public class RMController extends Controller implements UncaughtExceptionHandler
                         host.setVirtual(true);
                     }
                 }
-
-                switch (n.getNodeState()) {
-                    case BUSY:
-                        numBusy++;
-                        break;
-                    case CONFIGURING:
-                        numConfiguring++;
-                        break;
-                    case DEPLOYING:
-                        numDeploying++;
-                        break;
-                    case DOWN:
-                        numDown++;
-                        break;
-                    case FREE:
-                        numFree++;
-                        break;
-                    case LOST:
-                        numLost++;
-                        break;
-                    case TO_BE_REMOVED:
-                        numToBeRemoved++;
-                        break;
-                }
             } catch (Throwable t) {
                 System.out.println("Failed to parse node : ");
                 System.out.println(nodes.get(i).toString());
@@ -637,32 +722,51 @@ public class RMController extends Controller implements UncaughtExceptionHandler
             }
         }
 
-        model.setNumBusy(numBusy);
-        model.setNumConfiguring(numConfiguring);
-        model.setNumDeploying(numDeploying);
-        model.setNumDown(numDown);
-        model.setNumFree(numFree);
-        model.setNumLost(numLost);
-        model.setNumToBeRemoved(numToBeRemoved);
-
-        model.setNumLocked(numLocked);
-
-        int numPhysical = 0;
-        int numVirtual = 0;
-        for (NodeSource nos : ns.values()) {
-            for (Host h : nos.getHosts().values()) {
-                if (h.isVirtual()) {
-                    numVirtual++;
-                } else {
-                    numPhysical++;
-                }
+        updateNodeCounts(summary);
+
+        return ns;
+    }
+
+    /**
+     * Removes a node from the node source, and its host if it was the last node on it
+     */
+    private void removeNode(Map<String, NodeSource> ns, Node node) {
+        if (node == null || !ns.containsKey(node.getSourceName())) {
+            return;
+        }
+        NodeSource nos = ns.get(node.getSourceName());
+        if (nos.getDeploying().remove(node.getNodeUrl()) != null) {
+            return;
+        }
+        Host host = nos.getHosts().get(node.getHostName());
+        if (host != null) {
+            host.getNodes().remove(node.getNodeUrl());
+            if (host.getNodes().isEmpty()) {
+                nos.getHosts().remove(node.getHostName());
             }
         }
+    }
 
-        model.setNumPhysicalHosts(numPhysical);
-        model.setNumVirtualHosts(numVirtual);
+    /**
+     * Sets the node counters of the model from the summary computed by the server
+     */
+    private void updateNodeCounts(JSONObject summary) {
+        model.setNumBusy(getJsonIntNullable(summary, "busy"));
+        model.setNumConfiguring(getJsonIntNullable(summary, "configuring"));
+        model.setNumDeploying(getJsonIntNullable(summary, "deploying"));
+        model.setNumDown(getJsonIntNullable(summary, "down"));
+        model.setNumFree(getJsonIntNullable(summary, "free"));
+        model.setNumLost(getJsonIntNullable(summary, "lost"));
+        model.setNumToBeRemoved(getJsonIntNullable(summary, "toBeRemoved"));
+
+        model.setNumLocked(getJsonIntNullable(summary, "locked"));
+
+        model.setNumPhysicalHosts(getJsonIntNullable(summary, "physicalHosts"));
+        model.setNumVirtualHosts(getJsonIntNullable(summary, "virtualHosts"));
+    }
 
-        return ns;
+    private int getJsonIntNullable(JSONObject jsonObject, String attributeName) {
+        return (int) getJsonLongNullable(jsonObject, attributeName, 0);
     }
 
     private String getJsonStringNullable(JSONObject jsonObject, String attributeName) {
@@ -819,38 +923,97 @@ public class RMController extends Controller implements UncaughtExceptionHandler
         // there's no real incentive to storing locked node states
         // here, let's just try to do what the user says, and report
         // the error if it's nonsense
-        rm.lockNodes(LoginModel.getInstance().getSessionId(), nodeUrls, new AsyncCallback<String>() {
-            @Override
-            public void onFailure(Throwable caught) {
-                LogModel.getInstance().logImportantMessage("Failed to lock " + nodeUrls.size() + " nodes: " +
-                                                           JSONUtils.getJsonErrorMessage(caught));
-
-            }
-
-            @Override
-            public void onSuccess(String result) {
-                LogModel.getInstance().logMessage("Successfully locked " + nodeUrls.size() + " nodes");
-            }
-        });
+        rm.lockNodes(LoginModel.getInstance().getSessionId(),
+                     nodeUrls,
+                     new NodesActionCallback(nodeUrls.size(), "lock", "locked"));
     }
 
     private void unlockNodes(final Set<String> nodeUrls) {
         // there's no real incentive to storing locked node states
         // here, let's just try to do what the user says, and report
         // the error if it's nonsense
-        rm.unlockNodes(LoginModel.getInstance().getSessionId(), nodeUrls, new AsyncCallback<String>() {
-            @Override
-            public void onFailure(Throwable caught) {
-                LogModel.getInstance().logImportantMessage("Failed to unlock " + nodeUrls.size() + " nodes: " +
-                                                           JSONUtils.getJsonErrorMessage(caught));
+        rm.unlockNodes(LoginModel.getInstance().getSessionId(),
+                       nodeUrls,
+                       new NodesActionCallback(nodeUrls.size(), "unlock", "unlocked"));
+    }
+
+    /**
+     * Logs the outcome of an action applied to several nodes,
+     * detailing the nodes for which it failed, and refreshes the nodes
+     */
+    private class NodesActionCallback implements AsyncCallback<NodesActionResult> {
 
+        /**
+         * Maximum number of failed nodes detailed in the log
+         */
+        private static final int MAX_LOGGED_FAILURES = 10;
+
+        private final int numNodes;
+
+        private final String action;
+
+        private final String actionName;
+
+        /**
+         * @param numNodes number of nodes on which the action applies
+         * @param action the action, used in log messages, e.g. "lock"
+         * @param actionName past participle of the action, used in log messages, e.g. "locked"
+         */
+        NodesActionCallback(int numNodes, String action, String actionName) {
+            this.numNodes = numNodes;
+            this.action = action;
+            this.actionName = actionName;
+        }
+
+        @Override
+        public void onFailure(Throwable caught) {
+            if (JSONUtils.getJsonErrorCode(caught) == 401) {
+                teardown("You have been disconnected from the server.");
+                return;
             }
+            LogModel.getInstance().logImportantMessage("Failed to " + action + " " + numNodes + " nodes: " +
+                                                       JSONUtils.getJsonErrorMessage(caught));
+            fetchRMMonitoring();
+        }
 
-            @Override
-            public void onSuccess(String result) {
-                LogModel.getInstance().logMessage("Successfully unlocked " + nodeUrls.size() + " nodes");
+        @Override
+        public void onSuccess(NodesActionResult result) {
+            fetchRMMonitoring();
+            if (!result.isIncomplete()) {
+                LogModel.getInstance().logMessage("Successfully " + actionName + " " + result.getSuccessCount() +
+                                                  " nodes");
+                return;
             }
-        });
+
+            StringBuilder message = new StringBuilder();
+            message.append("Only ")
+                   .append(actionName)
+                   .append(" ")
+                   .append(result.getSuccessCount())
+                   .append("/")
+                   .append(result.getRequestedCount())
+                   .append(" nodes, ")
+                   .append(result.getFailureCount())
+                   .append(" failed");
+            if (result.getUnknownCount() > 0) {
+                message.append(", ").append(result.getUnknownCount()).append(" may have failed");
+            }
+            message.append(":");
+
+            int logged = 0;
+            for (Map<String, String> outcomes : Arrays.asList(result.getFailed(), result.getUnknown())) {
+                for (Map.Entry<String, String> outcome : outcomes.entrySet()) {
+                    if (logged++ < MAX_LOGGED_FAILURES) {
+                        message.append("<br>").append(outcome.getKey()).append(" : ").append(outcome.getValue());
+                    }
+                }
+            }
+            if (logged > MAX_LOGGED_FAILURES) {
+                message.append("<br>...");
+            }
+            LogModel.getInstance().logImportantMessage(message.toString());
+        }
+
     }
 
     /**
@@ -907,12 +1070,14 @@ public class RMController extends Controller implements UncaughtExceptionHandler
             confirmRemoveNode("Confirm removal of <strong>" + numNodes + " node" + ((numNodes > 1) ? "s" : "") +
                               "</strong> on <strong>host " + h.getHostName() + "</strong>", new NodeRemovalCallback() {
                                   public void run(boolean force) {
+                                      Set<String> urls = new HashSet<String>();
                                       for (Node n : h.getNodes().values()) {
-                                          rm.removeNode(LoginModel.getInstance().getSessionId(),
-                                                        n.getNodeUrl(),
-                                                        force,
-                                                        callback);
+                                          urls.add(n.getNodeUrl());
                                       }
+                                      rm.removeNodes(LoginModel.getInstance().getSessionId(),
+                                                     urls,
+                                                     force,
+                                                     new NodesActionCallback(urls.size(), "remove", "removed"));
                                   }
                               });
         } else if (model.getSelectedNodeSource() != null) {
@@ -1067,6 +1232,7 @@ public class RMController extends Controller implements UncaughtExceptionHandler
      */
     private void teardown(String message) {
         this.stopTimer();
+        this.closeServerEvents();
 
         if (this.rmPage == null)
             return;
@@ -1141,4 +1307,89 @@ public class RMController extends Controller implements UncaughtExceptionHandler
                                  }
                              });
     }
+
+    /**
+     * Receives the outputs of a script running on several nodes as the nodes answer
+     */
+    public interface NodesScriptListener {
+
+        /**
+         * @param nodeUrl node which ran the script
+         * @param output output of the script
+         */
+        void onOutput(String nodeUrl, String output);
+
+        /**
+         * @param nodeUrl node which did not run the script
+         * @param reason reason of the failure
+         */
+        void onFailure(String nodeUrl, String reason);
+
+        /**
+         * @param remaining number of nodes which have not answered yet
+         */
+        void onProgress(int remaining);
+
+        /**
+         * The execution could not be started or its results could not be fetched
+         *
+         * @param reason reason of the failure
+         */
+        void onError(String reason);
+
+    }
+
+    /**
+     * Runs a script on several nodes in parallel on the server,
+     * the outputs being passed to the listener as the nodes answer
+     */
+    public void executeScript(final String script, final String engine, final Set<String> nodeUrls,
+            final NodesScriptListener listener) {
+        rm.executeNodesScript(LoginModel.getInstance().getSessionId(),
+                              script,
+                              engine,
+                              nodeUrls,
+                              new AsyncCallback<String>() {
+                                  public void onFailure(Throwable caught) {
+                                      if (JSONUtils.getJsonErrorCode(caught) == 401) {
+                                          teardown("You have been disconnected from the server.");
+                                          return;
+                                      }
+                                      String message = JSONUtils.getJsonErrorMessage(caught);
+                                      LogModel.getInstance()
+                                              .logImportantMessage("Failed to execute a script on " +
+                                                                   nodeUrls.size() + " nodes : " + message);
+                                      listener.onError(message);
+                                  }
+
+                                  public void onSuccess(String executionId) {
+                                      fetchScriptResults(executionId, listener);
+                                  }
+                              });
+    }
+
+    private void fetchScriptResults(final String executionId, final NodesScriptListener listener) {
+        rm.getNodesScriptResults(LoginModel.getInstance().getSessionId(),
+                                 executionId,
+                                 new AsyncCallback<ScriptResults>() {
+                                     public void onFailure(Throwable caught) {
+                                         listener.onError(JSONUtils.getJsonErrorMessage(caught));
+                                     }
+
+                                     public void onSuccess(ScriptResults results) {
+                                         Map<String, String> outputs = results.getOutputs();
+                                         for (Map.Entry<String, String> output : outputs.entrySet()) {
+                                             listener.onOutput(output.getKey(), parseScriptResult(output.getValue()));
+                                         }
+                                         Map<String, String> failures = results.getFailures();
+                                         for (Map.Entry<String, String> failure : failures.entrySet()) {
+                                             listener.onFailure(failure.getKey(), failure.getValue());
+                                         }
+                                         listener.onProgress(results.getRemaining());
+                                         if (results.getRemaining() > 0) {
+                                             fetchScriptResults(executionId, listener);
+                                         }
+                                     }
+                                 });
+    }
 }
@@ -31,6 +31,9 @@ import java.util.Set;
 
 import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
 import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
+import org.ow2.proactive_grid_cloud_portal.rm.shared.MBeanQuery;
+import org.ow2.proactive_grid_cloud_portal.rm.shared.NodesActionResult;
+import org.ow2.proactive_grid_cloud_portal.rm.shared.ScriptResults;
 
 import com.google.gwt.user.client.rpc.RemoteService;
 import com.google.gwt.user.client.rpc.RemoteServiceRelativePath;
@@ -81,6 +84,18 @@ public interface RMService extends RemoteService {
      */
     String getMonitoring(String sessionId) throws RestServerException, ServiceException;
 
+    /**
+     * Changes of the nodes held by the RM since the last call made with the same session
+     * @param sessionId current session
+     * @param version version of the last response applied by the caller, 0 to get all the nodes
+     * @return a JSON object containing the new version, whether all the nodes are described,
+     *      all the nodesources, the nodes added or changed, the URLs of the nodes removed
+     *      and the counters of all the nodes
+     * @throws RestServerException
+     * @throws ServiceException
+     */
+    String getMonitoringDelta(String sessionId, long version) throws RestServerException, ServiceException;
+
     /**
      * List of all supported Infrastructure Managers, and their parameters
      * @param sessionId current session
@@ -119,21 +134,34 @@ public interface RMService extends RemoteService {
      * lock a set of nodes
      * @param sessionId current session
      * @param nodeUrls nodes to lock
-     * @return true upon success
+     * @return the nodes locked and the reason of the failure for the others
      * @throws RestServerException 
      * @throws ServiceException
      */
-    String lockNodes(String sessionId, Set<String> nodeUrls) throws RestServerException, ServiceException;
+    NodesActionResult lockNodes(String sessionId, Set<String> nodeUrls) throws RestServerException, ServiceException;
 
     /**
      * Unlock a set of nodes
      * @param sessionId current session
      * @param nodeUrls nodes to unlock
-     * @return true upon success
+     * @return the nodes unlocked and the reason of the failure for the others
      * @throws RestServerException 
      * @throws ServiceException
      */
-    String unlockNodes(String sessionId, Set<String> nodeUrls) throws RestServerException, ServiceException;
+    NodesActionResult unlockNodes(String sessionId, Set<String> nodeUrls)
+            throws RestServerException, ServiceException;
+
+    /**
+     * Remove a set of nodes
+     * @param sessionId current session
+     * @param nodeUrls nodes to remove
+     * @param force do not wait for task completion
+     * @return the nodes removed and the reason of the failure for the others
+     * @throws RestServerException
+     * @throws ServiceException
+     */
+    NodesActionResult removeNodes(String sessionId, Set<String> nodeUrls, boolean force)
+            throws RestServerException, ServiceException;
 
     /**
      * Release a node
@@ -216,6 +244,21 @@ public interface RMService extends RemoteService {
     String getNodeMBeansInfo(String sessionId, String nodeJmxUrl, String objectNames, List<String> attrs)
             throws RestServerException, ServiceException;
 
+    /**
+     * Runs several MBean queries on the same node at once.
+     * 
+     * @param sessionId current session
+     * @param nodeJmxUrl mbean server url
+     * @param queries mbeans, attributes and time ranges to fetch
+     * 
+     * @return the response to each query, in the order of the queries,
+     *      null for the queries that failed
+     * @throws RestServerException when all the queries failed
+     * @throws ServiceException
+     */
+    List<String> getNodeMBeansBatch(String sessionId, String nodeJmxUrl, List<MBeanQuery> queries)
+            throws RestServerException, ServiceException;
+
     /**
      * Statistic history for the following values:<pre>
      * 	{ "BusyNodesCount",
@@ -235,9 +278,13 @@ public interface RMService extends RemoteService {
      *            <li>'w' 1 week
      *            <li>'M' 1 month
      *            <li>'y' 1 year</ul>
-     * @return will contain the server response, a JSON object containing a key for each source
+     * @param since time of the history already held by the caller, as returned by a previous call,
+     *      0 to get the whole history
+     * @return will contain the server response, a JSON object containing the <code>time</code>
+     *      of the history, whether it is <code>full</code>, and the <code>values</code> of each source
+     *      computed after <code>since</code>
      */
-    String getStatHistory(String sessionId, String range) throws RestServerException, ServiceException;
+    String getStatHistory(String sessionId, String range, long since) throws RestServerException, ServiceException;
 
     /**
      * Executes a script on a node
@@ -254,4 +301,33 @@ public interface RMService extends RemoteService {
     String executeNodeScript(String sessionId, String script, String engine, String nodeUrl)
             throws RestServerException, ServiceException;
 
+    /**
+     * Starts executing a script on several nodes in parallel
+     * 
+     * @param sessionId current session
+     * @param script to execute 
+     * @param engine script engine to use for the script execution 
+     * @param nodeUrls targets of the script execution
+     * 
+     * @return identifier of the execution, used to fetch the results
+     * @throws RestServerException
+     * @throws ServiceException
+     */
+    String executeNodesScript(String sessionId, String script, String engine, Set<String> nodeUrls)
+            throws RestServerException, ServiceException;
+
+    /**
+     * Fetches the results of the nodes which answered since the previous call,
+     * waiting for the next answer if there is none yet
+     * 
+     * @param sessionId current session
+     * @param executionId identifier returned when the execution started
+     * 
+     * @return the results of the nodes and the number of nodes which have not answered yet
+     * @throws RestServerException the execution is unknown or over
+     * @throws ServiceException
+     */
+    ScriptResults getNodesScriptResults(String sessionId, String executionId)
+            throws RestServerException, ServiceException;
+
 }
@@ -32,6 +32,9 @@ import java.util.Set;
 import org.ow2.proactive_grid_cloud_portal.common.client.Model;
 import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
 import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
+import org.ow2.proactive_grid_cloud_portal.rm.shared.MBeanQuery;
+import org.ow2.proactive_grid_cloud_portal.rm.shared.NodesActionResult;
+import org.ow2.proactive_grid_cloud_portal.rm.shared.ScriptResults;
 
 import com.google.gwt.http.client.Request;
 import com.google.gwt.user.client.rpc.AsyncCallback;
@@ -78,6 +81,16 @@ public interface RMServiceAsync {
      */
     void getMonitoring(String sessionId, AsyncCallback<String> callback);
 
+    /**
+     * Changes of the nodes held by the RM since the last call made with the same session
+     * @param sessionId current session
+     * @param version version of the last response applied by the caller, 0 to get all the nodes
+     * @param callback async callback to return a JSON object containing the new version,
+     *      whether all the nodes are described, all the nodesources, the nodes added or changed
+     *      and the URLs of the nodes removed
+     */
+    void getMonitoringDelta(String sessionId, long version, AsyncCallback<String> callback);
+
     /**
      * List of all supported Infrastructure Managers, and their parameters
      * @param sessionId current session
@@ -113,17 +126,27 @@ public interface RMServiceAsync {
      * Lock a set of nodes
      * @param sessionId current session
      * @param nodeUrls urls of nodes to lock
-     * @param callback true upon success
+     * @param callback the nodes locked and the reason of the failure for the others
      */
-    void lockNodes(String sessionId, Set<String> nodeUrls, AsyncCallback<String> callback);
+    void lockNodes(String sessionId, Set<String> nodeUrls, AsyncCallback<NodesActionResult> callback);
 
     /**
      * Unlock a set of nodes
      * @param sessionId current session
      * @param nodeUrls urls of nodes to unlock
-     * @param callback true upon success
+     * @param callback the nodes unlocked and the reason of the failure for the others
+     */
+    void unlockNodes(String sessionId, Set<String> nodeUrls, AsyncCallback<NodesActionResult> callback);
+
+    /**
+     * Remove a set of nodes
+     * @param sessionId current session
+     * @param nodeUrls urls of nodes to remove
+     * @param force do not wait for task completion
+     * @param callback the nodes removed and the reason of the failure for the others
      */
-    void unlockNodes(String sessionId, Set<String> nodeUrls, AsyncCallback<String> callback);
+    void removeNodes(String sessionId, Set<String> nodeUrls, boolean force,
+            AsyncCallback<NodesActionResult> callback);
 
     /**
      * Release a node
@@ -191,6 +214,18 @@ public interface RMServiceAsync {
     void getNodeMBeansInfo(String sessionId, String nodeJmxUrl, String objectNames, List<String> attrs,
             AsyncCallback<String> callback);
 
+    /**
+     * Runs several MBean queries on the same node at once.
+     * 
+     * @param sessionId current session
+     * @param nodeJmxUrl mbean server url
+     * @param queries mbeans, attributes and time ranges to fetch
+     * @param callback will return the response to each query, in the order of the queries,
+     *      null for the queries that failed
+     */
+    void getNodeMBeansBatch(String sessionId, String nodeJmxUrl, List<MBeanQuery> queries,
+            AsyncCallback<List<String>> callback);
+
     void getNodeMBeanHistory(String sessionId, String nodeJmxUrl, String objectName, List<String> attrs,
             String timeRange, AsyncCallback callback) throws RestServerException, ServiceException;
 
@@ -216,10 +251,14 @@ public interface RMServiceAsync {
      *            <li>'w' 1 week
      *            <li>'M' 1 month
      *            <li>'y' 1 year</ul>
-     * @param callback will contain the server response, a JSON object containing a key for each source
+     * @param since time of the history already held by the caller, as returned by a previous call,
+     *      0 to get the whole history
+     * @param callback will contain the server response, a JSON object containing the <code>time</code>
+     *      of the history, whether it is <code>full</code>, and the <code>values</code> of each source
+     *      computed after <code>since</code>
      * @return
      */
-    Request getStatHistory(String sessionId, String range, AsyncCallback<String> callback);
+    Request getStatHistory(String sessionId, String range, long since, AsyncCallback<String> callback);
 
     /**
      * Executes a script on a node
@@ -231,4 +270,26 @@ public interface RMServiceAsync {
      */
     void executeNodeScript(String sessionId, String script, String engine, String nodeUrl,
             AsyncCallback<String> callback);
+
+    /**
+     * Starts executing a script on several nodes in parallel
+     * 
+     * @param sessionId current session
+     * @param script to execute 
+     * @param engine script engine to use for the script execution 
+     * @param nodeUrls targets of the script execution
+     * @param callback identifier of the execution, used to fetch the results
+     */
+    void executeNodesScript(String sessionId, String script, String engine, Set<String> nodeUrls,
+            AsyncCallback<String> callback);
+
+    /**
+     * Fetches the results of the nodes which answered since the previous call,
+     * waiting for the next answer if there is none yet
+     * 
+     * @param sessionId current session
+     * @param executionId identifier returned when the execution started
+     * @param callback the results of the nodes and the number of nodes which have not answered yet
+     */
+    void getNodesScriptResults(String sessionId, String executionId, AsyncCallback<ScriptResults> callback);
 }
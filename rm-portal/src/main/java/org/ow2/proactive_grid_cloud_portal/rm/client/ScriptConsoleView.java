@@ -26,7 +26,9 @@
 package org.ow2.proactive_grid_cloud_portal.rm.client;
 
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 
 import org.ow2.proactive_grid_cloud_portal.common.client.JSUtil;
 import org.ow2.proactive_grid_cloud_portal.rm.client.NodeSource.Host;
@@ -57,7 +59,8 @@ import com.smartgwt.client.widgets.layout.VLayout;
 
 
 /**
- * Allows to execute a script on a node and see its output.
+ * Allows to execute a script on a node, or on all the nodes of a host
+ * or of a node source, and see its output.
  */
 public class ScriptConsoleView implements NodesListener, NodeSelectedListener {
 
@@ -79,6 +82,16 @@ public class ScriptConsoleView implements NodesListener, NodeSelectedListener {
 
     private String nodeHostName;
 
+    /**
+     * Nodes of the selected host or node source
+     */
+    private Set<String> nodeUrls = new LinkedHashSet<String>();
+
+    /**
+     * Incremented for each execution, the outputs of the previous ones being ignored
+     */
+    private int execution = 0;
+
     private Label loadingLabel;
 
     private CodeMirrorWrapper codeMirror;
@@ -112,7 +125,12 @@ public class ScriptConsoleView implements NodesListener, NodeSelectedListener {
         execute.addClickHandler(new ClickHandler() {
             @Override
             public void onClick(ClickEvent event) {
-                if (nodeUrl != null) {
+                if (nodeUrl == null && !nodeUrls.isEmpty()) {
+                    String engine = selectedEngine.getValueAsString().toLowerCase();
+                    executeOnNodes(codeMirror.getValue(), engine);
+                } else if (nodeUrl != null) {
+                    execution++;
+                    loadingLabel.setContents("");
                     loadingLabel.show();
                     String engine = selectedEngine.getValueAsString();
                     engine = engine.toLowerCase();
@@ -158,7 +176,8 @@ public class ScriptConsoleView implements NodesListener, NodeSelectedListener {
         this.nodeLabel.setIcon(RMImages.instance.node_add_16().getSafeUri().asString());
         this.nodeLabel.setHeight(16);
 
-        String helpMessage = "Type in an arbitrary script and execute it on the node.";
+        String helpMessage = "Type in an arbitrary script and execute it on the node,";
+        helpMessage += " or on all the nodes of the selected host or node source.";
         helpMessage += " Useful for trouble-shooting and diagnostics.";
         helpMessage += "<br/><br/>Groovy example:<br/><br/>";
         helpMessage += "<div style='padding-left:20px'>println System.getenv(\"PATH\")</div>";
@@ -230,6 +249,69 @@ public class ScriptConsoleView implements NodesListener, NodeSelectedListener {
         return vl;
     }
 
+    /**
+     * Runs the script on all the nodes of the selection, their outputs being
+     * displayed as they answer
+     */
+    private void executeOnNodes(String script, String engine) {
+        final int current = ++execution;
+        final int numNodes = nodeUrls.size();
+        final StringBuilder outputs = new StringBuilder();
+
+        loadingLabel.setContents("0/" + numNodes + " nodes answered");
+        loadingLabel.show();
+        outputLabel.show();
+        outputLabel.setContents("<h3>Output:</h3>");
+        outputText.setContents("");
+
+        controller.executeScript(script,
+                                 engine,
+                                 new LinkedHashSet<String>(nodeUrls),
+                                 new RMController.NodesScriptListener() {
+                                     @Override
+                                     public void onOutput(String url, String output) {
+                                         append(url, output);
+                                     }
+
+                                     @Override
+                                     public void onFailure(String url, String reason) {
+                                         append(url, "<span style='color:red'>" + reason + "</span>");
+                                     }
+
+                                     private void append(String url, String text) {
+                                         if (current == execution) {
+                                             outputs.append("<h4>")
+                                                    .append(url)
+                                                    .append("</h4>")
+                                                    .append(text.replaceAll("\n", "<br/>"));
+                                             outputText.setContents(outputs.toString());
+                                         }
+                                     }
+
+                                     @Override
+                                     public void onProgress(int remaining) {
+                                         if (current != execution) {
+                                             return;
+                                         }
+                                         if (remaining == 0) {
+                                             loadingLabel.hide();
+                                         } else {
+                                             loadingLabel.setContents((numNodes - remaining) + "/" + numNodes +
+                                                                      " nodes answered");
+                                         }
+                                     }
+
+                                     @Override
+                                     public void onError(String reason) {
+                                         if (current == execution) {
+                                             loadingLabel.hide();
+                                             outputs.append(reason.replaceAll("\n", "<br/>"));
+                                             outputText.setContents(outputs.toString());
+                                         }
+                                     }
+                                 });
+    }
+
     public void initCodeMirror() {
 
         if (codeMirror == null && Document.get().getElementById("highlighted-text-area") != null) {
@@ -245,6 +327,7 @@ public class ScriptConsoleView implements NodesListener, NodeSelectedListener {
         this.label.show();
         this.nodeCanvas.hide();
         this.nodeUrl = null;
+        this.nodeUrls.clear();
         this.nodeSourceName = null;
         this.nodeHostName = null;
     }
@@ -255,6 +338,7 @@ public class ScriptConsoleView implements NodesListener, NodeSelectedListener {
         this.label.hide();
 
         this.nodeUrl = node.getNodeUrl();
+        this.nodeUrls.clear();
         this.nodeSourceName = node.getSourceName();
         this.nodeHostName = node.getHostName();
         this.nodeLabel.setContents("<h3>" + node.getNodeUrl() + "</h3>");
@@ -262,15 +346,40 @@ public class ScriptConsoleView implements NodesListener, NodeSelectedListener {
     }
 
     public void nodeSourceSelected(NodeSource ns) {
-        this.nodeUrl = null;
-        this.nodeCanvas.hide();
-        this.label.show();
+        Set<String> urls = new LinkedHashSet<String>();
+        for (Host host : ns.getHosts().values()) {
+            urls.addAll(host.getNodes().keySet());
+        }
+        selectNodes(urls,
+                    RMImages.instance.nodesource_16().getSafeUri().asString(),
+                    "Node source " + ns.getSourceName());
     }
 
     public void hostSelected(Host h) {
+        selectNodes(h.getNodes().keySet(),
+                    RMImages.instance.host_16().getSafeUri().asString(),
+                    "Host " + h.getHostName());
+    }
+
+    /**
+     * Targets all the deployed nodes of the selected host or node source
+     */
+    private void selectNodes(Set<String> urls, String icon, String title) {
         this.nodeUrl = null;
-        this.nodeCanvas.hide();
-        this.label.show();
+        this.nodeSourceName = null;
+        this.nodeHostName = null;
+        this.nodeUrls.clear();
+        this.nodeUrls.addAll(urls);
+
+        if (urls.isEmpty()) {
+            this.nodeCanvas.hide();
+            this.label.show();
+            return;
+        }
+        this.nodeLabel.setIcon(icon);
+        this.nodeLabel.setContents("<h3>" + title + " (" + urls.size() + " nodes)</h3>");
+        this.label.hide();
+        this.nodeCanvas.show();
     }
 
     @Override
@@ -0,0 +1,131 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.client.monitoring;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.ow2.proactive_grid_cloud_portal.common.client.model.LogModel;
+import org.ow2.proactive_grid_cloud_portal.common.client.model.LoginModel;
+import org.ow2.proactive_grid_cloud_portal.rm.client.RMController;
+import org.ow2.proactive_grid_cloud_portal.rm.shared.MBeanQuery;
+
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.user.client.rpc.AsyncCallback;
+
+
+/**
+ * Gathers the MBean queries issued for a node while the browser handles
+ * the same event, and sends them to the server in a single request
+ * once the event is handled. Each query gets its own response back.
+ * <p>
+ * Batches of different nodes are independent requests, so they run in parallel.
+ */
+public class MBeanBatch {
+
+    /**
+     * Batches not sent yet, per node MBean server url
+     */
+    private static final Map<String, MBeanBatch> pending = new HashMap<String, MBeanBatch>();
+
+    private RMController controller;
+
+    private String jmxServerUrl;
+
+    private List<MBeanQuery> queries = new ArrayList<MBeanQuery>();
+
+    private List<AsyncCallback<String>> callbacks = new ArrayList<AsyncCallback<String>>();
+
+    private MBeanBatch(RMController controller, String jmxServerUrl) {
+        this.controller = controller;
+        this.jmxServerUrl = jmxServerUrl;
+    }
+
+    /**
+     * Adds a query to the batch of its node, the batch being sent
+     * when the current browser event is handled.
+     *
+     * @param controller controller providing the RM service
+     * @param jmxServerUrl node mbean server url
+     * @param query mbean and attributes to fetch
+     * @param callback receives the response to this query only
+     */
+    public static void enqueue(RMController controller, String jmxServerUrl, MBeanQuery query,
+            AsyncCallback<String> callback) {
+        MBeanBatch batch = pending.get(jmxServerUrl);
+        if (batch == null) {
+            final MBeanBatch newBatch = new MBeanBatch(controller, jmxServerUrl);
+            pending.put(jmxServerUrl, newBatch);
+            Scheduler.get().scheduleFinally(new Scheduler.ScheduledCommand() {
+                @Override
+                public void execute() {
+                    pending.remove(newBatch.jmxServerUrl);
+                    newBatch.send();
+                }
+            });
+            batch = newBatch;
+        }
+        batch.queries.add(query);
+        batch.callbacks.add(callback);
+    }
+
+    private void send() {
+        final long t = System.currentTimeMillis();
+
+        controller.getRMService()
+                  .getNodeMBeansBatch(LoginModel.getInstance().getSessionId(),
+                                      jmxServerUrl,
+                                      queries,
+                                      new AsyncCallback<List<String>>() {
+                                          public void onSuccess(List<String> results) {
+                                              LogModel.getInstance()
+                                                      .logMessage("Fetched " + queries.size() + " MBean queries on " +
+                                                                  jmxServerUrl + " in " +
+                                                                  (System.currentTimeMillis() - t) + "ms");
+
+                                              for (int i = 0; i < callbacks.size(); i++) {
+                                                  String result = results.get(i);
+                                                  if (result != null) {
+                                                      callbacks.get(i).onSuccess(result);
+                                                  } else {
+                                                      callbacks.get(i)
+                                                               .onFailure(new Exception("Failed to fetch " +
+                                                                                        queries.get(i)));
+                                                  }
+                                              }
+                                          }
+
+                                          public void onFailure(Throwable caught) {
+                                              for (AsyncCallback<String> callback : callbacks) {
+                                                  callback.onFailure(caught);
+                                              }
+                                          }
+                                      });
+    }
+
+}
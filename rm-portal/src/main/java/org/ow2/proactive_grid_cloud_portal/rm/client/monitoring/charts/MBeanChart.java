@@ -34,9 +34,9 @@ import org.ow2.proactive_grid_cloud_portal.common.client.json.JSONUtils;
 import org.ow2.proactive_grid_cloud_portal.common.client.model.LogModel;
 import org.ow2.proactive_grid_cloud_portal.common.client.model.LoginModel;
 import org.ow2.proactive_grid_cloud_portal.rm.client.RMController;
-import org.ow2.proactive_grid_cloud_portal.rm.client.RMModel;
-import org.ow2.proactive_grid_cloud_portal.rm.client.RMServiceAsync;
+import org.ow2.proactive_grid_cloud_portal.rm.client.monitoring.MBeanBatch;
 import org.ow2.proactive_grid_cloud_portal.rm.client.monitoring.Reloadable;
+import org.ow2.proactive_grid_cloud_portal.rm.shared.MBeanQuery;
 
 import com.google.gwt.i18n.client.DateTimeFormat;
 import com.google.gwt.json.client.JSONArray;
@@ -128,15 +128,13 @@ public abstract class MBeanChart extends VLayout implements Reloadable {
 
     @Override
     public void reload() {
-        final RMServiceAsync rm = controller.getRMService();
-        final RMModel model = controller.getModel();
         final long t = System.currentTimeMillis();
 
         final boolean realTime = timeRange.equals(Model.StatHistory.Range.MINUTE_1);
 
         final LoginModel loginModel = LoginModel.getInstance();
 
-        AsyncCallback callback = new AsyncCallback<String>() {
+        AsyncCallback<String> callback = new AsyncCallback<String>() {
             public void onSuccess(String result) {
                 if (onFinish != null) {
                     onFinish.run();
@@ -164,20 +162,18 @@ public abstract class MBeanChart extends VLayout implements Reloadable {
             }
         };
 
-        if (realTime) {
-            rm.getNodeMBeanInfo(loginModel.getSessionId(), jmxServerUrl, mbeanName, Arrays.asList(attrs), callback);
-        } else {
-            try {
-                rm.getNodeMBeanHistory(loginModel.getSessionId(),
-                                       jmxServerUrl,
-                                       mbeanName,
-                                       Arrays.asList(attrs),
-                                       String.valueOf(timeRange.getChar()),
-                                       callback);
-            } catch (Exception e) {
-                LogModel.getInstance().logCriticalMessage(e.getMessage());
-            }
-        }
+        String range = realTime ? null : String.valueOf(timeRange.getChar());
+        MBeanBatch.enqueue(controller,
+                           jmxServerUrl,
+                           new MBeanQuery(mbeanName, Arrays.asList(attrs), queriesSeveralMBeans(), range),
+                           callback);
+    }
+
+    /**
+     * @return whether the mbean name is a pattern matching several MBeans
+     */
+    protected boolean queriesSeveralMBeans() {
+        return false;
     }
 
     protected int getJsonInternalSize(JSONObject json) {
@@ -31,8 +31,8 @@ import org.ow2.proactive_grid_cloud_portal.common.client.json.JSONUtils;
 import org.ow2.proactive_grid_cloud_portal.common.client.model.LogModel;
 import org.ow2.proactive_grid_cloud_portal.common.client.model.LoginModel;
 import org.ow2.proactive_grid_cloud_portal.rm.client.RMController;
-import org.ow2.proactive_grid_cloud_portal.rm.client.RMModel;
-import org.ow2.proactive_grid_cloud_portal.rm.client.RMServiceAsync;
+import org.ow2.proactive_grid_cloud_portal.rm.client.monitoring.MBeanBatch;
+import org.ow2.proactive_grid_cloud_portal.rm.shared.MBeanQuery;
 
 import com.google.gwt.json.client.JSONArray;
 import com.google.gwt.json.client.JSONObject;
@@ -70,14 +70,13 @@ public class MBeanDetailedView extends DetailViewer {
 
         setFields(fields);
 
-        final RMServiceAsync rm = controller.getRMService();
-        final RMModel model = controller.getModel();
         final long t = System.currentTimeMillis();
 
         final LoginModel loginModel = LoginModel.getInstance();
 
-        // loading runtime info
-        rm.getNodeMBeanInfo(loginModel.getSessionId(), jmxServerUrl, mbean, attrs, new AsyncCallback<String>() {
+        // loading runtime info, together with the other queries on the same node
+        MBeanQuery query = new MBeanQuery(mbean, attrs, false, null);
+        MBeanBatch.enqueue(controller, jmxServerUrl, query, new AsyncCallback<String>() {
             public void onSuccess(String result) {
 
                 if (extraCallback != null) {
@@ -25,20 +25,11 @@
  */
 package org.ow2.proactive_grid_cloud_portal.rm.client.monitoring.charts;
 
-import java.util.Arrays;
-
-import org.ow2.proactive_grid_cloud_portal.common.client.Model;
-import org.ow2.proactive_grid_cloud_portal.common.client.json.JSONUtils;
-import org.ow2.proactive_grid_cloud_portal.common.client.model.LogModel;
-import org.ow2.proactive_grid_cloud_portal.common.client.model.LoginModel;
 import org.ow2.proactive_grid_cloud_portal.rm.client.RMController;
-import org.ow2.proactive_grid_cloud_portal.rm.client.RMModel;
-import org.ow2.proactive_grid_cloud_portal.rm.client.RMServiceAsync;
 
 import com.google.gwt.json.client.JSONArray;
 import com.google.gwt.json.client.JSONNumber;
 import com.google.gwt.json.client.JSONObject;
-import com.google.gwt.user.client.rpc.AsyncCallback;
 
 
 /**
@@ -51,56 +42,8 @@ public abstract class MBeansChart extends MBeanChart {
     }
 
     @Override
-    public void reload() {
-        final RMServiceAsync rm = controller.getRMService();
-        final RMModel model = controller.getModel();
-        final long t = System.currentTimeMillis();
-        final boolean realTime = timeRange.equals(Model.StatHistory.Range.MINUTE_1);
-
-        final LoginModel loginModel = LoginModel.getInstance();
-
-        AsyncCallback<String> callback = new AsyncCallback<String>() {
-            public void onSuccess(String result) {
-                if (onFinish != null) {
-                    onFinish.run();
-                }
-                if (!loginModel.isLoggedIn())
-                    return;
-
-                LogModel.getInstance().logMessage("Fetched " + mbeanName + ":" + Arrays.toString(attrs) + " in " +
-                                                  (System.currentTimeMillis() - t) + "ms");
-
-                if (realTime) {
-                    processResult(result);
-                } else {
-                    processHistoryResult(result);
-                }
-            }
-
-            public void onFailure(Throwable caught) {
-                if (onFinish != null) {
-                    onFinish.run();
-                }
-                if (JSONUtils.getJsonErrorCode(caught) == 401) {
-                    LogModel.getInstance().logMessage("You have been disconnected from the server.");
-                }
-            }
-        };
-
-        if (realTime) {
-            rm.getNodeMBeansInfo(loginModel.getSessionId(), jmxServerUrl, mbeanName, Arrays.asList(attrs), callback);
-        } else {
-            try {
-                rm.getNodeMBeansHistory(loginModel.getSessionId(),
-                                        jmxServerUrl,
-                                        mbeanName,
-                                        Arrays.asList(attrs),
-                                        String.valueOf(timeRange.getChar()),
-                                        callback);
-            } catch (Exception e) {
-                LogModel.getInstance().logCriticalMessage(e.getMessage());
-            }
-        }
+    protected boolean queriesSeveralMBeans() {
+        return true;
     }
 
     protected int getJsonInternalSize(JSONObject json) {
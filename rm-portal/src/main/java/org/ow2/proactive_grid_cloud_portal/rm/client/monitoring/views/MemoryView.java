@@ -43,14 +43,14 @@ public class MemoryView extends VLayout implements Reloadable {
 
     private MBeanChart swap;
 
-    private ReloadableChain chain;
+    private ReloadableGroup chain;
 
     public MemoryView(RMController controller, String url) {
         // memory view
         ram = new MemoryLineChart(controller, url);
         swap = new SwapLineChart(controller, url);
 
-        chain = new ReloadableChain(ram, swap);
+        chain = new ReloadableGroup(ram, swap);
 
         setWidth100();
         addMember(ram);
@@ -54,7 +54,7 @@ public class MonitoringHostView extends VLayout implements AsyncCallback<String>
 
     private Timer updater = null;
 
-    private ReloadableChain chain;
+    private ReloadableGroup chain;
 
     private Overview overview;
 
@@ -107,7 +107,7 @@ public class MonitoringHostView extends VLayout implements AsyncCallback<String>
         fsView = new FileSystemView(controller, hostMonitoringUrl);
         networkView = new NetworkView(controller, hostMonitoringUrl);
 
-        chain = new ReloadableChain(overview, cpuView, memoryView, networkView);
+        chain = new ReloadableGroup(overview, cpuView, memoryView, networkView);
 
         // to not add to to automatic reloadable views (use a dedicated button for this)
         processesView = new ProcessesView(controller, hostMonitoringUrl);
@@ -56,7 +56,7 @@ public class MonitoringNodeView extends VLayout implements AsyncCallback<String>
 
     private Timer updater = null;
 
-    private ReloadableChain chain;
+    private ReloadableGroup chain;
 
     private TabSet tabs;
 
@@ -95,7 +95,7 @@ public class MonitoringNodeView extends VLayout implements AsyncCallback<String>
         jvmDetails.load(controller, nodeUrl, "java.lang:type=Runtime", Arrays.asList(jvmAttrs));
         jvmDetails.setWidth100();
 
-        chain = new ReloadableChain(heapMemory, threads, classes, cpuUsage);
+        chain = new ReloadableGroup(heapMemory, threads, classes, cpuUsage);
 
         HLayout firstRow = new HLayout();
         HLayout secondRow = new HLayout();
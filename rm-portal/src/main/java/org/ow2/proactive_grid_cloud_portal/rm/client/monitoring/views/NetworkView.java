@@ -57,7 +57,7 @@ public class NetworkView extends VLayout implements Reloadable {
 
     private Runnable onFinish;
 
-    private ReloadableChain chain;
+    private ReloadableGroup chain;
 
     public NetworkView(final RMController controller, final String url) {
         setWidth100();
@@ -152,7 +152,7 @@ public class NetworkView extends VLayout implements Reloadable {
                                          }
 
                                          synchronized (NetworkView.this) {
-                                             chain = new ReloadableChain(charts.toArray(new Reloadable[charts.size()]));
+                                             chain = new ReloadableGroup(charts.toArray(new Reloadable[charts.size()]));
                                              if (onFinish != null) {
                                                  chain.onFinish(onFinish);
                                              }
@@ -171,8 +171,13 @@ public class NetworkView extends VLayout implements Reloadable {
     }
 
     @Override
-    public void reload() {
-        chain.reload();
+    public synchronized void reload() {
+        if (chain != null) {
+            chain.reload();
+        } else if (onFinish != null) {
+            // interfaces not listed yet, nothing to reload
+            onFinish.run();
+        }
     }
 
     @Override
@@ -57,7 +57,7 @@ public class Overview extends VLayout implements Reloadable {
 
     private MBeanChart disk;
 
-    private ReloadableChain chain;
+    private ReloadableGroup chain;
 
     public Overview(RMController controller, String url, AsyncCallback<String> extraCallback) {
 
@@ -70,7 +70,7 @@ public class Overview extends VLayout implements Reloadable {
 
         disk.reload();
 
-        chain = new ReloadableChain(cpuUsage, memory, network);
+        chain = new ReloadableGroup(cpuUsage, memory, network);
 
         VLayout osInfoRow = new VLayout();
         HLayout cpuMemRow = new HLayout();
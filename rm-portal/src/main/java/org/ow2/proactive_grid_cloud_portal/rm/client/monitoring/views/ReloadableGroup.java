@@ -0,0 +1,82 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.client.monitoring.views;
+
+import org.ow2.proactive_grid_cloud_portal.rm.client.monitoring.Reloadable;
+
+
+/**
+ * Reloads components all at once and finishes when the last one is reloaded.
+ * The MBean queries of charts reloaded together are sent in the same request.
+ */
+public class ReloadableGroup implements Reloadable {
+
+    private Reloadable[] reloadables;
+
+    private int pending = 0;
+
+    private Runnable onFinish;
+
+    public ReloadableGroup(Reloadable... reloadables) {
+        this.reloadables = reloadables;
+
+        for (Reloadable reloadable : reloadables) {
+            reloadable.onFinish(new Runnable() {
+                public void run() {
+                    if (pending > 0 && --pending == 0 && onFinish != null) {
+                        onFinish.run();
+                    }
+                }
+            });
+        }
+    }
+
+    public void stopReloading() {
+        pending = 0;
+    }
+
+    public void reload() {
+        if (pending > 0) {
+            return;
+        }
+        if (reloadables.length == 0) {
+            if (onFinish != null) {
+                onFinish.run();
+            }
+            return;
+        }
+        pending = reloadables.length;
+        for (Reloadable reloadable : reloadables) {
+            reloadable.reload();
+        }
+    }
+
+    @Override
+    public void onFinish(Runnable onFinish) {
+        this.onFinish = onFinish;
+    }
+
+}
@@ -0,0 +1,182 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+
+/**
+ * Remembers, for each portal session, the nodes of the last RM monitoring
+ * snapshot sent to the client, so that the next response only contains
+ * the nodes which were added, changed or removed since then.
+ * <p>
+ * A response is a JSON object holding:
+ * <ul>
+ * <li><code>version</code>: to send back with the next request,</li>
+ * <li><code>full</code>: true if the response describes all the nodes, in which case
+ * the client must drop the nodes it knows,</li>
+ * <li><code>nodeSource</code>: all the node sources, as returned by the REST server,</li>
+ * <li><code>nodesEvents</code>: the nodes added or changed, as returned by the REST server,</li>
+ * <li><code>removedNodes</code>: the URLs of the nodes removed,</li>
+ * <li><code>summary</code>: the node counters, if provided.</li>
+ * </ul>
+ * A client sending a version other than the one of the last response it was
+ * sent, such as 0 when it starts, receives the full state.
+ */
+public class MonitoringDeltaTracker {
+
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+
+    private static final HashFunction NODE_HASH = Hashing.murmur3_128();
+
+    private final Cache<String, Snapshot> snapshots;
+
+    /**
+     * @param timeToIdle period in milliseconds after which the snapshot of an inactive session is dropped
+     * @param maximumSessions maximum number of sessions tracked
+     */
+    public MonitoringDeltaTracker(long timeToIdle, long maximumSessions) {
+        this.snapshots = CacheBuilder.newBuilder()
+                                     .expireAfterAccess(timeToIdle, TimeUnit.MILLISECONDS)
+                                     .maximumSize(maximumSessions)
+                                     .build();
+    }
+
+    /**
+     * @param sessionId the session of the client
+     * @param version version of the last response applied by the client
+     * @param monitoring the "rm/monitoring" JSON document returned by the REST server
+     * @return the changes since the last response applied by the client
+     * @throws IOException the monitoring document could not be read
+     */
+    public String getDelta(String sessionId, long version, InputStream monitoring) throws IOException {
+        return getDelta(sessionId, version, monitoring, null);
+    }
+
+    /**
+     * @param sessionId the session of the client
+     * @param version version of the last response applied by the client
+     * @param monitoring the "rm/monitoring" JSON document returned by the REST server
+     * @param summary the {@link MonitoringSummary} of the document, sent as <code>summary</code> if not null
+     * @return the changes since the last response applied by the client
+     * @throws IOException the monitoring document could not be read
+     */
+    public String getDelta(String sessionId, long version, InputStream monitoring, JsonNode summary)
+            throws IOException {
+        JsonNode state = JSON_MAPPER.readTree(monitoring);
+
+        Map<String, Long> hashes = new LinkedHashMap<>();
+        Map<String, JsonNode> nodes = new LinkedHashMap<>();
+        for (JsonNode node : state.path("nodesEvents")) {
+            String nodeUrl = node.path("nodeUrl").asText();
+            hashes.put(nodeUrl, NODE_HASH.hashString(node.toString(), StandardCharsets.UTF_8).asLong());
+            nodes.put(nodeUrl, node);
+        }
+
+        Snapshot snapshot = getSnapshot(sessionId);
+
+        ObjectNode delta = JSON_MAPPER.createObjectNode();
+        ArrayNode changed = JSON_MAPPER.createArrayNode();
+        ArrayNode removed = JSON_MAPPER.createArrayNode();
+
+        synchronized (snapshot) {
+            boolean full = version == 0 || version != snapshot.version;
+            Map<String, Long> previous = full ? Collections.<String, Long> emptyMap() : snapshot.nodeHashes;
+
+            for (Map.Entry<String, Long> node : hashes.entrySet()) {
+                if (!node.getValue().equals(previous.get(node.getKey()))) {
+                    changed.add(nodes.get(node.getKey()));
+                }
+            }
+            for (String nodeUrl : previous.keySet()) {
+                if (!hashes.containsKey(nodeUrl)) {
+                    removed.add(nodeUrl);
+                }
+            }
+
+            snapshot.version++;
+            snapshot.nodeHashes = hashes;
+
+            delta.put("version", snapshot.version);
+            delta.put("full", full);
+        }
+
+        delta.set("nodeSource", state.path("nodeSource").isArray() ? state.get("nodeSource")
+                                                                     : JSON_MAPPER.createArrayNode());
+        delta.set("nodesEvents", changed);
+        delta.set("removedNodes", removed);
+        if (summary != null) {
+            delta.set("summary", summary);
+        }
+
+        return JSON_MAPPER.writeValueAsString(delta);
+    }
+
+    /**
+     * Forgets the nodes sent to a session, its next request will receive the full state.
+     *
+     * @param sessionId the session of the client
+     */
+    public void invalidate(String sessionId) {
+        snapshots.invalidate(sessionId);
+    }
+
+    private Snapshot getSnapshot(String sessionId) {
+        try {
+            return snapshots.get(sessionId, Snapshot::new);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class Snapshot {
+
+        private long version = 0;
+
+        /**
+         * Hash of the description of each node sent to the client, by node URL
+         */
+        private Map<String, Long> nodeHashes = Collections.emptyMap();
+
+    }
+
+}
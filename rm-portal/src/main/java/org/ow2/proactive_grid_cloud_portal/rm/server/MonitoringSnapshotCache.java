@@ -0,0 +1,207 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.server;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+
+import org.ow2.proactive_grid_cloud_portal.common.server.SnapshotCache;
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+
+/**
+ * Shares the RM monitoring document between all the portal sessions.
+ * <p>
+ * The RM returns the same monitoring state to all its users, so a single
+ * snapshot is kept during a short period of time and served as fetched,
+ * without being parsed again, to every session known to be valid. Only the
+ * first caller after expiration reaches the REST server, concurrent callers
+ * wait for its response.
+ * <p>
+ * A session is checked against the REST server when it first reads the
+ * snapshot, then again once the validation period is over.
+ * <p>
+ * The {@link MonitoringSummary} of a snapshot is computed once, by the first
+ * caller asking for it.
+ * <p>
+ * Each snapshot has a version, which only changes when its document differs from
+ * the one of the previous snapshot, so that changes are detected once per load.
+ */
+public class MonitoringSnapshotCache {
+
+    private static final String SNAPSHOT_KEY = "monitoring";
+
+    private final SnapshotCache<String, Snapshot> snapshots;
+
+    private final SnapshotCache<String, Boolean> sessions;
+
+    /**
+     * The snapshot loaded last, guarded by this cache
+     */
+    private Snapshot lastSnapshot;
+
+    /**
+     * @param timeToLive period in milliseconds during which a snapshot is served
+     * @param validationPeriod period in milliseconds after which a session is checked again
+     * @param maximumSessions maximum number of valid sessions remembered
+     */
+    public MonitoringSnapshotCache(long timeToLive, long validationPeriod, long maximumSessions) {
+        this.snapshots = new SnapshotCache<>(timeToLive, 1);
+        this.sessions = new SnapshotCache<>(validationPeriod, maximumSessions);
+    }
+
+    /**
+     * @param sessionId the session reading the snapshot
+     * @param sessionCheck fails if the session is not valid anymore
+     * @param loader fetches the monitoring document with the given session
+     * @return the current monitoring document
+     * @throws RestServerException the session check or the loader failed with a REST server error
+     * @throws ServiceException the session check or the loader failed for any other reason
+     */
+    public String get(String sessionId, Callable<?> sessionCheck, Callable<String> loader)
+            throws RestServerException, ServiceException {
+        return getSnapshot(sessionId, sessionCheck, loader).getContent();
+    }
+
+    /**
+     * @param sessionId the session reading the snapshot
+     * @param sessionCheck fails if the session is not valid anymore
+     * @param loader fetches the monitoring document with the given session
+     * @return the current snapshot
+     * @throws RestServerException the session check or the loader failed with a REST server error
+     * @throws ServiceException the session check or the loader failed for any other reason
+     */
+    public Snapshot getSnapshot(String sessionId, Callable<?> sessionCheck, Callable<String> loader)
+            throws RestServerException, ServiceException {
+        checkSession(sessionId, sessionCheck);
+        return snapshots.get(SNAPSHOT_KEY, () -> newSnapshot(loader.call()));
+    }
+
+    private synchronized Snapshot newSnapshot(String content) {
+        long version = 1;
+        if (lastSnapshot != null) {
+            version = lastSnapshot.content.equals(content) ? lastSnapshot.version : lastSnapshot.version + 1;
+        }
+        lastSnapshot = new Snapshot(content, version);
+        return lastSnapshot;
+    }
+
+    /**
+     * Checks a session against the REST server, unless it was found valid
+     * during the validation period. Used for the other resources the RM
+     * returns identically to all its users.
+     *
+     * @param sessionId the session reading a shared resource
+     * @param sessionCheck fails if the session is not valid anymore
+     * @throws RestServerException the session check failed with a REST server error
+     * @throws ServiceException the session check failed for any other reason
+     */
+    public void checkSession(String sessionId, Callable<?> sessionCheck) throws RestServerException, ServiceException {
+        sessions.get(sessionId, () -> {
+            sessionCheck.call();
+            return Boolean.TRUE;
+        });
+    }
+
+    /**
+     * Forgets a session which logged out.
+     *
+     * @param sessionId the session identifier
+     */
+    public void invalidate(String sessionId) {
+        sessions.invalidate(sessionId);
+    }
+
+    /**
+     * @return ratio of the requests served without reaching the REST server
+     */
+    public double getHitRate() {
+        return snapshots.stats().hitRate();
+    }
+
+    /**
+     * @return age in milliseconds of the snapshot currently served, or -1 if there is none
+     */
+    public long getStaleness() {
+        Snapshot snapshot = snapshots.getIfPresent(SNAPSHOT_KEY);
+        return snapshot == null ? -1 : System.currentTimeMillis() - snapshot.fetchTime;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hit rate: %.2f, staleness: %d ms, loads: %d",
+                             getHitRate(),
+                             getStaleness(),
+                             snapshots.stats().loadCount());
+    }
+
+    public static final class Snapshot {
+
+        private final String content;
+
+        private final long version;
+
+        private final long fetchTime = System.currentTimeMillis();
+
+        private JsonNode summary;
+
+        private Snapshot(String content, long version) {
+            this.content = content;
+            this.version = version;
+        }
+
+        /**
+         * @return the monitoring document, as returned by the REST server
+         */
+        public String getContent() {
+            return content;
+        }
+
+        /**
+         * @return the version of the monitoring document, the same as the previous snapshot
+         *         if the document did not change
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * @return the node counters of the monitoring document
+         * @throws IOException the monitoring document could not be read
+         */
+        public synchronized JsonNode getSummary() throws IOException {
+            if (summary == null) {
+                summary = MonitoringSummary.summarize(content);
+            }
+            return summary;
+        }
+
+    }
+
+}
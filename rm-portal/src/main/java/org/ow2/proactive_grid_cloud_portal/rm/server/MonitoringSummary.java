@@ -0,0 +1,186 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.server;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+
+/**
+ * Counts the nodes of an RM monitoring document, so that the browsers
+ * do not have to walk all the nodes on each refresh.
+ * <p>
+ * The document is read with a streaming parser, only the attributes
+ * needed by the counters are kept. The summary is a JSON object holding:
+ * <ul>
+ * <li>the number of nodes in each state: <code>deploying</code>, <code>lost</code>,
+ * <code>configuring</code>, <code>free</code>, <code>busy</code>, <code>down</code>
+ * and <code>toBeRemoved</code>,</li>
+ * <li><code>locked</code>: the number of locked nodes,</li>
+ * <li><code>physicalHosts</code> and <code>virtualHosts</code>: the number of hosts
+ * holding at least one deployed node,</li>
+ * <li><code>nodeSources</code>: for each node source name, the number of
+ * <code>nodes</code> deployed on its <code>hosts</code>, and of <code>deploying</code> nodes.</li>
+ * </ul>
+ */
+public final class MonitoringSummary {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+
+    private static final String[] NODE_STATES = { "DEPLOYING", "LOST", "CONFIGURING", "FREE", "BUSY", "DOWN",
+                                                  "TO_BE_REMOVED" };
+
+    private static final String[] COUNTER_NAMES = { "deploying", "lost", "configuring", "free", "busy", "down",
+                                                    "toBeRemoved" };
+
+    private MonitoringSummary() {
+    }
+
+    /**
+     * @param monitoring the "rm/monitoring" JSON document returned by the REST server
+     * @return the counters of the nodes of the document
+     * @throws IOException the monitoring document could not be read
+     */
+    public static ObjectNode summarize(String monitoring) throws IOException {
+        Map<String, Integer> states = new HashMap<>();
+        Map<String, int[]> sources = new HashMap<>();
+        Set<String> hosts = new HashSet<>();
+        Set<String> virtualHosts = new HashSet<>();
+        int locked = 0;
+
+        try (JsonParser parser = JSON_FACTORY.createParser(monitoring)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Monitoring document is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (!"nodesEvents".equals(field) || value != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    NodeFields node = readNode(parser);
+
+                    states.merge(node.state, 1, Integer::sum);
+                    if (node.locked) {
+                        locked++;
+                    }
+
+                    int[] source = sources.computeIfAbsent(node.source, name -> new int[2]);
+                    if (node.host.isEmpty()) {
+                        source[1]++;
+                    } else {
+                        source[0]++;
+                        String host = node.source + '\n' + node.host;
+                        hosts.add(host);
+                        if (node.url.toLowerCase(Locale.ENGLISH).contains("virt-")) {
+                            virtualHosts.add(host);
+                        }
+                    }
+                }
+            }
+        }
+
+        ObjectNode summary = JSON_MAPPER.createObjectNode();
+        for (int i = 0; i < NODE_STATES.length; i++) {
+            summary.put(COUNTER_NAMES[i], states.getOrDefault(NODE_STATES[i], 0));
+        }
+        summary.put("locked", locked);
+        summary.put("physicalHosts", hosts.size() - virtualHosts.size());
+        summary.put("virtualHosts", virtualHosts.size());
+
+        ObjectNode nodeSources = summary.putObject("nodeSources");
+        for (Map.Entry<String, int[]> source : sources.entrySet()) {
+            ObjectNode counters = nodeSources.putObject(source.getKey());
+            counters.put("nodes", source.getValue()[0]);
+            counters.put("deploying", source.getValue()[1]);
+        }
+        return summary;
+    }
+
+    /**
+     * Reads the attributes of a node, the parser being positioned on the start of its object
+     */
+    private static NodeFields readNode(JsonParser parser) throws IOException {
+        NodeFields node = new NodeFields();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                continue;
+            }
+            switch (field) {
+                case "nodeUrl":
+                    node.url = parser.getValueAsString("");
+                    break;
+                case "nodeState":
+                    node.state = parser.getValueAsString("").toUpperCase(Locale.ENGLISH);
+                    break;
+                case "nodeSource":
+                    node.source = parser.getValueAsString("");
+                    break;
+                case "hostName":
+                    node.host = parser.getValueAsString("");
+                    break;
+                case "locked":
+                    node.locked = parser.getValueAsBoolean(false);
+                    break;
+                default:
+                    break;
+            }
+        }
+        return node;
+    }
+
+    private static final class NodeFields {
+
+        private String url = "";
+
+        private String state = "";
+
+        private String source = "";
+
+        private String host = "";
+
+        private boolean locked;
+
+    }
+
+}
@@ -0,0 +1,295 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.server;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
+import org.ow2.proactive_grid_cloud_portal.rm.shared.ScriptResults;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+
+/**
+ * Runs a script of the console on several nodes and keeps their answers
+ * until the browser fetches them.
+ * <p>
+ * At most a fixed number of nodes run a script at the same time, whatever
+ * the number of executions, and a bounded number of nodes wait for their turn:
+ * the nodes beyond are reported as failed at once. A node which does not answer
+ * in time once it started running the script is reported as failed and the thread
+ * calling it is interrupted, its late answer being ignored. A node still waiting
+ * for its turn when the execution reaches its deadline is reported as failed
+ * without running the script. The browser fetches the answers as the nodes send
+ * them, waiting for the next ones on the server.
+ */
+public class NodeScriptExecutions {
+
+    /**
+     * Runs the script on a node
+     */
+    public interface NodeScript {
+
+        /**
+         * @param nodeUrl the node running the script
+         * @return the response of the REST server
+         */
+        String execute(String nodeUrl) throws Exception;
+
+    }
+
+    private final ThreadPoolExecutor pool;
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+
+    private final long nodeTimeout;
+
+    private final long queueTimeout;
+
+    private final Cache<String, Execution> executions;
+
+    /**
+     * @param concurrency maximum number of nodes running a script at the same time
+     * @param queueSize maximum number of nodes waiting to run a script
+     * @param nodeTimeout time in milliseconds after which a node running the script which
+     *            has not answered is reported as failed
+     * @param queueTimeout time in milliseconds after the start of the execution after which
+     *            the nodes which have not started running the script are reported as failed
+     * @param maximumSize maximum number of executions kept
+     * @param idleTime time in milliseconds after which the answers not fetched are discarded
+     */
+    public NodeScriptExecutions(int concurrency, int queueSize, long nodeTimeout, long queueTimeout,
+            long maximumSize, long idleTime) {
+        this.pool = new ThreadPoolExecutor(concurrency,
+                                           concurrency,
+                                           0,
+                                           TimeUnit.MILLISECONDS,
+                                           new ArrayBlockingQueue<>(queueSize));
+        this.nodeTimeout = nodeTimeout;
+        this.queueTimeout = queueTimeout;
+        this.executions = CacheBuilder.newBuilder()
+                                      .maximumSize(maximumSize)
+                                      .expireAfterAccess(idleTime, TimeUnit.MILLISECONDS)
+                                      .build();
+    }
+
+    /**
+     * Starts running the script on the nodes.
+     *
+     * @param sessionId session allowed to fetch the answers
+     * @param nodeUrls the nodes on which the script runs
+     * @param script runs the script on a node
+     * @return identifier of the execution
+     */
+    public String start(String sessionId, Collection<String> nodeUrls, NodeScript script) {
+        String id = UUID.randomUUID().toString();
+        Execution execution = new Execution(sessionId, nodeUrls.size());
+        executions.put(id, execution);
+        List<NodeTask> tasks = new ArrayList<>(nodeUrls.size());
+        for (String nodeUrl : nodeUrls) {
+            NodeTask task = new NodeTask(execution, nodeUrl, script);
+            try {
+                pool.execute(task);
+            } catch (RejectedExecutionException e) {
+                execution.fail(nodeUrl, "Too many nodes running a script, try again later");
+                continue;
+            }
+            tasks.add(task);
+        }
+        String notStarted = "Not started after " + queueTimeout / 1000 +
+                            " seconds, too many nodes were running a script";
+        timer.schedule(() -> {
+            for (NodeTask task : tasks) {
+                if (execution.failIfNotStarted(task.nodeUrl, notStarted)) {
+                    pool.remove(task);
+                }
+            }
+        }, queueTimeout, TimeUnit.MILLISECONDS);
+        return id;
+    }
+
+    private static void runScript(Execution execution, String nodeUrl, NodeScript script) {
+        try {
+            execution.succeed(nodeUrl, script.execute(nodeUrl));
+        } catch (Exception e) {
+            execution.fail(nodeUrl, e.getMessage() == null ? e.toString() : e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the answers received since the previous call, waiting for at least one
+     * answer if there is none yet and some nodes are still running the script.
+     *
+     * @param sessionId session which started the execution
+     * @param id identifier of the execution
+     * @param wait maximum time in milliseconds to wait for an answer
+     * @return the answers of the nodes and the number of nodes still running the script
+     * @throws RestServerException the execution is unknown to the session
+     * @throws ServiceException interrupted while waiting
+     */
+    public ScriptResults fetch(String sessionId, String id, long wait) throws RestServerException, ServiceException {
+        Execution execution = executions.getIfPresent(id);
+        if (execution == null || !execution.sessionId.equals(sessionId)) {
+            throw new RestServerException(404, "Unknown script execution " + id);
+        }
+        try {
+            ScriptResults results = execution.drain(wait);
+            if (results.getRemaining() == 0) {
+                executions.invalidate(id);
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("Interrupted while waiting for the script results");
+        }
+    }
+
+    public void shutdown() {
+        pool.shutdownNow();
+        timer.shutdownNow();
+        executions.invalidateAll();
+    }
+
+    @Override
+    public String toString() {
+        return "running executions: " + executions.size() + ", nodes running a script: " + pool.getActiveCount() +
+               ", nodes waiting: " + pool.getQueue().size();
+    }
+
+    /**
+     * Runs the script on a node, the node timing out {@link #nodeTimeout} after it started
+     */
+    private final class NodeTask extends FutureTask<Void> {
+
+        private final Execution execution;
+
+        private final String nodeUrl;
+
+        private NodeTask(Execution execution, String nodeUrl, NodeScript script) {
+            super(() -> runScript(execution, nodeUrl, script), null);
+            this.execution = execution;
+            this.nodeUrl = nodeUrl;
+        }
+
+        @Override
+        public void run() {
+            if (!execution.start(nodeUrl)) {
+                return;
+            }
+            String noAnswer = "No answer after " + nodeTimeout / 1000 + " seconds";
+            ScheduledFuture<?> timeout = timer.schedule(() -> {
+                if (execution.fail(nodeUrl, noAnswer)) {
+                    cancel(true);
+                }
+            }, nodeTimeout, TimeUnit.MILLISECONDS);
+            try {
+                super.run();
+            } finally {
+                timeout.cancel(false);
+            }
+        }
+
+    }
+
+    private static final class Execution {
+
+        private final String sessionId;
+
+        private final int nodes;
+
+        private final Set<String> started = new HashSet<>();
+
+        private final Set<String> answered = new HashSet<>();
+
+        private ScriptResults results = new ScriptResults();
+
+        private Execution(String sessionId, int nodes) {
+            this.sessionId = sessionId;
+            this.nodes = nodes;
+        }
+
+        /**
+         * @return false if the node has already been reported as failed and must not run the script
+         */
+        private synchronized boolean start(String nodeUrl) {
+            if (answered.contains(nodeUrl)) {
+                return false;
+            }
+            started.add(nodeUrl);
+            return true;
+        }
+
+        private synchronized boolean failIfNotStarted(String nodeUrl, String reason) {
+            return !started.contains(nodeUrl) && fail(nodeUrl, reason);
+        }
+
+        private synchronized void succeed(String nodeUrl, String output) {
+            if (answered.add(nodeUrl)) {
+                results.addOutput(nodeUrl, output);
+                notifyAll();
+            }
+        }
+
+        private synchronized boolean fail(String nodeUrl, String reason) {
+            if (answered.add(nodeUrl)) {
+                results.addFailure(nodeUrl, reason);
+                notifyAll();
+                return true;
+            }
+            return false;
+        }
+
+        private synchronized ScriptResults drain(long wait) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + wait;
+            long left = wait;
+            while (results.isEmpty() && answered.size() < nodes && left > 0) {
+                wait(left);
+                left = deadline - System.currentTimeMillis();
+            }
+            ScriptResults drained = results;
+            drained.setRemaining(nodes - answered.size());
+            results = new ScriptResults();
+            return drained;
+        }
+
+    }
+
+}
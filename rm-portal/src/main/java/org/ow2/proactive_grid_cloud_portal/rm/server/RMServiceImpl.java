@@ -31,22 +31,30 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.management.MalformedObjectNameException;
 import javax.management.ObjectName;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.entity.mime.MultipartEntity;
 import org.apache.http.entity.mime.content.ByteArrayBody;
 import org.apache.http.entity.mime.content.FileBody;
@@ -54,20 +62,34 @@ import org.apache.http.entity.mime.content.StringBody;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.jboss.resteasy.client.jaxrs.ResteasyClient;
 import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
-import org.jboss.resteasy.client.jaxrs.ResteasyWebTarget;
 import org.jboss.resteasy.client.jaxrs.engines.ApacheHttpClient4Engine;
+import org.jboss.resteasy.client.jaxrs.internal.ClientInvocation;
 import org.ow2.proactive.http.HttpClientBuilder;
 import org.ow2.proactive_grid_cloud_portal.common.server.ConfigReader;
 import org.ow2.proactive_grid_cloud_portal.common.server.ConfigUtils;
+import org.ow2.proactive_grid_cloud_portal.common.server.RevalidatingHttpClient;
+import org.ow2.proactive_grid_cloud_portal.common.server.ServerEvent;
+import org.ow2.proactive_grid_cloud_portal.common.server.ServerEventServlet;
+import org.ow2.proactive_grid_cloud_portal.common.server.ServerEventSource;
 import org.ow2.proactive_grid_cloud_portal.common.server.Service;
+import org.ow2.proactive_grid_cloud_portal.common.server.SlowRpcCalls;
+import org.ow2.proactive_grid_cloud_portal.common.server.StatisticsLogger;
 import org.ow2.proactive_grid_cloud_portal.common.shared.Config;
 import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
 import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
 import org.ow2.proactive_grid_cloud_portal.rm.client.RMService;
+import org.ow2.proactive_grid_cloud_portal.rm.shared.MBeanQuery;
+import org.ow2.proactive_grid_cloud_portal.rm.shared.NodesActionResult;
 import org.ow2.proactive_grid_cloud_portal.rm.shared.RMConfig;
+import org.ow2.proactive_grid_cloud_portal.rm.shared.ScriptResults;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+
 
 /**
  * The server side implementation of the RPC service.
@@ -77,17 +99,144 @@ public class RMServiceImpl extends Service implements RMService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RMServiceImpl.class);
 
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+
     /**
      * Number of threads created for the threadPool shared by RestEasy client proxies.
      */
     private static final int THREAD_POOL_SIZE = Runtime.getRuntime().availableProcessors() * 8;
 
     /**
-     * Thread pool shared by RestEasy client proxies.
+     * Number of nodes sent per request to the REST server when locking or unlocking several nodes
+     */
+    private static final int NODES_ACTION_BATCH_SIZE = 100;
+
+    /**
+     * Thread pool shared by RestEasy client proxies, also running the queries
+     * of {@link #getNodeMBeansBatch(String, String, List)} and the node actions in parallel.
      */
     private ExecutorService threadPool;
 
-    private CloseableHttpClient httpClient;
+    /**
+     * RestEasy client shared by all the requests, its proxy is thread-safe
+     * and reuses the connections pooled by {@link #httpClient}.
+     */
+    private ResteasyClient resteasyClient;
+
+    private RestClient restClientProxy;
+
+    private RevalidatingHttpClient httpClient;
+
+    /**
+     * Maximum number of bytes of the REST responses kept to be revalidated
+     */
+    private static final long REVALIDATED_RESPONSES_SIZE = 32 * 1024 * 1024;
+
+    /**
+     * Maximum number of bytes of a REST response kept to be revalidated
+     */
+    private static final long REVALIDATED_RESPONSE_MAX_SIZE = 1024 * 1024;
+
+    /**
+     * Period in milliseconds after which the monitoring snapshot
+     * of an inactive session is dropped
+     */
+    private static final long MONITORING_SNAPSHOT_IDLE_TIME = 10 * 60 * 1000;
+
+    private static final long MAX_MONITORED_SESSIONS = 1000;
+
+    /**
+     * Nodes last sent to each session by {@link #getMonitoringDelta(String, long)}
+     */
+    private MonitoringDeltaTracker monitoringDeltas;
+
+    /**
+     * Period in milliseconds during which a session acknowledged by the REST server
+     * is allowed to read the shared monitoring snapshot without being checked again.
+     */
+    private static final long SESSION_VALIDATION_PERIOD = 60000;
+
+    /**
+     * Monitoring document shared by all the sessions
+     */
+    private MonitoringSnapshotCache monitoringSnapshots;
+
+    /**
+     * Maximum number of range strings for which the statistic history is kept
+     */
+    private static final long MAX_STAT_HISTORY_RANGES = 100;
+
+    /**
+     * Statistic history shared by all the sessions
+     */
+    private StatHistoryCache statHistories;
+
+    /**
+     * Maximum number of nodes running a script of the console at the same time
+     */
+    private static final int NODE_SCRIPTS_CONCURRENCY = 32;
+
+    /**
+     * Maximum number of nodes waiting to run a script of the console
+     */
+    private static final int NODE_SCRIPTS_QUEUE_SIZE = 5000;
+
+    /**
+     * Maximum number of nodes selected to run a script of the console
+     */
+    private static final int MAX_SCRIPT_NODES = 1000;
+
+    /**
+     * Time in milliseconds after which a node running a script of the console is reported as not answering
+     */
+    private static final long NODE_SCRIPT_TIMEOUT = 120000;
+
+    /**
+     * Time in milliseconds after the start of a script of the console after which the nodes
+     * still waiting to run it are reported as failed
+     */
+    private static final long NODE_SCRIPT_QUEUE_TIMEOUT = 600000;
+
+    /**
+     * Maximum time in milliseconds a request for script results waits for the next node answer
+     */
+    private static final long NODE_SCRIPT_RESULTS_WAIT = 10000;
+
+    /**
+     * Time in milliseconds after which the script results not fetched by the browser are discarded
+     */
+    private static final long NODE_SCRIPT_RESULTS_IDLE_TIME = 600000;
+
+    /**
+     * Scripts of the console running on several nodes
+     */
+    private NodeScriptExecutions nodeScripts;
+
+    /**
+     * Same as {@link #resteasyClient}, a node script call giving up after {@link #NODE_SCRIPT_TIMEOUT}
+     * without data from the REST server
+     */
+    private ResteasyClient nodeScriptClient;
+
+    private RestClient nodeScriptClientProxy;
+
+    /**
+     * Logs the statistics of the caches and pools while the service runs
+     */
+    private StatisticsLogger statistics;
+
+    /**
+     * Calls waiting for statistic histories, node scripts or their results which may take long to be answered
+     */
+    private static final Set<String> SLOW_CALLS = ImmutableSet.of("getStatHistory",
+                                                                  "getNodeMBeansBatch",
+                                                                  "executeNodeScript",
+                                                                  "getNodesScriptResults");
+
+    /**
+     * Maximum number of slow calls waiting to be processed
+     */
+    private static final int SLOW_CALLS_QUEUE_SIZE = 1000;
 
     @Override
     public void init() {
@@ -95,13 +244,77 @@ public class RMServiceImpl extends Service implements RMService {
 
         Config config = Config.get();
 
-        httpClient = new HttpClientBuilder().maxConnections(50)
-                                            .allowAnyCertificate(config.isHttpsAllowAnyCertificate())
-                                            .allowAnyHostname(config.isHttpsAllowAnyHostname())
-                                            .useSystemProperties()
-                                            .build();
+        CloseableHttpClient client = new HttpClientBuilder().maxConnections(50)
+                                                            .allowAnyCertificate(config.isHttpsAllowAnyCertificate())
+                                                            .allowAnyHostname(config.isHttpsAllowAnyHostname())
+                                                            .useSystemProperties()
+                                                            .build();
+        httpClient = new RevalidatingHttpClient(client,
+                                                REVALIDATED_RESPONSES_SIZE,
+                                                REVALIDATED_RESPONSE_MAX_SIZE,
+                                                "sessionid");
 
         threadPool = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
+
+        resteasyClient = new ResteasyClientBuilder().asyncExecutor(threadPool)
+                                                    .httpEngine(new ApacheHttpClient4Engine(httpClient))
+                                                    .build();
+        restClientProxy = resteasyClient.target(RMConfig.get().getRestUrl()).proxy(RestClient.class);
+
+        RequestConfig nodeScriptConfig = RequestConfig.custom()
+                                                      .setConnectTimeout((int) NODE_SCRIPT_TIMEOUT)
+                                                      .setSocketTimeout((int) NODE_SCRIPT_TIMEOUT)
+                                                      .setRedirectsEnabled(false)
+                                                      .build();
+        nodeScriptClient = new ResteasyClientBuilder().httpEngine(new ApacheHttpClient4Engine(httpClient) {
+            @Override
+            protected void loadHttpMethod(ClientInvocation request, HttpRequestBase httpMethod) throws Exception {
+                super.loadHttpMethod(request, httpMethod);
+                httpMethod.setConfig(nodeScriptConfig);
+            }
+        }).build();
+        nodeScriptClientProxy = nodeScriptClient.target(RMConfig.get().getRestUrl()).proxy(RestClient.class);
+
+        monitoringDeltas = new MonitoringDeltaTracker(MONITORING_SNAPSHOT_IDLE_TIME, MAX_MONITORED_SESSIONS);
+        monitoringSnapshots = new MonitoringSnapshotCache(RMConfig.get().getClientRefreshTime(),
+                                                          SESSION_VALIDATION_PERIOD,
+                                                          MAX_MONITORED_SESSIONS);
+        statHistories = new StatHistoryCache(MAX_STAT_HISTORY_RANGES);
+        nodeScripts = new NodeScriptExecutions(NODE_SCRIPTS_CONCURRENCY,
+                                               NODE_SCRIPTS_QUEUE_SIZE,
+                                               NODE_SCRIPT_TIMEOUT,
+                                               NODE_SCRIPT_QUEUE_TIMEOUT,
+                                               MAX_MONITORED_SESSIONS,
+                                               NODE_SCRIPT_RESULTS_IDLE_TIME);
+        slowCalls = new SlowRpcCalls(SLOW_CALLS,
+                                     config.getSlowCallsConcurrency(),
+                                     SLOW_CALLS_QUEUE_SIZE,
+                                     config.getSlowCallsTimeout());
+
+        statistics = new StatisticsLogger().add("Monitoring snapshot cache statistics", monitoringSnapshots::toString)
+                                           .add("Statistic history cache statistics", statHistories::toString)
+                                           .add("Revalidated REST responses", httpClient::toString)
+                                           .add("Node scripts", nodeScripts::toString)
+                                           .add("Slow calls", slowCalls::toString);
+        statistics.start(config.getStatisticsLogPeriod());
+
+        getServletContext().setAttribute(ServerEventServlet.EVENT_SOURCE_ATTRIBUTE, new RMEventSource());
+    }
+
+    @Override
+    public void destroy() {
+        statistics.stop();
+        slowCalls.shutdown();
+        nodeScripts.shutdown();
+        nodeScriptClient.close();
+        resteasyClient.close();
+        threadPool.shutdownNow();
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            LOGGER.warn("Failed to close HTTP client", e);
+        }
+        super.destroy();
     }
 
     /*
@@ -127,6 +340,9 @@ public class RMServiceImpl extends Service implements RMService {
      * @see org.ow2.proactive_grid_cloud_portal.rm.client.RMService#logout(java.lang.String)
      */
     public void logout(String sessionId) throws ServiceException {
+        monitoringDeltas.invalidate(sessionId);
+        monitoringSnapshots.invalidate(sessionId);
+
         RestClient restClientProxy = getRestClientProxy();
 
         try {
@@ -217,14 +433,39 @@ public class RMServiceImpl extends Service implements RMService {
      * @see org.ow2.proactive_grid_cloud_portal.rm.client.RMService#getMonitoring(java.lang.String)
      */
     public String getMonitoring(final String sessionId) throws RestServerException, ServiceException {
-        return executeFunctionReturnStreamAsString(new Function<RestClient, InputStream>() {
-            @Override
-            public InputStream apply(RestClient restClient) {
-                return restClient.monitoring(sessionId);
-            }
+        return getMonitoringSnapshot(sessionId).getContent();
+    }
+
+    private MonitoringSnapshotCache.Snapshot getMonitoringSnapshot(final String sessionId)
+            throws RestServerException, ServiceException {
+        return monitoringSnapshots.getSnapshot(sessionId, () -> getState(sessionId), () -> {
+            LOGGER.debug("Reloading the monitoring snapshot, " + monitoringSnapshots);
+            return executeFunctionReturnStreamAsString(new Function<RestClient, InputStream>() {
+                @Override
+                public InputStream apply(RestClient restClient) {
+                    return restClient.monitoring(sessionId);
+                }
+            });
         });
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.ow2.proactive_grid_cloud_portal.rm.client.RMService#getMonitoringDelta(java.lang.String, long)
+     */
+    public String getMonitoringDelta(final String sessionId, long version)
+            throws RestServerException, ServiceException {
+        MonitoringSnapshotCache.Snapshot snapshot = getMonitoringSnapshot(sessionId);
+        InputStream inputStream = IOUtils.toInputStream(snapshot.getContent(), StandardCharsets.UTF_8);
+
+        try {
+            return monitoringDeltas.getDelta(sessionId, version, inputStream, snapshot.getSummary());
+        } catch (IOException e) {
+            throw new ServiceException(e.getMessage());
+        }
+    }
+
     /**
      * Create a Credentials file with the provided authentication parameters
      *
@@ -333,13 +574,14 @@ public class RMServiceImpl extends Service implements RMService {
      * @see org.ow2.proactive_grid_cloud_portal.rm.client.RMService#lockNodes(java.lang.String,
      * java.util.Set)
      */
-    public String lockNodes(final String sessionId, Set<String> urls) throws RestServerException, ServiceException {
+    public NodesActionResult lockNodes(final String sessionId, Set<String> urls)
+            throws RestServerException, ServiceException {
         return executeFunction(new BiFunction<RestClient, Set<String>, InputStream>() {
             @Override
             public InputStream apply(RestClient restClient, Set<String> strings) {
                 return restClient.lockNodes(sessionId, strings);
             }
-        }, urls, "lock");
+        }, urls, NODES_ACTION_BATCH_SIZE, "lock");
     }
 
     /*
@@ -348,13 +590,14 @@ public class RMServiceImpl extends Service implements RMService {
      * @see org.ow2.proactive_grid_cloud_portal.rm.client.RMService#unlockNodes(java.lang.String,
      * java.util.Set)
      */
-    public String unlockNodes(final String sessionId, Set<String> urls) throws RestServerException, ServiceException {
+    public NodesActionResult unlockNodes(final String sessionId, Set<String> urls)
+            throws RestServerException, ServiceException {
         return executeFunction(new BiFunction<RestClient, Set<String>, InputStream>() {
             @Override
             public InputStream apply(RestClient restClient, Set<String> strings) {
                 return restClient.unlockNodes(sessionId, strings);
             }
-        }, urls, "unlock");
+        }, urls, NODES_ACTION_BATCH_SIZE, "unlock");
     }
 
     /*
@@ -373,6 +616,20 @@ public class RMServiceImpl extends Service implements RMService {
         });
     }
 
+    /**
+     * The REST server removes one node per request, the requests are sent in parallel.
+     */
+    @Override
+    public NodesActionResult removeNodes(final String sessionId, Set<String> urls, final boolean force)
+            throws RestServerException, ServiceException {
+        return executeFunction(new BiFunction<RestClient, Set<String>, InputStream>() {
+            @Override
+            public InputStream apply(RestClient restClient, Set<String> strings) {
+                return restClient.removeNode(sessionId, strings.iterator().next(), force);
+            }
+        }, urls, 1, "remove");
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -480,14 +737,87 @@ public class RMServiceImpl extends Service implements RMService {
         });
     }
 
+    /**
+     * Runs the queries in parallel on {@link #threadPool} so that the whole batch
+     * takes about as long as its slowest query.
+     */
     @Override
-    public String getStatHistory(final String sessionId, final String range)
-            throws RestServerException, ServiceException {
-        return executeFunctionReturnStreamAsString(new Function<RestClient, InputStream>() {
-            @Override
-            public InputStream apply(RestClient restClient) {
-                return restClient.getStatHistory(sessionId, range);
+    public List<String> getNodeMBeansBatch(final String sessionId, final String nodeJmxUrl,
+            List<MBeanQuery> queries) throws RestServerException, ServiceException {
+        List<Future<String>> responses = new ArrayList<>(queries.size());
+        for (final MBeanQuery query : queries) {
+            responses.add(threadPool.submit(() -> getNodeMBeans(sessionId, nodeJmxUrl, query)));
+        }
+
+        List<String> results = new ArrayList<>(queries.size());
+        Throwable failure = null;
+        int failures = 0;
+
+        for (Future<String> response : responses) {
+            try {
+                results.add(response.get());
+            } catch (ExecutionException e) {
+                results.add(null);
+                failure = e.getCause();
+                failures++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                for (Future<String> pending : responses) {
+                    pending.cancel(true);
+                }
+                throw new ServiceException("Interrupted while fetching the MBeans of " + nodeJmxUrl);
             }
+        }
+
+        if (failures > 0 && failures == queries.size()) {
+            if (failure instanceof RestServerException) {
+                throw (RestServerException) failure;
+            }
+            if (failure instanceof ServiceException) {
+                throw (ServiceException) failure;
+            }
+            throw new ServiceException(failure.toString());
+        }
+        if (failures > 0) {
+            LOGGER.debug(failures + " of " + queries.size() + " MBean queries failed on " + nodeJmxUrl, failure);
+        }
+
+        return results;
+    }
+
+    private String getNodeMBeans(String sessionId, String nodeJmxUrl, MBeanQuery query)
+            throws RestServerException, ServiceException {
+        if (query.isPattern() && query.isHistory()) {
+            return getNodeMBeansHistory(sessionId,
+                                        nodeJmxUrl,
+                                        query.getObjectName(),
+                                        query.getAttrs(),
+                                        query.getTimeRange());
+        } else if (query.isPattern()) {
+            return getNodeMBeansInfo(sessionId, nodeJmxUrl, query.getObjectName(), query.getAttrs());
+        } else if (query.isHistory()) {
+            return getNodeMBeanHistory(sessionId,
+                                       nodeJmxUrl,
+                                       query.getObjectName(),
+                                       query.getAttrs(),
+                                       query.getTimeRange());
+        } else {
+            return getNodeMBeanInfo(sessionId, nodeJmxUrl, query.getObjectName(), query.getAttrs());
+        }
+    }
+
+    @Override
+    public String getStatHistory(final String sessionId, final String range, long since)
+            throws RestServerException, ServiceException {
+        monitoringSnapshots.checkSession(sessionId, () -> getState(sessionId));
+        return statHistories.get(range, since, () -> {
+            LOGGER.debug("Reloading the statistic history of range " + range + ", " + statHistories);
+            return executeFunctionReturnStreamAsString(new Function<RestClient, InputStream>() {
+                @Override
+                public InputStream apply(RestClient restClient) {
+                    return restClient.getStatHistory(sessionId, range);
+                }
+            });
         });
     }
 
@@ -502,49 +832,163 @@ public class RMServiceImpl extends Service implements RMService {
         });
     }
 
-    private RestClient getRestClientProxy() {
-        ResteasyClient client = new ResteasyClientBuilder().asyncExecutor(threadPool)
-                                                           .httpEngine(new ApacheHttpClient4Engine(httpClient))
-                                                           .build();
+    /**
+     * Runs the script on the nodes through {@link #nodeScripts}, each node answering
+     * through the same REST call as {@link #executeNodeScript(String, String, String, String)},
+     * sent by {@link #nodeScriptClientProxy}.
+     */
+    @Override
+    public String executeNodesScript(final String sessionId, final String script, final String engine,
+            Set<String> nodeUrls) throws RestServerException, ServiceException {
+        monitoringSnapshots.checkSession(sessionId, () -> getState(sessionId));
+        if (nodeUrls.size() > MAX_SCRIPT_NODES) {
+            throw new ServiceException("A script cannot run on more than " + MAX_SCRIPT_NODES + " nodes at once");
+        }
+        return nodeScripts.start(sessionId, nodeUrls, nodeUrl -> {
+            Function<RestClient, InputStream> call = restClient -> restClient.executeNodeScript(sessionId,
+                                                                                                nodeUrl,
+                                                                                                script,
+                                                                                                engine);
+            return executeFunctionReturnStreamAsString(nodeScriptClientProxy, call);
+        });
+    }
 
-        ResteasyWebTarget target = client.target(RMConfig.get().getRestUrl());
+    @Override
+    public ScriptResults getNodesScriptResults(String sessionId, String executionId)
+            throws RestServerException, ServiceException {
+        return nodeScripts.fetch(sessionId, executionId, NODE_SCRIPT_RESULTS_WAIT);
+    }
 
-        return target.proxy(RestClient.class);
+    private RestClient getRestClientProxy() {
+        return restClientProxy;
     }
 
-    private String executeFunction(BiFunction<RestClient, Set<String>, InputStream> action, Set<String> urls,
-            String actionName) throws ServiceException, RestServerException {
+    /**
+     * Applies an action to the nodes by batches of the given size, the batches being sent
+     * in parallel on {@link #threadPool}. The RM applies the action to every node of a batch
+     * it can and only answers whether it succeeded for all of them: when it did not, the nodes
+     * of the batch are reported with an unknown outcome rather than sent again, as the action
+     * cannot be applied twice to the nodes it already changed.
+     *
+     * @return the nodes for which the action succeeded, failed, or has an unknown outcome
+     * @throws RestServerException the session is not valid anymore
+     */
+    private NodesActionResult executeFunction(final BiFunction<RestClient, Set<String>, InputStream> action,
+            Set<String> urls, int batchSize, String actionName) throws RestServerException, ServiceException {
 
-        RestClient restClientProxy = getRestClientProxy();
+        final RestClient restClientProxy = getRestClientProxy();
 
-        int failures = 0;
-        int success = 0;
+        List<Set<String>> batches = new ArrayList<>();
+        for (List<String> batch : Iterables.partition(urls, batchSize)) {
+            batches.add(new LinkedHashSet<>(batch));
+        }
 
-        for (String url : urls) {
-            InputStream inputStream = null;
+        List<Future<NodesActionResult>> outcomes = new ArrayList<>(batches.size());
+        for (final Set<String> batch : batches) {
+            outcomes.add(threadPool.submit(() -> applyNodesAction(action, restClientProxy, batch)));
+        }
+
+        NodesActionResult result = new NodesActionResult();
 
+        for (int i = 0; i < batches.size(); i++) {
             try {
-                inputStream = action.apply(restClientProxy, Collections.singleton(url));
-                success++;
-            } catch (WebApplicationException e) {
-                failures++;
-            } finally {
-                IOUtils.closeQuietly(inputStream);
+                result.merge(outcomes.get(i).get());
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RestServerException) {
+                    cancel(outcomes);
+                    throw (RestServerException) e.getCause();
+                }
+                for (String url : batches.get(i)) {
+                    result.addFailure(url, e.getCause().toString());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel(outcomes);
+                throw new ServiceException("Interrupted while waiting for " + actionName);
             }
         }
 
-        if (failures > 0) {
-            throw new RestServerException("Failed to " + actionName + " all requested nodes: " + success +
-                                          " succeeded, " + failures + " failed.");
+        if (result.isIncomplete()) {
+            LOGGER.info("Requested " + actionName + " of " + urls.size() + " nodes: " + result.getSuccessCount() +
+                        " succeeded, " + result.getFailureCount() + " failed, " + result.getUnknownCount() +
+                        " unknown.");
+        }
+
+        return result;
+    }
+
+    private static void cancel(List<? extends Future<?>> futures) {
+        for (Future<?> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * @return the outcome of the action for each of the given nodes
+     * @throws RestServerException the session is not valid anymore
+     */
+    private NodesActionResult applyNodesAction(BiFunction<RestClient, Set<String>, InputStream> action,
+            RestClient restClientProxy, Set<String> urls) throws RestServerException {
+        NodesActionResult result = new NodesActionResult();
+        InputStream inputStream = null;
+
+        try {
+            inputStream = action.apply(restClientProxy, urls);
+
+            if (Boolean.parseBoolean(convertToString(inputStream))) {
+                for (String url : urls) {
+                    result.addSuccess(url);
+                }
+            } else if (urls.size() == 1) {
+                result.addFailure(urls.iterator().next(), "Request rejected by the resource manager");
+            } else {
+                for (String url : urls) {
+                    result.addUnknown(url, "The resource manager failed to apply the action to some of the " +
+                                           urls.size() + " nodes sent with this one");
+                }
+            }
+        } catch (WebApplicationException e) {
+            if (e.getResponse().getStatus() == Response.Status.UNAUTHORIZED.getStatusCode()) {
+                rethrowRestServerException(e);
+            }
+            String failure = getErrorMessage(e);
+            for (String url : urls) {
+                result.addFailure(url, failure);
+            }
+        } catch (IOException e) {
+            for (String url : urls) {
+                result.addFailure(url, "Error while reading InputStream response: " + e.getMessage());
+            }
+        } finally {
+            IOUtils.closeQuietly(inputStream);
         }
+        return result;
+    }
 
-        return "";
+    /**
+     * @return the error message sent by the REST server, or the message of the exception
+     *         if the response does not hold any
+     */
+    private static String getErrorMessage(WebApplicationException e) {
+        try {
+            String entity = e.getResponse().readEntity(String.class);
+            if (entity != null && !entity.isEmpty()) {
+                JsonNode errorMessage = JSON_MAPPER.readTree(entity).path("errorMessage");
+                return errorMessage.isTextual() ? errorMessage.asText() : entity;
+            }
+        } catch (IOException | RuntimeException readFailure) {
+            LOGGER.debug("Failed to read the error response", readFailure);
+        }
+        return e.getMessage();
     }
 
     private String executeFunctionReturnStreamAsString(Function<RestClient, InputStream> function)
             throws ServiceException, RestServerException {
-        RestClient restClientProxy = getRestClientProxy();
+        return executeFunctionReturnStreamAsString(getRestClientProxy(), function);
+    }
 
+    private String executeFunctionReturnStreamAsString(RestClient restClientProxy,
+            Function<RestClient, InputStream> function) throws ServiceException, RestServerException {
         InputStream inputStream = null;
 
         try {
@@ -566,6 +1010,32 @@ public class RMServiceImpl extends Service implements RMService {
         throw new RestServerException(e.getResponse().getStatus(), e.getMessage());
     }
 
+    /**
+     * Notifies the browsers when the nodes or the node sources held by the RM change
+     */
+    private class RMEventSource implements ServerEventSource {
+
+        private long nodes;
+
+        @Override
+        public void checkSession(String sessionId) throws RestServerException, ServiceException {
+            monitoringSnapshots.checkSession(sessionId, () -> getState(sessionId));
+        }
+
+        @Override
+        public List<ServerEvent> poll(String sessionId) throws RestServerException, ServiceException {
+            long newNodes = getMonitoringSnapshot(sessionId).getVersion();
+
+            List<ServerEvent> events = Collections.emptyList();
+            if (nodes != 0 && nodes != newNodes) {
+                events = Collections.singletonList(new ServerEvent("nodes", Long.toString(newNodes)));
+            }
+            nodes = newNodes;
+            return events;
+        }
+
+    }
+
     private interface BiFunction<T, U, R> {
 
         R apply(T t, U u);
@@ -0,0 +1,260 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.server;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.ow2.proactive_grid_cloud_portal.common.client.Model.StatHistory.Range;
+import org.ow2.proactive_grid_cloud_portal.common.server.SnapshotCache;
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.cache.CacheBuilder;
+
+
+/**
+ * Shares the RM statistic history between all the portal sessions.
+ * <p>
+ * The history is kept per range string, each char of the string being the
+ * range of one source, in the order of {@link #SOURCES}. An entry is fetched
+ * again from the REST server once the update frequency of its shortest range
+ * has elapsed, and is stored as one array of values per source.
+ * <p>
+ * Callers give the time of the history they already hold, and only receive
+ * the points computed after it.
+ */
+public class StatHistoryCache {
+
+    /**
+     * Sources of the statistic history, in the order of the chars of a range string
+     */
+    static final String[] SOURCES = { "BusyNodesCount", "FreeNodesCount", "DownNodesCount", "AvailableNodesCount",
+                                      "AverageActivity" };
+
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper().configure(JsonParser.Feature.ALLOW_NON_NUMERIC_NUMBERS,
+                                                                                 true);
+
+    private final SnapshotCache<String, Entry> entries;
+
+    private final AtomicLong loads = new AtomicLong();
+
+    private final AtomicLong requests = new AtomicLong();
+
+    /**
+     * @param maximumRanges maximum number of range strings kept in the cache
+     */
+    public StatHistoryCache(long maximumRanges) {
+        this.entries = new SnapshotCache<>(CacheBuilder.newBuilder()
+                                                       .maximumSize(maximumRanges)
+                                                       .expireAfterAccess(Range.YEAR_1.getUpdateFrequency(),
+                                                                          TimeUnit.SECONDS));
+    }
+
+    /**
+     * @param range one range char per source
+     * @param since time in milliseconds of the history held by the caller, 0 to get the whole history
+     * @param loader fetches the history of the given range from the REST server
+     * @return a JSON object holding the <code>time</code> of the history, whether it is
+     *      <code>full</code> or only contains the points computed after <code>since</code>,
+     *      and the <code>values</code> of each source, null standing for unknown values
+     * @throws RestServerException the loader failed with a REST server error
+     * @throws ServiceException the loader failed for any other reason
+     */
+    public String get(String range, long since, Callable<String> loader) throws RestServerException, ServiceException {
+        requests.incrementAndGet();
+        Entry entry = entries.get(range, () -> new Entry(range));
+        return entry.get(loader).toJson(since);
+    }
+
+    /**
+     * @return ratio of the requests served without reaching the REST server
+     */
+    public double getHitRate() {
+        long count = requests.get();
+        return count == 0 ? 1.0 : (double) (count - loads.get()) / count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hit rate: %.2f, loads: %d", getHitRate(), loads.get());
+    }
+
+    /**
+     * @param range one range char per source
+     * @return period in milliseconds after which the history of the range is fetched again
+     */
+    static long refreshPeriod(String range) {
+        long updateFreq = Range.YEAR_1.getUpdateFrequency();
+        for (int i = 0; i < range.length(); i++) {
+            updateFreq = Math.min(updateFreq, Range.create(range.charAt(i)).getUpdateFrequency());
+        }
+        return updateFreq * 1000;
+    }
+
+    /**
+     * Parses the history returned by the REST server, the unknown values being stored as NaN.
+     * The unknown values at the end of a series are kept so that all the histories of a range
+     * have the same number of points.
+     *
+     * @param range one range char per source
+     * @param json the "rm/stathistory" JSON document returned by the REST server
+     * @param time time in milliseconds at which the document was fetched
+     * @return the history of each source
+     * @throws IOException the document could not be read
+     */
+    static History parse(String range, String json, long time) throws IOException {
+        JsonNode root = JSON_MAPPER.readTree(json);
+        Map<String, double[]> values = new LinkedHashMap<>();
+        Map<String, Range> ranges = new LinkedHashMap<>();
+
+        Iterator<Map.Entry<String, JsonNode>> fields = root.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode array = field.getValue();
+
+            int size = array.size();
+            double[] series = new double[size];
+            for (int i = 0; i < size; i++) {
+                JsonNode value = array.get(i);
+                series[i] = value.isNumber() ? value.asDouble() : Double.NaN;
+            }
+
+            values.put(field.getKey(), series);
+            ranges.put(field.getKey(), rangeOf(range, field.getKey()));
+        }
+        return new History(time, values, ranges);
+    }
+
+    private static Range rangeOf(String range, String source) {
+        for (int i = 0; i < SOURCES.length && i < range.length(); i++) {
+            if (SOURCES[i].equals(source)) {
+                return Range.create(range.charAt(i));
+            }
+        }
+        return Range.create(range.isEmpty() ? 'a' : range.charAt(0));
+    }
+
+    private final class Entry {
+
+        private final String range;
+
+        private final long refreshPeriod;
+
+        private History history;
+
+        private Entry(String range) {
+            this.range = range;
+            this.refreshPeriod = refreshPeriod(range);
+        }
+
+        /**
+         * Concurrent callers wait for the history being fetched by the first one
+         */
+        private synchronized History get(Callable<String> loader) throws RestServerException, ServiceException {
+            long now = System.currentTimeMillis();
+            if (history == null || now - history.time >= refreshPeriod) {
+                loads.incrementAndGet();
+                try {
+                    history = parse(range, loader.call(), now);
+                } catch (RestServerException | ServiceException | RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new ServiceException("Failed to read the statistic history: " + e.getMessage(), e);
+                }
+            }
+            return history;
+        }
+
+    }
+
+    static final class History {
+
+        private final long time;
+
+        private final Map<String, double[]> values;
+
+        private final Map<String, Range> ranges;
+
+        private History(long time, Map<String, double[]> values, Map<String, Range> ranges) {
+            this.time = time;
+            this.values = values;
+            this.ranges = ranges;
+        }
+
+        /**
+         * The points of a series are evenly spread over the duration of its range,
+         * the RRD computing one point at each multiple of the step of the series.
+         * The points newer than <code>since</code> are the steps elapsed between the
+         * two times, so that no point is lost when polling faster than the step.
+         *
+         * @param since time in milliseconds of the history held by the caller, 0 to get the whole history
+         * @return the history as a JSON object
+         */
+        String toJson(long since) {
+            boolean full = since <= 0 || since > time;
+
+            ObjectNode result = JSON_MAPPER.createObjectNode();
+            result.put("time", time);
+            ObjectNode sources = JSON_MAPPER.createObjectNode();
+
+            for (Map.Entry<String, double[]> source : values.entrySet()) {
+                double[] series = source.getValue();
+                int first = 0;
+                if (!full && series.length > 0) {
+                    long step = ranges.get(source.getKey()).getDuration() * 1000 / series.length;
+                    long newPoints = step > 0 ? time / step - since / step : series.length;
+                    first = (int) Math.max(0, series.length - newPoints);
+                }
+
+                ArrayNode array = sources.putArray(source.getKey());
+                for (int i = first; i < series.length; i++) {
+                    if (Double.isNaN(series[i])) {
+                        array.addNull();
+                    } else {
+                        array.add(series[i]);
+                    }
+                }
+            }
+
+            result.put("full", full);
+            result.set("values", sources);
+            return result.toString();
+        }
+
+    }
+
+}
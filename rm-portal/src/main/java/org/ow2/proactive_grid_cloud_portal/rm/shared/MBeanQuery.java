@@ -0,0 +1,89 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.shared;
+
+import java.util.List;
+
+import com.google.gwt.user.client.rpc.IsSerializable;
+
+
+/**
+ * Attributes to read from one MBean, or from all the MBeans matching
+ * an object name pattern, of a node's MBean server.
+ * Several queries on the same node are sent together to the portal server.
+ */
+public class MBeanQuery implements IsSerializable {
+
+    private String objectName;
+
+    private List<String> attrs;
+
+    private boolean pattern;
+
+    private String timeRange;
+
+    public MBeanQuery() {
+    }
+
+    /**
+     * @param objectName name of the MBean, or pattern when {@code pattern} is true
+     * @param attrs attributes to fetch
+     * @param pattern whether all the MBeans matching the object name are queried
+     * @param timeRange history range to fetch, or null for the current values
+     */
+    public MBeanQuery(String objectName, List<String> attrs, boolean pattern, String timeRange) {
+        this.objectName = objectName;
+        this.attrs = attrs;
+        this.pattern = pattern;
+        this.timeRange = timeRange;
+    }
+
+    public String getObjectName() {
+        return objectName;
+    }
+
+    public List<String> getAttrs() {
+        return attrs;
+    }
+
+    public boolean isPattern() {
+        return pattern;
+    }
+
+    public String getTimeRange() {
+        return timeRange;
+    }
+
+    public boolean isHistory() {
+        return timeRange != null;
+    }
+
+    @Override
+    public String toString() {
+        return objectName + ":" + attrs;
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.shared;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gwt.user.client.rpc.IsSerializable;
+
+
+/**
+ * Outcome of an action applied to several nodes at once:
+ * the URLs of the nodes for which it succeeded, the reason
+ * of the failure for each of the nodes for which it failed,
+ * and the nodes for which the outcome is not known.
+ */
+public class NodesActionResult implements IsSerializable {
+
+    private List<String> succeeded;
+
+    private Map<String, String> failed;
+
+    private Map<String, String> unknown;
+
+    public NodesActionResult() {
+        this.succeeded = new ArrayList<String>();
+        this.failed = new LinkedHashMap<String, String>();
+        this.unknown = new LinkedHashMap<String, String>();
+    }
+
+    public void addSuccess(String nodeUrl) {
+        this.succeeded.add(nodeUrl);
+    }
+
+    public void addFailure(String nodeUrl, String reason) {
+        this.failed.put(nodeUrl, reason);
+    }
+
+    public void addUnknown(String nodeUrl, String reason) {
+        this.unknown.put(nodeUrl, reason);
+    }
+
+    /**
+     * Adds the outcome of another batch of the same action to this one
+     *
+     * @param other result of another batch
+     */
+    public void merge(NodesActionResult other) {
+        this.succeeded.addAll(other.succeeded);
+        this.failed.putAll(other.failed);
+        this.unknown.putAll(other.unknown);
+    }
+
+    /**
+     * @return URLs of the nodes for which the action succeeded
+     */
+    public List<String> getSucceeded() {
+        return succeeded;
+    }
+
+    /**
+     * @return reason of the failure, per node URL
+     */
+    public Map<String, String> getFailed() {
+        return failed;
+    }
+
+    /**
+     * @return why the outcome is not known, per node URL
+     */
+    public Map<String, String> getUnknown() {
+        return unknown;
+    }
+
+    public int getSuccessCount() {
+        return succeeded.size();
+    }
+
+    public int getFailureCount() {
+        return failed.size();
+    }
+
+    public int getUnknownCount() {
+        return unknown.size();
+    }
+
+    public int getRequestedCount() {
+        return succeeded.size() + failed.size() + unknown.size();
+    }
+
+    public boolean hasFailures() {
+        return !failed.isEmpty();
+    }
+
+    /**
+     * @return true if the action failed or may have failed for some of the nodes
+     */
+    public boolean isIncomplete() {
+        return !failed.isEmpty() || !unknown.isEmpty();
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.shared;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.google.gwt.user.client.rpc.IsSerializable;
+
+
+/**
+ * Answers of the nodes running a script of the console received since
+ * the previous fetch: the response of the REST server for the nodes which
+ * ran the script, and the reason of the failure for the others.
+ */
+public class ScriptResults implements IsSerializable {
+
+    private Map<String, String> outputs;
+
+    private Map<String, String> failures;
+
+    private int remaining;
+
+    public ScriptResults() {
+        this.outputs = new LinkedHashMap<String, String>();
+        this.failures = new LinkedHashMap<String, String>();
+    }
+
+    public void addOutput(String nodeUrl, String output) {
+        this.outputs.put(nodeUrl, output);
+    }
+
+    public void addFailure(String nodeUrl, String reason) {
+        this.failures.put(nodeUrl, reason);
+    }
+
+    /**
+     * @return response of the REST server, per node URL
+     */
+    public Map<String, String> getOutputs() {
+        return outputs;
+    }
+
+    /**
+     * @return reason of the failure, per node URL
+     */
+    public Map<String, String> getFailures() {
+        return failures;
+    }
+
+    public boolean isEmpty() {
+        return outputs.isEmpty() && failures.isEmpty();
+    }
+
+    /**
+     * @return number of nodes which have not answered yet
+     */
+    public int getRemaining() {
+        return remaining;
+    }
+
+    public void setRemaining(int remaining) {
+        this.remaining = remaining;
+    }
+
+}
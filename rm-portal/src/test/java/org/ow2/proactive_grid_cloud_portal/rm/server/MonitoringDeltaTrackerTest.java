@@ -0,0 +1,126 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+
+public class MonitoringDeltaTrackerTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final MonitoringDeltaTracker tracker = new MonitoringDeltaTracker(60000, 10);
+
+    @Test
+    public void first_request_receives_all_nodes() throws Exception {
+        JsonNode delta = getDelta("session", 0, node("n1", "FREE"), node("n2", "BUSY"));
+
+        assertTrue(delta.get("full").asBoolean());
+        assertEquals(2, delta.get("nodesEvents").size());
+        assertEquals(1, delta.get("nodeSource").size());
+        assertEquals(1, delta.get("version").asLong());
+    }
+
+    @Test
+    public void next_request_receives_changed_and_removed_nodes() throws Exception {
+        long version = getDelta("session", 0, node("n1", "FREE"), node("n2", "BUSY")).get("version").asLong();
+
+        JsonNode delta = getDelta("session", version, node("n1", "BUSY"), node("n3", "FREE"));
+
+        assertFalse(delta.get("full").asBoolean());
+        assertEquals(2, delta.get("nodesEvents").size());
+        assertEquals(1, delta.get("removedNodes").size());
+        assertEquals("n2", delta.get("removedNodes").get(0).asText());
+    }
+
+    @Test
+    public void unchanged_nodes_are_not_sent() throws Exception {
+        long version = getDelta("session", 0, node("n1", "FREE")).get("version").asLong();
+
+        JsonNode delta = getDelta("session", version, node("n1", "FREE"));
+
+        assertEquals(0, delta.get("nodesEvents").size());
+        assertEquals(0, delta.get("removedNodes").size());
+    }
+
+    @Test
+    public void unknown_version_receives_all_nodes() throws Exception {
+        getDelta("session", 0, node("n1", "FREE"));
+
+        JsonNode delta = getDelta("session", 42, node("n1", "FREE"));
+
+        assertTrue(delta.get("full").asBoolean());
+        assertEquals(1, delta.get("nodesEvents").size());
+    }
+
+    @Test
+    public void sessions_are_tracked_separately() throws Exception {
+        long version = getDelta("session1", 0, node("n1", "FREE")).get("version").asLong();
+        getDelta("session2", 0, node("n1", "BUSY"));
+
+        JsonNode delta = getDelta("session1", version, node("n1", "FREE"));
+
+        assertEquals(0, delta.get("nodesEvents").size());
+    }
+
+    @Test
+    public void nodes_are_sent_in_the_order_of_the_document() throws Exception {
+        String[] nodes = new String[20];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = node("node" + (nodes.length - i), "FREE");
+        }
+
+        JsonNode delta = getDelta("session", 0, nodes);
+
+        for (int i = 0; i < nodes.length; i++) {
+            assertEquals("node" + (nodes.length - i), delta.get("nodesEvents").get(i).get("nodeUrl").asText());
+        }
+    }
+
+    private JsonNode getDelta(String sessionId, long version, String... nodes) throws Exception {
+        String monitoring = "{\"nodeSource\":[{\"sourceName\":\"Default\"}],\"nodesEvents\":[" +
+                            String.join(",", nodes) + "]}";
+        String delta = tracker.getDelta(sessionId,
+                                        version,
+                                        new ByteArrayInputStream(monitoring.getBytes(StandardCharsets.UTF_8)));
+        return mapper.readTree(delta);
+    }
+
+    private String node(String nodeUrl, String nodeState) {
+        return "{\"nodeUrl\":\"" + nodeUrl + "\",\"nodeState\":\"" + nodeState + "\",\"nodeSource\":\"Default\"}";
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+
+
+public class MonitoringSnapshotCacheTest {
+
+    private final AtomicInteger checks = new AtomicInteger();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    public void sessions_share_the_snapshot() throws Exception {
+        MonitoringSnapshotCache cache = new MonitoringSnapshotCache(60000, 60000, 10);
+
+        assertEquals("monitoring1", cache.get("s1", this::check, this::load));
+        assertEquals("monitoring1", cache.get("s2", this::check, this::load));
+        assertEquals("monitoring1", cache.get("s1", this::check, this::load));
+
+        assertEquals(1, loads.get());
+        assertEquals(2, checks.get());
+        assertTrue(cache.getStaleness() >= 0);
+    }
+
+    @Test
+    public void concurrent_callers_wait_for_one_load() throws Exception {
+        MonitoringSnapshotCache cache = new MonitoringSnapshotCache(60000, 60000, 10);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            Future<String> first = executor.submit(() -> cache.get("s1", this::check, () -> {
+                loading.countDown();
+                release.await();
+                return load();
+            }));
+            loading.await(5, TimeUnit.SECONDS);
+            Future<String> second = executor.submit(() -> cache.get("s2", this::check, this::load));
+            release.countDown();
+
+            assertEquals("monitoring1", first.get(5, TimeUnit.SECONDS));
+            assertEquals("monitoring1", second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void snapshot_is_reloaded_once_expired() throws Exception {
+        MonitoringSnapshotCache cache = new MonitoringSnapshotCache(1, 60000, 10);
+
+        cache.get("s1", this::check, this::load);
+        Thread.sleep(10);
+
+        assertEquals("monitoring2", cache.get("s1", this::check, this::load));
+    }
+
+    @Test
+    public void version_only_changes_with_the_document() throws Exception {
+        MonitoringSnapshotCache cache = new MonitoringSnapshotCache(1, 60000, 10);
+
+        long first = cache.getSnapshot("s1", this::check, () -> "same").getVersion();
+        Thread.sleep(10);
+        long unchanged = cache.getSnapshot("s1", this::check, () -> "same").getVersion();
+        Thread.sleep(10);
+        long changed = cache.getSnapshot("s1", this::check, () -> "other").getVersion();
+
+        assertEquals(first, unchanged);
+        assertTrue(changed != first);
+    }
+
+    @Test
+    public void invalid_session_is_not_served() throws Exception {
+        MonitoringSnapshotCache cache = new MonitoringSnapshotCache(60000, 60000, 10);
+        cache.get("s1", this::check, this::load);
+
+        try {
+            cache.get("expired", () -> {
+                throw new RestServerException(401, "not connected");
+            }, this::load);
+            fail();
+        } catch (RestServerException e) {
+            assertEquals(401, e.getStatus());
+        }
+    }
+
+    @Test
+    public void logged_out_session_is_checked_again() throws Exception {
+        MonitoringSnapshotCache cache = new MonitoringSnapshotCache(60000, 60000, 10);
+        cache.get("s1", this::check, this::load);
+
+        cache.invalidate("s1");
+        cache.get("s1", this::check, this::load);
+
+        assertEquals(2, checks.get());
+    }
+
+    private Object check() {
+        return checks.incrementAndGet();
+    }
+
+    private String load() {
+        return "monitoring" + loads.incrementAndGet();
+    }
+
+}
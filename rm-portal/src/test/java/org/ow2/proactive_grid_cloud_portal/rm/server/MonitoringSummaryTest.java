@@ -0,0 +1,86 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.server;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+
+public class MonitoringSummaryTest {
+
+    @Test
+    public void nodes_are_counted_by_state() throws Exception {
+        JsonNode summary = summarize(node("n1", "FREE", "Default", "host1", false),
+                                     node("n2", "BUSY", "Default", "host1", true),
+                                     node("n3", "To_be_removed", "Default", "host1", false),
+                                     node("n4", "DEPLOYING", "Default", "", false));
+
+        assertEquals(1, summary.get("free").asInt());
+        assertEquals(1, summary.get("busy").asInt());
+        assertEquals(1, summary.get("toBeRemoved").asInt());
+        assertEquals(1, summary.get("deploying").asInt());
+        assertEquals(0, summary.get("down").asInt());
+        assertEquals(1, summary.get("locked").asInt());
+    }
+
+    @Test
+    public void hosts_are_counted_per_node_source() throws Exception {
+        JsonNode summary = summarize(node("n1", "FREE", "Default", "host1", false),
+                                     node("n2", "FREE", "Default", "host1", false),
+                                     node("n3", "FREE", "Cloud", "host1", false),
+                                     node("virt-n4", "FREE", "Cloud", "host2", false),
+                                     node("n5", "DEPLOYING", "Cloud", "", false));
+
+        assertEquals(2, summary.get("physicalHosts").asInt());
+        assertEquals(1, summary.get("virtualHosts").asInt());
+        assertEquals(2, summary.path("nodeSources").path("Default").get("nodes").asInt());
+        assertEquals(2, summary.path("nodeSources").path("Cloud").get("nodes").asInt());
+        assertEquals(1, summary.path("nodeSources").path("Cloud").get("deploying").asInt());
+    }
+
+    @Test
+    public void other_attributes_are_skipped() throws Exception {
+        JsonNode summary = MonitoringSummary.summarize("{\"nodeSource\":[{\"sourceName\":\"Default\"}]," +
+                                                       "\"nodesEvents\":[{\"nodeUrl\":\"n1\",\"extra\":{\"a\":[1]}," +
+                                                       "\"nodeState\":\"FREE\",\"nodeSource\":\"Default\"}]," +
+                                                       "\"latestCounter\":3}");
+
+        assertEquals(1, summary.get("free").asInt());
+    }
+
+    private JsonNode summarize(String... nodes) throws Exception {
+        return MonitoringSummary.summarize("{\"nodeSource\":[],\"nodesEvents\":[" + String.join(",", nodes) + "]}");
+    }
+
+    private String node(String nodeUrl, String nodeState, String nodeSource, String hostName, boolean locked) {
+        return "{\"nodeUrl\":\"" + nodeUrl + "\",\"nodeState\":\"" + nodeState + "\",\"nodeSource\":\"" +
+               nodeSource + "\",\"hostName\":\"" + hostName + "\",\"locked\":" + locked + "}";
+    }
+
+}
@@ -0,0 +1,169 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+import org.ow2.proactive_grid_cloud_portal.rm.shared.ScriptResults;
+
+
+public class NodeScriptExecutionsTest {
+
+    private final CountDownLatch slowNode = new CountDownLatch(1);
+
+    private NodeScriptExecutions executions = new NodeScriptExecutions(4, 10, 60000, 60000, 10, 60000);
+
+    @After
+    public void shutdown() {
+        slowNode.countDown();
+        executions.shutdown();
+    }
+
+    private String execute(String nodeUrl) throws Exception {
+        if (nodeUrl.startsWith("slow")) {
+            slowNode.await();
+        }
+        if (nodeUrl.startsWith("broken")) {
+            throw new IllegalStateException("node is down");
+        }
+        return "{\"output\":\"" + nodeUrl + "\"}";
+    }
+
+    @Test
+    public void answers_are_fetched_before_the_slowest_node() throws Exception {
+        String id = executions.start("session", Arrays.asList("fast", "slow"), this::execute);
+
+        ScriptResults first = executions.fetch("session", id, 10000);
+        assertEquals("{\"output\":\"fast\"}", first.getOutputs().get("fast"));
+        assertEquals(1, first.getRemaining());
+
+        slowNode.countDown();
+        ScriptResults second = executions.fetch("session", id, 10000);
+        assertEquals(1, second.getOutputs().size());
+        assertTrue(second.getOutputs().containsKey("slow"));
+        assertEquals(0, second.getRemaining());
+    }
+
+    @Test
+    public void failures_are_reported_per_node() throws Exception {
+        String id = executions.start("session", Arrays.asList("broken"), this::execute);
+
+        ScriptResults results = executions.fetch("session", id, 10000);
+
+        assertEquals("node is down", results.getFailures().get("broken"));
+        assertEquals(0, results.getRemaining());
+    }
+
+    @Test
+    public void node_not_answering_in_time_is_reported() throws Exception {
+        executions.shutdown();
+        executions = new NodeScriptExecutions(4, 10, 10, 60000, 10, 60000);
+        String id = executions.start("session", Arrays.asList("slow"), this::execute);
+
+        ScriptResults results = executions.fetch("session", id, 10000);
+
+        assertTrue(results.getFailures().get("slow").startsWith("No answer"));
+        assertEquals(0, results.getRemaining());
+    }
+
+    @Test
+    public void node_not_answering_in_time_is_interrupted() throws Exception {
+        executions.shutdown();
+        executions = new NodeScriptExecutions(4, 10, 10, 60000, 10, 60000);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        executions.start("session", Arrays.asList("slow"), nodeUrl -> {
+            try {
+                return execute(nodeUrl);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+        });
+
+        assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void node_timeout_starts_when_the_node_runs_the_script() throws Exception {
+        executions.shutdown();
+        executions = new NodeScriptExecutions(1, 10, 200, 60000, 10, 60000);
+        String id = executions.start("session", Arrays.asList("slow", "fast"), this::execute);
+
+        ScriptResults first = executions.fetch("session", id, 10000);
+        assertTrue(first.getFailures().get("slow").startsWith("No answer"));
+
+        ScriptResults second = first.getRemaining() == 0 ? first : executions.fetch("session", id, 10000);
+        assertEquals("{\"output\":\"fast\"}", second.getOutputs().get("fast"));
+    }
+
+    @Test
+    public void nodes_still_waiting_at_the_deadline_are_reported() throws Exception {
+        executions.shutdown();
+        executions = new NodeScriptExecutions(1, 10, 60000, 100, 10, 60000);
+        String id = executions.start("session", Arrays.asList("slow", "fast"), this::execute);
+
+        ScriptResults results = executions.fetch("session", id, 10000);
+
+        assertEquals(1, results.getFailures().size());
+        assertTrue(results.getFailures().get("fast").startsWith("Not started"));
+        assertEquals(1, results.getRemaining());
+    }
+
+    @Test
+    public void nodes_beyond_the_queue_are_reported_at_once() throws Exception {
+        executions.shutdown();
+        executions = new NodeScriptExecutions(1, 1, 60000, 60000, 10, 60000);
+        String id = executions.start("session", Arrays.asList("slow1", "slow2", "slow3"), this::execute);
+
+        ScriptResults results = executions.fetch("session", id, 0);
+
+        assertEquals(1, results.getFailures().size());
+        assertTrue(results.getFailures().get("slow3").startsWith("Too many"));
+        assertEquals(2, results.getRemaining());
+    }
+
+    @Test
+    public void answers_are_only_fetched_by_the_session_which_started_the_execution() throws Exception {
+        String id = executions.start("session", Arrays.asList("fast"), this::execute);
+
+        try {
+            executions.fetch("other", id, 0);
+            fail("exception expected");
+        } catch (RestServerException e) {
+            assertEquals(404, e.getStatus());
+        }
+    }
+
+}
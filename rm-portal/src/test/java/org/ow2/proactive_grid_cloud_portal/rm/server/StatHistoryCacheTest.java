@@ -0,0 +1,118 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+
+public class StatHistoryCacheTest {
+
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    public void sessions_share_the_history_of_a_range() throws Exception {
+        StatHistoryCache cache = new StatHistoryCache(10);
+
+        cache.get("yyyyy", 0, this::load);
+        cache.get("yyyyy", 0, this::load);
+        cache.get("hhhhh", 0, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void refresh_period_is_the_shortest_update_frequency() {
+        assertEquals(5000, StatHistoryCache.refreshPeriod("aydwM"));
+        assertEquals(24 * 60 * 60 * 1000, StatHistoryCache.refreshPeriod("yyyyy"));
+    }
+
+    @Test
+    public void unknown_values_are_kept() throws Exception {
+        JsonNode history = toJson(StatHistoryCache.parse("aaaaa", "{\"BusyNodesCount\":[1,null,3,null]}", 1000), 0);
+
+        assertTrue(history.get("full").asBoolean());
+        JsonNode values = history.path("values").get("BusyNodesCount");
+        assertEquals(4, values.size());
+        assertTrue(values.get(1).isNull());
+        assertEquals(3.0, values.get(2).asDouble(), 0);
+        assertTrue(values.get(3).isNull());
+    }
+
+    @Test
+    public void only_newer_points_are_returned() throws Exception {
+        // 12 points over 1 minute: one point every 5 seconds
+        StatHistoryCache.History history = StatHistoryCache.parse("aaaaa",
+                                                                  "{\"BusyNodesCount\":[0,1,2,3,4,5,6,7,8,9,10,11]}",
+                                                                  1000000);
+
+        JsonNode update = toJson(history, 1000000 - 10000);
+
+        assertFalse(update.get("full").asBoolean());
+        assertEquals(1000000, update.get("time").asLong());
+        JsonNode values = update.path("values").get("BusyNodesCount");
+        assertEquals(2, values.size());
+        assertEquals(10.0, values.get(0).asDouble(), 0);
+        assertEquals(11.0, values.get(1).asDouble(), 0);
+
+        assertEquals(0, toJson(history, 1000000).path("values").get("BusyNodesCount").size());
+        assertEquals(12, toJson(history, 1).path("values").get("BusyNodesCount").size());
+    }
+
+    @Test
+    public void no_point_is_lost_when_polling_faster_than_the_step() throws Exception {
+        // one point every 5 seconds, polled every 2 seconds during 10 seconds
+        String json = "{\"BusyNodesCount\":[0,1,2,3,4,5,6,7,8,9,10,11]}";
+        long since = 1000000;
+        int newPoints = 0;
+        for (long time = since + 2000; time <= since + 10000; time += 2000) {
+            JsonNode update = toJson(StatHistoryCache.parse("aaaaa", json, time), time - 2000);
+            newPoints += update.path("values").get("BusyNodesCount").size();
+        }
+
+        assertEquals(2, newPoints);
+    }
+
+    private JsonNode toJson(StatHistoryCache.History history, long since) throws Exception {
+        return JSON_MAPPER.readTree(history.toJson(since));
+    }
+
+    private String load() {
+        loads.incrementAndGet();
+        return "{\"BusyNodesCount\":[1,2,3],\"AverageActivity\":[0.5,0.5,0.5]}";
+    }
+
+}
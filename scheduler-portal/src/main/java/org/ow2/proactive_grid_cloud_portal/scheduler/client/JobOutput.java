@@ -78,6 +78,9 @@ public class JobOutput {
 
     protected List<List<String>> liveContent;
 
+    /** number of live log characters received from the server */
+    protected long liveOffset = 0;
+
     /**
      * Default constructor
      * 
@@ -196,6 +199,14 @@ public class JobOutput {
         }
     }
 
+    public long getLiveOffset() {
+        return liveOffset;
+    }
+
+    public void setLiveOffset(long liveOffset) {
+        this.liveOffset = liveOffset;
+    }
+
     public boolean isLiveEnabled() {
         return liveEnabled;
     }
@@ -36,6 +36,7 @@ import java.util.logging.Logger;
 import org.ow2.proactive_grid_cloud_portal.common.client.Controller;
 import org.ow2.proactive_grid_cloud_portal.common.client.LoadingMessage;
 import org.ow2.proactive_grid_cloud_portal.common.client.LoginPage;
+import org.ow2.proactive_grid_cloud_portal.common.client.ServerEventChannel;
 import org.ow2.proactive_grid_cloud_portal.common.client.Settings;
 import org.ow2.proactive_grid_cloud_portal.common.client.json.JSONUtils;
 import org.ow2.proactive_grid_cloud_portal.common.client.model.LogModel;
@@ -50,6 +51,7 @@ import org.ow2.proactive_grid_cloud_portal.scheduler.client.model.ExecutionsMode
 import org.ow2.proactive_grid_cloud_portal.scheduler.shared.SchedulerConfig;
 import org.ow2.proactive_grid_cloud_portal.scheduler.shared.SchedulerPortalDisplayConfig;
 
+import com.google.gwt.core.client.GWT;
 import com.google.gwt.core.client.GWT.UncaughtExceptionHandler;
 import com.google.gwt.json.client.JSONArray;
 import com.google.gwt.json.client.JSONException;
@@ -131,6 +133,12 @@ public class SchedulerController extends Controller implements UncaughtException
 
     private Timer autoLoginTimer;
 
+    /** receives the scheduler changes pushed by the server */
+    private ServerEventChannel serverEvents = new ServerEventChannel();
+
+    /** true while the server pushes the scheduler changes, the timer does not need to poll them */
+    private boolean serverEventsConnected = false;
+
     protected TasksController tasksController;
 
     protected ExecutionsController executionController;
@@ -283,6 +291,7 @@ public class SchedulerController extends Controller implements UncaughtException
         this.executionController.getJobsController().fetchJobs(true);
 
         this.startTimer();
+        this.openServerEvents(sessionId);
 
         String lstr = "";
         if (login != null) {
@@ -555,9 +564,11 @@ public class SchedulerController extends Controller implements UncaughtException
                              "Another tab or window in this browser is accessing this page.");
                 }
 
-                SchedulerController.this.updateSchedulerStatus();
+                if (!serverEventsConnected) {
+                    SchedulerController.this.updateSchedulerStatus();
 
-                executionController.executionStateRevision(false);
+                    executionController.executionStateRevision(false);
+                }
 
                 if (timerUpdate % userFetchTick == 0) {
                     final long t1 = System.currentTimeMillis();
@@ -685,6 +696,46 @@ public class SchedulerController extends Controller implements UncaughtException
         this.schedulerTimerUpdate.scheduleRepeating(SchedulerConfig.get().getClientRefreshTime());
     }
 
+    /**
+     * Listen to the scheduler changes pushed by the server, the timer
+     * keeps polling them if the browser or the server does not support it
+     */
+    private void openServerEvents(String sessionId) {
+        if (Config.get().getServerEventsPeriod() <= 0 || !ServerEventChannel.isSupported()) {
+            return;
+        }
+        this.serverEvents.open(GWT.getModuleBaseURL() + "events?sessionId=" + sessionId,
+                               new String[] { "revision", "status" },
+                               new ServerEventChannel.Listener() {
+                                   @Override
+                                   public void onOpen() {
+                                       serverEventsConnected = true;
+                                       // catch up with what may have changed while disconnected
+                                       updateSchedulerStatus();
+                                       executionController.executionStateRevision(false);
+                                   }
+
+                                   @Override
+                                   public void onEvent(String name, String data) {
+                                       if ("status".equals(name)) {
+                                           updateSchedulerStatus();
+                                       } else {
+                                           executionController.executionStateRevision(false);
+                                       }
+                                   }
+
+                                   @Override
+                                   public void onError() {
+                                       serverEventsConnected = false;
+                                   }
+                               });
+    }
+
+    private void closeServerEvents() {
+        this.serverEvents.close();
+        this.serverEventsConnected = false;
+    }
+
     /**
      * Parse the raw JSON array describing the users list, return a Java representation
      * @param jsonarray JSONArray containing all users
@@ -769,6 +820,7 @@ public class SchedulerController extends Controller implements UncaughtException
      */
     public void teardown(String message) {
         this.stopTimer();
+        this.closeServerEvents();
         this.outputController.stopLiveOutput();
         this.model = new SchedulerModelImpl();
 
@@ -35,6 +35,9 @@ import javax.ws.rs.HeaderParam;
 import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
 import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.controller.TasksCentricController;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.BulkActionResult;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.LiveLogChunk;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.TasksOutput;
 import org.ow2.proactive_grid_cloud_portal.scheduler.shared.filter.FilterModel;
 
 import com.google.gwt.user.client.rpc.RemoteService;
@@ -47,6 +50,12 @@ import com.google.gwt.user.client.rpc.RemoteServiceRelativePath;
 @RemoteServiceRelativePath("scheduler")
 public interface SchedulerService extends RemoteService {
 
+    /**
+     * Returned by {@link #revisionAndjobsinfo} instead of the jobs
+     * when the page did not change since it was last sent
+     */
+    String JOBS_NOT_MODIFIED = "";
+
     /**
      * Logout from the scheduler.
      *
@@ -59,21 +68,21 @@ public interface SchedulerService extends RemoteService {
      * Removes several jobs from the scheduler.
      * @param sessionId the session id of the user that removes the job
      * @param jobIdList the list of the job ids that are to be removed
-     * @return number of removed jobs
+     * @return the removed jobs and the reason of the failure for the others
      * @throws RestServerException
      * @throws ServiceException
      */
-    int removeJobs(String sessionId, List<Integer> jobIdList) throws RestServerException, ServiceException;
+    BulkActionResult removeJobs(String sessionId, List<Integer> jobIdList) throws RestServerException, ServiceException;
 
     /**
      * Pauses a job.
      * @param sessionId the session id of the user that pauses the job
      * @param list the list of the job ids that are to be paused
-     * @return number of paused jobs
+     * @return the paused jobs and the reason of the failure for the others
      * @throws RestServerException
      * @throws ServiceException
      */
-    int pauseJobs(String sessionId, List<Integer> list) throws RestServerException, ServiceException;
+    BulkActionResult pauseJobs(String sessionId, List<Integer> list) throws RestServerException, ServiceException;
 
     /**
      * By making an asynchronous call to the server, all in error tasks from the selected jobs are restarted.
@@ -81,28 +90,30 @@ public interface SchedulerService extends RemoteService {
      * @param sessionId     the session id of the user which is logged in
      * @param list          the list of jobs which are to be resumed
      *                      or not.
+     * @return the jobs whose in error tasks were restarted and the reason of the failure for the others
      */
-    int restartAllInErrorTasks(String sessionId, List<Integer> list) throws RestServerException, ServiceException;
+    BulkActionResult restartAllInErrorTasks(String sessionId, List<Integer> list)
+            throws RestServerException, ServiceException;
 
     /**
      * Resumes a job.
      * @param sessionId the session id of the user that resumes the job
      * @param list the list of the job ids that are to be resumed
-     * @return number of resumed jobs
+     * @return the resumed jobs and the reason of the failure for the others
      * @throws RestServerException
      * @throws ServiceException
      */
-    int resumeJobs(String sessionId, List<Integer> list) throws RestServerException, ServiceException;
+    BulkActionResult resumeJobs(String sessionId, List<Integer> list) throws RestServerException, ServiceException;
 
     /**
      * Kills several jobs.
      * @param sessionId the session id of the user that resumes the job
      * @param list the list of the job ids that are to be resumed
-     * @return number of killed jobs
+     * @return the killed jobs and the reason of the failure for the others
      * @throws RestServerException
      * @throws ServiceException
      */
-    int killJobs(String sessionId, List<Integer> list) throws RestServerException, ServiceException;
+    BulkActionResult killJobs(String sessionId, List<Integer> list) throws RestServerException, ServiceException;
 
     /**
      * Kill a task
@@ -248,10 +259,11 @@ public interface SchedulerService extends RemoteService {
      * @param sessionId the session id of the user which is logged in
      * @param list the list of the job ids which are going to have their priority changed
      * @param priorityName the name of the new priority
+     * @return the jobs whose priority changed and the reason of the failure for the others
      * @throws RestServerException
      * @throws ServiceException
      */
-    void setPriorityByName(String sessionId, List<Integer> list, String priorityName)
+    BulkActionResult setPriorityByName(String sessionId, List<Integer> list, String priorityName)
             throws RestServerException, ServiceException;
 
     /**
@@ -322,15 +334,31 @@ public interface SchedulerService extends RemoteService {
     String getTaskOutput(final String sessionId, final String jobId, final String taskName, final OutputMode logMode)
             throws RestServerException, ServiceException;
 
+    /**
+     * Fetch the logs of several tasks of a job, concurrently on the server
+     * @param sessionId current session id
+     * @param jobId id of the job
+     * @param taskNames names of the tasks
+     * @param logMode the kind of logs to fetch
+     * @return the logs of the tasks in the given order, and the reason of the failure for the others
+     * @throws RestServerException
+     * @throws ServiceException
+     */
+    TasksOutput getTasksOutput(String sessionId, String jobId, List<String> taskNames, OutputMode logMode)
+            throws RestServerException, ServiceException;
+
     /**
      * Gets the output of a job even for tasks that have not terminated yet
      * @param sessionId current session id
      * @param jobId id of the job for which logs should be fetched
-     * @return console output for the whole job
+     * @param offset number of characters of the live log already received
+     * @return the console output of the job following the given offset,
+     *         the size of a chunk is bounded by the server
      * @throws RestServerException
      * @throws ServiceException
      */
-    String getLiveLogJob(final String sessionId, final String jobId) throws RestServerException, ServiceException;
+    LiveLogChunk getLiveLogJob(final String sessionId, final String jobId, long offset)
+            throws RestServerException, ServiceException;
 
     /**
      * Gets the number of bytes available in the job output stream for the given job id,
@@ -376,14 +404,16 @@ public interface SchedulerService extends RemoteService {
      * @param pending fetch pending jobs
      * @param running fetch running jobs
      * @param finished fetch finished jobs
-     * @return the raw json jobinfo from the rest api
+     * @param onlyIfModified true to get the jobs only if the scheduler state changed since
+     *            the same page was last sent to this session
+     * @return the raw json jobinfo from the rest api, or {@link #JOBS_NOT_MODIFIED}
      * @throws RestServerException
      * @throws ServiceException
      */
 
     String revisionAndjobsinfo(@HeaderParam("sessionid") String sessionId, String startCursor, String endCursor,
             int pageSize, boolean first, String user, boolean pending, boolean running, boolean finished,
-            FilterModel filterModel) throws RestServerException, ServiceException;
+            FilterModel filterModel, boolean onlyIfModified) throws RestServerException, ServiceException;
 
     /**
      * Image representing the job as designed in the WF studio when applicable
@@ -33,6 +33,9 @@ import java.util.Set;
 import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
 import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.controller.TasksCentricController;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.BulkActionResult;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.LiveLogChunk;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.TasksOutput;
 import org.ow2.proactive_grid_cloud_portal.scheduler.shared.filter.FilterModel;
 
 import com.google.gwt.http.client.Request;
@@ -65,7 +68,7 @@ public interface SchedulerServiceAsync {
      * @param list the list of jobs which are to be removed
      * @param isJobRemoved the result showing whether the removed was successfully or not. 
      */
-    void removeJobs(String sessionId, List<Integer> list, AsyncCallback<Integer> isJobRemoved);
+    void removeJobs(String sessionId, List<Integer> list, AsyncCallback<BulkActionResult> isJobRemoved);
 
     /**
      * Pausing a job by making an asynchronous call to the server. 
@@ -74,7 +77,7 @@ public interface SchedulerServiceAsync {
      * @param asyncCallback the result retrieved from the server which shows if the paused was successfully
      * or not.
      */
-    void pauseJobs(String sessionId, List<Integer> jobIdList, AsyncCallback<Integer> asyncCallback);
+    void pauseJobs(String sessionId, List<Integer> jobIdList, AsyncCallback<BulkActionResult> asyncCallback);
 
     /**
      * By making an asynchronous call to the server, all in error tasks from the selected jobs are restarted.
@@ -83,7 +86,7 @@ public interface SchedulerServiceAsync {
      * @param asyncCallback the result retrieved from the server which shows if the in error tasks were successfully
      * or not.
      */
-    void restartAllInErrorTasks(String sessionId, List<Integer> list, AsyncCallback<Integer> asyncCallback);
+    void restartAllInErrorTasks(String sessionId, List<Integer> list, AsyncCallback<BulkActionResult> asyncCallback);
 
     /**
      * By making an asynchronous call to the server, several jobs are resumed.
@@ -92,7 +95,7 @@ public interface SchedulerServiceAsync {
      * @param asyncCallback the result retrieved from the server which shows if the jobs were resumed successfully
      * or not.
      */
-    void resumeJobs(String sessionId, List<Integer> list, AsyncCallback<Integer> asyncCallback);
+    void resumeJobs(String sessionId, List<Integer> list, AsyncCallback<BulkActionResult> asyncCallback);
 
     /**
      * By making an asynchronous call to the server, several jobs are killed.
@@ -101,7 +104,7 @@ public interface SchedulerServiceAsync {
      * @param asyncCallback the result retrieved from the server which shows if the jobs were killed successfully
      * or not. 
      */
-    void killJobs(String sessionId, List<Integer> list, AsyncCallback<Integer> asyncCallback);
+    void killJobs(String sessionId, List<Integer> list, AsyncCallback<BulkActionResult> asyncCallback);
 
     /**
      * Kill a task within a given job
@@ -227,7 +230,8 @@ public interface SchedulerServiceAsync {
      * @param priorityName the name of the new priority
      * @param callback the object used for notifying the caller when the asynchronous call is completed.
      */
-    void setPriorityByName(String sessionId, List<Integer> list, String priorityName, AsyncCallback<Void> callback);
+    void setPriorityByName(String sessionId, List<Integer> list, String priorityName,
+            AsyncCallback<BulkActionResult> callback);
 
     /**
      * Pauses the Scheduler.
@@ -282,13 +286,25 @@ public interface SchedulerServiceAsync {
     Request getTaskOutput(String sessionId, String jobId, String taskName, OutputMode logMode,
             AsyncCallback<String> callback);
 
+    /**
+     * Gets the output of several tasks of a job
+     * @param sessionId the session id of the user which is logged in
+     * @param jobId the id of the job
+     * @param taskNames the names of the tasks
+     * @param logMode the kind of logs to fetch
+     * @param callback async callback for the client, containing the output of the tasks
+     */
+    Request getTasksOutput(String sessionId, String jobId, List<String> taskNames, OutputMode logMode,
+            AsyncCallback<TasksOutput> callback);
+
     /**
      * Gets the output of a job even for tasks that have not terminated yet
      * @param sessionId current session id
      * @param jobId id of the job for which logs should be fetched
+     * @param offset number of characters of the live log already received
      * @param callback async callback for the client, containing the job output or the error message
      */
-    Request getLiveLogJob(String sessionId, String jobId, AsyncCallback<String> callback);
+    Request getLiveLogJob(String sessionId, String jobId, long offset, AsyncCallback<LiveLogChunk> callback);
 
     /**
      * Gets the number of bytes available in the job output stream for the given job id,
@@ -324,11 +340,12 @@ public interface SchedulerServiceAsync {
      * @param pending fetch pending jobs
      * @param running fetch running jobs
      * @param finished fetch finished jobs 
+     * @param onlyIfModified get the jobs only if the scheduler state changed since the page was last sent
      * @param callback
      */
     void revisionAndjobsinfo(String sessionId, String startCursor, String endCursor, int pageSize, boolean first,
             String user, boolean pending, boolean running, boolean finished, FilterModel filterModel,
-            AsyncCallback<String> callback);
+            boolean onlyIfModified, AsyncCallback<String> callback);
 
     void schedulerStateRevision(String sessionId, AsyncCallback<Long> callback);
 
@@ -0,0 +1,173 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.client.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.ow2.proactive_grid_cloud_portal.common.client.json.JSONUtils;
+import org.ow2.proactive_grid_cloud_portal.common.client.model.LogModel;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.BulkActionResult;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.SchedulerConfig;
+
+import com.google.gwt.http.client.Response;
+import com.google.gwt.user.client.rpc.AsyncCallback;
+
+
+/**
+ * Applies an action to a selection of jobs, in batches sent one after the other
+ * so that large selections don't hit the RPC timeout and their progress is logged
+ * as they complete.
+ *
+ * @author the activeeon team
+ */
+public abstract class BulkJobsAction {
+
+    /**
+     * Maximum number of failed jobs detailed in the log when the action completes.
+     */
+    private static final int MAX_LOGGED_FAILURES = 10;
+
+    private final List<Integer> jobIds;
+
+    private final String actionName;
+
+    private final int batchSize;
+
+    private final BulkActionResult result = new BulkActionResult();
+
+    /**
+     * @param jobIds the jobs on which the action applies
+     * @param actionName past participle of the action, used in log messages, e.g. "paused"
+     */
+    public BulkJobsAction(List<Integer> jobIds, String actionName) {
+        this.jobIds = jobIds;
+        this.actionName = actionName;
+        this.batchSize = Math.max(1, SchedulerConfig.get().getBulkActionBatchSize());
+    }
+
+    /**
+     * Sends the request for the given batch of jobs to the server.
+     *
+     * @param batch ids of the jobs of the batch
+     * @param callback to notify with the outcome of the batch
+     */
+    protected abstract void execute(List<Integer> batch, AsyncCallback<BulkActionResult> callback);
+
+    /**
+     * Called once all the batches completed.
+     *
+     * @param result outcome of the action for all the jobs
+     */
+    protected void onComplete(BulkActionResult result) {
+    }
+
+    /**
+     * Called instead of sending the next batches when the session is not valid anymore,
+     * once the outcome of the jobs processed so far has been logged.
+     */
+    protected void onDisconnected() {
+    }
+
+    public void start() {
+        executeBatch(0);
+    }
+
+    private void executeBatch(final int from) {
+        if (from >= jobIds.size()) {
+            logResult();
+            onComplete(result);
+            return;
+        }
+
+        final List<Integer> batch = jobIds.subList(from, Math.min(from + batchSize, jobIds.size()));
+
+        execute(batch, new AsyncCallback<BulkActionResult>() {
+            public void onSuccess(BulkActionResult batchResult) {
+                result.merge(batchResult);
+                if (batchResult.isDisconnected()) {
+                    logResult();
+                    onDisconnected();
+                    return;
+                }
+                next();
+            }
+
+            public void onFailure(Throwable caught) {
+                if (JSONUtils.getJsonErrorCode(caught) == Response.SC_UNAUTHORIZED) {
+                    onDisconnected();
+                    return;
+                }
+                String message = JSONUtils.getJsonErrorMessage(caught);
+                for (Integer jobId : batch) {
+                    result.addFailure(jobId, message);
+                }
+                next();
+            }
+
+            private void next() {
+                int done = from + batch.size();
+                if (done < jobIds.size()) {
+                    LogModel.getInstance().logMessage("Jobs " + actionName + " so far: " + result.getSuccessCount() +
+                                                      "/" + jobIds.size() + ", " + result.getFailureCount() +
+                                                      " failed");
+                }
+                executeBatch(done);
+            }
+        });
+    }
+
+    private void logResult() {
+        if (!result.hasFailures()) {
+            LogModel.getInstance()
+                    .logMessage("Successfully " + actionName + " " + result.getSuccessCount() + "/" + jobIds.size() +
+                                " jobs");
+            return;
+        }
+
+        StringBuilder message = new StringBuilder();
+        message.append("Only ")
+               .append(actionName)
+               .append(" ")
+               .append(result.getSuccessCount())
+               .append("/")
+               .append(jobIds.size())
+               .append(" jobs, ")
+               .append(result.getFailureCount())
+               .append(" failed:");
+
+        int logged = 0;
+        for (Map.Entry<Integer, String> failure : result.getFailed().entrySet()) {
+            if (logged++ == MAX_LOGGED_FAILURES) {
+                message.append("<br>...");
+                break;
+            }
+            message.append("<br>Job ").append(failure.getKey()).append(" : ").append(failure.getValue());
+        }
+        LogModel.getInstance().logImportantMessage(message.toString());
+    }
+
+}
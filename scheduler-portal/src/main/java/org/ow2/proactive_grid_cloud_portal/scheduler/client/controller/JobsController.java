@@ -39,11 +39,13 @@ import org.ow2.proactive_grid_cloud_portal.scheduler.client.Job;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobPriority;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobStatus;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.Scheduler;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.SchedulerService;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.SchedulerServiceAsync;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.json.SchedulerJSONUtils;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.model.ExecutionsModel;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.model.JobsModel;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.view.JobsView;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.BulkActionResult;
 
 import com.google.gwt.http.client.Response;
 import com.google.gwt.user.client.rpc.AsyncCallback;
@@ -144,22 +146,12 @@ public class JobsController {
      * @param jobId id of the job to pause/resume
      */
     public void pauseJobs(List<String> jobId) {
-        final List<Integer> l = new ArrayList<>(jobId.size());
-        for (String id : jobId) {
-            l.add(Integer.parseInt(id));
-        }
-
-        SchedulerServiceAsync scheduler = Scheduler.getSchedulerService();
-        scheduler.pauseJobs(LoginModel.getInstance().getSessionId(), l, new AsyncCallback<Integer>() {
-            public void onSuccess(Integer result) {
-                LogModel.getInstance().logMessage("Successfully paused " + result + "/" + l.size() + " jobs");
+        new JobsAction(toJobIds(jobId), "paused") {
+            @Override
+            protected void execute(List<Integer> batch, AsyncCallback<BulkActionResult> callback) {
+                Scheduler.getSchedulerService().pauseJobs(LoginModel.getInstance().getSessionId(), batch, callback);
             }
-
-            public void onFailure(Throwable caught) {
-                String message = JSONUtils.getJsonErrorMessage(caught);
-                LogModel.getInstance().logImportantMessage("Failed to pause jobs : " + message);
-            }
-        });
+        }.start();
     }
 
     /**
@@ -168,32 +160,21 @@ public class JobsController {
      * @param jobId id of the job to pause/resume
      */
     public void restartAllInErrorTasks(List<String> jobId) {
-        final List<Integer> selectedJobs = new ArrayList<>(jobId.size());
-        for (String id : jobId) {
-            selectedJobs.add(Integer.parseInt(id));
-        }
+        new JobsAction(toJobIds(jobId), "restarted in error tasks of") {
+            @Override
+            protected void execute(List<Integer> batch, AsyncCallback<BulkActionResult> callback) {
+                Scheduler.getSchedulerService().restartAllInErrorTasks(LoginModel.getInstance().getSessionId(),
+                                                                       batch,
+                                                                       callback);
+            }
 
-        SchedulerServiceAsync scheduler = Scheduler.getSchedulerService();
-        scheduler.restartAllInErrorTasks(LoginModel.getInstance().getSessionId(),
-                                         selectedJobs,
-                                         new AsyncCallback<Integer>() {
-                                             public void onSuccess(Integer result) {
-                                                 LogModel.getInstance()
-                                                         .logMessage("Successfully restarted in error tasks  " +
-                                                                     result + "/" + selectedJobs.size() +
-                                                                     " for selected jobs");
-                                                 parentController.getParentController()
-                                                                 .getTasksController()
-                                                                 .updateTasks(false);
-                                             }
-
-                                             public void onFailure(Throwable caught) {
-                                                 String message = JSONUtils.getJsonErrorMessage(caught);
-                                                 LogModel.getInstance().logImportantMessage(
-                                                                                            "Failed to restart all in error tasks for selected jobs : " +
-                                                                                            message);
-                                             }
-                                         });
+            @Override
+            protected void onComplete(BulkActionResult result) {
+                if (result.getSuccessCount() > 0) {
+                    parentController.getParentController().getTasksController().updateTasks(false);
+                }
+            }
+        }.start();
     }
 
     /**
@@ -202,23 +183,12 @@ public class JobsController {
      * @param jobId id of the job to pause/resume
      */
     public void resumeJobs(List<String> jobId) {
-        final List<Integer> selectedJobs = new ArrayList<>(jobId.size());
-        for (String id : jobId) {
-            selectedJobs.add(Integer.parseInt(id));
-        }
-
-        SchedulerServiceAsync scheduler = Scheduler.getSchedulerService();
-        scheduler.resumeJobs(LoginModel.getInstance().getSessionId(), selectedJobs, new AsyncCallback<Integer>() {
-            public void onSuccess(Integer result) {
-                LogModel.getInstance()
-                        .logMessage("Successfully resumed " + result + "/" + selectedJobs.size() + " jobs");
-            }
-
-            public void onFailure(Throwable caught) {
-                String message = JSONUtils.getJsonErrorMessage(caught);
-                LogModel.getInstance().logImportantMessage("Failed to resume jobs : " + message);
+        new JobsAction(toJobIds(jobId), "resumed") {
+            @Override
+            protected void execute(List<Integer> batch, AsyncCallback<BulkActionResult> callback) {
+                Scheduler.getSchedulerService().resumeJobs(LoginModel.getInstance().getSessionId(), batch, callback);
             }
-        });
+        }.start();
     }
 
     /**
@@ -227,22 +197,12 @@ public class JobsController {
      * @param jobId id of the job
      */
     public void removeJob(List<String> jobId) {
-        final List<Integer> l = new ArrayList<>(jobId.size());
-        for (String id : jobId) {
-            l.add(Integer.parseInt(id));
-        }
-
-        SchedulerServiceAsync scheduler = Scheduler.getSchedulerService();
-        scheduler.removeJobs(LoginModel.getInstance().getSessionId(), l, new AsyncCallback<Integer>() {
-            public void onSuccess(Integer result) {
-                LogModel.getInstance().logMessage("Successfully removed " + result + "/" + l.size() + " jobs");
-            }
-
-            public void onFailure(Throwable caught) {
-                String message = JSONUtils.getJsonErrorMessage(caught);
-                LogModel.getInstance().logImportantMessage("Failed to remove jobs : " + message);
+        new JobsAction(toJobIds(jobId), "removed") {
+            @Override
+            protected void execute(List<Integer> batch, AsyncCallback<BulkActionResult> callback) {
+                Scheduler.getSchedulerService().removeJobs(LoginModel.getInstance().getSessionId(), batch, callback);
             }
-        });
+        }.start();
     }
 
     /**
@@ -251,22 +211,12 @@ public class JobsController {
      * @param jobId id of the job
      */
     public void killJob(List<String> jobId) {
-        final List<Integer> l = new ArrayList<>(jobId.size());
-        for (String id : jobId) {
-            l.add(Integer.parseInt(id));
-        }
-
-        SchedulerServiceAsync scheduler = Scheduler.getSchedulerService();
-        scheduler.killJobs(LoginModel.getInstance().getSessionId(), l, new AsyncCallback<Integer>() {
-            public void onSuccess(Integer result) {
-                LogModel.getInstance().logMessage("Successfully killed " + result + "/" + l.size() + " jobs");
-            }
-
-            public void onFailure(Throwable caught) {
-                String message = JSONUtils.getJsonErrorMessage(caught);
-                LogModel.getInstance().logImportantMessage("Failed to kill jobs : " + message);
+        new JobsAction(toJobIds(jobId), "killed") {
+            @Override
+            protected void execute(List<Integer> batch, AsyncCallback<BulkActionResult> callback) {
+                Scheduler.getSchedulerService().killJobs(LoginModel.getInstance().getSessionId(), batch, callback);
             }
-        });
+        }.start();
     }
 
     /**
@@ -276,29 +226,38 @@ public class JobsController {
      * @param priority new priority
      */
     public void setJobPriority(List<String> jobId, final JobPriority priority) {
-        final List<Integer> l = new ArrayList<>(jobId.size());
+        new JobsAction(toJobIds(jobId), "set priority to " + priority.name() + " for") {
+            @Override
+            protected void execute(List<Integer> batch, AsyncCallback<BulkActionResult> callback) {
+                Scheduler.getSchedulerService().setPriorityByName(LoginModel.getInstance().getSessionId(),
+                                                                  batch,
+                                                                  priority.name(),
+                                                                  callback);
+            }
+        }.start();
+    }
+
+    private List<Integer> toJobIds(List<String> jobId) {
+        List<Integer> ids = new ArrayList<>(jobId.size());
         for (String id : jobId) {
-            l.add(Integer.parseInt(id));
+            ids.add(Integer.parseInt(id));
+        }
+        return ids;
+    }
+
+    /**
+     * Action on the selected jobs, disconnecting the portal when the session has expired
+     */
+    private abstract class JobsAction extends BulkJobsAction {
+
+        JobsAction(List<Integer> jobIds, String actionName) {
+            super(jobIds, actionName);
         }
 
-        SchedulerServiceAsync scheduler = Scheduler.getSchedulerService();
-        scheduler.setPriorityByName(LoginModel.getInstance().getSessionId(),
-                                    l,
-                                    priority.name(),
-                                    new AsyncCallback<Void>() {
-                                        public void onSuccess(Void result) {
-                                            LogModel.getInstance()
-                                                    .logMessage("Successfully set priority to " + priority.name() +
-                                                                " for " + l.size() + " jobs");
-                                        }
-
-                                        public void onFailure(Throwable caught) {
-                                            String message = JSONUtils.getJsonErrorMessage(caught);
-                                            LogModel.getInstance()
-                                                    .logImportantMessage("Failed to set priority to " +
-                                                                         priority.name() + " : " + message);
-                                        }
-                                    });
+        @Override
+        protected void onDisconnected() {
+            parentController.getParentController().teardown("You have been disconnected from the server.");
+        }
     }
 
     /**
@@ -354,6 +313,14 @@ public class JobsController {
      * update the model and views
      */
     public void fetchJobs(boolean showUpdating) {
+        fetchJobs(showUpdating, false);
+    }
+
+    /**
+     * @param onlyIfModified keep the displayed jobs if the scheduler state did not change
+     *            since the server sent them
+     */
+    private void fetchJobs(boolean showUpdating, boolean onlyIfModified) {
         if (showUpdating) {
             model.jobsUpdating();
         }
@@ -386,6 +353,7 @@ public class JobsController {
                                       fetchRunning,
                                       fetchFinished,
                                       model.getFilterModel(),
+                                      onlyIfModified,
                                       new AsyncCallback<String>() {
 
                                           public void onFailure(Throwable caught) {
@@ -412,6 +380,9 @@ public class JobsController {
                                           }
 
                                           public void onSuccess(String result) {
+                                              if (SchedulerService.JOBS_NOT_MODIFIED.equals(result)) {
+                                                  return;
+                                              }
                                               Map<Integer, Job> jobs;
                                               try {
                                                   jobs = SchedulerJSONUtils.parseJSONJobs(result,
@@ -434,28 +405,11 @@ public class JobsController {
     }
 
     /**
-     * Fetch jobs state revision. If revision is more recent, fetch jobs.
+     * Fetch the jobs if the scheduler state revision changed,
+     * the server compares it with the revision of the displayed page.
      */
     public void jobsStateRevision() {
-        SchedulerServiceAsync scheduler = Scheduler.getSchedulerService();
-        scheduler.schedulerStateRevision(LoginModel.getInstance().getSessionId(), new AsyncCallback<Long>() {
-
-            public void onFailure(Throwable caught) {
-                if (!LoginModel.getInstance().isLoggedIn()) {
-                    // might have been disconnected in between
-                    return;
-                }
-                if (JSONUtils.getJsonErrorCode(caught) == Response.SC_UNAUTHORIZED) {
-                    parentController.getParentController().teardown("You have been disconnected from the server.");
-                }
-                LogModel.getInstance().logCriticalMessage("Failed to get Scheduler Revision: " +
-                                                          JSONUtils.getJsonErrorMessage(caught));
-            }
-
-            public void onSuccess(Long result) {
-                fetchJobs(false);
-            }
-        });
+        fetchJobs(false, true);
     }
 
 }
@@ -45,9 +45,12 @@ import org.ow2.proactive_grid_cloud_portal.scheduler.client.SelectionTarget;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.Task;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.model.OutputModel;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.view.OutputView;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.LiveLogChunk;
 import org.ow2.proactive_grid_cloud_portal.scheduler.shared.SchedulerConfig;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.TasksOutput;
 
 import com.google.gwt.http.client.Request;
+import com.google.gwt.http.client.Response;
 import com.google.gwt.json.client.JSONObject;
 import com.google.gwt.user.client.Timer;
 import com.google.gwt.user.client.Window;
@@ -65,6 +68,9 @@ public class OutputController extends AbstractSelectedTargetController<OutputMod
     /** periodically fetches live output */
     private Timer liveOutputUpdater = null;
 
+    /** key of the pending getTasksOutput request in {@link #taskOutputRequests} */
+    private static final String JOB_OUTPUT_REQUEST = "job";
+
     /** contains all pending getTaskOutput requests, taskId as key */
     private Map<String, Request> taskOutputRequests = null;
 
@@ -116,6 +122,7 @@ public class OutputController extends AbstractSelectedTargetController<OutputMod
 
         List<Task> tasks = this.model.getParentModel().getTasksModel().getTasks();
 
+        List<Task> startedTasks = new ArrayList<Task>(tasks.size());
         for (Task t : tasks) {
             switch (t.getStatus()) {
                 case SKIPPED:
@@ -124,14 +131,97 @@ public class OutputController extends AbstractSelectedTargetController<OutputMod
                 case NOT_STARTED:
                     break;
                 default:
-                    this.fetchTaskOutput(jobId, t, logMode);
+                    startedTasks.add(t);
                     break;
             }
         }
+        this.fetchTasksOutput(jobId, startedTasks, 0, logMode);
 
         currentOutput.setComplete(true);
     }
 
+    /**
+     * Fetch the output of the given tasks by batches, one batch after another,
+     * store the results (or error messages) in the model
+     * 
+     * @param jobId id of the job containing the tasks
+     * @param tasks tasks for which the output should be fetched
+     * @param from index of the first task of the batch to fetch
+     * @param logMode the kind of logs to fetch
+     */
+    private void fetchTasksOutput(final String jobId, final List<Task> tasks, final int from,
+            final OutputMode logMode) {
+        if (from >= tasks.size()) {
+            return;
+        }
+        final int to = Math.min(from + SchedulerConfig.get().getJobOutputBatchSize(), tasks.size());
+        final List<Task> batch = tasks.subList(from, to);
+        List<String> taskNames = new ArrayList<String>(batch.size());
+        for (Task task : batch) {
+            taskNames.add(task.getName());
+        }
+
+        SchedulerServiceAsync scheduler = Scheduler.getSchedulerService();
+        Request req = scheduler.getTasksOutput(LoginModel.getInstance().getSessionId(),
+                                               jobId,
+                                               taskNames,
+                                               logMode,
+                                               new AsyncCallback<TasksOutput>() {
+                                                   public void onFailure(Throwable caught) {
+                                                       taskOutputRequests.remove(JOB_OUTPUT_REQUEST);
+                                                       if (disconnectIfUnauthorized(caught)) {
+                                                           return;
+                                                       }
+                                                       for (Task task : batch) {
+                                                           setTaskOutputError(jobId, task, caught.getMessage());
+                                                       }
+                                                       LogModel.getInstance()
+                                                               .logMessage("Failed to get output for tasks in job " +
+                                                                           jobId);
+                                                   }
+
+                                                   public void onSuccess(TasksOutput result) {
+                                                       taskOutputRequests.remove(JOB_OUTPUT_REQUEST);
+                                                       Map<String, String> outputs = result.getOutputs();
+                                                       Map<String, String> failures = result.getFailures();
+                                                       for (Task task : batch) {
+                                                           String output = outputs.get(task.getName());
+                                                           if (output != null) {
+                                                               model.setTaskOutput(jobId, task, output);
+                                                           } else {
+                                                               setTaskOutputError(jobId,
+                                                                                  task,
+                                                                                  failures.get(task.getName()));
+                                                           }
+                                                       }
+
+                                                       String message = "Fetched output for " + to + "/" +
+                                                                        tasks.size() + " tasks in job " + jobId;
+                                                       if (!failures.isEmpty()) {
+                                                           message += ", " + failures.size() + " failed";
+                                                       }
+                                                       LogModel.getInstance().logMessage(message);
+
+                                                       fetchTasksOutput(jobId, tasks, to, logMode);
+                                                   }
+                                               });
+        this.taskOutputRequests.put(JOB_OUTPUT_REQUEST, req);
+    }
+
+    /**
+     * Disconnects the portal when a call failed because the session is not valid anymore
+     *
+     * @param caught the failure of the call
+     * @return true if the portal has been disconnected
+     */
+    private boolean disconnectIfUnauthorized(Throwable caught) {
+        if (JSONUtils.getJsonErrorCode(caught) != Response.SC_UNAUTHORIZED) {
+            return false;
+        }
+        getParentController().teardown("You have been disconnected from the server.");
+        return true;
+    }
+
     /**
      * Fetch the output for a single task,
      * store the result (or error message) in the model
@@ -149,24 +239,7 @@ public class OutputController extends AbstractSelectedTargetController<OutputMod
                                               logMode,
                                               new AsyncCallback<String>() {
                                                   public void onFailure(Throwable caught) {
-                                                      String msg = JSONUtils.getJsonErrorMessage(caught);
-                                                      // might be an exception
-                                                      try {
-                                                          JSONObject json = JSONUtils.parseJSON(caught.getMessage())
-                                                                                     .isObject();
-                                                          if (json.containsKey("stackTrace")) {
-                                                              msg = json.get("stackTrace").isString().stringValue();
-                                                              msg = msg.replace("\t", "&nbsp;&nbsp;&nbsp;&nbsp;");
-                                                              msg = msg.replace("\n", "<br>");
-                                                          }
-                                                      } catch (Throwable t) {
-                                                          // not json
-                                                      }
-                                                      model.setTaskOutput(jobId,
-                                                                          task,
-                                                                          "[" + task.getName() +
-                                                                                "] <span style='color:red;'>" + msg +
-                                                                                "</span>");
+                                                      setTaskOutputError(jobId, task, caught.getMessage());
                                                       LogModel.getInstance()
                                                               .logMessage("Failed to get output for task " +
                                                                           task.getName() + " in job " +
@@ -187,6 +260,29 @@ public class OutputController extends AbstractSelectedTargetController<OutputMod
         this.taskOutputRequests.put("" + task.getId(), req);
     }
 
+    /**
+     * Store the reason why the output of a task could not be fetched as its output
+     * 
+     * @param jobId id of the job containing this task
+     * @param task task for which the output could not be fetched
+     * @param error the error returned by the server
+     */
+    private void setTaskOutputError(String jobId, Task task, String error) {
+        String msg = JSONUtils.getJsonErrorMessage(error);
+        // might be an exception
+        try {
+            JSONObject json = JSONUtils.parseJSON(error).isObject();
+            if (json.containsKey("stackTrace")) {
+                msg = json.get("stackTrace").isString().stringValue();
+                msg = msg.replace("\t", "&nbsp;&nbsp;&nbsp;&nbsp;");
+                msg = msg.replace("\n", "<br>");
+            }
+        } catch (Throwable t) {
+            // not json
+        }
+        model.setTaskOutput(jobId, task, "[" + task.getName() + "] <span style='color:red;'>" + msg + "</span>");
+    }
+
     public void checkLiveEnabled(Job job) {
         if (this.model.isLiveEnabled() && job != null) {
             if (job.isExecuted()) {
@@ -252,21 +348,44 @@ public class OutputController extends AbstractSelectedTargetController<OutputMod
             return;
         }
 
+        final JobOutput liveOutput = currentOutput;
+        final long offset = currentOutput.getLiveOffset();
         SchedulerServiceAsync scheduler = Scheduler.getSchedulerService();
-        scheduler.getLiveLogJob(LoginModel.getInstance().getSessionId(), jobId, new AsyncCallback<String>() {
-            public void onSuccess(String result) {
-                if (result.length() > 0) {
-                    LogModel.getInstance()
-                            .logMessage("Fetched livelog chunk for job " + jobId + " (" + result.length() + " chars)");
-                    model.appendLiveOutput(jobId, result);
-                }
-            }
-
-            public void onFailure(Throwable caught) {
-                String msg = JSONUtils.getJsonErrorMessage(caught);
-                LogModel.getInstance().logImportantMessage("Failed to fetch live log for job " + jobId + ": " + msg);
-            }
-        });
+        scheduler.getLiveLogJob(LoginModel.getInstance().getSessionId(),
+                                jobId,
+                                offset,
+                                new AsyncCallback<LiveLogChunk>() {
+                                    public void onSuccess(LiveLogChunk result) {
+                                        if (liveOutput.getLiveOffset() != offset) {
+                                            // another request already received this chunk
+                                            return;
+                                        }
+                                        if (result.getOffset() > offset) {
+                                            LogModel.getInstance()
+                                                    .logImportantMessage("Live log of job " + jobId + ": " +
+                                                                         (result.getOffset() - offset) +
+                                                                         " chars were dropped by the server");
+                                        }
+                                        liveOutput.setLiveOffset(result.getNextOffset());
+                                        String content = result.getContent();
+                                        if (content.length() > 0) {
+                                            LogModel.getInstance()
+                                                    .logMessage("Fetched livelog chunk for job " + jobId + " (" +
+                                                                content.length() + " chars)");
+                                            model.appendLiveOutput(jobId, content);
+                                        }
+                                        if (result.hasMore() && liveOutputUpdater != null) {
+                                            doFetchLiveLog();
+                                        }
+                                    }
+
+                                    public void onFailure(Throwable caught) {
+                                        String msg = JSONUtils.getJsonErrorMessage(caught);
+                                        LogModel.getInstance()
+                                                .logImportantMessage("Failed to fetch live log for job " + jobId +
+                                                                     ": " + msg);
+                                    }
+                                });
     }
 
     public void cancelCurrentRequests() {
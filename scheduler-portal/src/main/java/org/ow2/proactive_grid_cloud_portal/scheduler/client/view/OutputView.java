@@ -36,6 +36,9 @@ import org.ow2.proactive_grid_cloud_portal.scheduler.client.SelectionTarget;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.controller.OutputController;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.model.OutputModel;
 
+import com.google.gwt.dom.client.DivElement;
+import com.google.gwt.dom.client.Document;
+import com.google.gwt.dom.client.Element;
 import com.smartgwt.client.widgets.Canvas;
 import com.smartgwt.client.widgets.form.DynamicForm;
 import com.smartgwt.client.widgets.form.fields.CheckboxItem;
@@ -62,6 +65,18 @@ public class OutputView extends AbstractOutputDisplayView<OutputModel, OutputCon
     /** stdout, stderr or both */
     private SelectItem outSelect = null;
 
+    /** live output rendered in {@link #liveHtml} */
+    private JobOutput liveOutput = null;
+
+    /** html of the live output lines already rendered */
+    private StringBuilder liveHtml = new StringBuilder();
+
+    /** id of the element holding the live output lines in {@link #text} */
+    private final String liveContainerId = Document.get().createUniqueId();
+
+    /** number of live output lines already rendered */
+    private int liveLinesCount = 0;
+
     public OutputView(OutputController controller) {
         super(controller);
 
@@ -146,7 +161,7 @@ public class OutputView extends AbstractOutputDisplayView<OutputModel, OutputCon
                 if (lines.isEmpty()) {
                     this.goToLoadingState();
                 } else {
-                    this.update(lines);
+                    this.updateLive(output, lines.iterator().next());
                 }
             } else {
                 this.goToTargetSelectedState(output);
@@ -188,6 +203,46 @@ public class OutputView extends AbstractOutputDisplayView<OutputModel, OutputCon
         this.showContent(builder.toString());
     }
 
+    /**
+     * Display the live output of the current job, only the lines received
+     * since the previous call are formatted and appended to the displayed ones
+     * @param output the live output
+     * @param lines the live output lines
+     */
+    protected void updateLive(JobOutput output, List<String> lines) {
+        if (output != this.liveOutput || lines.size() < this.liveLinesCount) {
+            this.liveOutput = output;
+            this.liveHtml = new StringBuilder();
+            this.liveLinesCount = 0;
+        }
+        StringBuilder newHtml = new StringBuilder();
+        for (String outputLine : lines.subList(this.liveLinesCount, lines.size())) {
+            newHtml.append("<nobr>");
+            newHtml.append(outputLine);
+            newHtml.append("</nobr>");
+        }
+        this.liveHtml.append(newHtml);
+        boolean reset = this.liveLinesCount == 0;
+        this.liveLinesCount = lines.size();
+
+        String contents = "<div id='" + this.liveContainerId + "'>" + this.liveHtml + "</div>";
+        Element container = Document.get().getElementById(this.liveContainerId);
+        if (reset || container == null) {
+            this.showContent(contents);
+            return;
+        }
+
+        DivElement newLines = Document.get().createDivElement();
+        newLines.setInnerHTML(newHtml.toString());
+        while (newLines.getFirstChild() != null) {
+            container.appendChild(newLines.getFirstChild());
+        }
+        // keep the contents in sync for the next redraw of the pane, without redrawing it now
+        this.text.setProperty("contents", contents);
+        this.label.hide();
+        this.text.show();
+    }
+
     /**
      * show fetch button, target selection dropdown list and output mode dropdown list.
      */
@@ -25,10 +25,16 @@
  */
 package org.ow2.proactive_grid_cloud_portal.scheduler.client.view.grid;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
+import org.ow2.proactive_grid_cloud_portal.common.client.model.LogModel;
 import org.ow2.proactive_grid_cloud_portal.common.client.model.LoginModel;
 
 import com.smartgwt.client.data.AdvancedCriteria;
@@ -37,11 +43,14 @@ import com.smartgwt.client.data.DSRequest;
 import com.smartgwt.client.data.DSResponse;
 import com.smartgwt.client.data.DataSource;
 import com.smartgwt.client.data.DataSourceField;
-import com.smartgwt.client.data.RecordList;
+import com.smartgwt.client.data.Record;
+import com.smartgwt.client.data.ResultSet;
 import com.smartgwt.client.data.fields.DataSourceIntegerField;
 import com.smartgwt.client.data.fields.DataSourceTextField;
+import com.smartgwt.client.types.DSOperationType;
 import com.smartgwt.client.widgets.grid.ListGrid;
 import com.smartgwt.client.widgets.grid.ListGridField;
+import com.smartgwt.client.widgets.grid.ListGridRecord;
 import com.smartgwt.client.widgets.grid.events.CellContextClickEvent;
 import com.smartgwt.client.widgets.grid.events.CellContextClickHandler;
 import com.smartgwt.client.widgets.grid.events.CellOutEvent;
@@ -87,6 +96,16 @@ public abstract class ItemsListGrid<I> extends ListGrid {
     /** To disable selection listener while fetching data */
     protected boolean fetchingData;
 
+    /**
+     * Records held by the datasource, by primary key, in the order of the last refresh
+     */
+    private Map<String, Record> records = new LinkedHashMap<>();
+
+    /**
+     * Whether the grid shows a result set bound to the datasource, which receives the row updates
+     */
+    private boolean showingResultSet = false;
+
     public ItemsListGrid() {
     }
 
@@ -195,6 +214,132 @@ public abstract class ItemsListGrid<I> extends ListGrid {
         return result;
     }
 
+    /**
+     * Creates the record embedding an item, its column attributes are then set by the columns factory.
+     * @param item the item to be shown.
+     * @return the new record.
+     */
+    protected abstract ListGridRecord createRecord(I item);
+
+    /**
+     * Embeds a new version of an item in the record already showing it,
+     * when the columns of the record did not change.
+     * @param record the record shown by the grid.
+     * @param item the new version of the item.
+     */
+    protected abstract void setItem(Record record, I item);
+
+    /**
+     * Called once the records of the items which are not shown anymore are removed from the grid.
+     * @param removed the removed records.
+     */
+    protected void recordsRemoved(Collection<Record> removed) {
+    }
+
+    /**
+     * Shows a new page of items. The records are compared to the ones of the previous
+     * page by primary key, and only the records added, changed or removed are pushed to
+     * the grid through {@link DataSource#updateCaches(DSResponse, DSRequest)}, so that
+     * the other rows keep their state and are not drawn again. The records of these
+     * other rows are kept, but embed the new version of their item.
+     *
+     * @param items the items of the page.
+     * @param selectedItem the selected item, or null.
+     */
+    protected void updateItems(Collection<I> items, I selectedItem) {
+        Map<String, Record> previousRecords = this.records;
+        boolean firstPage = previousRecords.isEmpty();
+        this.records = new LinkedHashMap<>();
+        List<Record> added = new ArrayList<>();
+        List<Record> changed = new ArrayList<>();
+
+        for (I item : items) {
+            ListGridRecord record = createRecord(item);
+            this.columnsFactory.buildRecord(item, record);
+            if (item.equals(selectedItem)) {
+                record.setAttribute(getSelectionProperty(), true);
+            }
+
+            String key = getRecordKey(record);
+            Record previous = previousRecords.remove(key);
+            if (previous == null) {
+                added.add(record);
+            } else if (hasChanged(previous, record)) {
+                changed.add(record);
+            } else {
+                setItem(previous, item);
+                this.records.put(key, previous);
+                continue;
+            }
+            this.records.put(key, record);
+        }
+        Collection<Record> removed = previousRecords.values();
+
+        this.ds.setTestData(this.records.values().toArray(new Record[this.records.size()]));
+
+        if (firstPage || !this.showingResultSet) {
+            applyCurrentLocalFilter();
+        } else {
+            updateCaches(DSOperationType.REMOVE, removed);
+            updateCaches(DSOperationType.ADD, added);
+            updateCaches(DSOperationType.UPDATE, changed);
+        }
+        recordsRemoved(removed);
+
+        LogModel.getInstance()
+                .logMessage("Refreshed " + this.records.size() + " rows of " + this.datasourceNamePrefix + " (" +
+                            added.size() + " added, " + changed.size() + " changed, " + removed.size() +
+                            " removed)");
+    }
+
+    /**
+     * Shows one more item without waiting for the next page.
+     * @param item the new item.
+     */
+    protected void addItem(I item) {
+        ListGridRecord record = createRecord(item);
+        this.columnsFactory.buildRecord(item, record);
+
+        String key = getRecordKey(record);
+        if (this.records.containsKey(key)) {
+            return;
+        }
+        this.records.put(key, record);
+        this.ds.setTestData(this.records.values().toArray(new Record[this.records.size()]));
+        updateCaches(DSOperationType.ADD, Collections.<Record> singletonList(record));
+    }
+
+    private void updateCaches(DSOperationType operationType, Collection<Record> data) {
+        if (data.isEmpty()) {
+            return;
+        }
+        DSRequest request = new DSRequest();
+        request.setOperationType(operationType);
+        DSResponse response = new DSResponse();
+        response.setData(data.toArray(new Record[data.size()]));
+        this.ds.updateCaches(response, request);
+    }
+
+    private String getRecordKey(Record record) {
+        StringBuilder key = new StringBuilder();
+        for (GridColumns column : this.columnsFactory.getColumns()) {
+            if (column.isPrimaryKey()) {
+                key.append(record.getAttribute(column.getName())).append('/');
+            }
+        }
+        return key.toString();
+    }
+
+    private boolean hasChanged(Record previous, Record record) {
+        for (GridColumns column : this.columnsFactory.getColumns()) {
+            if (!Objects.equals(previous.getAttribute(column.getName()), record.getAttribute(column.getName()))) {
+                return true;
+            }
+        }
+        String selection = getSelectionProperty();
+        return !Objects.equals(previous.getAttributeAsBoolean(selection), record.getAttributeAsBoolean(selection));
+    }
+
     /**
      * Builds the contextual menu when clicking on an item.
      * @param menu
@@ -230,7 +375,12 @@ public abstract class ItemsListGrid<I> extends ListGrid {
         dataSource.fetchData(this.filter, new DSCallback() {
             @Override
             public void execute(DSResponse response, Object rawData, DSRequest request) {
-                setData(new RecordList(response.getData()));
+                // a result set bound to the datasource receives the later row updates
+                ResultSet resultSet = new ResultSet(ds);
+                resultSet.setCriteria(filter);
+                resultSet.setAllRows(response.getData());
+                setData(resultSet);
+                showingResultSet = true;
             }
 
         }, request);
@@ -27,6 +27,7 @@ package org.ow2.proactive_grid_cloud_portal.scheduler.client.view.grid.jobs;
 
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.Job;
 
+import com.smartgwt.client.data.Record;
 import com.smartgwt.client.widgets.grid.ListGridRecord;
 
 
@@ -55,4 +56,13 @@ public class JobRecord extends ListGridRecord {
         return (Job) record.getAttributeAsObject(JOB_ATTR);
     }
 
+    /**
+     * Stores a new version of the job in a job record.
+     * @param record the record that contains the job.
+     * @param job the new version of the job.
+     */
+    public static void setJob(Record record, Job job) {
+        record.setAttribute(JOB_ATTR, job);
+    }
+
 }
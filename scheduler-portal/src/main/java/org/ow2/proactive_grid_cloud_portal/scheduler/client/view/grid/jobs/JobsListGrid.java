@@ -43,15 +43,11 @@ import org.ow2.proactive_grid_cloud_portal.scheduler.client.controller.JobsContr
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.view.grid.GridColumns;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.view.grid.ItemsListGrid;
 
-import com.smartgwt.client.data.DSCallback;
-import com.smartgwt.client.data.DSRequest;
-import com.smartgwt.client.data.DSResponse;
-import com.smartgwt.client.data.RecordList;
+import com.smartgwt.client.data.Record;
 import com.smartgwt.client.data.SortSpecifier;
 import com.smartgwt.client.types.Alignment;
 import com.smartgwt.client.types.ListGridFieldType;
 import com.smartgwt.client.types.SortDirection;
-import com.smartgwt.client.util.SC;
 import com.smartgwt.client.widgets.grid.CellFormatter;
 import com.smartgwt.client.widgets.grid.ListGridField;
 import com.smartgwt.client.widgets.grid.ListGridRecord;
@@ -104,21 +100,17 @@ public class JobsListGrid extends ItemsListGrid<Job> implements JobsUpdatedListe
 
     @Override
     public void jobsUpdated(Map<Integer, Job> jobs) {
-        Job selectedJob = this.controller.getModel().getSelectedJob();
-
-        RecordList data = new RecordList();
-        for (Job j : jobs.values()) {
-            JobRecord jobRecord = new JobRecord(j);
-            this.columnsFactory.buildRecord(j, jobRecord);
-            data.add(jobRecord);
+        updateItems(jobs.values(), this.controller.getModel().getSelectedJob());
+    }
 
-            if (j.equals(selectedJob)) {
-                jobRecord.setAttribute("isSelected", true);
-            }
-        }
+    @Override
+    protected ListGridRecord createRecord(Job job) {
+        return new JobRecord(job);
+    }
 
-        this.ds.setTestData(data.toArray());
-        applyCurrentLocalFilter();
+    @Override
+    protected void setItem(Record record, Job job) {
+        JobRecord.setJob(record, job);
     }
 
     @Override
@@ -129,20 +121,8 @@ public class JobsListGrid extends ItemsListGrid<Job> implements JobsUpdatedListe
 
     @Override
     public void jobSubmitted(Job j) {
-        JobRecord jr = new JobRecord(j);
-        DSRequest customErrorHandling = new DSRequest();
-        customErrorHandling.setWillHandleError(true);
-        this.ds.addData(jr, new DSCallback() {
-            @Override
-            public void execute(DSResponse dsResponse, Object o, DSRequest dsRequest) {
-                if (dsResponse.getStatus() < 0) {
-                    // it could fail because results from the server with the new job are already displayed
-                    // failed silently since the new job is already displayed or will be anyway with next call
-                    SC.logWarn(dsResponse.getDataAsString());
-                }
-            }
-        }, customErrorHandling);
-        applyCurrentLocalFilter();
+        // the job may already be shown if the server returned it first
+        addItem(j);
     }
 
     @Override
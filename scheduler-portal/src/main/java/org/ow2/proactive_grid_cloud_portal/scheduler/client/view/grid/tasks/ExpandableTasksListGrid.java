@@ -29,6 +29,7 @@ import org.ow2.proactive_grid_cloud_portal.scheduler.client.Task;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.controller.TasksController;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.view.grid.GridColumns;
 
+import com.smartgwt.client.data.Record;
 import com.smartgwt.client.widgets.Canvas;
 import com.smartgwt.client.widgets.grid.ListGridRecord;
 import com.smartgwt.client.widgets.layout.VLayout;
@@ -111,4 +112,13 @@ public class ExpandableTasksListGrid extends TasksListGrid {
         }
         return record;
     }
+
+    @Override
+    protected void setItem(Record record, Task task) {
+        super.setItem(record, task);
+        String idAttr = TasksColumnsFactory.ID_ATTR.getName();
+        if (this.expandRecord != null && record.getAttribute(idAttr).equals(this.expandRecord.getAttribute(idAttr))) {
+            this.expandRecord = (ListGridRecord) record;
+        }
+    }
 }
@@ -49,4 +49,8 @@ public class TaskRecord extends ListGridRecord {
         return (Task) record.getAttributeAsObject(TASK_ATTR);
     }
 
+    public static void setTask(Record record, Task task) {
+        record.setAttribute(TASK_ATTR, task);
+    }
+
 }
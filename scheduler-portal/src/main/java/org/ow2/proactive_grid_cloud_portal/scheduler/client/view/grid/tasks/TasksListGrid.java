@@ -30,6 +30,7 @@ import static org.ow2.proactive_grid_cloud_portal.scheduler.client.view.grid.tas
 import static org.ow2.proactive_grid_cloud_portal.scheduler.client.view.grid.tasks.TasksColumnsFactory.NAME_ATTR;
 import static org.ow2.proactive_grid_cloud_portal.scheduler.client.view.grid.tasks.TasksColumnsFactory.STATUS_ATTR;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -49,7 +50,6 @@ import org.ow2.proactive_grid_cloud_portal.scheduler.client.view.grid.ItemsListG
 import com.google.gwt.core.client.GWT;
 import com.google.gwt.event.shared.HandlerRegistration;
 import com.smartgwt.client.data.Record;
-import com.smartgwt.client.data.RecordList;
 import com.smartgwt.client.types.Alignment;
 import com.smartgwt.client.types.ListGridFieldType;
 import com.smartgwt.client.types.SelectionStyle;
@@ -167,24 +167,42 @@ public class TasksListGrid extends ItemsListGrid<Task> implements TasksUpdatedLi
 
     @Override
     public void tasksUpdated(List<Task> tasks, long totalTasks) {
-        this.visuButtons.clear();
-        Task selectedTask = this.controller.getModel().getSelectedTask();
-
-        RecordList data = new RecordList();
-        TaskRecord selectedRecord = null;
-        for (Task t : tasks) {
-            TaskRecord record = new TaskRecord(t);
-            this.columnsFactory.buildRecord(t, record);
-            data.add(record);
-
-            if (t.equals(selectedTask)) {
-                record.setAttribute("isSelected", true);
-                selectedRecord = record;
+        // the rows left unchanged keep their visualization button
+        updateItems(tasks, this.controller.getModel().getSelectedTask());
+    }
+
+    @Override
+    protected ListGridRecord createRecord(Task task) {
+        return updateTaskRecord(task);
+    }
+
+    @Override
+    protected void setItem(Record record, Task task) {
+        TaskRecord.setTask(record, task);
+    }
+
+    @Override
+    protected void recordsRemoved(Collection<Record> removed) {
+        for (Record record : removed) {
+            ImgButton button = removeVisuButton(record.getAttributeAsString(TasksColumnsFactory.ID_ATTR.getName()));
+            if (button != null && button.isCreated()) {
+                button.destroy();
             }
         }
+    }
 
-        this.ds.setTestData(data.toArray());
-        applyCurrentLocalFilter();
+    /**
+     * @return the visualization button of the task, which does not react to clicks anymore
+     */
+    private ImgButton removeVisuButton(String taskId) {
+        ImgButton button = visuButtons.remove(taskId);
+        if (button != null) {
+            HandlerRegistration clickHandler = visuButtonsClickHandlers.remove(button);
+            if (clickHandler != null) {
+                clickHandler.removeHandler();
+            }
+        }
+        return button;
     }
 
     @Override
@@ -233,7 +251,10 @@ public class TasksListGrid extends ItemsListGrid<Task> implements TasksUpdatedLi
             button.setShowRollOver(false);
             button.setShowOverCanvas(false);
             button.setShowDown(false);
-            visuButtons.put(record.getAttributeAsString(TasksColumnsFactory.ID_ATTR.getName()), button);
+            String taskId = record.getAttributeAsString(TasksColumnsFactory.ID_ATTR.getName());
+            // the grid creates the component again when the row is drawn again, and discards the previous one
+            removeVisuButton(taskId);
+            visuButtons.put(taskId, button);
 
             for (RemoteHint rh : controller.getModel().getRemoteHints()) {
                 loadRemoteHint(rh, record);
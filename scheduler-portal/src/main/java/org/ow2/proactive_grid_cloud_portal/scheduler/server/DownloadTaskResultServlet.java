@@ -25,14 +25,20 @@
  */
 package org.ow2.proactive_grid_cloud_portal.scheduler.server;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 
 import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.codehaus.jettison.json.JSONObject;
 import org.ow2.proactive_grid_cloud_portal.common.client.json.JSONUtils;
 import org.ow2.proactive_grid_cloud_portal.common.server.Service;
@@ -56,6 +62,11 @@ public class DownloadTaskResultServlet extends HttpServlet {
 
     public static final String METADATA_FILE_EXTENSION = "file.extension";
 
+    /**
+     * Size of the chunks copied from the REST server response to the servlet output
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     @Override
     protected void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
         download(request, response);
@@ -71,9 +82,10 @@ public class DownloadTaskResultServlet extends HttpServlet {
         String taskId = request.getParameter("taskId");
         String destination = request.getParameter("destination");
         String sessionId = request.getParameter("sessionId");
+        String range = request.getHeader(HttpHeaders.RANGE);
 
-        InputStream is = null;
-        ServletOutputStream out = null;
+        CloseableHttpResponse result = null;
+        ServletOutputStream out = response.getOutputStream();
         try {
 
             JSONObject json = new JSONObject(((SchedulerServiceImpl) Service.get()).getTaskResultMetadata(sessionId,
@@ -104,27 +116,161 @@ public class DownloadTaskResultServlet extends HttpServlet {
             }
             response.setHeader("Location", "job" + jobId + "_" + taskId + ".result");
 
-            out = response.getOutputStream();
             if (contentType.equals("text/plain")) {
-                is = ((SchedulerServiceImpl) Service.get()).getTaskResult(sessionId, jobId, taskId);
+                result = ((SchedulerServiceImpl) Service.get()).getTaskResult(sessionId, jobId, taskId, range);
             } else {
-                is = ((SchedulerServiceImpl) Service.get()).getTaskSerializedResult(sessionId, jobId, taskId);
+                result = ((SchedulerServiceImpl) Service.get()).getTaskSerializedResult(sessionId,
+                                                                                        jobId,
+                                                                                        taskId,
+                                                                                        range);
             }
 
-            int buf;
-            while ((buf = is.read()) != -1) {
-                out.write(buf);
-            }
+            transfer(result, range, response, out);
 
         } catch (Throwable t) {
             LOGGER.warn("Failed to download result", t);
             String str = "Failed to download result: " + JSONUtils.getJsonErrorMessage(t);
             out.write(str.getBytes());
         } finally {
-            if (is != null)
-                is.close();
+            if (result != null)
+                result.close();
             out.flush();
             out.close();
         }
     }
+
+    /**
+     * Streams the result body to the servlet response, serving the requested byte range
+     * when the REST server did not already do it.
+     */
+    private void transfer(CloseableHttpResponse result, String range, HttpServletResponse response,
+            ServletOutputStream out) throws IOException {
+        HttpEntity entity = result.getEntity();
+        long length = entity.getContentLength();
+        InputStream is = entity.getContent();
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (result.getStatusLine().getStatusCode() == HttpServletResponse.SC_PARTIAL_CONTENT) {
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            Header contentRange = result.getFirstHeader(HttpHeaders.CONTENT_RANGE);
+            if (contentRange != null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, contentRange.getValue());
+            }
+            setContentLength(response, length);
+            copy(is, out, Long.MAX_VALUE);
+            return;
+        }
+
+        ByteRange byteRange = ByteRange.parse(range, length);
+        if (byteRange == null) {
+            setContentLength(response, length);
+            copy(is, out, Long.MAX_VALUE);
+        } else if (!byteRange.isSatisfiable()) {
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+        } else {
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE,
+                               "bytes " + byteRange.getFirst() + "-" + byteRange.getLast() + "/" + length);
+            setContentLength(response, byteRange.length());
+            skip(is, byteRange.getFirst());
+            copy(is, out, byteRange.length());
+        }
+    }
+
+    private void setContentLength(HttpServletResponse response, long length) {
+        if (length >= 0) {
+            response.setHeader(HttpHeaders.CONTENT_LENGTH, Long.toString(length));
+        }
+    }
+
+    private void skip(InputStream is, long count) throws IOException {
+        long remaining = count;
+        while (remaining > 0) {
+            long skipped = is.skip(remaining);
+            if (skipped <= 0) {
+                if (is.read() == -1) {
+                    throw new EOFException("Result ended before the requested range");
+                }
+                skipped = 1;
+            }
+            remaining -= skipped;
+        }
+    }
+
+    private void copy(InputStream is, OutputStream out, long count) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long remaining = count;
+        int read;
+        while (remaining > 0 && (read = is.read(buffer, 0, (int) Math.min(buffer.length, remaining))) != -1) {
+            out.write(buffer, 0, read);
+            remaining -= read;
+        }
+    }
+
+    /**
+     * Single byte range of a HTTP Range header, multiple ranges are not supported
+     * and lead to the whole result being sent.
+     */
+    static final class ByteRange {
+
+        private final long first;
+
+        private final long last;
+
+        private final long total;
+
+        private ByteRange(long first, long last, long total) {
+            this.first = first;
+            this.last = Math.min(last, total - 1);
+            this.total = total;
+        }
+
+        /**
+         * @param header value of the Range header, may be null
+         * @param total length of the whole result, negative if unknown
+         * @return the requested range, or null if the whole result must be sent
+         */
+        static ByteRange parse(String header, long total) {
+            if (header == null || total < 0 || !header.startsWith("bytes=") || header.contains(",")) {
+                return null;
+            }
+            String spec = header.substring("bytes=".length()).trim();
+            int dash = spec.indexOf('-');
+            if (dash < 0) {
+                return null;
+            }
+            try {
+                String first = spec.substring(0, dash).trim();
+                String last = spec.substring(dash + 1).trim();
+                if (first.isEmpty()) {
+                    // suffix range: the last N bytes
+                    long suffix = Long.parseLong(last);
+                    return new ByteRange(Math.max(0, total - suffix), total - 1, total);
+                }
+                return new ByteRange(Long.parseLong(first),
+                                     last.isEmpty() ? total - 1 : Long.parseLong(last),
+                                     total);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        boolean isSatisfiable() {
+            return first < total && first <= last;
+        }
+
+        long length() {
+            return last - first + 1;
+        }
+
+        long getFirst() {
+            return first;
+        }
+
+        long getLast() {
+            return last;
+        }
+    }
 }
@@ -26,12 +26,12 @@
 package org.ow2.proactive_grid_cloud_portal.scheduler.server;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintWriter;
+import java.io.Writer;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Date;
-import java.util.List;
 
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
@@ -39,21 +39,26 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.io.IOUtils;
 import org.ow2.proactive_grid_cloud_portal.common.server.Service;
 import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
-import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobUsage;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.TaskUsage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 
 public class ExportUsageServlet extends HttpServlet {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExportUsageServlet.class);
+
     private static final String ISO_8601_FORMAT = "yyyy-MM-dd'T'HH:mm:ss.SSSz";
 
     private static final String LINE_SEPARATOR = "\n";
 
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        InputStream usage = null;
         try {
             String sessionId = request.getParameter("sessionId");
             SimpleDateFormat formatter = new SimpleDateFormat(ISO_8601_FORMAT);
@@ -61,22 +66,27 @@ public class ExportUsageServlet extends HttpServlet {
             Date startDate = getDateParameter(request, formatter, "startDate");
             Date endDate = getDateParameter(request, formatter, "endDate");
 
-            String csvContent = csvExport(sessionId, user, startDate, endDate);
+            usage = ((SchedulerServiceImpl) Service.get()).getUsageStream(sessionId, user, startDate, endDate);
 
             response.setContentType("text/csv");
             response.setHeader("Content-Disposition", "attachment; filename=\"SchedulerUsage.csv\"");
             PrintWriter writer = response.getWriter();
-            writer.write(csvContent);
+            csvExport(usage, writer);
             writer.flush();
             writer.close();
         } catch (ParseException e) {
             response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Dates parameter should use ISO 8601 format");
-        } catch (ServiceException e) {
-            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR,
-                               "Failed to retrieve usage data: " + e.getMessage());
         } catch (RestServerException e) {
             response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR,
                                "Failed to retrieve usage data: " + e.getMessage());
+        } catch (IOException e) {
+            LOGGER.warn("Failed to export usage data", e);
+            if (!response.isCommitted()) {
+                response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR,
+                                   "Failed to retrieve usage data: " + e.getMessage());
+            }
+        } finally {
+            IOUtils.closeQuietly(usage);
         }
     }
 
@@ -85,32 +95,33 @@ public class ExportUsageServlet extends HttpServlet {
         return formatter.parse(request.getParameter(parameterName));
     }
 
-    private String csvExport(String sessionId, String user, Date startDate, Date endDate)
-            throws ServiceException, RestServerException, IOException {
+    /**
+     * Writes one CSV record per task as soon as its job usage is read from the REST server response
+     */
+    private void csvExport(InputStream usage, Writer writer) throws IOException {
         Object[] header = { "Owner", "Project", "Job Id", "Job Name", "Job Duration", "Task Id", "Task Name",
                             "Task Node Number", "Task Start Time", "Task Finished Time", "Task Duration" };
-        List<JobUsage> jobUsages = ((SchedulerServiceImpl) Service.get()).getUsage(sessionId, user, startDate, endDate);
-        StringBuilder sb = new StringBuilder();
-        CSVPrinter csvFilePrinter = null;
         CSVFormat csvFileFormat = CSVFormat.DEFAULT.withRecordSeparator(LINE_SEPARATOR);
-        csvFilePrinter = new CSVPrinter(sb, csvFileFormat);
+        final CSVPrinter csvFilePrinter = new CSVPrinter(writer, csvFileFormat);
         csvFilePrinter.printRecord(header);
-        for (JobUsage jobUsage : jobUsages) {
-            for (TaskUsage taskUsage : jobUsage.getTaskUsages()) {
-                csvFilePrinter.printRecord(jobUsage.getOwner(),
-                                           jobUsage.getProject(),
-                                           jobUsage.getJobId(),
-                                           jobUsage.getJobName(),
-                                           jobUsage.getJobDuration(),
-                                           taskUsage.getTaskId(),
-                                           taskUsage.getTaskName(),
-                                           taskUsage.getTaskNodeNumber(),
-                                           taskUsage.getTaskStartTime(),
-                                           taskUsage.getTaskFinishedTime(),
-                                           taskUsage.getTaskExecutionDuration());
+        UsageJsonReader.readJobUsages(usage, new UsageJsonReader.JobUsageHandler() {
+            @Override
+            public void handle(JobUsage jobUsage) throws IOException {
+                for (TaskUsage taskUsage : jobUsage.getTaskUsages()) {
+                    csvFilePrinter.printRecord(jobUsage.getOwner(),
+                                               jobUsage.getProject(),
+                                               jobUsage.getJobId(),
+                                               jobUsage.getJobName(),
+                                               jobUsage.getJobDuration(),
+                                               taskUsage.getTaskId(),
+                                               taskUsage.getTaskName(),
+                                               taskUsage.getTaskNodeNumber(),
+                                               taskUsage.getTaskStartTime(),
+                                               taskUsage.getTaskFinishedTime(),
+                                               taskUsage.getTaskExecutionDuration());
+                }
             }
-        }
-        csvFilePrinter.close();
-        return sb.toString();
+        });
+        csvFilePrinter.flush();
     }
 }
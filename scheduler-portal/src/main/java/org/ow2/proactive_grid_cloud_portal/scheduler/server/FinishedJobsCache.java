@@ -0,0 +1,216 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.ow2.proactive_grid_cloud_portal.common.server.SnapshotCache;
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobStatus;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+
+/**
+ * Keeps the responses of the REST server describing jobs which are
+ * over (finished, canceled, failed or killed): they cannot change anymore
+ * so they are served from memory until evicted.
+ * <p>
+ * Entries are evicted on a least recently used basis once the
+ * approximate size of the cached responses exceeds the configured budget.
+ * <p>
+ * The REST server decides who can read a job: a cached response is only
+ * returned to the users for whom the REST server already served
+ * a response about the same job, other users go through the REST server.
+ */
+public class FinishedJobsCache {
+
+    private static final int MAX_FINISHED_JOBS = 100000;
+
+    /**
+     * Responses, keyed by job id and resource
+     */
+    private final SnapshotCache<String, String> responses;
+
+    /**
+     * Logins of the users allowed to read each job whose responses are cached
+     */
+    private final SnapshotCache<String, Set<String>> readers;
+
+    /**
+     * Ids of the jobs known to be over, each mapped to a generation number
+     * part of the keys of their responses so that dropping a job
+     * makes its responses unreachable until they get evicted
+     */
+    private final SnapshotCache<String, Long> finishedJobs;
+
+    private final AtomicLong generations = new AtomicLong();
+
+    /**
+     * @param maximumSize maximum size in bytes of the cached responses
+     */
+    public FinishedJobsCache(long maximumSize) {
+        this.responses = new SnapshotCache<>(CacheBuilder.newBuilder()
+                                                         .maximumWeight(maximumSize)
+                                                         .weigher(FinishedJobsCache::sizeOf)
+                                                         .recordStats());
+        this.readers = new SnapshotCache<>(CacheBuilder.newBuilder().maximumSize(MAX_FINISHED_JOBS));
+        this.finishedJobs = new SnapshotCache<>(CacheBuilder.newBuilder().maximumSize(MAX_FINISHED_JOBS));
+    }
+
+    /**
+     * @return true if the status is final: nothing about the job can change anymore
+     */
+    public static boolean isFinal(String status) {
+        return JobStatus.FINISHED.name().equals(status) || JobStatus.CANCELED.name().equals(status) ||
+               JobStatus.FAILED.name().equals(status) || JobStatus.KILLED.name().equals(status);
+    }
+
+    /**
+     * Records the last known status of a job, only the responses about jobs
+     * with a final status are cached.
+     *
+     * @param jobId id of the job
+     * @param status status of the job as returned by the REST server
+     */
+    public void updateStatus(String jobId, String status) {
+        if (jobId == null || status == null) {
+            return;
+        }
+        if (isFinal(status)) {
+            if (finishedJobs.getIfPresent(jobId) == null) {
+                finishedJobs.put(jobId, generations.incrementAndGet());
+            }
+        } else if (finishedJobs.getIfPresent(jobId) != null) {
+            // the id has been reused, e.g. after a reset of the scheduler database
+            invalidate(jobId);
+        }
+    }
+
+    /**
+     * Records the status of the jobs listed in the result of a GraphQL jobs query.
+     *
+     * @param result the result of the query, as returned by the GraphQL client
+     */
+    public void updateStatuses(Map<String, Object> result) {
+        Object data = result.get("data");
+        Object jobs = data instanceof Map ? ((Map<?, ?>) data).get("jobs") : null;
+        Object edges = jobs instanceof Map ? ((Map<?, ?>) jobs).get("edges") : null;
+        if (!(edges instanceof List)) {
+            return;
+        }
+        for (Object edge : (List<?>) edges) {
+            Object node = edge instanceof Map ? ((Map<?, ?>) edge).get("node") : null;
+            if (node instanceof Map) {
+                Map<?, ?> job = (Map<?, ?>) node;
+                updateStatus(Objects.toString(job.get("id"), null), Objects.toString(job.get("status"), null));
+            }
+        }
+    }
+
+    /**
+     * @param jobId id of the job
+     * @return true if the responses about the job are cached
+     */
+    public boolean isFinished(String jobId) {
+        return finishedJobs.getIfPresent(jobId) != null;
+    }
+
+    /**
+     * Returns the response cached for the given job resource, or fetches it with the loader.
+     *
+     * @param jobId id of the job
+     * @param resource identifies the response among the ones describing the job
+     * @param login login of the user asking for the resource, null to bypass the cache
+     * @param loader fetches the resource from the REST server on behalf of the user
+     * @return the response of the REST server
+     * @throws RestServerException the loader failed with a REST server error
+     * @throws ServiceException the loader failed for any other reason
+     */
+    public String get(String jobId, String resource, String login, Callable<String> loader)
+            throws RestServerException, ServiceException {
+        Long generation = finishedJobs.getIfPresent(jobId);
+        if (generation == null || login == null) {
+            return load(loader);
+        }
+
+        String key = jobId + '/' + generation + '/' + resource;
+        Set<String> jobReaders = readers.getIfPresent(jobId);
+
+        if (jobReaders != null && jobReaders.contains(login)) {
+            return responses.get(key, loader);
+        }
+
+        String response = load(loader);
+        readers.get(jobId, () -> Collections.newSetFromMap(new ConcurrentHashMap<>())).add(login);
+        responses.put(key, response);
+        return response;
+    }
+
+    /**
+     * Drops all the responses cached about a job.
+     *
+     * @param jobId id of the job
+     */
+    public void invalidate(String jobId) {
+        finishedJobs.invalidate(jobId);
+        readers.invalidate(jobId);
+    }
+
+    /**
+     * @return hit and miss counters of the cached responses
+     */
+    public CacheStats stats() {
+        return responses.stats();
+    }
+
+    /**
+     * @return approximate size in bytes of a cached response
+     */
+    private static int sizeOf(String key, String response) {
+        return 2 * (key.length() + response.length());
+    }
+
+    private String load(Callable<String> loader) throws RestServerException, ServiceException {
+        try {
+            return loader.call();
+        } catch (RestServerException | ServiceException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ServiceException(e.getMessage(), e);
+        }
+    }
+
+}
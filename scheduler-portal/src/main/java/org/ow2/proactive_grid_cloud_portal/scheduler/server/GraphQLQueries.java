@@ -26,7 +26,6 @@
 package org.ow2.proactive_grid_cloud_portal.scheduler.server;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -34,11 +33,11 @@ import java.util.logging.Logger;
 import org.ow2.proactive.scheduling.api.graphql.beans.input.JobInput;
 import org.ow2.proactive.scheduling.api.graphql.beans.input.Jobs;
 import org.ow2.proactive.scheduling.api.graphql.beans.input.Query;
-import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobStatus;
-import org.ow2.proactive_grid_cloud_portal.scheduler.shared.filter.Action;
-import org.ow2.proactive_grid_cloud_portal.scheduler.shared.filter.Constraint;
 import org.ow2.proactive_grid_cloud_portal.scheduler.shared.filter.FilterModel;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 
 /**
  * Queries provider
@@ -49,11 +48,23 @@ public final class GraphQLQueries {
 
     private static GraphQLQueries client;
 
+    /**
+     * Maximum number of jobs query inputs kept
+     */
+    private static final long MAX_CACHED_QUERIES = 1000;
+
     /**
      * Logger
      */
     private static final Logger LOGGER = Logger.getLogger(GraphQLQueries.class.getName());
 
+    /**
+     * Inputs of the jobs query per normalized filter, the page being added to each query
+     */
+    private final Cache<JobFilterPlanner.FilterKey, List<JobInput>> inputs = CacheBuilder.newBuilder()
+                                                                                     .maximumSize(MAX_CACHED_QUERIES)
+                                                                                     .build();
+
     private GraphQLQueries() {
     }
 
@@ -68,22 +79,11 @@ public final class GraphQLQueries {
             final boolean finished, String startCursor, String endCursor, int pageSize, boolean first,
             FilterModel filterModel) {
         try {
-            Jobs.Builder jobsBuilder = new Jobs.Builder().excludeDataManagement().excludeRemovedTime();
-
-            if (startCursor != null)
-                jobsBuilder.after(startCursor);
-            if (endCursor != null)
-                jobsBuilder.before(endCursor);
-
-            if (first)
-                jobsBuilder.first(pageSize);
-            else
-                jobsBuilder.last(pageSize);
+            List<JobInput> input = inputs.get(JobFilterPlanner.getKey(user, pending, running, finished, filterModel),
+                                              () -> getJobInputs(user, pending, running, finished, filterModel));
+            String queryString = getJobsQueryString(startCursor, endCursor, pageSize, first, input);
 
-            List<JobInput> input = getJobInputs(user, pending, running, finished, filterModel);
-            jobsBuilder.input(input);
-
-            Query.Builder queryBuilder = new Query.Builder().query(jobsBuilder.build().getQueryString());
+            Query.Builder queryBuilder = new Query.Builder().query(queryString);
             return queryBuilder.build();
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, e.getMessage());
@@ -91,6 +91,25 @@ public final class GraphQLQueries {
         }
     }
 
+    private String getJobsQueryString(String startCursor, String endCursor, int pageSize, boolean first,
+            List<JobInput> input) {
+        Jobs.Builder jobsBuilder = new Jobs.Builder().excludeDataManagement().excludeRemovedTime();
+
+        if (startCursor != null)
+            jobsBuilder.after(startCursor);
+        if (endCursor != null)
+            jobsBuilder.before(endCursor);
+
+        if (first)
+            jobsBuilder.first(pageSize);
+        else
+            jobsBuilder.last(pageSize);
+
+        jobsBuilder.input(new ArrayList<>(input));
+
+        return jobsBuilder.build().getQueryString();
+    }
+
     /**
      * Get the list of filters for graphql query
      * @param user the name of the user
@@ -103,130 +122,33 @@ public final class GraphQLQueries {
     private List<JobInput> getJobInputs(final String user, final boolean pending, final boolean running,
             final boolean finished, FilterModel filterModel) {
         List<JobInput> input = new ArrayList<>();
-
-        for (JobStatus status : JobStatus.values()) {
-            boolean fetch;
-            switch (status) {
-                case PENDING:
-                    fetch = pending;
-                    break;
-                case RUNNING:
-                    fetch = running;
-                    break;
-                case FINISHED:
-                    fetch = finished;
-                    break;
-                default:
-                    fetch = true;
-            }
-
-            if (fetch) {
-                if (filterModel.isMatchAny() && !filterModel.getConstraints().isEmpty()) {
-                    for (Constraint constraint : filterModel.getConstraints()) {
-                        input.add(getJobInput(status, user, Collections.singletonList(constraint)));
-                    }
-                } else {
-                    input.add(getJobInput(status, user, filterModel.getConstraints()));
-                }
-            }
+        for (JobFilterPlanner.Branch branch : JobFilterPlanner.plan(user, pending, running, finished, filterModel)) {
+            input.add(getJobInput(branch));
         }
         return input;
     }
 
-    private JobInput getJobInput(JobStatus status, String user, List<Constraint> constraints) {
+    private JobInput getJobInput(JobFilterPlanner.Branch branch) {
         JobInput.Builder input = new JobInput.Builder();
-        input.status(status.name().toUpperCase());
-
-        String id = null;
-        String priority = null;
-        String name = null;
-        String statusString = null;
-        String projectName = null;
-
-        for (Constraint constraint : constraints) {
-            String value = constraint.getValue();
-            switch (constraint.getTargetField()) {
-                case ID: {
-                    switch (constraint.getAction()) {
-                        case EQUALS:
-                            id = getValue(id, value);
-                            break;
-                        case GREATER_THAN_OR_EQUAL_TO:
-                            input.afterId(value);
-                            break;
-                        case LESS_THAN_OR_EQUAL_TO:
-                            input.beforeId(value);
-                            break;
-                        default:
-                            break;
-                    }
-                    break;
-                }
-                case STATE: {
-                    statusString = getValue(statusString, value.toUpperCase());
-                    break;
-                }
-                case PRIORITY: {
-                    priority = getValue(priority, value.toUpperCase());
-                    break;
-                }
-                case USER: {
-                    user = getFilteringString(constraint.getAction(), user, value);
-                    break;
-                }
-                case NAME: {
-                    name = getFilteringString(constraint.getAction(), name, value);
-                    break;
-                }
-                case PROJECT_NAME: {
-                    projectName = getFilteringString(constraint.getAction(), projectName, value);
-                    break;
-                }
-            }
-        }
 
-        if (user != null)
-            input.owner(user);
-        if (id != null)
-            input.id(id);
-        if (priority != null)
-            input.priority(priority);
-        if (name != null)
-            input.jobName(name);
-        if (statusString != null)
-            input.status(statusString);
-        if (projectName != null)
-            input.projectName(projectName);
+        if (branch.getStatus() != null)
+            input.status(branch.getStatus());
+        if (branch.getOwner() != null)
+            input.owner(branch.getOwner());
+        if (branch.getId() != null)
+            input.id(branch.getId());
+        if (branch.getAfterId() != null)
+            input.afterId(branch.getAfterId());
+        if (branch.getBeforeId() != null)
+            input.beforeId(branch.getBeforeId());
+        if (branch.getPriority() != null)
+            input.priority(branch.getPriority());
+        if (branch.getJobName() != null)
+            input.jobName(branch.getJobName());
+        if (branch.getProjectName() != null)
+            input.projectName(branch.getProjectName());
 
         return input.build();
     }
 
-    private String getValue(String oldValue, String newValue) {
-        if (oldValue == null)
-            return newValue;
-        if (newValue == null)
-            return oldValue;
-        if (oldValue.equals(newValue))
-            return oldValue;
-        return oldValue + newValue;
-    }
-
-    private String getFilteringString(Action action, String oldValue, String newValue) {
-        String filteringString = oldValue;
-        switch (action) {
-            case EQUALS:
-                filteringString = getValue(filteringString, newValue);
-                break;
-            case CONTAINS:
-                filteringString = getValue(filteringString, "*" + newValue + "*");
-                break;
-            case STARTS_WITH:
-                filteringString = getValue(filteringString, newValue + "*");
-                break;
-            default:
-                break;
-        }
-        return filteringString;
-    }
-
 }
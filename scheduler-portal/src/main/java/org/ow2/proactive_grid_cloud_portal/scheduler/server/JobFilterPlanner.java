@@ -0,0 +1,432 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobStatus;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.filter.Action;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.filter.Constraint;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.filter.Field;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.filter.FilterModel;
+
+
+/**
+ * Turns the jobs filter of the portal into the branches of the GraphQL jobs query,
+ * a job being returned if it matches any of the branches.
+ * <p>
+ * The number of branches grows linearly with the number of constraints:
+ * <ul>
+ * <li>a branch is emitted per fetched status only when some status is not fetched,
+ * and never for a branch which already filters on the state,
+ * <li>duplicated constraints, and thus duplicated branches, are removed,
+ * <li>for match-any filters, the id lower bounds are merged into the lowest one
+ * and the id upper bounds into the highest one, and a constraint which does not
+ * filter anything makes the other ones useless.
+ * </ul>
+ */
+public final class JobFilterPlanner {
+
+    private JobFilterPlanner() {
+    }
+
+    /**
+     * @param user the name of the user, or null for the jobs of all the users
+     * @param pending get pending jobs
+     * @param running get running jobs
+     * @param finished get finished jobs
+     * @param filterModel object containing filter constraints
+     * @return the branches of the query, without duplicates
+     */
+    public static List<Branch> plan(String user, boolean pending, boolean running, boolean finished,
+            FilterModel filterModel) {
+        Set<JobStatus> statuses = getFetchedStatuses(pending, running, finished);
+        boolean allStatuses = statuses.size() == JobStatus.values().length;
+
+        List<Constraint> constraints = normalize(filterModel.getConstraints());
+
+        List<Branch> filters = new ArrayList<>();
+        if (filterModel.isMatchAny() && !constraints.isEmpty()) {
+            Branch unfiltered = toBranch(user, Collections.<Constraint> emptyList());
+            for (Constraint constraint : mergeIdBounds(constraints)) {
+                Branch filter = toBranch(user, Collections.singletonList(constraint));
+                if (filter.equals(unfiltered)) {
+                    filters = Collections.singletonList(unfiltered);
+                    break;
+                }
+                filters.add(filter);
+            }
+        } else {
+            filters.add(toBranch(user, constraints));
+        }
+
+        Set<Branch> branches = new LinkedHashSet<>();
+        for (Branch filter : filters) {
+            if (filter.status != null || allStatuses) {
+                branches.add(filter);
+            } else {
+                for (JobStatus status : statuses) {
+                    branches.add(filter.withStatus(status.name()));
+                }
+            }
+        }
+        return new ArrayList<>(branches);
+    }
+
+    /**
+     * @return a key identifying the query built for the given filter
+     */
+    public static FilterKey getKey(String user, boolean pending, boolean running, boolean finished,
+            FilterModel filterModel) {
+        List<List<Object>> constraints = new ArrayList<>();
+        for (Constraint constraint : normalize(filterModel.getConstraints())) {
+            constraints.add(getKey(constraint));
+        }
+        return new FilterKey(user, pending, running, finished, filterModel.isMatchAny(), constraints);
+    }
+
+    private static Set<JobStatus> getFetchedStatuses(boolean pending, boolean running, boolean finished) {
+        Set<JobStatus> statuses = EnumSet.noneOf(JobStatus.class);
+        for (JobStatus status : JobStatus.values()) {
+            switch (status) {
+                case PENDING:
+                    if (pending) {
+                        statuses.add(status);
+                    }
+                    break;
+                case RUNNING:
+                    if (running) {
+                        statuses.add(status);
+                    }
+                    break;
+                case FINISHED:
+                    if (finished) {
+                        statuses.add(status);
+                    }
+                    break;
+                default:
+                    statuses.add(status);
+            }
+        }
+        return statuses;
+    }
+
+    /**
+     * @return the constraints without duplicates, in their original order
+     */
+    private static List<Constraint> normalize(List<Constraint> constraints) {
+        Map<List<Object>, Constraint> unique = new LinkedHashMap<>();
+        for (Constraint constraint : constraints) {
+            unique.putIfAbsent(getKey(constraint), constraint);
+        }
+        return new ArrayList<>(unique.values());
+    }
+
+    private static List<Object> getKey(Constraint constraint) {
+        return Arrays.asList(constraint.getTargetField(), constraint.getAction(), constraint.getValue());
+    }
+
+    /**
+     * Any job id greater than one of several lower bounds is greater than the lowest one,
+     * and conversely for the upper bounds.
+     */
+    private static List<Constraint> mergeIdBounds(List<Constraint> constraints) {
+        List<Constraint> merged = new ArrayList<>(constraints.size());
+        Constraint lowerBound = null;
+        Constraint upperBound = null;
+        for (Constraint constraint : constraints) {
+            Long id = getId(constraint);
+            if (id != null && constraint.getAction() == Action.GREATER_THAN_OR_EQUAL_TO) {
+                if (lowerBound == null) {
+                    merged.add(constraint);
+                    lowerBound = constraint;
+                } else if (id < getId(lowerBound)) {
+                    merged.set(merged.indexOf(lowerBound), constraint);
+                    lowerBound = constraint;
+                }
+            } else if (id != null && constraint.getAction() == Action.LESS_THAN_OR_EQUAL_TO) {
+                if (upperBound == null) {
+                    merged.add(constraint);
+                    upperBound = constraint;
+                } else if (id > getId(upperBound)) {
+                    merged.set(merged.indexOf(upperBound), constraint);
+                    upperBound = constraint;
+                }
+            } else {
+                merged.add(constraint);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * @return the job id of a constraint on the job id, or null
+     */
+    private static Long getId(Constraint constraint) {
+        if (constraint.getTargetField() != Field.ID) {
+            return null;
+        }
+        try {
+            return Long.parseLong(constraint.getValue().trim());
+        } catch (NumberFormatException | NullPointerException e) {
+            return null;
+        }
+    }
+
+    private static Branch toBranch(String user, List<Constraint> constraints) {
+        Branch branch = new Branch();
+        branch.owner = user;
+
+        for (Constraint constraint : constraints) {
+            String value = constraint.getValue();
+            switch (constraint.getTargetField()) {
+                case ID: {
+                    switch (constraint.getAction()) {
+                        case EQUALS:
+                            branch.id = getValue(branch.id, value);
+                            break;
+                        case GREATER_THAN_OR_EQUAL_TO:
+                            branch.afterId = value;
+                            break;
+                        case LESS_THAN_OR_EQUAL_TO:
+                            branch.beforeId = value;
+                            break;
+                        default:
+                            break;
+                    }
+                    break;
+                }
+                case STATE: {
+                    branch.status = getValue(branch.status, value.toUpperCase());
+                    break;
+                }
+                case PRIORITY: {
+                    branch.priority = getValue(branch.priority, value.toUpperCase());
+                    break;
+                }
+                case USER: {
+                    branch.owner = getFilteringString(constraint.getAction(), branch.owner, value);
+                    break;
+                }
+                case NAME: {
+                    branch.jobName = getFilteringString(constraint.getAction(), branch.jobName, value);
+                    break;
+                }
+                case PROJECT_NAME: {
+                    branch.projectName = getFilteringString(constraint.getAction(), branch.projectName, value);
+                    break;
+                }
+            }
+        }
+        return branch;
+    }
+
+    private static String getValue(String oldValue, String newValue) {
+        if (oldValue == null)
+            return newValue;
+        if (newValue == null)
+            return oldValue;
+        if (oldValue.equals(newValue))
+            return oldValue;
+        return oldValue + newValue;
+    }
+
+    private static String getFilteringString(Action action, String oldValue, String newValue) {
+        String filteringString = oldValue;
+        switch (action) {
+            case EQUALS:
+                filteringString = getValue(filteringString, newValue);
+                break;
+            case CONTAINS:
+                filteringString = getValue(filteringString, "*" + newValue + "*");
+                break;
+            case STARTS_WITH:
+                filteringString = getValue(filteringString, newValue + "*");
+                break;
+            default:
+                break;
+        }
+        return filteringString;
+    }
+
+    /**
+     * Identifies the query built for a filter, whatever the duplicates of its constraints
+     */
+    public static final class FilterKey {
+
+        private final String user;
+
+        private final boolean pending;
+
+        private final boolean running;
+
+        private final boolean finished;
+
+        private final boolean matchAny;
+
+        private final List<List<Object>> constraints;
+
+        private FilterKey(String user, boolean pending, boolean running, boolean finished, boolean matchAny,
+                List<List<Object>> constraints) {
+            this.user = user;
+            this.pending = pending;
+            this.running = running;
+            this.finished = finished;
+            this.matchAny = matchAny;
+            this.constraints = constraints;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            FilterKey other = (FilterKey) o;
+            return pending == other.pending && running == other.running && finished == other.finished &&
+                   matchAny == other.matchAny && Objects.equals(user, other.user) &&
+                   constraints.equals(other.constraints);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(user, pending, running, finished, matchAny, constraints);
+        }
+
+        @Override
+        public String toString() {
+            return "FilterKey{user=" + user + ", pending=" + pending + ", running=" + running + ", finished=" +
+                   finished + ", matchAny=" + matchAny + ", constraints=" + constraints + "}";
+        }
+    }
+
+    /**
+     * Criteria that a job must all match to be returned by a branch of the query,
+     * the null ones do not filter anything
+     */
+    public static final class Branch {
+
+        private String status;
+
+        private String owner;
+
+        private String id;
+
+        private String afterId;
+
+        private String beforeId;
+
+        private String priority;
+
+        private String jobName;
+
+        private String projectName;
+
+        private Branch withStatus(String status) {
+            Branch branch = new Branch();
+            branch.status = status;
+            branch.owner = owner;
+            branch.id = id;
+            branch.afterId = afterId;
+            branch.beforeId = beforeId;
+            branch.priority = priority;
+            branch.jobName = jobName;
+            branch.projectName = projectName;
+            return branch;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public String getOwner() {
+            return owner;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getAfterId() {
+            return afterId;
+        }
+
+        public String getBeforeId() {
+            return beforeId;
+        }
+
+        public String getPriority() {
+            return priority;
+        }
+
+        public String getJobName() {
+            return jobName;
+        }
+
+        public String getProjectName() {
+            return projectName;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Branch other = (Branch) o;
+            return Objects.equals(status, other.status) && Objects.equals(owner, other.owner) &&
+                   Objects.equals(id, other.id) && Objects.equals(afterId, other.afterId) &&
+                   Objects.equals(beforeId, other.beforeId) && Objects.equals(priority, other.priority) &&
+                   Objects.equals(jobName, other.jobName) && Objects.equals(projectName, other.projectName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(status, owner, id, afterId, beforeId, priority, jobName, projectName);
+        }
+
+        @Override
+        public String toString() {
+            return "Branch{status=" + status + ", owner=" + owner + ", id=" + id + ", afterId=" + afterId +
+                   ", beforeId=" + beforeId + ", priority=" + priority + ", jobName=" + jobName +
+                   ", projectName=" + projectName + "}";
+        }
+    }
+
+}
@@ -0,0 +1,196 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+
+/**
+ * Copies the response of a GraphQL jobs query to the string sent to the client
+ * with a streaming parser, so that no object tree is built for the page.
+ * <p>
+ * The jobs may be projected on the fields read by the client, see
+ * <code>Job.parseJSONInfo</code>, the other fields of the response being
+ * copied as they are.
+ */
+public class JobsPageJsonFilter {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * Fields of a job node read by the client
+     */
+    static final Set<String> JOB_FIELDS = new HashSet<>(Arrays.asList("id",
+                                                                      "name",
+                                                                      "projectName",
+                                                                      "owner",
+                                                                      "priority",
+                                                                      "status",
+                                                                      "numberOfPendingTasks",
+                                                                      "numberOfRunningTasks",
+                                                                      "numberOfFinishedTasks",
+                                                                      "totalNumberOfTasks",
+                                                                      "numberOfFailedTasks",
+                                                                      "numberOfFaultyTasks",
+                                                                      "numberOfInErrorTasks",
+                                                                      "submittedTime",
+                                                                      "startTime",
+                                                                      "inErrorTime",
+                                                                      "finishedTime",
+                                                                      "genericInformation",
+                                                                      "variables"));
+
+    /**
+     * Receives the status of the jobs as soon as they are read
+     */
+    public interface JobStatusHandler {
+
+        void handle(String jobId, String status);
+
+    }
+
+    /**
+     * @param inputStream body of the response of the scheduling API
+     * @param project whether the fields of the jobs not read by the client are dropped
+     * @param handler receives the status of each job of the page
+     * @return the response to send to the client
+     * @throws IOException the response could not be read
+     */
+    public static String filter(InputStream inputStream, boolean project, JobStatusHandler handler)
+            throws IOException {
+        StringWriter writer = new StringWriter();
+        try (JsonParser parser = JSON_FACTORY.createParser(inputStream);
+                JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected a JSON object as GraphQL response");
+            }
+            generator.writeStartObject();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                generator.writeFieldName(field);
+                if (parser.nextToken() == JsonToken.START_OBJECT && "data".equals(field)) {
+                    copyData(parser, generator, project, handler);
+                } else {
+                    generator.copyCurrentStructure(parser);
+                }
+            }
+            generator.writeEndObject();
+        }
+        return writer.toString();
+    }
+
+    private static void copyData(JsonParser parser, JsonGenerator generator, boolean project,
+            JobStatusHandler handler) throws IOException {
+        generator.writeStartObject();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            generator.writeFieldName(field);
+            if (parser.nextToken() == JsonToken.START_OBJECT && "jobs".equals(field)) {
+                copyJobs(parser, generator, project, handler);
+            } else {
+                generator.copyCurrentStructure(parser);
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    private static void copyJobs(JsonParser parser, JsonGenerator generator, boolean project,
+            JobStatusHandler handler) throws IOException {
+        generator.writeStartObject();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            generator.writeFieldName(field);
+            if (parser.nextToken() == JsonToken.START_ARRAY && "edges".equals(field)) {
+                generator.writeStartArray();
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    copyEdge(parser, generator, project, handler);
+                }
+                generator.writeEndArray();
+            } else {
+                generator.copyCurrentStructure(parser);
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    private static void copyEdge(JsonParser parser, JsonGenerator generator, boolean project,
+            JobStatusHandler handler) throws IOException {
+        generator.writeStartObject();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.START_OBJECT && "node".equals(field)) {
+                generator.writeFieldName(field);
+                copyJob(parser, generator, project, handler);
+            } else if (project) {
+                // the cursors of the page are read from its page info
+                parser.skipChildren();
+            } else {
+                generator.writeFieldName(field);
+                generator.copyCurrentStructure(parser);
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    private static void copyJob(JsonParser parser, JsonGenerator generator, boolean project,
+            JobStatusHandler handler) throws IOException {
+        String id = null;
+        String status = null;
+
+        generator.writeStartObject();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if (project && !JOB_FIELDS.contains(field)) {
+                parser.skipChildren();
+                continue;
+            }
+            if ("id".equals(field)) {
+                id = parser.getValueAsString();
+            } else if ("status".equals(field)) {
+                status = parser.getValueAsString();
+            }
+            generator.writeFieldName(field);
+            generator.copyCurrentStructure(parser);
+        }
+        generator.writeEndObject();
+
+        handler.handle(id, status);
+    }
+
+}
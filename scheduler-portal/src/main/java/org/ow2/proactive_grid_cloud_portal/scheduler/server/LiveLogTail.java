@@ -0,0 +1,202 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import org.ow2.proactive_grid_cloud_portal.common.server.SnapshotCache;
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.LiveLogChunk;
+
+import com.google.common.cache.CacheBuilder;
+
+
+/**
+ * Serves the live output of the jobs by bounded chunks.
+ * <p>
+ * The REST server returns the whole output produced since its previous call,
+ * which is kept here per session and job until the client acknowledges it by
+ * asking for the following offset: a chunk lost on its way is sent again,
+ * and a large output is sent in several requests.
+ * When the client does not keep up, the oldest characters are dropped
+ * so that the memory held per job stays bounded. A client reading again
+ * from the beginning receives the characters kept from offset 0.
+ */
+public class LiveLogTail {
+
+    /**
+     * Maximum number of chunks held per session and job
+     */
+    static final int MAX_BUFFERED_CHUNKS = 4;
+
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    private final SnapshotCache<String, Buffer> buffers;
+
+    private final int maxChunkLength;
+
+    private final int maxBufferedLength;
+
+    /**
+     * @param maxChunkLength maximum number of characters returned per call
+     * @param timeToIdle period in milliseconds after which the output of a job
+     *                   no longer read is dropped
+     * @param maxBuffers maximum number of jobs outputs kept
+     */
+    public LiveLogTail(int maxChunkLength, long timeToIdle, long maxBuffers) {
+        this.maxChunkLength = maxChunkLength;
+        this.maxBufferedLength = maxChunkLength * MAX_BUFFERED_CHUNKS;
+        this.buffers = new SnapshotCache<>(CacheBuilder.newBuilder()
+                                                       .expireAfterAccess(timeToIdle, TimeUnit.MILLISECONDS)
+                                                       .maximumSize(maxBuffers));
+    }
+
+    /**
+     * Returns the live output of a job from the given offset, reading it
+     * from the REST server if all the characters already read were sent.
+     *
+     * @param sessionId session reading the output
+     * @param jobId id of the job
+     * @param offset number of characters already received by the client
+     * @param loader reads the output produced since its previous call from the REST server
+     * @return at most the configured number of characters from the given offset
+     * @throws RestServerException the loader failed with a REST server error
+     * @throws ServiceException the loader failed for any other reason
+     */
+    public LiveLogChunk read(String sessionId, String jobId, long offset, Callable<InputStream> loader)
+            throws RestServerException, ServiceException {
+        Buffer buffer = buffers.get(key(sessionId, jobId), () -> new Buffer(offset));
+        synchronized (buffer) {
+            buffer.acknowledge(offset);
+            if (buffer.content.length() == 0) {
+                buffer.append(load(loader), maxBufferedLength);
+            }
+            return buffer.chunk(maxChunkLength);
+        }
+    }
+
+    /**
+     * Drops the output kept for a job
+     */
+    public void remove(String sessionId, String jobId) {
+        buffers.invalidate(key(sessionId, jobId));
+    }
+
+    private static String key(String sessionId, String jobId) {
+        return sessionId + ":" + jobId;
+    }
+
+    private static InputStream load(Callable<InputStream> loader) throws RestServerException, ServiceException {
+        try {
+            return loader.call();
+        } catch (RestServerException | ServiceException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ServiceException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Characters read from the REST server and not yet acknowledged by the client
+     */
+    private static class Buffer {
+
+        /** offset of the first character of the content */
+        private long start;
+
+        private final StringBuilder content = new StringBuilder();
+
+        Buffer(long start) {
+            this.start = start;
+        }
+
+        void acknowledge(long offset) {
+            if (offset == 0 && start > 0) {
+                // the client restarted reading the output, the characters already read
+                // from the REST server are lost, the content kept is sent as its beginning
+                start = 0;
+            } else if (offset > start + content.length()) {
+                // the client read more than what is kept here, the buffer was dropped meanwhile
+                content.setLength(0);
+                start = offset;
+            } else if (offset > start) {
+                content.delete(0, (int) (offset - start));
+                start = offset;
+            }
+            if (content.length() == 0) {
+                // release the memory used by a large output once it has been sent
+                content.trimToSize();
+            }
+        }
+
+        void append(InputStream output, int maxLength) throws ServiceException {
+            if (output == null) {
+                return;
+            }
+            try (Reader reader = new InputStreamReader(output, StandardCharsets.UTF_8)) {
+                char[] chars = new char[READ_BUFFER_SIZE];
+                int read;
+                while ((read = reader.read(chars)) != -1) {
+                    content.append(chars, 0, read);
+                    // trim only once the content is twice over the limit, so it is not shifted on each read
+                    if (content.length() > 2 * maxLength) {
+                        trim(maxLength);
+                    }
+                }
+                trim(maxLength);
+            } catch (IOException e) {
+                throw new ServiceException("Failed to read the live log: " + e.getMessage(), e);
+            }
+        }
+
+        private void trim(int maxLength) {
+            int excess = content.length() - maxLength;
+            if (excess > 0) {
+                content.delete(0, excess);
+                start += excess;
+            }
+        }
+
+        LiveLogChunk chunk(int maxLength) {
+            int length = content.length();
+            if (length > maxLength) {
+                // do not split the last line when possible
+                int lineEnd = content.lastIndexOf("\n", maxLength - 1);
+                length = lineEnd >= 0 ? lineEnd + 1 : maxLength;
+            }
+            return new LiveLogChunk(start, content.substring(0, length), length < content.length());
+        }
+
+    }
+
+}
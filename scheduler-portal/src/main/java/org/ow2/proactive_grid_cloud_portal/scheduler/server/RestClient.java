@@ -507,7 +507,7 @@ public interface RestClient {
     @GZIP
     @Path("jobs/{jobid}/livelog")
     @Produces("application/json")
-    String getLiveLogJob(@HeaderParam("sessionid") String sessionId, @PathParam("jobid") String jobId);
+    InputStream getLiveLogJob(@HeaderParam("sessionid") String sessionId, @PathParam("jobid") String jobId);
 
     /**
      * number of available bytes in the stream or -1 if the stream does not exist.
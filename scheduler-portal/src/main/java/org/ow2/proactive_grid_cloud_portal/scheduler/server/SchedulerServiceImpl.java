@@ -31,15 +31,28 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.jar.JarFile;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -49,11 +62,16 @@ import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.UriBuilder;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
 import org.apache.http.entity.mime.MultipartEntity;
 import org.apache.http.entity.mime.content.ByteArrayBody;
 import org.apache.http.entity.mime.content.FileBody;
@@ -63,14 +81,21 @@ import org.codehaus.jettison.json.JSONArray;
 import org.codehaus.jettison.json.JSONException;
 import org.jboss.resteasy.client.jaxrs.ResteasyClient;
 import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
-import org.jboss.resteasy.client.jaxrs.ResteasyWebTarget;
 import org.jboss.resteasy.client.jaxrs.engines.ApacheHttpClient4Engine;
 import org.ow2.proactive.http.HttpClientBuilder;
 import org.ow2.proactive.scheduling.api.graphql.beans.input.Query;
 import org.ow2.proactive.scheduling.api.graphql.client.SchedulingApiClientGwt;
 import org.ow2.proactive_grid_cloud_portal.common.server.ConfigReader;
 import org.ow2.proactive_grid_cloud_portal.common.server.ConfigUtils;
+import org.ow2.proactive_grid_cloud_portal.common.server.RequestCoalescer;
+import org.ow2.proactive_grid_cloud_portal.common.server.RevalidatingHttpClient;
+import org.ow2.proactive_grid_cloud_portal.common.server.ServerEvent;
+import org.ow2.proactive_grid_cloud_portal.common.server.ServerEventServlet;
+import org.ow2.proactive_grid_cloud_portal.common.server.ServerEventSource;
 import org.ow2.proactive_grid_cloud_portal.common.server.Service;
+import org.ow2.proactive_grid_cloud_portal.common.server.SlowRpcCalls;
+import org.ow2.proactive_grid_cloud_portal.common.server.SnapshotCache;
+import org.ow2.proactive_grid_cloud_portal.common.server.StatisticsLogger;
 import org.ow2.proactive_grid_cloud_portal.common.shared.Config;
 import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
 import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
@@ -79,11 +104,17 @@ import org.ow2.proactive_grid_cloud_portal.scheduler.client.OutputMode;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.SchedulerService;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.SchedulerServiceAsync;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.controller.TasksCentricController;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.BulkActionResult;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.LiveLogChunk;
 import org.ow2.proactive_grid_cloud_portal.scheduler.shared.SchedulerConfig;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.TasksOutput;
 import org.ow2.proactive_grid_cloud_portal.scheduler.shared.filter.FilterModel;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.Hashing;
 
 
 /**
@@ -94,7 +125,56 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
 
     private static final String ISO_8601_FORMAT = "yyyy-MM-dd'T'HH:mmZ";
 
-    private CloseableHttpClient httpClient;
+    /**
+     * Keys of the scheduler resources which are identical for all the users
+     * and shared through {@link #sharedSnapshots}.
+     */
+    private static final String SCHEDULER_STATUS = "status";
+
+    private static final String SCHEDULER_USERS = "users";
+
+    private static final String SCHEDULER_STATISTICS = "statistics";
+
+    private static final String SCHEDULER_STATE_REVISION = "revision";
+
+    /**
+     * Period in milliseconds during which a session acknowledged by the REST server
+     * is allowed to read shared snapshots without being checked again.
+     */
+    private static final long SESSION_VALIDATION_PERIOD = 60000;
+
+    private static final long MAX_CACHED_SESSIONS = 10000;
+
+    /**
+     * Period in milliseconds after which a jobs page is sent again
+     * even if the scheduler state revision did not change.
+     */
+    private static final long JOBS_PAGE_REVISION_TIME_TO_LIVE = 300000;
+
+    /**
+     * Period in milliseconds after which the live output of a job no longer
+     * displayed is dropped, and maximum number of live outputs kept.
+     */
+    private static final long LIVE_LOG_IDLE_TIME = 600000;
+
+    private static final long MAX_LIVE_LOGS = 100;
+
+    /**
+     * Path of the GraphQL endpoint relative to the scheduling API URL
+     */
+    private static final String GRAPHQL_PATH = "/v1/graphql";
+
+    private RevalidatingHttpClient httpClient;
+
+    /**
+     * Maximum number of bytes of the REST responses kept to be revalidated
+     */
+    private static final long REVALIDATED_RESPONSES_SIZE = 32 * 1024 * 1024;
+
+    /**
+     * Maximum number of bytes of a REST response kept to be revalidated
+     */
+    private static final long REVALIDATED_RESPONSE_MAX_SIZE = 1024 * 1024;
 
     /**
      * Number of threads created for the threadPool shared by RestEasy client proxies.
@@ -106,11 +186,93 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
      */
     private ExecutorService threadPool;
 
+    /**
+     * Thread pool bounding the number of REST calls concurrently issued for bulk job actions.
+     */
+    private ExecutorService bulkActionPool;
+
+    /**
+     * Thread pool bounding the number of task outputs concurrently fetched, the outputs
+     * beyond its queue failing at once.
+     */
+    private ThreadPoolExecutor tasksOutputPool;
+
+    /**
+     * Maximum number of task outputs waiting to be fetched
+     */
+    private static final int TASKS_OUTPUT_QUEUE_SIZE = 1000;
+
+    /**
+     * Calls waiting for logs, outputs or usage reports which may take long to be built by the REST server
+     */
+    private static final Set<String> SLOW_CALLS = ImmutableSet.of("getJobServerLogs",
+                                                                  "getTaskServerLogs",
+                                                                  "getTaskOutput",
+                                                                  "getTasksOutput",
+                                                                  "getUsage");
+
+    /**
+     * Maximum number of slow calls waiting to be processed
+     */
+    private static final int SLOW_CALLS_QUEUE_SIZE = 1000;
+
+    /**
+     * RestEasy client shared by all the requests, its proxy is thread-safe
+     * and reuses the connections pooled by {@link #httpClient}.
+     */
+    private ResteasyClient resteasyClient;
+
+    private RestClient restClientProxy;
+
     /**
      * GraphQL Client
      */
     private SchedulingApiClientGwt graphQLClient;
 
+    /**
+     * Snapshots of the scheduler resources that are not user specific,
+     * fetched at most once per client refresh period for all the sessions
+     */
+    private SnapshotCache<String, String> sharedSnapshots;
+
+    /**
+     * Snapshots of the account statistics, fetched at most once per client refresh
+     * period for all the sessions of a same user
+     */
+    private SnapshotCache<String, String> accountStatistics;
+
+    /**
+     * Login of the users owning the sessions recently acknowledged by the REST server
+     */
+    private SnapshotCache<String, String> sessionLogins;
+
+    /**
+     * Responses of the REST server about the jobs which are over
+     */
+    private FinishedJobsCache finishedJobsCache;
+
+    /**
+     * Scheduler state revision of the last jobs page sent per session and query,
+     * the same page is not sent again until the revision changes
+     */
+    private SnapshotCache<String, Long> jobsPageRevisions;
+
+    /**
+     * REST and GraphQL calls in flight, shared by the identical requests
+     * of the sessions of a same user
+     */
+    private RequestCoalescer<String, String> inFlightRequests;
+
+    /**
+     * Logs the statistics of the caches and pools while the service runs
+     */
+    private StatisticsLogger statistics;
+
+    /**
+     * Live output of the jobs read from the REST server and not yet sent to the clients
+     */
+    private LiveLogTail liveLogTail;
+
     /**
      * JSON Mapper
      */
@@ -127,15 +289,73 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
 
         Config config = Config.get();
 
-        httpClient = new HttpClientBuilder().maxConnections(50)
-                                            .allowAnyCertificate(config.isHttpsAllowAnyCertificate())
-                                            .allowAnyHostname(config.isHttpsAllowAnyHostname())
-                                            .useSystemProperties()
-                                            .build();
+        CloseableHttpClient client = new HttpClientBuilder().maxConnections(50)
+                                                            .allowAnyCertificate(config.isHttpsAllowAnyCertificate())
+                                                            .allowAnyHostname(config.isHttpsAllowAnyHostname())
+                                                            .useSystemProperties()
+                                                            .build();
+        httpClient = new RevalidatingHttpClient(client,
+                                                REVALIDATED_RESPONSES_SIZE,
+                                                REVALIDATED_RESPONSE_MAX_SIZE,
+                                                "sessionid");
 
         threadPool = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
+        bulkActionPool = Executors.newFixedThreadPool(SchedulerConfig.get().getBulkActionConcurrency());
+        int tasksOutputConcurrency = SchedulerConfig.get().getTasksOutputConcurrency();
+        tasksOutputPool = new ThreadPoolExecutor(tasksOutputConcurrency,
+                                                 tasksOutputConcurrency,
+                                                 0,
+                                                 TimeUnit.MILLISECONDS,
+                                                 new ArrayBlockingQueue<>(TASKS_OUTPUT_QUEUE_SIZE));
+
+        resteasyClient = new ResteasyClientBuilder().asyncExecutor(threadPool)
+                                                    .httpEngine(new ApacheHttpClient4Engine(httpClient))
+                                                    .build();
+        restClientProxy = resteasyClient.target(SchedulerConfig.get().getRestUrl()).proxy(RestClient.class);
 
         graphQLClient = new SchedulingApiClientGwt(SchedulerConfig.get().getSchedulingApiUrl(), httpClient, threadPool);
+
+        long refreshTime = SchedulerConfig.get().getClientRefreshTime();
+        sharedSnapshots = new SnapshotCache<>(refreshTime, 16);
+        accountStatistics = new SnapshotCache<>(refreshTime, MAX_CACHED_SESSIONS);
+        sessionLogins = new SnapshotCache<>(SESSION_VALIDATION_PERIOD, MAX_CACHED_SESSIONS);
+        finishedJobsCache = new FinishedJobsCache(SchedulerConfig.get().getFinishedJobsCacheSize() * 1024L * 1024L);
+        jobsPageRevisions = new SnapshotCache<>(JOBS_PAGE_REVISION_TIME_TO_LIVE, MAX_CACHED_SESSIONS);
+        inFlightRequests = new RequestCoalescer<>();
+        liveLogTail = new LiveLogTail(SchedulerConfig.get().getLivelogsChunkSize() * 1024,
+                                      LIVE_LOG_IDLE_TIME,
+                                      MAX_LIVE_LOGS);
+        slowCalls = new SlowRpcCalls(SLOW_CALLS,
+                                     config.getSlowCallsConcurrency(),
+                                     SLOW_CALLS_QUEUE_SIZE,
+                                     config.getSlowCallsTimeout());
+
+        statistics = new StatisticsLogger().add("Finished jobs cache statistics", finishedJobsCache::stats)
+                                           .add("Revalidated REST responses", httpClient::toString)
+                                           .add("Coalesced requests", inFlightRequests::toString)
+                                           .add("Slow calls", slowCalls::toString)
+                                           .add("Task outputs",
+                                                () -> tasksOutputPool.getActiveCount() + " fetched, " +
+                                                      tasksOutputPool.getQueue().size() + " queued");
+        statistics.start(config.getStatisticsLogPeriod());
+
+        getServletContext().setAttribute(ServerEventServlet.EVENT_SOURCE_ATTRIBUTE, new SchedulerEventSource());
+    }
+
+    @Override
+    public void destroy() {
+        statistics.stop();
+        slowCalls.shutdown();
+        resteasyClient.close();
+        threadPool.shutdownNow();
+        bulkActionPool.shutdownNow();
+        tasksOutputPool.shutdownNow();
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to close HTTP client", e);
+        }
+        super.destroy();
     }
 
     /**
@@ -275,41 +495,67 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
 
     /**
      * Getter of the result of a task.
+     * <p>
+     * The response is returned as is so that its body can be streamed to the caller,
+     * which is in charge of closing it.
      *
      * @param sessionId the session id of the user which is logged in
      * @param jobId     the id of the job the task belongs to
      * @param taskId    the id of the task
-     * @return the result
+     * @param range     value of the HTTP Range header to forward, or null
+     * @return the REST server response, with a 200 or 206 status
      * @throws RestServerException
      * @throws ServiceException
      */
-    public InputStream getTaskResult(String sessionId, String jobId, String taskId)
+    public CloseableHttpResponse getTaskResult(String sessionId, String jobId, String taskId, String range)
             throws RestServerException, ServiceException {
-        try {
-            return getRestClientProxy().taskresult(sessionId, jobId, taskId);
-        } catch (WebApplicationException e) {
-            rethrowRestServerException(e);
-            return null;
-        }
+        return getTaskResultResponse(sessionId, jobId, taskId, "value", range);
     }
 
     /**
      * Getter of the serialized result of a task.
+     * <p>
+     * The response is returned as is so that its body can be streamed to the caller,
+     * which is in charge of closing it.
      *
      * @param sessionId the session id of the user which is looged in
      * @param jobId     the id of the job the task belongs to
      * @param taskId    the id of the task
-     * @return the serialized result
+     * @param range     value of the HTTP Range header to forward, or null
+     * @return the REST server response, with a 200 or 206 status
      * @throws RestServerException
      * @throws ServiceException
      */
-    public InputStream getTaskSerializedResult(String sessionId, String jobId, String taskId)
+    public CloseableHttpResponse getTaskSerializedResult(String sessionId, String jobId, String taskId, String range)
             throws RestServerException, ServiceException {
+        return getTaskResultResponse(sessionId, jobId, taskId, "serializedvalue", range);
+    }
+
+    private CloseableHttpResponse getTaskResultResponse(String sessionId, String jobId, String taskId,
+            String resultType, String range) throws RestServerException, ServiceException {
+        URI uri = UriBuilder.fromUri(SchedulerConfig.get().getRestUrl())
+                            .path("scheduler/jobs/{jobid}/tasks/{taskid}/result/{type}")
+                            .build(jobId, taskId, resultType);
+        HttpGet method = new HttpGet(uri);
+        method.addHeader("sessionid", sessionId);
+        if (range != null) {
+            method.addHeader(HttpHeaders.RANGE, range);
+        }
+
         try {
-            return getRestClientProxy().taskSerializedResult(sessionId, jobId, taskId);
-        } catch (WebApplicationException e) {
-            rethrowRestServerException(e);
-            return null;
+            CloseableHttpResponse response = httpClient.execute(method);
+            int status = response.getStatusLine().getStatusCode();
+            if (status != Status.OK.getStatusCode() && status != Status.PARTIAL_CONTENT.getStatusCode()) {
+                try {
+                    String responseAsString = convertToString(response.getEntity().getContent());
+                    throw new RestServerException(status, responseAsString);
+                } finally {
+                    response.close();
+                }
+            }
+            return response;
+        } catch (IOException e) {
+            throw new ServiceException("Failed to read response: " + e.getMessage());
         }
     }
 
@@ -325,6 +571,14 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
      */
     public String getTaskResultMetadata(final String sessionId, final String jobId, final String taskId)
             throws RestServerException, ServiceException {
+        return getFinishedJobResource(sessionId,
+                                      jobId,
+                                      "metadata/" + taskId,
+                                      () -> fetchTaskResultMetadata(sessionId, jobId, taskId));
+    }
+
+    private String fetchTaskResultMetadata(final String sessionId, final String jobId, final String taskId)
+            throws RestServerException, ServiceException {
         return executeFunctionReturnStreamAsString(new Function<RestClient, InputStream>() {
             @Override
             public InputStream apply(RestClient restClient) {
@@ -341,18 +595,23 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
      * .String, java.util.List)
      */
     @Override
-    public int removeJobs(final String sessionId, List<Integer> jobIdList)
+    public BulkActionResult removeJobs(final String sessionId, List<Integer> jobIdList)
             throws RestServerException, ServiceException {
-        return executeFunction(new BiFunction<RestClient, Integer, InputStream>() {
+        BulkActionResult result = executeFunction(new BiFunction<RestClient, Integer, InputStream>() {
             @Override
             public InputStream apply(RestClient restClientProxy, Integer jobId) {
                 return restClientProxy.removeJob(sessionId, Integer.toString(jobId));
             }
         }, jobIdList, "job removal");
+        for (Integer jobId : result.getSucceeded()) {
+            finishedJobsCache.invalidate(Integer.toString(jobId));
+        }
+        return result;
     }
 
     @Override
-    public int pauseJobs(final String sessionId, List<Integer> jobIdList) throws RestServerException, ServiceException {
+    public BulkActionResult pauseJobs(final String sessionId, List<Integer> jobIdList)
+            throws RestServerException, ServiceException {
         return executeFunction(new BiFunction<RestClient, Integer, InputStream>() {
             @Override
             public InputStream apply(RestClient restClientProxy, Integer jobId) {
@@ -362,7 +621,7 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
     }
 
     @Override
-    public int restartAllInErrorTasks(final String sessionId, List<Integer> jobIdList)
+    public BulkActionResult restartAllInErrorTasks(final String sessionId, List<Integer> jobIdList)
             throws RestServerException, ServiceException {
         return executeFunction(new BiFunction<RestClient, Integer, InputStream>() {
             @Override
@@ -373,7 +632,7 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
     }
 
     @Override
-    public int resumeJobs(final String sessionId, List<Integer> jobIdList)
+    public BulkActionResult resumeJobs(final String sessionId, List<Integer> jobIdList)
             throws RestServerException, ServiceException {
         return executeFunction(new BiFunction<RestClient, Integer, InputStream>() {
             @Override
@@ -384,7 +643,8 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
     }
 
     @Override
-    public int killJobs(final String sessionId, List<Integer> jobIdList) throws RestServerException, ServiceException {
+    public BulkActionResult killJobs(final String sessionId, List<Integer> jobIdList)
+            throws RestServerException, ServiceException {
         return executeFunction(new BiFunction<RestClient, Integer, InputStream>() {
             @Override
             public InputStream apply(RestClient restClientProxy, Integer jobId) {
@@ -401,9 +661,9 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
      * .lang.String, java.util.List, java.lang.String)
      */
     @Override
-    public void setPriorityByName(final String sessionId, List<Integer> jobIdList, final String priorityName)
-            throws ServiceException, RestServerException {
-        executeFunction(new BiFunction<RestClient, Integer, InputStream>() {
+    public BulkActionResult setPriorityByName(final String sessionId, List<Integer> jobIdList,
+            final String priorityName) throws ServiceException, RestServerException {
+        return executeFunction(new BiFunction<RestClient, Integer, InputStream>() {
             @Override
             public InputStream apply(RestClient restClientProxy, Integer jobId) {
                 return restClientProxy.schedulerChangeJobPriorityByName(sessionId,
@@ -537,6 +797,9 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
     @Override
     public void logout(String sessionId) throws RestServerException {
         getRestClientProxy().disconnect(sessionId);
+        if (sessionId != null) {
+            sessionLogins.invalidate(sessionId);
+        }
     }
 
     @Override
@@ -603,6 +866,19 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
     @Override
     public String getTasks(final String sessionId, final String jobId, final int offset, final int limit)
             throws RestServerException, ServiceException {
+        return getFinishedJobResource(sessionId,
+                                      jobId,
+                                      "tasks/" + offset + "/" + limit,
+                                      () -> coalesce(sessionId,
+                                                     () -> fetchTasks(sessionId, jobId, offset, limit),
+                                                     "tasks",
+                                                     jobId,
+                                                     offset,
+                                                     limit));
+    }
+
+    private String fetchTasks(final String sessionId, final String jobId, final int offset, final int limit)
+            throws RestServerException, ServiceException {
         return executeFunctionReturnStreamAsString(new Function<RestClient, InputStream>() {
             @Override
             public InputStream apply(RestClient restClient) {
@@ -633,7 +909,7 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
             final boolean pending, final boolean running, final boolean finished, final int offset, final int limit,
             final TasksCentricController.SortSpecifierRestContainer sortParameters)
             throws RestServerException, ServiceException {
-        return executeFunctionReturnStreamAsString(new Function<RestClient, InputStream>() {
+        return coalesce(sessionId, () -> executeFunctionReturnStreamAsString(new Function<RestClient, InputStream>() {
             @Override
             public InputStream apply(RestClient restClient) {
                 return restClient.getTaskStates(sessionId,
@@ -647,7 +923,7 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
                                                 limit,
                                                 sortParameters);
             }
-        });
+        }), "taskstates", fromDate, toDate, myTasks, pending, running, finished, offset, limit, sortParameters);
     }
 
     public String getTaskCentricByTag(final String sessionId, final String tag, final long fromDate, final long toDate,
@@ -712,16 +988,23 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
      */
     @Override
     public String getJobInfo(final String sessionId, final String jobId) throws RestServerException, ServiceException {
-        return executeFunctionReturnStreamAsString(new Function<RestClient, InputStream>() {
+        return coalesce(sessionId, () -> executeFunctionReturnStreamAsString(new Function<RestClient, InputStream>() {
             @Override
             public InputStream apply(RestClient restClient) {
                 return restClient.job(sessionId, jobId);
             }
-        });
+        }), "job", jobId);
     }
 
     public String getJobInfoDetails(final String sessionId, final String jobId)
             throws RestServerException, ServiceException {
+        String jobInfo = getFinishedJobResource(sessionId, jobId, "info", () -> fetchJobInfoDetails(sessionId, jobId));
+        finishedJobsCache.updateStatus(jobId, readJobStatus(jobInfo));
+        return jobInfo;
+    }
+
+    private String fetchJobInfoDetails(final String sessionId, final String jobId)
+            throws RestServerException, ServiceException {
         return executeFunctionReturnStreamAsString(new Function<RestClient, InputStream>() {
             @Override
             public InputStream apply(RestClient restClient) {
@@ -739,12 +1022,14 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
      */
     @Override
     public boolean pauseScheduler(final String sessionId) throws RestServerException, ServiceException {
-        return executeFunction(new Function<RestClient, InputStream>() {
+        boolean result = executeFunction(new Function<RestClient, InputStream>() {
             @Override
             public InputStream apply(RestClient restClient) {
                 return restClient.pauseScheduler(sessionId);
             }
         });
+        sharedSnapshots.invalidate(SCHEDULER_STATUS);
+        return result;
     }
 
     /*
@@ -756,12 +1041,14 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
      */
     @Override
     public boolean resumeScheduler(final String sessionId) throws RestServerException, ServiceException {
-        return executeFunction(new Function<RestClient, InputStream>() {
+        boolean result = executeFunction(new Function<RestClient, InputStream>() {
             @Override
             public InputStream apply(RestClient restClient) {
                 return restClient.resumeScheduler(sessionId);
             }
         });
+        sharedSnapshots.invalidate(SCHEDULER_STATUS);
+        return result;
     }
 
     /*
@@ -773,12 +1060,14 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
      */
     @Override
     public boolean freezeScheduler(final String sessionId) throws RestServerException, ServiceException {
-        return executeFunction(new Function<RestClient, InputStream>() {
+        boolean result = executeFunction(new Function<RestClient, InputStream>() {
             @Override
             public InputStream apply(RestClient restClient) {
                 return restClient.freezeScheduler(sessionId);
             }
         });
+        sharedSnapshots.invalidate(SCHEDULER_STATUS);
+        return result;
     }
 
     /*
@@ -790,12 +1079,14 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
      */
     @Override
     public boolean killScheduler(final String sessionId) throws RestServerException, ServiceException {
-        return executeFunction(new Function<RestClient, InputStream>() {
+        boolean result = executeFunction(new Function<RestClient, InputStream>() {
             @Override
             public InputStream apply(RestClient restClient) {
                 return restClient.killScheduler(sessionId);
             }
         });
+        sharedSnapshots.invalidate(SCHEDULER_STATUS);
+        return result;
     }
 
     /*
@@ -807,12 +1098,14 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
      */
     @Override
     public boolean startScheduler(final String sessionId) throws RestServerException, ServiceException {
-        return executeFunction(new Function<RestClient, InputStream>() {
+        boolean result = executeFunction(new Function<RestClient, InputStream>() {
             @Override
             public InputStream apply(RestClient restClient) {
                 return restClient.startScheduler(sessionId);
             }
         });
+        sharedSnapshots.invalidate(SCHEDULER_STATUS);
+        return result;
     }
 
     /*
@@ -824,12 +1117,14 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
      */
     @Override
     public boolean stopScheduler(final String sessionId) throws RestServerException, ServiceException {
-        return executeFunction(new Function<RestClient, InputStream>() {
+        boolean result = executeFunction(new Function<RestClient, InputStream>() {
             @Override
             public InputStream apply(RestClient restClient) {
                 return restClient.stopScheduler(sessionId);
             }
         });
+        sharedSnapshots.invalidate(SCHEDULER_STATUS);
+        return result;
     }
 
     /**
@@ -846,7 +1141,67 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
      * @throws ServiceException
      */
     @Override
-    public String getTaskOutput(String sessionId, String jobId, String taskName, OutputMode logMode)
+    public String getTaskOutput(final String sessionId, final String jobId, final String taskName,
+            final OutputMode logMode) throws RestServerException, ServiceException {
+        return getFinishedJobResource(sessionId,
+                                      jobId,
+                                      "output/" + logMode + "/" + taskName,
+                                      () -> fetchTaskOutput(sessionId, jobId, taskName, logMode));
+    }
+
+    /**
+     * Fetch logs for several tasks in a given job, the REST calls are issued
+     * concurrently through {@link #tasksOutputPool}
+     *
+     * @param sessionId current session id
+     * @param jobId     id of the job
+     * @param taskNames names of the tasks
+     * @param logMode   the kind of logs to fetch
+     * @return the logs of the tasks in the given order, and the reason of the failure for the others
+     * @throws RestServerException the session is not valid anymore
+     * @throws ServiceException
+     */
+    @Override
+    public TasksOutput getTasksOutput(final String sessionId, final String jobId, List<String> taskNames,
+            final OutputMode logMode) throws RestServerException, ServiceException {
+        List<Future<String>> outputs = new ArrayList<>(taskNames.size());
+        for (final String taskName : taskNames) {
+            try {
+                outputs.add(tasksOutputPool.submit(() -> getTaskOutput(sessionId, jobId, taskName, logMode)));
+            } catch (RejectedExecutionException e) {
+                outputs.add(null);
+            }
+        }
+
+        TasksOutput result = new TasksOutput();
+
+        for (int i = 0; i < taskNames.size(); i++) {
+            String taskName = taskNames.get(i);
+            if (outputs.get(i) == null) {
+                result.addFailure(taskName, "Too many task outputs being fetched, try again later");
+                continue;
+            }
+            try {
+                result.addOutput(taskName, outputs.get(i).get());
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RestServerException &&
+                    ((RestServerException) cause).getStatus() == Status.UNAUTHORIZED.getStatusCode()) {
+                    cancel(outputs);
+                    throw (RestServerException) cause;
+                }
+                result.addFailure(taskName, cause.getMessage() != null ? cause.getMessage() : cause.toString());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel(outputs);
+                throw new ServiceException("Interrupted while fetching the output of job " + jobId);
+            }
+        }
+
+        return result;
+    }
+
+    private String fetchTaskOutput(String sessionId, String jobId, String taskName, OutputMode logMode)
             throws RestServerException, ServiceException {
 
         RestClient restClientProxy = getRestClientProxy();
@@ -872,20 +1227,21 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
      *
      * @param sessionId current session id
      * @param jobId     id of the job for which logs should be fetched
-     * @return console output for the whole job
+     * @param offset    number of characters of the live log already received
+     * @return the console output of the job following the given offset
      * @throws RestServerException
      * @throws ServiceException
      */
     @Override
-    public String getLiveLogJob(final String sessionId, final String jobId)
+    public LiveLogChunk getLiveLogJob(final String sessionId, final String jobId, long offset)
             throws RestServerException, ServiceException {
-        RestClient restClientProxy = getRestClientProxy();
-
-        try {
-            return restClientProxy.getLiveLogJob(sessionId, jobId);
-        } catch (WebApplicationException e) {
-            return rethrowRestServerException(e);
-        }
+        return liveLogTail.read(sessionId, jobId, offset, () -> {
+            try {
+                return getRestClientProxy().getLiveLogJob(sessionId, jobId);
+            } catch (WebApplicationException e) {
+                throw new RestServerException(e.getResponse().getStatus(), e.getMessage());
+            }
+        });
     }
 
     /**
@@ -928,6 +1284,7 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
     @Override
     public boolean deleteLiveLogJob(final String sessionId, final String jobId)
             throws RestServerException, ServiceException {
+        liveLogTail.remove(sessionId, jobId);
         return executeFunction(new Function<RestClient, InputStream>() {
             @Override
             public InputStream apply(RestClient restClient) {
@@ -944,7 +1301,11 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
      * lang.String)
      */
     @Override
-    public String getStatistics(String sessionId) throws RestServerException, ServiceException {
+    public String getStatistics(final String sessionId) throws RestServerException, ServiceException {
+        return getSharedSnapshot(sessionId, SCHEDULER_STATISTICS, () -> fetchStatistics(sessionId));
+    }
+
+    private String fetchStatistics(String sessionId) throws RestServerException {
         RestClient restClientProxy = getRestClientProxy();
 
         try {
@@ -961,8 +1322,12 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
      * getStatisticsOnMyAccount (java.lang.String)
      */
     @Override
-    public String getStatisticsOnMyAccount(String sessionId) throws RestServerException, ServiceException {
+    public String getStatisticsOnMyAccount(final String sessionId) throws RestServerException, ServiceException {
+        String login = getCachedLoginFromSessionId(sessionId);
+        return accountStatistics.get(login, () -> fetchStatisticsOnMyAccount(sessionId));
+    }
 
+    private String fetchStatisticsOnMyAccount(String sessionId) throws RestServerException {
         RestClient restClientProxy = getRestClientProxy();
 
         try {
@@ -980,20 +1345,27 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
      * (java.lang.String)
      */
     @Override
-    public long schedulerStateRevision(String sessionId) throws RestServerException {
-        RestClient restClientProxy = getRestClientProxy();
-
+    public long schedulerStateRevision(final String sessionId) throws RestServerException {
         String revision = null;
 
         try {
-            revision = restClientProxy.schedulerStateRevision(sessionId);
+            revision = getSharedSnapshot(sessionId,
+                                         SCHEDULER_STATE_REVISION,
+                                         () -> fetchSchedulerStateRevision(sessionId));
 
             return Long.parseLong(revision);
         } catch (NumberFormatException e) {
             throw new RestServerException("Revision is not a number: " + revision);
+        } catch (ServiceException e) {
+            throw new RestServerException(e.getMessage(), e);
+        }
+    }
+
+    private String fetchSchedulerStateRevision(String sessionId) throws RestServerException {
+        try {
+            return getRestClientProxy().schedulerStateRevision(sessionId);
         } catch (WebApplicationException e) {
-            rethrowRestServerException(e);
-            return -1L;
+            return rethrowRestServerException(e);
         }
     }
 
@@ -1007,6 +1379,10 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
      */
     @Override
     public String getSchedulerUsers(final String sessionId) throws RestServerException, ServiceException {
+        return getSharedSnapshot(sessionId, SCHEDULER_USERS, () -> fetchSchedulerUsers(sessionId));
+    }
+
+    private String fetchSchedulerUsers(final String sessionId) throws RestServerException, ServiceException {
         return executeFunctionReturnStreamAsString(new Function<RestClient, InputStream>() {
             @Override
             public InputStream apply(RestClient restClient) {
@@ -1043,7 +1419,8 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
     @Override
     public String revisionAndjobsinfo(final String sessionId, final String startCursor, final String endCursor,
             int pageSize, boolean first, final String user, final boolean pending, final boolean running,
-            final boolean finished, FilterModel filterModel) throws RestServerException, ServiceException {
+            final boolean finished, FilterModel filterModel, boolean onlyIfModified)
+            throws RestServerException, ServiceException {
         Query query = GraphQLQueries.get().getRevisionAndjobsInfoQuery(user,
                                                                        pending,
                                                                        running,
@@ -1053,7 +1430,21 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
                                                                        pageSize,
                                                                        first,
                                                                        filterModel);
-        String response = executeGraphQLQuery(sessionId, query);
+        if (sessionId == null || query == null) {
+            return null;
+        }
+
+        // the query string holds the user, the filters, the cursors and the page size
+        String pageKey = sessionId + ":" + Hashing.murmur3_128().hashString(query.getQuery(), StandardCharsets.UTF_8);
+        // read before the query: a change made meanwhile is sent on the next call
+        long revision = schedulerStateRevision(sessionId);
+        if (onlyIfModified && Long.valueOf(revision).equals(jobsPageRevisions.getIfPresent(pageKey))) {
+            return JOBS_NOT_MODIFIED;
+        }
+
+        String response = SchedulerConfig.get().isJobsPagePassthrough() ? executeJobsQuery(sessionId, query)
+                                                                        : executeGraphQLQuery(sessionId, query);
+        jobsPageRevisions.put(pageKey, revision);
         return response;
     }
 
@@ -1089,7 +1480,15 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
      * java.lang.String)
      */
     @Override
-    public String getSchedulerStatus(String sessionId) throws RestServerException {
+    public String getSchedulerStatus(final String sessionId) throws RestServerException {
+        try {
+            return getSharedSnapshot(sessionId, SCHEDULER_STATUS, () -> fetchSchedulerStatus(sessionId));
+        } catch (ServiceException e) {
+            throw new RestServerException(e.getMessage(), e);
+        }
+    }
+
+    private String fetchSchedulerStatus(String sessionId) throws RestServerException {
         try {
             return getRestClientProxy().schedulerStatus(sessionId);
         } catch (WebApplicationException e) {
@@ -1158,36 +1557,57 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
     @Override
     public List<JobUsage> getUsage(String sessionId, String user, Date startDate, Date endDate)
             throws RestServerException, ServiceException {
-        RestClient restClientProxy = getRestClientProxy();
-
         InputStream inputStream = null;
 
+        try {
+            inputStream = getUsageStream(sessionId, user, startDate, endDate);
+
+            return UsageJsonReader.readJobUsages(inputStream);
+        } catch (IOException e) {
+            throw new ServiceException(e.getMessage());
+        } finally {
+            IOUtils.closeQuietly(inputStream);
+        }
+    }
+
+    /**
+     * Opens the JSON array of job usages returned by the REST server, to be read
+     * with {@link UsageJsonReader} without loading it in memory.
+     *
+     * @param sessionId current session
+     * @param user      user to get the usage of, or null for the current user
+     * @param startDate start of the period
+     * @param endDate   end of the period
+     * @return the response body, to be closed by the caller
+     * @throws RestServerException
+     */
+    public InputStream getUsageStream(String sessionId, String user, Date startDate, Date endDate)
+            throws RestServerException {
+        RestClient restClientProxy = getRestClientProxy();
+
         try {
             DateFormat df = new SimpleDateFormat(ISO_8601_FORMAT);
             String startDateAsString = df.format(startDate);
             String endDateAsString = df.format(endDate);
 
             if (user != null) {
-                inputStream = restClientProxy.getUsageOnAccount(sessionId, user, startDateAsString, endDateAsString);
+                return restClientProxy.getUsageOnAccount(sessionId, user, startDateAsString, endDateAsString);
             } else {
-                inputStream = restClientProxy.getUsageOnMyAccount(sessionId, startDateAsString, endDateAsString);
+                return restClientProxy.getUsageOnMyAccount(sessionId, startDateAsString, endDateAsString);
             }
-
-            String responseAsString = convertToString(inputStream);
-
-            return UsageJsonReader.readJobUsages(responseAsString);
-        } catch (IOException | JSONException e) {
-            throw new ServiceException(e.getMessage());
         } catch (WebApplicationException e) {
             rethrowRestServerException(e);
             return null;
-        } finally {
-            IOUtils.closeQuietly(inputStream);
         }
     }
 
     @Override
     public String getJobHtml(final String sessionId, final String jobId) throws RestServerException, ServiceException {
+        return getFinishedJobResource(sessionId, jobId, "html", () -> fetchJobHtml(sessionId, jobId));
+    }
+
+    private String fetchJobHtml(final String sessionId, final String jobId)
+            throws RestServerException, ServiceException {
         return executeFunctionReturnStreamAsString(new Function<RestClient, InputStream>() {
             @Override
             public InputStream apply(RestClient restClient) {
@@ -1244,6 +1664,48 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
         }
     }
 
+    /**
+     * Returns the snapshot of a resource which is identical for all the users, fetching it
+     * with the given loader only if no session did it during the current refresh period.
+     * The session is checked before being allowed to read the snapshot.
+     */
+    private String getSharedSnapshot(String sessionId, String resource, Callable<String> loader)
+            throws RestServerException, ServiceException {
+        getCachedLoginFromSessionId(sessionId);
+        return sharedSnapshots.get(resource, loader);
+    }
+
+    /**
+     * Resolves the login of the user owning the given session. The answer of the REST server
+     * is kept during {@link #SESSION_VALIDATION_PERIOD} so that checking a session is cheap.
+     */
+    private String getCachedLoginFromSessionId(final String sessionId) throws RestServerException, ServiceException {
+        if (sessionId == null) {
+            throw new RestServerException(Status.UNAUTHORIZED.getStatusCode(), "Missing session id");
+        }
+        return sessionLogins.get(sessionId, () -> getLoginFromSessionId(sessionId));
+    }
+
+    /**
+     * Serves a resource describing a job from {@link #finishedJobsCache} when the job is over,
+     * the session only being checked against the users already allowed to read the job.
+     */
+    private String getFinishedJobResource(String sessionId, String jobId, String resource,
+            Callable<String> loader) throws RestServerException, ServiceException {
+        String login = finishedJobsCache.isFinished(jobId) ? getCachedLoginFromSessionId(sessionId) : null;
+        return finishedJobsCache.get(jobId, resource, login, loader);
+    }
+
+    private String readJobStatus(String jobInfo) {
+        try {
+            JsonNode status = JSON_MAPPER.readTree(jobInfo).get("status");
+            return status == null ? null : status.asText();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to read the status of a job", e);
+            return null;
+        }
+    }
+
     /**
      * Execute a graphQL query. The queries should be built using the GraphQLQueries class
      * @param sessionId
@@ -1257,15 +1719,62 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
         if (sessionId == null || query == null)
             return null;
 
-        Map<String, Object> result = graphQLClient.execute(sessionId, query);
-        try {
-            String data = JSON_MAPPER.writeValueAsString(result);
-            return data;
-        } catch (JsonProcessingException e) {
-            LOGGER.log(Level.SEVERE, e.getMessage());
-            return "{\"error\": \"Cannot process JSON\"}";
-        }
+        return coalesce(sessionId, () -> {
+            Map<String, Object> result = graphQLClient.execute(sessionId, query);
+            finishedJobsCache.updateStatuses(result);
+            try {
+                String data = JSON_MAPPER.writeValueAsString(result);
+                return data;
+            } catch (JsonProcessingException e) {
+                LOGGER.log(Level.SEVERE, e.getMessage());
+                return "{\"error\": \"Cannot process JSON\"}";
+            }
+        }, "graphql", query.getQuery());
+    }
+
+    /**
+     * Executes a GraphQL jobs query, the response of the scheduling API being copied
+     * to the client without being decoded, and projected on the fields read by the client
+     * unless disabled in the configuration.
+     */
+    private String executeJobsQuery(String sessionId, Query query) throws ServiceException, RestServerException {
+        return coalesce(sessionId, () -> {
+            HttpPost method = new HttpPost(SchedulerConfig.get().getSchedulingApiUrl() + GRAPHQL_PATH);
+            method.addHeader("sessionid", sessionId);
+            method.setEntity(new StringEntity(JSON_MAPPER.writeValueAsString(Collections.singletonMap("query",
+                                                                                                      query.getQuery())),
+                                              ContentType.APPLICATION_JSON));
+            try (CloseableHttpResponse response = httpClient.execute(method);
+                    InputStream body = response.getEntity().getContent()) {
+                int status = response.getStatusLine().getStatusCode();
+                if (status != Response.Status.OK.getStatusCode()) {
+                    throw new RestServerException(status, convertToString(body));
+                }
+                return JobsPageJsonFilter.filter(body,
+                                                 SchedulerConfig.get().isJobsPageProjection(),
+                                                 finishedJobsCache::updateStatus);
+            } catch (IOException e) {
+                throw new ServiceException("Failed to read response: " + e.getMessage());
+            }
+        }, "jobs", query.getQuery());
+    }
+
+    /**
+     * Performs a call to the REST server, or waits for the identical one already in flight
+     * for the same user. The request is identified by the given operation and arguments,
+     * the user by the login of the session as known by {@link #sessionLogins}. The call
+     * in flight may use another session of the user, a request is thus sent again with
+     * its own session when that call is rejected as unauthorized.
+     */
+    private String coalesce(String sessionId, Callable<String> call, Object... request)
+            throws RestServerException, ServiceException {
+        String key = getCachedLoginFromSessionId(sessionId) + ":" + Arrays.toString(request);
+        return inFlightRequests.execute(key, call, SchedulerServiceImpl::isUnauthorized);
+    }
 
+    private static boolean isUnauthorized(Exception e) {
+        return e instanceof RestServerException &&
+               ((RestServerException) e).getStatus() == Status.UNAUTHORIZED.getStatusCode();
     }
 
     private boolean executeFunction(Function<RestClient, InputStream> function)
@@ -1285,40 +1794,98 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
         }
     }
 
-    private int executeFunction(BiFunction<RestClient, Integer, InputStream> action, List<Integer> jobIdList,
-            String actionName) throws ServiceException, RestServerException {
+    /**
+     * Applies an action to each job of the list, the REST calls being spread over
+     * {@link #bulkActionPool} so that large selections complete in a bounded time.
+     * <p>
+     * When the session expires, the jobs not processed yet are cancelled and the result,
+     * flagged as disconnected, still holds the jobs for which the action succeeded.
+     *
+     * @return the jobs for which the action succeeded and the reason of the failure for the others
+     */
+    private BulkActionResult executeFunction(final BiFunction<RestClient, Integer, InputStream> action,
+            List<Integer> jobIdList, String actionName) throws ServiceException {
 
-        RestClient restClientProxy = getRestClientProxy();
+        final RestClient restClientProxy = getRestClientProxy();
 
-        int failures = 0;
-        int success = 0;
+        List<Future<String>> failures = new ArrayList<>(jobIdList.size());
+        for (final Integer jobId : jobIdList) {
+            failures.add(bulkActionPool.submit(() -> applyBulkAction(action, restClientProxy, jobId)));
+        }
 
-        for (Integer jobId : jobIdList) {
-            InputStream inputStream = null;
+        BulkActionResult result = new BulkActionResult();
 
+        for (int i = 0; i < jobIdList.size(); i++) {
+            int jobId = jobIdList.get(i);
             try {
-                inputStream = action.apply(restClientProxy, jobId);
-
-                if (Boolean.parseBoolean(convertToString(inputStream))) {
-                    success++;
+                String failure = failures.get(i).get();
+                if (failure == null) {
+                    result.addSuccess(jobId);
                 } else {
-                    failures++;
+                    result.addFailure(jobId, failure);
                 }
-            } catch (WebApplicationException e) {
-                failures++;
-            } catch (IOException e) {
-                throw new ServiceException("Error while reading InputStream response: " + e.getMessage());
-            } finally {
-                IOUtils.closeQuietly(inputStream);
+            } catch (CancellationException e) {
+                result.addFailure(jobId, "Not confirmed, the session expired before the action completed");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RestServerException) {
+                    if (!result.isDisconnected()) {
+                        result.setDisconnected();
+                        cancel(failures);
+                    }
+                    result.addFailure(jobId, e.getCause().getMessage());
+                } else {
+                    result.addFailure(jobId, e.getCause().toString());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel(failures);
+                throw new ServiceException("Interrupted while waiting for " + actionName);
             }
         }
 
-        if (failures > 0) {
-            throw new RestServerException("Requested " + jobIdList.size() + " " + actionName + ": " + success +
-                                          " succeeded, " + failures + " failed.");
+        if (result.hasFailures()) {
+            LOGGER.info("Requested " + jobIdList.size() + " " + actionName + ": " + result.getSuccessCount() +
+                        " succeeded, " + result.getFailureCount() + " failed" +
+                        (result.isDisconnected() ? ", the session expired." : "."));
         }
 
-        return success;
+        return result;
+    }
+
+    private static void cancel(List<? extends Future<?>> futures) {
+        for (Future<?> future : futures) {
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * @return null if the action succeeded for the given job, the reason of the failure otherwise
+     * @throws RestServerException the session is not valid anymore
+     */
+    private String applyBulkAction(BiFunction<RestClient, Integer, InputStream> action, RestClient restClientProxy,
+            Integer jobId) throws RestServerException {
+        InputStream inputStream = null;
+
+        try {
+            inputStream = action.apply(restClientProxy, jobId);
+
+            if (Boolean.parseBoolean(convertToString(inputStream))) {
+                return null;
+            } else {
+                return "Request rejected by the scheduler";
+            }
+        } catch (WebApplicationException e) {
+            if (e.getResponse().getStatus() == Status.UNAUTHORIZED.getStatusCode()) {
+                return rethrowRestServerException(e);
+            }
+            return getErrorMessage(e);
+        } catch (IOException e) {
+            return "Error while reading InputStream response: " + e.getMessage();
+        } finally {
+            IOUtils.closeQuietly(inputStream);
+        }
     }
 
     private String executeFunctionReturnStreamAsString(Function<RestClient, InputStream> function)
@@ -1343,18 +1910,68 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
     }
 
     private RestClient getRestClientProxy() {
-        ResteasyClient client = new ResteasyClientBuilder().asyncExecutor(threadPool)
-                                                           .httpEngine(new ApacheHttpClient4Engine(httpClient))
-                                                           .build();
-        ResteasyWebTarget target = client.target(SchedulerConfig.get().getRestUrl());
-
-        return target.proxy(RestClient.class);
+        return restClientProxy;
     }
 
     private String rethrowRestServerException(WebApplicationException e) throws RestServerException {
         throw new RestServerException(e.getResponse().getStatus(), e.getMessage());
     }
 
+    /**
+     * @return the error message sent by the REST server, or the message of the exception
+     *         if the response does not hold any
+     */
+    private static String getErrorMessage(WebApplicationException e) {
+        try {
+            String entity = e.getResponse().readEntity(String.class);
+            if (entity != null && !entity.isEmpty()) {
+                JsonNode errorMessage = JSON_MAPPER.readTree(entity).path("errorMessage");
+                return errorMessage.isTextual() ? errorMessage.asText() : entity;
+            }
+        } catch (IOException | RuntimeException readFailure) {
+            LOGGER.log(Level.FINE, "Failed to read the error response", readFailure);
+        }
+        return e.getMessage();
+    }
+
+    /**
+     * Notifies the browsers when the revision of the scheduler state,
+     * which changes with every job or task event, or the scheduler status change
+     */
+    private class SchedulerEventSource implements ServerEventSource {
+
+        private String revision;
+
+        private String status;
+
+        @Override
+        public void checkSession(String sessionId) throws RestServerException, ServiceException {
+            getCachedLoginFromSessionId(sessionId);
+        }
+
+        @Override
+        public List<ServerEvent> poll(String sessionId) throws RestServerException, ServiceException {
+            List<ServerEvent> events = new ArrayList<>(2);
+
+            String newRevision = fetchSchedulerStateRevision(sessionId);
+            if (revision != null && !revision.equals(newRevision)) {
+                sharedSnapshots.invalidate(SCHEDULER_STATE_REVISION);
+                events.add(new ServerEvent(SCHEDULER_STATE_REVISION, newRevision));
+            }
+            revision = newRevision;
+
+            String newStatus = fetchSchedulerStatus(sessionId);
+            if (status != null && !status.equals(newStatus)) {
+                sharedSnapshots.invalidate(SCHEDULER_STATUS);
+                events.add(new ServerEvent(SCHEDULER_STATUS, newStatus));
+            }
+            status = newStatus;
+
+            return events;
+        }
+
+    }
+
     private interface BiFunction<T, U, R> {
 
         R apply(T t, U u);
@@ -25,53 +25,137 @@
  */
 package org.ow2.proactive_grid_cloud_portal.scheduler.server;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.codehaus.jettison.json.JSONArray;
-import org.codehaus.jettison.json.JSONException;
-import org.codehaus.jettison.json.JSONObject;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobUsage;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.TaskUsage;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 
+
+/**
+ * Reads the job usages returned by the REST server with a streaming parser,
+ * so that only one job usage at a time has to be kept in memory.
+ */
 public class UsageJsonReader {
 
-    public static List<JobUsage> readJobUsages(String jsonString) throws JSONException {
-        JSONArray jsonArray = new JSONArray(jsonString);
-        List<JobUsage> jobUsages = new ArrayList<JobUsage>();
-        for (int i = 0; i < jsonArray.length(); i++) {
-            JSONObject jobUsageAsJson = jsonArray.getJSONObject(i);
-            JobUsage jobUsage = read(jobUsageAsJson);
-            jobUsages.add(jobUsage);
-        }
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * Receives the job usages as soon as they are read
+     */
+    public interface JobUsageHandler {
+
+        void handle(JobUsage jobUsage) throws IOException;
+
+    }
+
+    public static List<JobUsage> readJobUsages(InputStream inputStream) throws IOException {
+        final List<JobUsage> jobUsages = new ArrayList<JobUsage>();
+        readJobUsages(inputStream, new JobUsageHandler() {
+            @Override
+            public void handle(JobUsage jobUsage) {
+                jobUsages.add(jobUsage);
+            }
+        });
         return jobUsages;
     }
 
-    private static JobUsage read(JSONObject json) throws JSONException {
-        String owner = json.getString("owner");
-        String project = json.getString("project");
-        String jobId = json.getString("jobId");
-        String jobName = json.getString("jobName");
-        long jobDuration = json.getLong("jobDuration");
+    public static void readJobUsages(InputStream inputStream, JobUsageHandler handler) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected a JSON array of job usages");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                handler.handle(read(parser));
+            }
+        }
+    }
 
-        JobUsage jobUsage = new JobUsage(owner, project, jobId, jobName, jobDuration);
+    private static JobUsage read(JsonParser parser) throws IOException {
+        String owner = null;
+        String project = null;
+        String jobId = null;
+        String jobName = null;
+        long jobDuration = 0;
+        List<TaskUsage> taskUsages = new ArrayList<TaskUsage>();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "owner":
+                    owner = parser.getValueAsString();
+                    break;
+                case "project":
+                    project = parser.getValueAsString();
+                    break;
+                case "jobId":
+                    jobId = parser.getValueAsString();
+                    break;
+                case "jobName":
+                    jobName = parser.getValueAsString();
+                    break;
+                case "jobDuration":
+                    jobDuration = parser.getValueAsLong();
+                    break;
+                case "taskUsages":
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        taskUsages.add(parseJsonTask(parser));
+                    }
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
 
-        JSONArray tasks = json.getJSONArray("taskUsages");
-        for (int i = 0; i < tasks.length(); i++) {
-            JSONObject task = tasks.getJSONObject(i);
-            jobUsage.add(parseJsonTask(task));
+        JobUsage jobUsage = new JobUsage(owner, project, jobId, jobName, jobDuration);
+        for (TaskUsage taskUsage : taskUsages) {
+            jobUsage.add(taskUsage);
         }
         return jobUsage;
     }
 
-    private static TaskUsage parseJsonTask(JSONObject json) throws JSONException {
-        String taskId = json.getString("taskId");
-        String taskName = json.getString("taskName");
-        long taskStartTime = json.getLong("taskStartTime");
-        long taskFinishedTime = json.getLong("taskFinishedTime");
-        long taskExecutionDuration = json.getLong("taskExecutionDuration");
-        long taskNodeNumber = json.getInt("taskNodeNumber");
+    private static TaskUsage parseJsonTask(JsonParser parser) throws IOException {
+        String taskId = null;
+        String taskName = null;
+        long taskStartTime = 0;
+        long taskFinishedTime = 0;
+        long taskExecutionDuration = 0;
+        long taskNodeNumber = 0;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "taskId":
+                    taskId = parser.getValueAsString();
+                    break;
+                case "taskName":
+                    taskName = parser.getValueAsString();
+                    break;
+                case "taskStartTime":
+                    taskStartTime = parser.getValueAsLong();
+                    break;
+                case "taskFinishedTime":
+                    taskFinishedTime = parser.getValueAsLong();
+                    break;
+                case "taskExecutionDuration":
+                    taskExecutionDuration = parser.getValueAsLong();
+                    break;
+                case "taskNodeNumber":
+                    taskNodeNumber = parser.getValueAsInt();
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
         return new TaskUsage(taskId, taskName, taskStartTime, taskFinishedTime, taskExecutionDuration, taskNodeNumber);
     }
 }
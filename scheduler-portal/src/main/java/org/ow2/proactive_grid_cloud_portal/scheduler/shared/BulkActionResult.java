@@ -0,0 +1,118 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.shared;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gwt.user.client.rpc.IsSerializable;
+
+
+/**
+ * Outcome of an action applied to several jobs at once:
+ * the ids of the jobs for which it succeeded, and the reason
+ * of the failure for each of the other jobs.
+ */
+public class BulkActionResult implements IsSerializable {
+
+    private List<Integer> succeeded;
+
+    private Map<Integer, String> failed;
+
+    private boolean disconnected;
+
+    public BulkActionResult() {
+        this.succeeded = new ArrayList<Integer>();
+        this.failed = new LinkedHashMap<Integer, String>();
+    }
+
+    public void addSuccess(int jobId) {
+        this.succeeded.add(jobId);
+    }
+
+    public void addFailure(int jobId, String reason) {
+        this.failed.put(jobId, reason);
+    }
+
+    /**
+     * Adds the outcome of another batch of the same action to this one
+     *
+     * @param other result of another batch
+     */
+    public void merge(BulkActionResult other) {
+        this.succeeded.addAll(other.succeeded);
+        this.failed.putAll(other.failed);
+        this.disconnected |= other.disconnected;
+    }
+
+    /**
+     * Records that the session expired while the action was applied,
+     * the jobs not processed by then being reported as failed
+     */
+    public void setDisconnected() {
+        this.disconnected = true;
+    }
+
+    /**
+     * @return true if the session expired while the action was applied
+     */
+    public boolean isDisconnected() {
+        return disconnected;
+    }
+
+    /**
+     * @return ids of the jobs for which the action succeeded
+     */
+    public List<Integer> getSucceeded() {
+        return succeeded;
+    }
+
+    /**
+     * @return reason of the failure, per job id
+     */
+    public Map<Integer, String> getFailed() {
+        return failed;
+    }
+
+    public int getSuccessCount() {
+        return succeeded.size();
+    }
+
+    public int getFailureCount() {
+        return failed.size();
+    }
+
+    public int getRequestedCount() {
+        return succeeded.size() + failed.size();
+    }
+
+    public boolean hasFailures() {
+        return !failed.isEmpty();
+    }
+
+}
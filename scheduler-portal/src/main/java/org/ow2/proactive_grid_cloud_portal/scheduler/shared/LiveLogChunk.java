@@ -0,0 +1,83 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.shared;
+
+import com.google.gwt.user.client.rpc.IsSerializable;
+
+
+/**
+ * Part of the live output of a job, starting at a given offset
+ * in the characters read from the job output since the live log was opened.
+ */
+public class LiveLogChunk implements IsSerializable {
+
+    private long offset;
+
+    private String content;
+
+    private boolean more;
+
+    public LiveLogChunk() {
+    }
+
+    /**
+     * @param offset position of the first character of the content
+     * @param content the live log characters
+     * @param more true if the server already holds the characters that follow
+     */
+    public LiveLogChunk(long offset, String content, boolean more) {
+        this.offset = offset;
+        this.content = content;
+        this.more = more;
+    }
+
+    /**
+     * @return position of the first character of the content, greater than the
+     *         requested offset if the characters in between were dropped by the server
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    /**
+     * @return offset to request to get the characters that follow this chunk
+     */
+    public long getNextOffset() {
+        return offset + content.length();
+    }
+
+    /**
+     * @return true if the characters that follow can be requested right away
+     */
+    public boolean hasMore() {
+        return more;
+    }
+
+}
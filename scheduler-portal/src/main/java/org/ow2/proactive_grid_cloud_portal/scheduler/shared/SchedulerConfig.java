@@ -83,6 +83,46 @@ public class SchedulerConfig extends Config {
 
     private static final String DEFAULT_TAG_SUGGESTIONS_DELAY = "30000";
 
+    /** maximum number of jobs concurrently processed by the server for a bulk job action */
+    public static final String BULK_ACTION_CONCURRENCY = "sched.bulk.action.concurrency";
+
+    private static final String DEFAULT_BULK_ACTION_CONCURRENCY = "16";
+
+    /** number of jobs sent per request by the client when applying an action to many jobs */
+    public static final String BULK_ACTION_BATCH_SIZE = "sched.bulk.action.batch.size";
+
+    private static final String DEFAULT_BULK_ACTION_BATCH_SIZE = "200";
+
+    /** maximum number of task outputs concurrently fetched by the server */
+    public static final String TASKS_OUTPUT_CONCURRENCY = "sched.tasks.output.concurrency";
+
+    private static final String DEFAULT_TASKS_OUTPUT_CONCURRENCY = "8";
+
+    /** maximum size in megabytes of the responses cached by the server about finished jobs */
+    public static final String FINISHED_JOBS_CACHE_SIZE = "sched.finished.jobs.cache.size";
+
+    private static final String DEFAULT_FINISHED_JOBS_CACHE_SIZE = "64";
+
+    /** whether the jobs pages are copied from the scheduling API response instead of being decoded */
+    public static final String JOBS_PAGE_PASSTHROUGH = "sched.jobs.page.passthrough";
+
+    private static final String DEFAULT_JOBS_PAGE_PASSTHROUGH = "true";
+
+    /** whether the fields of the jobs not read by the client are dropped from the copied jobs pages */
+    public static final String JOBS_PAGE_PROJECTION = "sched.jobs.page.projection";
+
+    private static final String DEFAULT_JOBS_PAGE_PROJECTION = "true";
+
+    /** maximum number of live log characters, in thousands, sent to the client per request */
+    public static final String LIVELOGS_CHUNK_SIZE = "sched.livelog.chunk.size";
+
+    private static final String DEFAULT_LIVELOGS_CHUNK_SIZE = "256";
+
+    /** number of task outputs requested at once by the client when fetching the output of a job */
+    public static final String JOB_OUTPUT_BATCH_SIZE = "sched.job.output.batch.size";
+
+    private static final String DEFAULT_JOB_OUTPUT_BATCH_SIZE = "50";
+
     /** release version string */
     public static final String VERSION = "sched.version";
 
@@ -144,6 +184,14 @@ public class SchedulerConfig extends Config {
         properties.put(LIVELOGS_REFRESH_TIME, DEFAULT_LIVELOGS_REFRESH_TIME);
         properties.put(JOBS_PAGE_SIZE, DEFAULT_JOBS_PAGE_SIZE);
         properties.put(TASKS_PAGE_SIZE, DEFAULT_TASKS_PAGE_SIZE);
+        properties.put(BULK_ACTION_CONCURRENCY, DEFAULT_BULK_ACTION_CONCURRENCY);
+        properties.put(BULK_ACTION_BATCH_SIZE, DEFAULT_BULK_ACTION_BATCH_SIZE);
+        properties.put(TASKS_OUTPUT_CONCURRENCY, DEFAULT_TASKS_OUTPUT_CONCURRENCY);
+        properties.put(FINISHED_JOBS_CACHE_SIZE, DEFAULT_FINISHED_JOBS_CACHE_SIZE);
+        properties.put(JOBS_PAGE_PASSTHROUGH, DEFAULT_JOBS_PAGE_PASSTHROUGH);
+        properties.put(JOBS_PAGE_PROJECTION, DEFAULT_JOBS_PAGE_PROJECTION);
+        properties.put(LIVELOGS_CHUNK_SIZE, DEFAULT_LIVELOGS_CHUNK_SIZE);
+        properties.put(JOB_OUTPUT_BATCH_SIZE, DEFAULT_JOB_OUTPUT_BATCH_SIZE);
         properties.put(VERSION, DEFAULT_VERSION);
         properties.put(SCHED_VERSION, DEFAULT_SCHED_VERSION);
         properties.put(REST_VERSION, DEFAULT_REST_VERSION);
@@ -287,6 +335,62 @@ public class SchedulerConfig extends Config {
         return Integer.parseInt(properties.get(LIVELOGS_REFRESH_TIME));
     }
 
+    /**
+     * @return maximum number of jobs concurrently processed by the server for a bulk job action
+     */
+    public int getBulkActionConcurrency() {
+        return Integer.parseInt(properties.get(BULK_ACTION_CONCURRENCY));
+    }
+
+    /**
+     * @return number of jobs sent per request by the client when applying an action to many jobs
+     */
+    public int getBulkActionBatchSize() {
+        return Integer.parseInt(properties.get(BULK_ACTION_BATCH_SIZE));
+    }
+
+    /**
+     * @return maximum number of task outputs concurrently fetched by the server
+     */
+    public int getTasksOutputConcurrency() {
+        return Integer.parseInt(properties.get(TASKS_OUTPUT_CONCURRENCY));
+    }
+
+    /**
+     * @return maximum size in megabytes of the responses cached by the server about finished jobs
+     */
+    public int getFinishedJobsCacheSize() {
+        return Integer.parseInt(properties.get(FINISHED_JOBS_CACHE_SIZE));
+    }
+
+    /**
+     * @return whether the jobs pages are copied from the scheduling API response
+     */
+    public boolean isJobsPagePassthrough() {
+        return Boolean.parseBoolean(properties.get(JOBS_PAGE_PASSTHROUGH));
+    }
+
+    /**
+     * @return whether the fields of the jobs not read by the client are dropped from the copied jobs pages
+     */
+    public boolean isJobsPageProjection() {
+        return Boolean.parseBoolean(properties.get(JOBS_PAGE_PROJECTION));
+    }
+
+    /**
+     * @return maximum number of live log characters, in thousands, sent to the client per request
+     */
+    public int getLivelogsChunkSize() {
+        return Integer.parseInt(properties.get(LIVELOGS_CHUNK_SIZE));
+    }
+
+    /**
+     * @return number of task outputs requested at once by the client when fetching the output of a job
+     */
+    public int getJobOutputBatchSize() {
+        return Integer.parseInt(properties.get(JOB_OUTPUT_BATCH_SIZE));
+    }
+
     /**
      * @return the catalog url or null if none has been defined
      */
@@ -0,0 +1,76 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+import org.ow2.proactive_grid_cloud_portal.scheduler.server.DownloadTaskResultServlet.ByteRange;
+
+
+public class DownloadTaskResultServletTest {
+
+    @Test
+    public void closed_range() {
+        ByteRange range = ByteRange.parse("bytes=100-199", 1000);
+
+        assertEquals(100, range.getFirst());
+        assertEquals(199, range.getLast());
+        assertEquals(100, range.length());
+    }
+
+    @Test
+    public void open_range_ends_with_the_result() {
+        ByteRange range = ByteRange.parse("bytes=900-", 1000);
+
+        assertEquals(900, range.getFirst());
+        assertEquals(999, range.getLast());
+    }
+
+    @Test
+    public void suffix_range() {
+        ByteRange range = ByteRange.parse("bytes=-10", 1000);
+
+        assertEquals(990, range.getFirst());
+        assertEquals(999, range.getLast());
+    }
+
+    @Test
+    public void range_beyond_the_result_is_not_satisfiable() {
+        assertFalse(ByteRange.parse("bytes=1000-", 1000).isSatisfiable());
+    }
+
+    @Test
+    public void whole_result_is_sent_when_range_cannot_be_served() {
+        assertNull(ByteRange.parse(null, 1000));
+        assertNull(ByteRange.parse("bytes=0-10", -1));
+        assertNull(ByteRange.parse("bytes=0-10,20-30", 1000));
+        assertNull(ByteRange.parse("bytes=abc", 1000));
+    }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+
+public class FinishedJobsCacheTest {
+
+    private final FinishedJobsCache cache = new FinishedJobsCache(1024 * 1024);
+
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    @Test
+    public void responses_about_running_jobs_are_not_cached() throws Exception {
+        cache.updateStatus("1", "RUNNING");
+
+        fetch("1", "admin");
+        fetch("1", "admin");
+
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    public void responses_about_finished_jobs_are_cached() throws Exception {
+        cache.updateStatus("1", "FINISHED");
+
+        assertEquals("1", fetch("1", "admin"));
+        assertEquals("1", fetch("1", "admin"));
+
+        assertEquals(1, fetches.get());
+        assertEquals(1, cache.stats().hitCount());
+    }
+
+    @Test
+    public void other_users_go_through_the_rest_server_once() throws Exception {
+        cache.updateStatus("1", "KILLED");
+
+        fetch("1", "admin");
+        fetch("1", "user");
+        fetch("1", "user");
+
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    public void reused_job_id_drops_cached_responses() throws Exception {
+        cache.updateStatus("1", "FINISHED");
+        fetch("1", "admin");
+
+        cache.updateStatus("1", "PENDING");
+        assertFalse(cache.isFinished("1"));
+        cache.updateStatus("1", "FINISHED");
+
+        assertEquals("2", fetch("1", "admin"));
+    }
+
+    @Test
+    public void statuses_are_read_from_graphql_jobs() {
+        Map<String, Object> node = new HashMap<>();
+        node.put("id", "7");
+        node.put("status", "CANCELED");
+        Map<String, Object> jobs = Collections.singletonMap("edges",
+                                                            Collections.singletonList(Collections.singletonMap("node",
+                                                                                                               node)));
+        Map<String, Object> result = Collections.singletonMap("data", Collections.singletonMap("jobs", jobs));
+
+        cache.updateStatuses(result);
+
+        assertTrue(cache.isFinished("7"));
+    }
+
+    private String fetch(String jobId, String login) throws Exception {
+        return cache.get(jobId, "html", login, () -> "" + fetches.incrementAndGet());
+    }
+
+}
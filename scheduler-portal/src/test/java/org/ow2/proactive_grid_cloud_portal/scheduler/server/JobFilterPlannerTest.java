@@ -0,0 +1,161 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobStatus;
+import org.ow2.proactive_grid_cloud_portal.scheduler.server.JobFilterPlanner.Branch;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.filter.Action;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.filter.Field;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.filter.FilterModel;
+
+
+public class JobFilterPlannerTest {
+
+    private static final int STATUS_COUNT = JobStatus.values().length;
+
+    @Test
+    public void no_status_branch_when_all_statuses_are_fetched() {
+        List<Branch> branches = JobFilterPlanner.plan("admin", true, true, true, new FilterModel());
+
+        assertEquals(1, branches.size());
+        assertNull(branches.get(0).getStatus());
+        assertEquals("admin", branches.get(0).getOwner());
+    }
+
+    @Test
+    public void one_branch_per_fetched_status_otherwise() {
+        List<Branch> branches = JobFilterPlanner.plan(null, true, true, false, new FilterModel());
+
+        assertEquals(STATUS_COUNT - 1, branches.size());
+        for (Branch branch : branches) {
+            assertNotEquals(JobStatus.FINISHED.name(), branch.getStatus());
+        }
+    }
+
+    @Test
+    public void state_constraint_is_not_multiplied_by_the_statuses() {
+        FilterModel filter = new FilterModel();
+        filter.addConstraint(Field.STATE, Action.EQUALS, "running");
+        filter.addConstraint(Field.NAME, Action.CONTAINS, "job");
+
+        List<Branch> branches = JobFilterPlanner.plan(null, true, false, true, filter);
+
+        assertEquals(1, branches.size());
+        assertEquals("RUNNING", branches.get(0).getStatus());
+        assertEquals("*job*", branches.get(0).getJobName());
+    }
+
+    @Test
+    public void duplicated_constraints_are_removed() {
+        FilterModel filter = matchAny();
+        filter.addConstraint(Field.NAME, Action.CONTAINS, "a");
+        filter.addConstraint(Field.NAME, Action.CONTAINS, "a");
+        filter.addConstraint(Field.USER, Action.EQUALS, "bob");
+
+        assertEquals(2, JobFilterPlanner.plan(null, true, true, true, filter).size());
+    }
+
+    @Test
+    public void id_bounds_are_merged() {
+        FilterModel filter = matchAny();
+        filter.addConstraint(Field.ID, Action.GREATER_THAN_OR_EQUAL_TO, "50");
+        filter.addConstraint(Field.ID, Action.GREATER_THAN_OR_EQUAL_TO, "10");
+        filter.addConstraint(Field.ID, Action.LESS_THAN_OR_EQUAL_TO, "5");
+        filter.addConstraint(Field.ID, Action.LESS_THAN_OR_EQUAL_TO, "7");
+
+        List<Branch> branches = JobFilterPlanner.plan(null, true, true, true, filter);
+
+        assertEquals(2, branches.size());
+        assertEquals("10", branches.get(0).getAfterId());
+        assertEquals("7", branches.get(1).getBeforeId());
+    }
+
+    @Test
+    public void constraint_matching_all_jobs_absorbs_the_others() {
+        FilterModel filter = matchAny();
+        filter.addConstraint(Field.NAME, Action.CONTAINS, "a");
+        filter.addConstraint(Field.NAME, Action.LESS_THAN_OR_EQUAL_TO, "b");
+
+        List<Branch> branches = JobFilterPlanner.plan("admin", true, true, true, filter);
+
+        assertEquals(1, branches.size());
+        assertNull(branches.get(0).getJobName());
+    }
+
+    @Test
+    public void match_any_branches_grow_linearly_with_the_constraints() {
+        for (int constraints = 1; constraints <= 20; constraints++) {
+            FilterModel filter = matchAny();
+            for (int i = 0; i < constraints; i++) {
+                filter.addConstraint(Field.NAME, Action.CONTAINS, "name" + i);
+            }
+
+            assertEquals(constraints, JobFilterPlanner.plan(null, true, true, true, filter).size());
+            assertEquals(constraints * (STATUS_COUNT - 1),
+                         JobFilterPlanner.plan(null, true, true, false, filter).size());
+        }
+    }
+
+    @Test
+    public void key_ignores_duplicated_constraints() {
+        FilterModel filter = matchAny();
+        filter.addConstraint(Field.NAME, Action.CONTAINS, "a");
+        FilterModel duplicated = matchAny();
+        duplicated.addConstraint(Field.NAME, Action.CONTAINS, "a");
+        duplicated.addConstraint(Field.NAME, Action.CONTAINS, "a");
+
+        assertEquals(JobFilterPlanner.getKey("admin", true, true, true, filter),
+                     JobFilterPlanner.getKey("admin", true, true, true, duplicated));
+        assertNotEquals(JobFilterPlanner.getKey("admin", true, true, true, filter),
+                        JobFilterPlanner.getKey("admin", true, true, false, filter));
+    }
+
+    @Test
+    public void separators_in_the_values_do_not_make_keys_collide() {
+        FilterModel twoConstraints = new FilterModel();
+        twoConstraints.addConstraint(Field.NAME, Action.CONTAINS, "a");
+        twoConstraints.addConstraint(Field.NAME, Action.CONTAINS, "b");
+        FilterModel oneConstraint = new FilterModel();
+        oneConstraint.addConstraint(Field.NAME, Action.CONTAINS, "a|NAME:CONTAINS:b");
+
+        assertNotEquals(JobFilterPlanner.getKey("admin", true, true, true, twoConstraints),
+                        JobFilterPlanner.getKey("admin", true, true, true, oneConstraint));
+    }
+
+    private FilterModel matchAny() {
+        FilterModel filter = new FilterModel();
+        filter.setMatchAny(true);
+        return filter;
+    }
+
+}
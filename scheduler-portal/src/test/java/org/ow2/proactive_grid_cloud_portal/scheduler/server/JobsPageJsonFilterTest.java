@@ -0,0 +1,87 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+
+public class JobsPageJsonFilterTest {
+
+    private static final String PAGE = "{\"data\":{\"jobs\":{\"totalCount\":2," +
+                                       "\"pageInfo\":{\"hasNextPage\":false,\"startCursor\":\"a\",\"endCursor\":\"b\"}," +
+                                       "\"edges\":[{\"cursor\":\"a\",\"node\":{\"id\":\"1\",\"status\":\"FINISHED\"," +
+                                       "\"description\":\"long text\",\"variables\":[{\"key\":\"k\",\"value\":\"v\"}]}}," +
+                                       "{\"cursor\":\"b\",\"node\":{\"id\":\"2\",\"status\":\"RUNNING\"," +
+                                       "\"tenant\":null,\"startTime\":12}}]}}}";
+
+    private final Map<String, String> statuses = new LinkedHashMap<>();
+
+    private String filter(String response, boolean project) throws IOException {
+        return JobsPageJsonFilter.filter(new ByteArrayInputStream(response.getBytes(StandardCharsets.UTF_8)),
+                                         project,
+                                         statuses::put);
+    }
+
+    @Test
+    public void response_is_copied_as_it_is() throws Exception {
+        assertEquals(PAGE, filter(PAGE, false));
+    }
+
+    @Test
+    public void jobs_are_projected_on_the_fields_read_by_the_client() throws Exception {
+        assertEquals("{\"data\":{\"jobs\":{\"totalCount\":2," +
+                     "\"pageInfo\":{\"hasNextPage\":false,\"startCursor\":\"a\",\"endCursor\":\"b\"}," +
+                     "\"edges\":[{\"node\":{\"id\":\"1\",\"status\":\"FINISHED\"," +
+                     "\"variables\":[{\"key\":\"k\",\"value\":\"v\"}]}}," +
+                     "{\"node\":{\"id\":\"2\",\"status\":\"RUNNING\",\"startTime\":12}}]}}}", filter(PAGE, true));
+    }
+
+    @Test
+    public void job_statuses_are_reported() throws Exception {
+        filter(PAGE, true);
+
+        assertEquals(2, statuses.size());
+        assertEquals("FINISHED", statuses.get("1"));
+        assertEquals("RUNNING", statuses.get("2"));
+    }
+
+    @Test
+    public void errors_are_copied() throws Exception {
+        String errors = "{\"data\":null,\"errors\":[{\"message\":\"unauthorized\"}]}";
+
+        assertEquals(errors, filter(errors, true));
+        assertEquals(0, statuses.size());
+    }
+
+}
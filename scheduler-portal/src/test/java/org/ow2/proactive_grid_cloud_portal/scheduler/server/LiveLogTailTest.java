@@ -0,0 +1,143 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+import org.junit.Test;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.LiveLogChunk;
+
+
+public class LiveLogTailTest {
+
+    private final LiveLogTail tail = new LiveLogTail(10, 60000, 10);
+
+    private final Deque<String> outputs = new ArrayDeque<>();
+
+    @Test
+    public void output_is_read_again_once_acknowledged() throws Exception {
+        outputs.addAll(Arrays.asList("line1\n", "line2\n"));
+
+        LiveLogChunk first = read(0);
+        LiveLogChunk second = read(first.getNextOffset());
+
+        assertEquals(0, first.getOffset());
+        assertEquals("line1\n", first.getContent());
+        assertEquals(6, second.getOffset());
+        assertEquals("line2\n", second.getContent());
+        assertTrue(outputs.isEmpty());
+    }
+
+    @Test
+    public void chunk_is_sent_again_until_acknowledged() throws Exception {
+        outputs.addAll(Arrays.asList("line1\n", "line2\n"));
+
+        read(0);
+
+        assertEquals("line1\n", read(0).getContent());
+        assertEquals(1, outputs.size());
+    }
+
+    @Test
+    public void large_output_is_split_on_line_ends() throws Exception {
+        outputs.add("abcd\nefgh\nijkl\n");
+
+        LiveLogChunk first = read(0);
+        LiveLogChunk second = read(first.getNextOffset());
+
+        assertEquals("abcd\nefgh\n", first.getContent());
+        assertTrue(first.hasMore());
+        assertEquals("ijkl\n", second.getContent());
+        assertFalse(second.hasMore());
+        assertTrue(outputs.isEmpty());
+    }
+
+    @Test
+    public void oldest_characters_are_dropped_beyond_the_buffer_size() throws Exception {
+        StringBuilder output = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            output.append(i % 10);
+        }
+        outputs.add(output.toString());
+
+        LiveLogChunk chunk = read(0);
+
+        int buffered = 10 * LiveLogTail.MAX_BUFFERED_CHUNKS;
+        assertEquals(100 - buffered, chunk.getOffset());
+        assertEquals(output.substring(100 - buffered, 100 - buffered + 10), chunk.getContent());
+    }
+
+    @Test
+    public void reading_again_from_the_beginning_restarts_the_offsets() throws Exception {
+        outputs.addAll(Arrays.asList("line1\n", "line2\n"));
+
+        read(read(0).getNextOffset());
+        LiveLogChunk restarted = read(0);
+
+        assertEquals(0, restarted.getOffset());
+        assertEquals("line2\n", restarted.getContent());
+        assertEquals(6, restarted.getNextOffset());
+    }
+
+    @Test
+    public void output_of_another_session_is_kept_apart() throws Exception {
+        outputs.addAll(Arrays.asList("first\n", "second\n"));
+
+        assertEquals("first\n", read(0).getContent());
+        assertEquals("second\n", tail.read("other", "1", 0, this::load).getContent());
+    }
+
+    @Test
+    public void removed_output_starts_at_the_requested_offset() throws Exception {
+        outputs.addAll(Arrays.asList("line1\n", "line2\n"));
+
+        read(0);
+        tail.remove("session", "1");
+        LiveLogChunk chunk = read(6);
+
+        assertEquals(6, chunk.getOffset());
+        assertEquals("line2\n", chunk.getContent());
+    }
+
+    private LiveLogChunk read(long offset) throws Exception {
+        return tail.read("session", "1", offset, this::load);
+    }
+
+    private InputStream load() {
+        String output = outputs.isEmpty() ? "" : outputs.poll();
+        return new ByteArrayInputStream(output.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
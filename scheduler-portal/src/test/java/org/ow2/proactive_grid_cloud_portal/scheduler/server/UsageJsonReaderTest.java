@@ -0,0 +1,70 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.Test;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobUsage;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.TaskUsage;
+
+
+public class UsageJsonReaderTest {
+
+    private static final String USAGE = "[{\"owner\":\"admin\",\"project\":\"p\",\"jobId\":\"1\",\"jobName\":\"job\"," +
+                                        "\"jobDuration\":42,\"unknown\":{\"a\":[1,2]},\"taskUsages\":[" +
+                                        "{\"taskId\":\"10000\",\"taskName\":\"t1\",\"taskStartTime\":1," +
+                                        "\"taskFinishedTime\":3,\"taskExecutionDuration\":2,\"taskNodeNumber\":1}]}," +
+                                        "{\"jobId\":2,\"taskUsages\":[],\"owner\":\"user\"}]";
+
+    @Test
+    public void job_usages_are_read() throws Exception {
+        ByteArrayInputStream usage = new ByteArrayInputStream(USAGE.getBytes(StandardCharsets.UTF_8));
+
+        List<JobUsage> jobUsages = UsageJsonReader.readJobUsages(usage);
+
+        assertEquals(2, jobUsages.size());
+
+        JobUsage first = jobUsages.get(0);
+        assertEquals("admin", first.getOwner());
+        assertEquals("1", first.getJobId());
+        assertEquals(42, first.getJobDuration());
+        assertEquals(1, first.getTaskUsages().size());
+
+        TaskUsage task = first.getTaskUsages().get(0);
+        assertEquals("t1", task.getTaskName());
+        assertEquals(2, task.getTaskExecutionDuration());
+        assertEquals(1, task.getTaskNodeNumber());
+
+        assertEquals("2", jobUsages.get(1).getJobId());
+        assertEquals("user", jobUsages.get(1).getOwner());
+    }
+
+}